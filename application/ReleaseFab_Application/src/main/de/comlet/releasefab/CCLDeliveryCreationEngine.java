@@ -0,0 +1,389 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLDeliveryCreationEngine.java
+ *
+ * @brief Creates the delivery information of a new delivery in parallel.
+ */
+
+package de.comlet.releasefab;
+
+import de.comlet.releasefab.api.plugin.ACLAssignmentStrategy;
+import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
+import de.comlet.releasefab.api.plugin.ACLImportStrategy;
+import de.comlet.releasefab.api.plugin.ACLTreeVisitor;
+import de.comlet.releasefab.library.exception.CCLInternalRuntimeException;
+import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLComponentSnapshot;
+import de.comlet.releasefab.library.model.CCLDelivery;
+import de.comlet.releasefab.library.settings.SCLSettings;
+import de.comlet.releasefab.library.xml.CCLXMLConstants;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the assignment strategies of all components and importers for a
+ * new delivery. Thread safe strategies are executed in a bounded pool of
+ * worker threads, all others one after another on the calling thread. The
+ * results are returned in the order of the component tree, so the caller is
+ * able to merge them into the model on a single thread.
+ */
+public final class CCLDeliveryCreationEngine
+{
+   /** Initialize logger for this class */
+   private static final Logger LOGGER = LoggerFactory.getLogger(CCLDeliveryCreationEngine.class);
+
+   /** Parallelism used if no valid parallelism is configured. */
+   private static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+   /** Prefix of the names of the worker threads. */
+   private static final String THREAD_NAME_PREFIX = "releasefab-delivery-";
+
+   /** Maximum number of assignment strategies executed at the same time. */
+   private final int mParallelism;
+
+   /**
+    * Constructor.
+    *
+    * @param parallelism maximum number of assignment strategies executed at
+    * the same time. Values smaller than 1 are treated as 1.
+    */
+   public CCLDeliveryCreationEngine(int parallelism)
+   {
+      mParallelism = Math.max(1, parallelism);
+   }
+
+   /**
+    * Reads the parallelism from the settings. Falls back to the number of
+    * available processors if the setting is missing or invalid.
+    *
+    * @return configured parallelism
+    */
+   public static int getConfiguredParallelism()
+   {
+      int parallelism = SCLSettings.getInt(CCLXMLConstants.XML_PARALLELISM, DEFAULT_PARALLELISM);
+
+      if (parallelism < 1)
+      {
+         LOGGER.warn("Invalid setting {}={}, using {} instead.", CCLXMLConstants.XML_PARALLELISM, parallelism,
+               DEFAULT_PARALLELISM);
+         parallelism = DEFAULT_PARALLELISM;
+      }
+
+      return parallelism;
+   }
+
+   public int getParallelism()
+   {
+      return mParallelism;
+   }
+
+   /**
+    * Collects all components below the given component in the order in which
+    * an {@link ACLTreeVisitor} visits them.
+    *
+    * @param component parent component
+    * @return components in pre-order
+    */
+   public List<CCLComponent> collectComponents(CCLComponent component)
+   {
+      CCLComponentSnapshot snapshot = component == SCLProject.getComponentRoot() ?
+            SCLProject.getComponentSnapshot() : CCLComponentSnapshot.of(component);
+      return new ArrayList<>(snapshot.getComponents());
+   }
+
+   /**
+    * Creates the delivery information of the given delivery for all
+    * components below the given component. Assignment strategies may add
+    * components to the tree, e.g. by copying a subtree, so the tree is
+    * collected again until no new components are found.
+    *
+    * @param component parent component
+    * @param delivery new delivery
+    * @param importers importers to execute for every component
+    * @return results in the order of the component tree
+    */
+   public List<CCLDeliveryResult> createDeliveryInformation(CCLComponent component, CCLDelivery delivery,
+         Collection<ACLImportStrategy> importers)
+   {
+      List<CCLDeliveryResult> results = new ArrayList<>();
+      Set<CCLComponent> processedComponents = Collections.newSetFromMap(new IdentityHashMap<>());
+
+      List<CCLComponent> components = collectComponents(component);
+      List<CCLComponent> newComponents = getNewComponents(components, processedComponents);
+
+      while (!newComponents.isEmpty())
+      {
+         processedComponents.addAll(newComponents);
+         results.addAll(createDeliveryInformation(newComponents, delivery, importers));
+
+         components = collectComponents(component);
+         newComponents = getNewComponents(components, processedComponents);
+      }
+
+      // results of added components are merged at their position in the tree
+      final Map<CCLComponent, Integer> positions = new IdentityHashMap<>();
+      for (int i = 0; i < components.size(); i++)
+      {
+         positions.put(components.get(i), i);
+      }
+
+      results.sort(new Comparator<CCLDeliveryResult>()
+      {
+         @Override
+         public int compare(CCLDeliveryResult r1, CCLDeliveryResult r2)
+         {
+            return Integer.compare(getPosition(r1), getPosition(r2));
+         }
+
+         private int getPosition(CCLDeliveryResult result)
+         {
+            Integer position = positions.get(result.getComponent());
+            return null == position ? Integer.MAX_VALUE : position;
+         }
+      });
+
+      return results;
+   }
+
+   /**
+    * Returns the components which have not been processed yet.
+    */
+   private static List<CCLComponent> getNewComponents(List<CCLComponent> components,
+         Set<CCLComponent> processedComponents)
+   {
+      List<CCLComponent> newComponents = new ArrayList<>();
+      for (CCLComponent component : components)
+      {
+         if (!processedComponents.contains(component))
+         {
+            newComponents.add(component);
+         }
+      }
+      return newComponents;
+   }
+
+   /**
+    * Creates the delivery information of the given delivery for all
+    * combinations of the given components and importers, which do not contain
+    * information for this delivery yet. Strategies which are not
+    * {@link ACLAssignmentStrategy#isThreadSafe() thread safe} are executed
+    * first on the calling thread in the order of the given components. The
+    * other strategies are executed in the pool afterwards. Returns after all
+    * assignment strategies have finished.
+    *
+    * @param components components in the order in which the results shall be
+    * returned
+    * @param delivery new delivery
+    * @param importers importers to execute for every component
+    * @return results in the order of the given components and importers
+    */
+   public List<CCLDeliveryResult> createDeliveryInformation(List<CCLComponent> components, CCLDelivery delivery,
+         Collection<ACLImportStrategy> importers)
+   {
+      List<CCLDeliveryResult> results = new ArrayList<>();
+      List<CCLDeliveryResult> threadSafeResults = new ArrayList<>();
+
+      for (CCLComponent component : components)
+      {
+         for (ACLImportStrategy importer : importers)
+         {
+            if (!component.containsDeliveryInformation(delivery.getName(), importer.getName()))
+            {
+               CCLDeliveryResult result = new CCLDeliveryResult(component, importer);
+               results.add(result);
+
+               if (isThreadSafe(component, importer))
+               {
+                  threadSafeResults.add(result);
+               }
+               else
+               {
+                  // may change the tree, so it must not run concurrently
+                  result.execute(delivery);
+               }
+            }
+         }
+      }
+
+      if (1 == mParallelism || threadSafeResults.size() <= 1)
+      {
+         for (CCLDeliveryResult result : threadSafeResults)
+         {
+            result.execute(delivery);
+         }
+      }
+      else
+      {
+         executeInPool(threadSafeResults, delivery);
+      }
+
+      return results;
+   }
+
+   /**
+    * Checks if the assignment strategy of the given component and importer may
+    * be executed by a worker thread. Components without a strategy do not
+    * execute anything.
+    */
+   private static boolean isThreadSafe(CCLComponent component, ACLImportStrategy importer)
+   {
+      ACLAssignmentStrategy strategy = component.getAssignmentStrategy(importer.getName());
+      return null == strategy || strategy.isThreadSafe();
+   }
+
+   /**
+    * Executes the given results in a pool of worker threads and waits until
+    * all of them are done.
+    *
+    * @param results results to execute
+    * @param delivery new delivery
+    */
+   private void executeInPool(List<CCLDeliveryResult> results, final CCLDelivery delivery)
+   {
+      List<Callable<Void>> tasks = new ArrayList<>(results.size());
+
+      for (final CCLDeliveryResult result : results)
+      {
+         tasks.add(new Callable<Void>()
+         {
+            @Override
+            public Void call()
+            {
+               result.execute(delivery);
+               return null;
+            }
+         });
+      }
+
+      ExecutorService pool = Executors.newFixedThreadPool(Math.min(mParallelism, results.size()),
+            new CCLWorkerThreadFactory());
+
+      try
+      {
+         for (Future<Void> future : pool.invokeAll(tasks))
+         {
+            future.get();
+         }
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new CCLInternalRuntimeException("Creation of delivery \"" + delivery.getName() + "\" was interrupted.", e);
+      }
+      catch (ExecutionException e)
+      {
+         // CCLDeliveryResult.execute() stores all exceptions, so only errors
+         // of the virtual machine end up here
+         throw new CCLInternalRuntimeException(e);
+      }
+      finally
+      {
+         pool.shutdownNow();
+      }
+   }
+
+   /**
+    * Delivery information of one component created by one importer.
+    */
+   public static final class CCLDeliveryResult
+   {
+      private final CCLComponent mComponent;
+
+      private final ACLImportStrategy mImporter;
+
+      private ACLDeliveryInformation mInformation;
+
+      private RuntimeException mException;
+
+      private CCLDeliveryResult(CCLComponent component, ACLImportStrategy importer)
+      {
+         mComponent = component;
+         mImporter = importer;
+      }
+
+      /**
+       * Runs the assignment strategy and stores its result or its exception.
+       *
+       * @param delivery new delivery
+       */
+      private void execute(CCLDelivery delivery)
+      {
+         try
+         {
+            mInformation = SCLProject.getDeliveryInformation(mComponent, delivery, mImporter);
+         }
+         catch (RuntimeException e)
+         {
+            mException = e;
+         }
+      }
+
+      public CCLComponent getComponent()
+      {
+         return mComponent;
+      }
+
+      public ACLImportStrategy getImporter()
+      {
+         return mImporter;
+      }
+
+      /**
+       * Returns the created delivery information. If the creation failed, the
+       * exception is rethrown on the calling thread.
+       *
+       * @return created delivery information or null if the component has no
+       * assignment strategy for the importer
+       */
+      public ACLDeliveryInformation getInformation()
+      {
+         if (null != mException)
+         {
+            throw mException;
+         }
+
+         return mInformation;
+      }
+   }
+
+   /**
+    * Creates daemon worker threads with descriptive names.
+    */
+   private static final class CCLWorkerThreadFactory implements ThreadFactory
+   {
+      private final AtomicInteger mThreadCount = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable)
+      {
+         Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + mThreadCount.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      }
+   }
+}
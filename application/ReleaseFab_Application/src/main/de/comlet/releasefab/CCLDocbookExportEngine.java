@@ -0,0 +1,721 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLDocbookExportEngine.java
+ *
+ * @brief Creates Docbook documents of deliveries in parallel.
+ */
+
+package de.comlet.releasefab;
+
+import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
+import de.comlet.releasefab.api.plugin.ACLImportStrategy;
+import de.comlet.releasefab.api.plugin.CCLExportContext;
+import de.comlet.releasefab.api.plugin.ICLDocbookFragment;
+import de.comlet.releasefab.library.exception.CCLInternalRuntimeException;
+import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLComponentSnapshot;
+import de.comlet.releasefab.library.model.CCLDelivery;
+import de.comlet.releasefab.library.model.SCLProjectHelper;
+import de.comlet.releasefab.library.model.SCLRunContext;
+import de.comlet.releasefab.library.xml.CCLDocBookStreamWriter;
+import de.comlet.releasefab.library.xml.SCLXMLUtil;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+
+/**
+ * Creates the Docbook documents of deliveries. The content of every
+ * combination of importer and component is prepared by
+ * {@link ACLDeliveryInformation#createDocbookFragment} in a bounded pool of
+ * worker threads. The documents are assembled on the calling thread in the
+ * configured export order and in the order of the component tree while the
+ * remaining fragments are still prepared, so the documents are the same as
+ * the ones of a sequential export. Documents for customers and for internal
+ * use can be created together, which visits the components only once.
+ * <p>
+ * Alternatively the documents are written to streams without building them in
+ * memory, see {@link #writeDocuments}.
+ */
+public final class CCLDocbookExportEngine
+{
+   /** Prefix of the names of the worker threads. */
+   private static final String THREAD_NAME_PREFIX = "releasefab-export-";
+
+   /**
+    * Number of fragments per worker thread which are prepared in advance when
+    * writing to streams.
+    */
+   private static final int STREAMING_TASKS_PER_THREAD = 4;
+
+   /** Maximum number of fragments prepared at the same time. */
+   private final int mParallelism;
+
+   /**
+    * Constructor.
+    *
+    * @param parallelism maximum number of fragments prepared at the same
+    * time. Values smaller than 1 are treated as 1.
+    */
+   public CCLDocbookExportEngine(int parallelism)
+   {
+      mParallelism = Math.max(1, parallelism);
+   }
+
+   public int getParallelism()
+   {
+      return mParallelism;
+   }
+
+   /**
+    * Creates one Docbook document for every given audience.
+    *
+    * @param deliveries deliveries to export, the newest one first. If an
+    * importer needs all selected deliveries, the oldest delivery is removed
+    * from this collection.
+    * @param audiences for every document whether it is for a customer, i.e.
+    * contains only information that is relevant for a customer
+    * @return documents in the order of the audiences
+    */
+   public List<Document> createDocuments(Collection<CCLDelivery> deliveries, List<Boolean> audiences)
+   {
+      CCLDelivery[] deliveriesArray = deliveries.toArray(new CCLDelivery[deliveries.size()]);
+      final CCLDelivery newestDelivery = deliveriesArray[0];
+      final CCLDelivery oldestDelivery = getOldestDelivery(deliveriesArray);
+
+      List<Document> documents = new ArrayList<>(audiences.size());
+      for (int i = 0; i < audiences.size(); i++)
+      {
+         documents.add(createDocument(newestDelivery));
+      }
+
+      List<CCLSection> sections = createSections(deliveries, deliveriesArray, newestDelivery, oldestDelivery,
+            audiences);
+
+      // services may keep results until the export has finished
+      SCLRunContext.begin();
+      try (CCLExportContext context = new CCLExportContext();
+            CCLScheduler scheduler = new CCLScheduler(createTasks(sections, oldestDelivery, audiences, context),
+                  mParallelism, Integer.MAX_VALUE))
+      {
+         for (CCLSection section : sections)
+         {
+            assembleSection(section, scheduler);
+
+            // add to article
+            for (int i = 0; i < documents.size(); i++)
+            {
+               documents.get(i).getRootElement().addContent(section.mElements[i]);
+            }
+         }
+      }
+      finally
+      {
+         SCLRunContext.end();
+      }
+
+      return documents;
+   }
+
+   /**
+    * Writes one Docbook document for every given audience to the given
+    * streams. Only a few components are held in memory at the same time:
+    * <ul>
+    * <li>Sections of importers which are
+    * {@link ACLImportStrategy#isDocbookSectionStreamable() streamable} are
+    * written component by component. The content of all deliveries of a
+    * component is written when the component is visited, so the sections of
+    * the components are in the order of the component tree. In a document
+    * created by {@link #createDocuments} a component whose information starts
+    * with a later delivery follows the components of the earlier deliveries,
+    * unless the importer merges the information of all deliveries, see
+    * {@link ACLDeliveryInformation#createDocbookFragment(List, CCLComponent, CCLDelivery, boolean, CCLExportContext)}.</li>
+    * <li>Other sections are built in memory and written when they are
+    * complete.</li>
+    * </ul>
+    *
+    * @param deliveries deliveries to export, the newest one first. If an
+    * importer needs all selected deliveries, the oldest delivery is removed
+    * from this collection.
+    * @param audiences for every document whether it is for a customer, i.e.
+    * contains only information that is relevant for a customer
+    * @param outputStreams streams to write the documents to, in the order of
+    * the audiences. They are not closed.
+    * @throws IOException if writing fails
+    */
+   public void writeDocuments(Collection<CCLDelivery> deliveries, List<Boolean> audiences,
+         List<OutputStream> outputStreams) throws IOException
+   {
+      CCLDelivery[] deliveriesArray = deliveries.toArray(new CCLDelivery[deliveries.size()]);
+      final CCLDelivery newestDelivery = deliveriesArray[0];
+      final CCLDelivery oldestDelivery = getOldestDelivery(deliveriesArray);
+
+      List<CCLSection> sections = createSections(deliveries, deliveriesArray, newestDelivery, oldestDelivery,
+            audiences);
+
+      // services may keep results until the export has finished
+      SCLRunContext.begin();
+      try (CCLStreamWriters streamWriters = new CCLStreamWriters())
+      {
+         List<CCLDocBookStreamWriter> writers = streamWriters.mWriters;
+         for (OutputStream outputStream : outputStreams)
+         {
+            Document header = createDocument(newestDelivery);
+
+            CCLDocBookStreamWriter writer = new CCLDocBookStreamWriter(outputStream);
+            writers.add(writer);
+            writer.writeStartDocument(header.getDocType());
+            writer.writeStartElement(header.getRootElement());
+            for (Element element : header.getRootElement().getChildren())
+            {
+               writer.writeElement(element);
+            }
+         }
+
+         try (CCLExportContext context = new CCLExportContext();
+               CCLScheduler scheduler = new CCLScheduler(createTasks(sections, oldestDelivery, audiences, context),
+                     mParallelism, mParallelism * STREAMING_TASKS_PER_THREAD))
+         {
+            for (CCLSection section : sections)
+            {
+               if (section.mImporter.isDocbookSectionStreamable())
+               {
+                  writeSection(section, scheduler, writers, context);
+               }
+               else
+               {
+                  assembleSection(section, scheduler);
+                  for (int i = 0; i < writers.size(); i++)
+                  {
+                     writers.get(i).writeElement(section.mElements[i]);
+                  }
+               }
+
+               // the section is not needed any more
+               Arrays.fill(section.mElements, null);
+            }
+         }
+      }
+      finally
+      {
+         SCLRunContext.end();
+      }
+   }
+
+   private static CCLDelivery getOldestDelivery(CCLDelivery[] deliveriesArray)
+   {
+      if (1 < deliveriesArray.length)
+      {
+         return deliveriesArray[deliveriesArray.length - 1];
+      }
+      return null;
+   }
+
+   /**
+    * Creates a document containing the title of the export.
+    */
+   private static Document createDocument(CCLDelivery newestDelivery)
+   {
+      Document doc = new Document();
+      doc.setDocType(new DocType("article", "-//OASIS//DTD DocBook XML V4.5//EN",
+            "http://www.oasis-open.org/docbook/xml/4.5/docbookx.dtd"));
+
+      Element article = new Element("article");
+      doc.addContent(article);
+
+      String strCreated = SCLProjectHelper.getDateFormatter().format(newestDelivery.getCreated());
+
+      article.addContent(SCLXMLUtil.createElement("title", newestDelivery.getName()));
+      article.addContent(SCLXMLUtil.createElement("subtitle",
+            "Build date: " + strCreated + ", Integrator: " + newestDelivery.getIntegrator()));
+
+      return doc;
+   }
+
+   /**
+    * Creates the sections of all importers which shall be exported, in export
+    * order. Every section represents the information provided by an importer.
+    */
+   private static List<CCLSection> createSections(Collection<CCLDelivery> deliveries,
+         CCLDelivery[] deliveriesArray, CCLDelivery newestDelivery, CCLDelivery oldestDelivery,
+         List<Boolean> audiences)
+   {
+      List<CCLSection> sections = new ArrayList<>();
+
+      Map<String, Boolean> enabledMap = SCLProject.getInstance().getEnabledStatesInOrderList("EXPORT_ORDER");
+      for (final ACLImportStrategy importer : SCLProject.getInstance().getImportStrategiesInExportOrder())
+      {
+         // check if the data of this importer should be exported
+         Boolean enabled = enabledMap.get(importer.getName().replace(' ', '_').toUpperCase());
+         if (enabled != null && !enabled.booleanValue())
+         {
+            continue;
+         }
+
+         Element[] elements = new Element[audiences.size()];
+         for (int i = 0; i < elements.length; i++)
+         {
+            elements[i] = importer.getDocbookSectionTemplate(oldestDelivery, newestDelivery);
+         }
+
+         // do we need the information from all selected deliveries?
+         if (importer.needsAllSelectedDeliveriesForDocbookExport())
+         {
+            // exclude oldest delivery
+            if (null != oldestDelivery)
+            {
+               deliveries.remove(oldestDelivery);
+            }
+
+            sections.add(new CCLSection(importer, elements,
+                  Arrays.asList(deliveriesArray).subList(0, deliveries.size()), new ArrayList<>(deliveries)));
+         }
+         else
+         {
+            // we only need the information from the newest (and maybe the
+            // oldest) delivery
+            sections.add(new CCLSection(importer, elements, Arrays.asList(newestDelivery),
+                  Arrays.asList(newestDelivery)));
+         }
+      }
+
+      return sections;
+   }
+
+   /**
+    * Creates the tasks preparing the fragments of all sections, in the order
+    * in which they are assembled. The importers prepare their sections before
+    * the first task is created.
+    */
+   private static List<FutureTask<CCLFragments>> createTasks(List<CCLSection> sections,
+         CCLDelivery oldestDelivery, List<Boolean> audiences, CCLExportContext context)
+   {
+      List<FutureTask<CCLFragments>> tasks = new ArrayList<>();
+
+      CCLComponentSnapshot snapshot = SCLProject.getComponentSnapshot();
+      for (CCLSection section : sections)
+      {
+         section.mImporter.prepareDocbookExport(snapshot, section.mDeliveriesToDocument, context);
+      }
+
+      for (CCLSection section : sections)
+      {
+         section.mNumComponents = snapshot.size();
+         for (int i = 0; i < snapshot.size(); i++)
+         {
+            tasks.add(new FutureTask<>(new CCLFragmentTask(section, snapshot.getComponent(i), oldestDelivery,
+                  audiences, context)));
+         }
+      }
+
+      return tasks;
+   }
+
+   /**
+    * Adds the fragments of a section to its elements in the order of the
+    * component tree.
+    */
+   private static void assembleSection(CCLSection section, CCLScheduler scheduler)
+   {
+      List<CCLFragments> results = new ArrayList<>(section.mNumComponents);
+      for (int i = 0; i < section.mNumComponents; i++)
+      {
+         results.add(scheduler.next());
+      }
+
+      for (int i = 0; i < section.mElements.length; i++)
+      {
+         Element element = section.mElements[i];
+
+         boolean isSectionEmpty = true;
+         for (CCLFragments result : results)
+         {
+            isSectionEmpty &= !result.mHasInformation[i];
+         }
+
+         if (isSectionEmpty)
+         {
+            element.addContent(section.mImporter.getDocbookSectionEmptyMessage());
+         }
+         else
+         {
+            for (int j = 0; j < section.mDeliveriesToDocument.size(); j++)
+            {
+               for (CCLFragments result : results)
+               {
+                  ICLDocbookFragment fragment = result.mFragments[i][j];
+                  if (null != fragment)
+                  {
+                     fragment.addTo(element);
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Writes a streamable section component by component. The fragments of a
+    * component are added to an empty element, whose content is written and
+    * dropped before the next component is visited.
+    */
+   private static void writeSection(CCLSection section, CCLScheduler scheduler,
+         List<CCLDocBookStreamWriter> writers, CCLExportContext context) throws IOException
+   {
+      for (int i = 0; i < writers.size(); i++)
+      {
+         writers.get(i).writeStartElement(section.mElements[i]);
+         for (Element element : section.mElements[i].getChildren())
+         {
+            writers.get(i).writeElement(element);
+         }
+      }
+
+      boolean[] hasInformation = new boolean[writers.size()];
+      for (int c = 0; c < section.mNumComponents; c++)
+      {
+         CCLFragments result = scheduler.next();
+
+         for (int i = 0; i < writers.size(); i++)
+         {
+            hasInformation[i] |= result.mHasInformation[i];
+
+            Element content = new Element(section.mElements[i].getName());
+            for (ICLDocbookFragment fragment : result.mFragments[i])
+            {
+               if (null != fragment)
+               {
+                  fragment.addTo(content);
+               }
+            }
+            context.releaseSectionRegistry(content);
+
+            for (Element element : content.getChildren())
+            {
+               writers.get(i).writeElement(element);
+            }
+         }
+      }
+
+      for (int i = 0; i < writers.size(); i++)
+      {
+         if (!hasInformation[i])
+         {
+            writers.get(i).writeElement(section.mImporter.getDocbookSectionEmptyMessage());
+         }
+         writers.get(i).writeEndElement();
+      }
+   }
+
+   /**
+    * Waits for the result of a task. A task which has not been started yet,
+    * e.g. because there is no pool, is executed on the calling thread.
+    * Exceptions of the task are rethrown.
+    */
+   private static CCLFragments getResult(FutureTask<CCLFragments> task)
+   {
+      // does nothing if the task has already been started
+      task.run();
+
+      try
+      {
+         return task.get();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new CCLInternalRuntimeException("Docbook export was interrupted.", e);
+      }
+      catch (ExecutionException e)
+      {
+         Throwable cause = e.getCause();
+         if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
+         }
+         if (cause instanceof Error)
+         {
+            throw (Error) cause;
+         }
+         // tasks only throw exceptions besides errors
+         throw new CCLInternalRuntimeException((Exception) cause);
+      }
+   }
+
+   /**
+    * Writers of all documents, which are closed together.
+    */
+   private static final class CCLStreamWriters implements AutoCloseable
+   {
+      private final List<CCLDocBookStreamWriter> mWriters = new ArrayList<>();
+
+      @Override
+      public void close() throws IOException
+      {
+         IOException exception = null;
+         for (CCLDocBookStreamWriter writer : mWriters)
+         {
+            try
+            {
+               writer.close();
+            }
+            catch (IOException e)
+            {
+               if (null == exception)
+               {
+                  exception = e;
+               }
+               else
+               {
+                  exception.addSuppressed(e);
+               }
+            }
+         }
+
+         if (null != exception)
+         {
+            throw exception;
+         }
+      }
+   }
+
+   /**
+    * Section of an importer in all documents.
+    */
+   private static final class CCLSection
+   {
+      private final ACLImportStrategy mImporter;
+
+      /** Element of the section by document. */
+      private final Element[] mElements;
+
+      /** Deliveries which are checked for information. */
+      private final List<CCLDelivery> mDeliveriesToCheck;
+
+      /** Deliveries whose information is added to the section. */
+      private final List<CCLDelivery> mDeliveriesToDocument;
+
+      /** Number of components, i.e. of tasks preparing fragments. */
+      private int mNumComponents;
+
+      CCLSection(ACLImportStrategy importer, Element[] elements, List<CCLDelivery> deliveriesToCheck,
+            List<CCLDelivery> deliveriesToDocument)
+      {
+         mImporter = importer;
+         mElements = elements;
+         mDeliveriesToCheck = deliveriesToCheck;
+         mDeliveriesToDocument = deliveriesToDocument;
+      }
+   }
+
+   /**
+    * Executes the tasks in a pool of worker threads and returns their results
+    * in order. Only a limited number of tasks is executed ahead of the task
+    * whose result is requested, so results which have not been requested yet
+    * do not occupy too much memory.
+    */
+   private static final class CCLScheduler implements AutoCloseable
+   {
+      private final List<FutureTask<CCLFragments>> mTasks;
+
+      /** Pool or null to execute the tasks on the calling thread. */
+      private final ExecutorService mPool;
+
+      /** Maximum number of tasks submitted ahead. */
+      private final int mWindow;
+
+      private int mNumSubmitted;
+      private int mNext;
+
+      CCLScheduler(List<FutureTask<CCLFragments>> tasks, int parallelism, int window)
+      {
+         mTasks = tasks;
+         mWindow = window;
+
+         if (1 < parallelism && 1 < tasks.size())
+         {
+            mPool = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()), new CCLWorkerThreadFactory());
+         }
+         else
+         {
+            mPool = null;
+         }
+      }
+
+      /**
+       * Returns the result of the next task.
+       */
+      CCLFragments next()
+      {
+         if (null != mPool)
+         {
+            long end = Math.min(mTasks.size(), (long) mNext + mWindow);
+            while (mNumSubmitted < end)
+            {
+               mPool.execute(mTasks.get(mNumSubmitted++));
+            }
+         }
+
+         FutureTask<CCLFragments> task = mTasks.get(mNext);
+
+         // the result is only needed by the caller
+         mTasks.set(mNext++, null);
+
+         return getResult(task);
+      }
+
+      /**
+       * Stops the pool. Fragments which are still prepared after an error
+       * are not needed any more.
+       */
+      @Override
+      public void close()
+      {
+         if (null != mPool)
+         {
+            mPool.shutdownNow();
+         }
+      }
+   }
+
+   /**
+    * Prepared content of one component in one section.
+    */
+   private static final class CCLFragments
+   {
+      /** Whether the component has information, by document. */
+      private final boolean[] mHasInformation;
+
+      /** Fragments by document and delivery, null if nothing is added. */
+      private final ICLDocbookFragment[][] mFragments;
+
+      CCLFragments(int numDocuments, int numDeliveries)
+      {
+         mHasInformation = new boolean[numDocuments];
+         mFragments = new ICLDocbookFragment[numDocuments][numDeliveries];
+      }
+   }
+
+   /**
+    * Prepares the fragments of one component in one section for all
+    * documents.
+    */
+   private static final class CCLFragmentTask implements Callable<CCLFragments>
+   {
+      private final CCLSection mSection;
+      private final CCLComponent mComponent;
+      private final CCLDelivery mOldestDelivery;
+      private final List<Boolean> mAudiences;
+      private final CCLExportContext mContext;
+
+      CCLFragmentTask(CCLSection section, CCLComponent component, CCLDelivery oldestDelivery,
+            List<Boolean> audiences, CCLExportContext context)
+      {
+         mSection = section;
+         mComponent = component;
+         mOldestDelivery = oldestDelivery;
+         mAudiences = audiences;
+         mContext = context;
+      }
+
+      @Override
+      public CCLFragments call()
+      {
+         String importerName = mSection.mImporter.getName();
+         CCLFragments result = new CCLFragments(mAudiences.size(), mSection.mDeliveriesToDocument.size());
+
+         for (int i = 0; i < mAudiences.size(); i++)
+         {
+            Boolean forCustomer = mAudiences.get(i);
+
+            // don't export any information which customer shouldn't see
+            if (null != forCustomer && forCustomer.booleanValue() && !mComponent.getIsCustomerRelevant())
+            {
+               continue;
+            }
+
+            for (CCLDelivery delivery : mSection.mDeliveriesToCheck)
+            {
+               ACLDeliveryInformation info = mComponent.getDeliveryInformation(delivery.getName(), importerName);
+               if (!info.isInfoNullOrEmpty())
+               {
+                  result.mHasInformation[i] = true;
+                  break;
+               }
+            }
+
+            if (mComponent.getDeliveryInformation().isEmpty())
+            {
+               continue;
+            }
+
+            List<ACLDeliveryInformation> infos = new ArrayList<>(mSection.mDeliveriesToDocument.size());
+            for (CCLDelivery delivery : mSection.mDeliveriesToDocument)
+            {
+               infos.add(mComponent.getDeliveryInformation(delivery.getName(), importerName));
+            }
+
+            // the information of all deliveries may be merged into one
+            // fragment, which takes the place of the newest delivery
+            if (1 < infos.size())
+            {
+               result.mFragments[i][0] = infos.get(0).createDocbookFragment(infos, mComponent, mOldestDelivery,
+                     forCustomer, mContext);
+               if (null != result.mFragments[i][0])
+               {
+                  continue;
+               }
+            }
+
+            for (int j = 0; j < infos.size(); j++)
+            {
+               // we pass an additional delivery (para oldestDelivery)
+               // in case we have to compare e.g. Version info
+               result.mFragments[i][j] = infos.get(j).createDocbookFragment(mComponent, mOldestDelivery,
+                     forCustomer, mContext);
+            }
+         }
+
+         return result;
+      }
+   }
+
+   /**
+    * Creates daemon worker threads with descriptive names.
+    */
+   private static final class CCLWorkerThreadFactory implements ThreadFactory
+   {
+      private final AtomicInteger mThreadCount = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable)
+      {
+         Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + mThreadCount.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      }
+   }
+}
@@ -73,6 +73,12 @@ public class CCLProgramArguments
     * The file to export the information in docbook format to.
     */
    private String mOutputFile;
+
+   /**
+    * File to export the docbook for the customer to, in the same pass as the
+    * docbook for internal use. Null if not set.
+    */
+   private String mCustomerOutputFile;
    
    /**
     * The names of the deliveries to add to the current file with the version information.
@@ -88,6 +94,12 @@ public class CCLProgramArguments
     * Whether to export a docbook file or not.
     */
    private boolean mIsDocBook;
+
+   /**
+    * Whether to write the docbook file while it is created instead of
+    * building it in memory.
+    */
+   private boolean mIsStreamingDocBook;
    
    /**
     * Whether to add one or more deliveries.
@@ -113,6 +125,12 @@ public class CCLProgramArguments
     * Optional path to settings.xml (Necessary when using jlink image)
     */
    private String mGeneralSettings;
+
+   /**
+    * Maximum number of assignment strategies executed at the same time while
+    * adding a delivery. Null if not set.
+    */
+   private Integer mParallelism;
       
 
    /**
@@ -171,6 +189,11 @@ public class CCLProgramArguments
             this.mIsDocBook = true;
             break;
          }
+         case STREAM:
+         {
+            this.mIsStreamingDocBook = true;
+            break;
+         }
          default:
          {
             checkForParameter(key, parameter);
@@ -231,6 +254,11 @@ public class CCLProgramArguments
             this.mOutputFile = mParameterArray[1];
             break;
          }
+         case CUSTOMERRESULTFILE:
+         {
+            this.mCustomerOutputFile = mParameterArray[1];
+            break;
+         }
          case FROM:
          {
             this.mFrom = mParameterArray[1];
@@ -256,6 +284,11 @@ public class CCLProgramArguments
             this.mGeneralSettings = mParameterArray[1];
             break;
          }
+         case PARALLELISM:
+         {
+            this.setParallelism(mParameterArray[1]);
+            break;
+         }
          case HELP:
             // intentional fall through to default.
          default:
@@ -323,11 +356,21 @@ public class CCLProgramArguments
       return mOutputFile;
    }
 
+   public String getCustomerOutputFile()
+   {
+      return mCustomerOutputFile;
+   }
+
    public boolean isCustomerDocBook()
    {
       return mIsCustomerDocBook;
    }
 
+   public boolean isStreamingDocBook()
+   {
+      return mIsStreamingDocBook;
+   }
+
    public boolean isDocBook()
    {
       return mIsDocBook;
@@ -358,6 +401,30 @@ public class CCLProgramArguments
       return mGeneralSettings;
    }
 
+   public Integer getParallelism()
+   {
+      return mParallelism;
+   }
+
+   private void setParallelism(final String parallelism)
+   {
+      try
+      {
+         this.mParallelism = Integer.parseInt(parallelism);
+      }
+      catch (NumberFormatException e)
+      {
+         this.mParallelism = 0;
+      }
+
+      if (this.mParallelism < 1)
+      {
+         printError("\n" + ESCAPEDDBLQUOTES + ECLProgramKey.PARALLELISM + ESCAPEDDBLQUOTES +
+               " expects a positive number!\n");
+         System.exit(0);
+      }
+   }
+
    private void setDeliveryNames(final String deliveryNames)
    {
       String names = deliveryNames.replace("{", "").replace("}", "");
@@ -449,6 +516,10 @@ public class CCLProgramArguments
             sb.append(USETEXT + ECLProgramKey.DOCBOOK + messagePart + "\n");
          }
       }
+      if (mCustomerOutputFile != null && (mIsCustomerDocBook || !mIsDocBook || mIsStreamingDocBook))
+      {
+         sb.append(USETEXT + ECLProgramKey.CUSTOMERRESULTFILE + ESCAPEDDBLQUOTES + " requires " + ESCAPEDDBLQUOTES + ECLProgramKey.DOCBOOK + ESCAPEDDBLQUOTES + " and cannot be used with " + ESCAPEDDBLQUOTES + ECLProgramKey.CUSTOMERDOCBOOK + ESCAPEDDBLQUOTES + " or " + ESCAPEDDBLQUOTES + ECLProgramKey.STREAM + ESCAPEDDBLQUOTES + " !\n");
+      }
       if (mFrom == null && mTo != null)
       {
          sb.append(USETEXT + ECLProgramKey.TO + ESCAPEDDBLQUOTES + " requires you to set " + ESCAPEDDBLQUOTES + ECLProgramKey.FROM + ESCAPEDDBLQUOTES + " !\n");
@@ -0,0 +1,581 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLProjectFileReader.java
+ *
+ * @brief Streaming reader for project files.
+ */
+
+package de.comlet.releasefab;
+
+import de.comlet.releasefab.api.plugin.ACLAssignmentStrategy;
+import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
+import de.comlet.releasefab.api.plugin.ACLImportStrategy;
+import de.comlet.releasefab.library.exception.CCLInternalException;
+import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLDelivery;
+import de.comlet.releasefab.library.model.CCLParameter;
+import de.comlet.releasefab.library.model.SCLProjectHelper;
+import de.comlet.releasefab.library.xml.CCLXMLConstants;
+import de.comlet.releasefab.library.xml.CCLXMLFragment;
+import de.comlet.releasefab.library.xml.SCLXMLUtil;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads a project file with a StAX reader and creates the deliveries,
+ * components and delivery information directly from the event stream. Only
+ * the content of each delivery information is materialized as a JDOM
+ * element, so the document is never kept in memory as a whole. In lazy mode
+ * not even that content is read; the delivery information only remembers
+ * where its content is located in the file and reads it on first use.
+ */
+final class CCLProjectFileReader
+{
+   private static final Logger LOGGER = LoggerFactory.getLogger(CCLProjectFileReader.class);
+
+   private static final String XML_DELIVERIES = "deliveries";
+   private static final String XML_DELIVERY = "delivery";
+   private static final String XML_COMPONENTS = "components";
+   private static final String XML_IMPORTERS = "importers";
+   private static final String XML_PARAMETERS = "parameters";
+   private static final String XML_PARAMETER = "parameter";
+   private static final String XML_DELIVERY_INFORMATION = "deliveryInformation";
+   private static final String XML_CONTENT = "content";
+   private static final String XML_ATTR_NAME = "name";
+
+   private final File mSource;
+
+   private final XMLInputFactory mFactory;
+
+   /** Whether the content of the delivery information is read on demand. */
+   private final boolean mIsLazy;
+
+   /**
+    * Content of every delivery information of the file in document order, as
+    * long as the content is read on demand.
+    */
+   private List<CCLXMLFragment> mContents;
+
+   /** Number of delivery information elements read so far in this pass. */
+   private int mDeliveryInformationCount;
+
+   /** Names of the plugins which are used by the file but are not available. */
+   private final Set<String> mMissingPlugins = new HashSet<>();
+
+   /**
+    * Importers which could not be loaded into the model, by component name
+    * and importer name.
+    */
+   private final Map<String, Map<String, Element>> mUnloadedImporters = new HashMap<>();
+
+   /**
+    * Constructor.
+    *
+    * @param source project file
+    * @param isLazy true to read the content of the delivery information on
+    * demand. This is only done for UTF-8 encoded files.
+    */
+   CCLProjectFileReader(File source, boolean isLazy)
+   {
+      mSource = source;
+      mIsLazy = isLazy;
+
+      mFactory = XMLInputFactory.newInstance();
+      mFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+      mFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+   }
+
+   /**
+    * Adds the deliveries of the file to the project and the components of the
+    * file to the given component tree.
+    *
+    * @param rootComponent root of the component tree
+    * @return Set of names of missing plugins
+    * @throws CCLInternalException
+    * @throws JDOMException if the file is not well-formed
+    * @throws IOException
+    * @throws ParseException
+    */
+   Set<String> read(CCLComponent rootComponent) throws CCLInternalException, JDOMException, IOException,
+         ParseException
+   {
+      // the delivery information refers to the deliveries, so the components
+      // have to be read in a second pass if they precede the deliveries
+      if (!read(rootComponent, true))
+      {
+         read(rootComponent, false);
+      }
+
+      return mMissingPlugins;
+   }
+
+   /**
+    * Returns the importers which could not be loaded into the model because
+    * their plugin or their assignment strategy is not available. Importers of
+    * missing plugins are complete, the others only contain the assignment
+    * strategy and its parameters.
+    *
+    * @return XML-Elements of the importers by component name and importer
+    * name
+    */
+   Map<String, Map<String, Element>> getUnloadedImporters()
+   {
+      return mUnloadedImporters;
+   }
+
+   /**
+    * Reads the file once.
+    *
+    * @param rootComponent root of the component tree
+    * @param isFirstPass true to read the deliveries and the components if
+    * they follow the deliveries, false to read the components only
+    * @return false if the components still have to be read
+    */
+   private boolean read(CCLComponent rootComponent, boolean isFirstPass) throws CCLInternalException,
+         JDOMException, IOException, ParseException
+   {
+      boolean hasReadDeliveries = !isFirstPass;
+      boolean areComponentsPending = false;
+      mDeliveryInformationCount = 0;
+
+      try (InputStream input = new BufferedInputStream(new FileInputStream(mSource)))
+      {
+         XMLStreamReader reader = new StreamReaderDelegate(mFactory.createXMLStreamReader(input))
+         {
+            @Override
+            public int next() throws XMLStreamException
+            {
+               int event = super.next();
+               if (XMLStreamConstants.START_ELEMENT == event && XML_DELIVERY_INFORMATION.equals(getLocalName()))
+               {
+                  mDeliveryInformationCount++;
+               }
+               return event;
+            }
+         };
+
+         try
+         {
+            // the positions in the file can only be determined for UTF-8
+            if (isFirstPass && mIsLazy && StandardCharsets.UTF_8.name().equalsIgnoreCase(reader.getEncoding()))
+            {
+               mContents = CCLXMLFragment.scan(mSource, XML_DELIVERY_INFORMATION, XML_CONTENT);
+            }
+
+            while (XMLStreamConstants.START_ELEMENT != reader.next())
+            {
+               // skip prolog
+            }
+
+            if (isFirstPass)
+            {
+               SCLProject.checkXMLFormat(mSource, reader.getLocalName());
+            }
+
+            while (nextChildElement(reader))
+            {
+               String name = reader.getLocalName();
+
+               if (isFirstPass && XML_DELIVERIES.equals(name))
+               {
+                  readDeliveries(reader);
+                  hasReadDeliveries = true;
+               }
+               else if (XML_COMPONENTS.equals(name) && hasReadDeliveries)
+               {
+                  readComponents(reader, rootComponent);
+               }
+               else
+               {
+                  areComponentsPending |= XML_COMPONENTS.equals(name);
+                  skipElement(reader);
+               }
+            }
+         }
+         finally
+         {
+            reader.close();
+         }
+      }
+      catch (XMLStreamException e)
+      {
+         throw new JDOMException("Error reading " + mSource.getAbsolutePath() + ": " + e.getMessage(), e);
+      }
+
+      return !areComponentsPending;
+   }
+
+   /**
+    * Adds all deliveries to the project.
+    */
+   private static void readDeliveries(XMLStreamReader reader) throws XMLStreamException, CCLInternalException,
+         ParseException
+   {
+      while (nextChildElement(reader))
+      {
+         if (XML_DELIVERY.equals(reader.getLocalName()))
+         {
+            CCLDelivery d = new CCLDelivery();
+
+            d.setName(reader.getAttributeValue(null, XML_ATTR_NAME));
+            d.setIntegrator(reader.getAttributeValue(null, "integrator"));
+            d.setCreated(SCLProjectHelper.getDateFormatter().parse(reader.getAttributeValue(null, "created")));
+
+            if (!SCLProject.getInstance().getDeliveries().contains(d))
+            {
+               SCLProject.getInstance().getDeliveries().add(d);
+            }
+            else
+            {
+               throw new CCLInternalException("There's already a delivery named \"" + d.getName() +
+                     "\". Therefore the import was canceled to prevent a loss of information.");
+            }
+         }
+
+         skipElement(reader);
+      }
+   }
+
+   /**
+    * Adds all components of the current element to the given parent
+    * component.
+    */
+   private void readComponents(XMLStreamReader reader, CCLComponent parentComponent) throws XMLStreamException,
+         CCLInternalException
+   {
+      while (nextChildElement(reader))
+      {
+         if (CCLXMLConstants.XML_COMPONENT.equals(reader.getLocalName()))
+         {
+            readComponent(reader, parentComponent);
+         }
+         else
+         {
+            skipElement(reader);
+         }
+      }
+   }
+
+   /**
+    * Reads a component including its importers and subcomponents. A new
+    * component is added to its parent after its importers have been read.
+    */
+   private void readComponent(XMLStreamReader reader, CCLComponent parentComponent) throws XMLStreamException,
+         CCLInternalException
+   {
+      String componentName = reader.getAttributeValue(null, XML_ATTR_NAME);
+
+      CCLComponent component = SCLProject.getInstance().getComponentByName(parentComponent, componentName);
+      boolean isAttached = null != component;
+      if (!isAttached)
+      {
+         component = SCLProject.getInstance().getInitialComponent();
+         component.setName(componentName);
+         component.setParent(parentComponent);
+         component.setIsCustomerRelevant(Boolean.parseBoolean(reader.getAttributeValue(null, "relevant")));
+      }
+
+      while (nextChildElement(reader))
+      {
+         String name = reader.getLocalName();
+
+         if (XML_IMPORTERS.equals(name))
+         {
+            readImporters(reader, component);
+         }
+         else if (CCLXMLConstants.XML_COMPONENT.equals(name))
+         {
+            if (!isAttached)
+            {
+               parentComponent.getSubComponents().add(component);
+               isAttached = true;
+            }
+
+            readComponent(reader, component);
+         }
+         else
+         {
+            skipElement(reader);
+         }
+      }
+
+      if (!isAttached)
+      {
+         parentComponent.getSubComponents().add(component);
+      }
+   }
+
+   /**
+    * Reads all importers of a component.
+    */
+   private void readImporters(XMLStreamReader reader, CCLComponent component) throws XMLStreamException,
+         CCLInternalException
+   {
+      while (nextChildElement(reader))
+      {
+         if (CCLXMLConstants.XML_IMPORTER.equals(reader.getLocalName()))
+         {
+            readImporter(reader, component);
+         }
+         else
+         {
+            skipElement(reader);
+         }
+      }
+   }
+
+   /**
+    * Reads the assignment strategy, its parameters and the delivery
+    * information of an importer. Importers which are not available are
+    * remembered as missing plugins and kept as XML-Element.
+    */
+   private void readImporter(XMLStreamReader reader, CCLComponent component) throws XMLStreamException,
+         CCLInternalException
+   {
+      // get importer name & version
+      String impName = reader.getAttributeValue(null, XML_ATTR_NAME);
+      String impVersion = reader.getAttributeValue(null, "version");
+
+      // get importer by it's name
+      ACLImportStrategy importer = SCLPluginLoader.getInstance().getImportStrategiesMap().get(impName);
+
+      try
+      {
+         SCLProject.checkImporter(impName, impVersion, importer);
+      }
+      catch (CCLInternalException e)
+      {
+         LOGGER.info(e.getMessage(), e);
+         mMissingPlugins.add(impName);
+         addUnloadedImporter(component, impName, SCLXMLUtil.readElement(reader));
+         return;
+      }
+
+      Element assignerXML = null;
+      Element parametersXML = null;
+
+      while (nextChildElement(reader))
+      {
+         String name = reader.getLocalName();
+
+         if (CCLXMLConstants.XML_ASSIGNER.equals(name))
+         {
+            // get assignment strategy and add it to the component's
+            // assignment strategies
+            assignerXML = SCLXMLUtil.readElement(reader);
+            String assigner = assignerXML.getAttributeValue(XML_ATTR_NAME);
+            ACLAssignmentStrategy assignmentStrategy = importer.getAssignmentStrategy(assigner);
+            component.setAssignmentStrategy(importer.getName(), assignmentStrategy);
+         }
+         else if (XML_PARAMETERS.equals(name))
+         {
+            // get all parameters for the selected strategy
+            parametersXML = SCLXMLUtil.readElement(reader);
+            if (null != component.getAssignmentStrategy(importer.getName()))
+            {
+               setParameters(parametersXML, component, importer);
+            }
+         }
+         else if (XML_DELIVERY_INFORMATION.equals(name))
+         {
+            readDeliveryInformation(reader, component, importer);
+         }
+         else
+         {
+            skipElement(reader);
+         }
+      }
+
+      // keep an assignment strategy which is not available, e.g. because it
+      // is part of a missing plugin
+      if (null != assignerXML && null == component.getAssignmentStrategy(importer.getName()))
+      {
+         Element importerXML = new Element(CCLXMLConstants.XML_IMPORTER);
+         importerXML.addContent(assignerXML);
+         if (null != parametersXML)
+         {
+            importerXML.addContent(parametersXML);
+         }
+         addUnloadedImporter(component, impName, importerXML);
+      }
+   }
+
+   /**
+    * Sets the parameters of the assignment strategy of an importer.
+    */
+   private static void setParameters(Element parametersXML, CCLComponent component, ACLImportStrategy importer)
+   {
+      int i = 0;
+      for (Element paramXML : parametersXML.getChildren(XML_PARAMETER))
+      {
+         List<CCLParameter> parameters = component.getParameters(importer.getName());
+
+         parameters.get(i).setValue(paramXML.getText());
+         i++;
+      }
+   }
+
+   /**
+    * Remembers an importer which could not be loaded into the model. Only the
+    * first importer of a name is kept for every component name.
+    */
+   private void addUnloadedImporter(CCLComponent component, String importerName, Element importerXML)
+   {
+      mUnloadedImporters.computeIfAbsent(component.getName(), name -> new HashMap<>())
+            .putIfAbsent(importerName, importerXML);
+   }
+
+   /**
+    * Reads the information of a delivery for an importer and adds it to the
+    * component. Information of unknown deliveries is skipped.
+    */
+   private void readDeliveryInformation(XMLStreamReader reader, CCLComponent component,
+         ACLImportStrategy importer) throws XMLStreamException, CCLInternalException
+   {
+      String deliveryName = reader.getAttributeValue(null, XML_ATTR_NAME);
+      boolean isNew = Boolean.parseBoolean(reader.getAttributeValue(null, "isNew"));
+      CCLXMLFragment contentFragment = getContentFragment();
+
+      Element content = null;
+      boolean hasContent = false;
+      while (nextChildElement(reader))
+      {
+         if (!hasContent && XML_CONTENT.equals(reader.getLocalName()))
+         {
+            hasContent = true;
+            if (null == contentFragment)
+            {
+               content = SCLXMLUtil.readElement(reader);
+            }
+            else
+            {
+               skipElement(reader);
+            }
+         }
+         else
+         {
+            skipElement(reader);
+         }
+      }
+
+      // get delivery by its name
+      CCLDelivery delivery = SCLProject.getInstance().getDeliveryByName(deliveryName);
+      if (null == delivery)
+      {
+         return;
+      }
+
+      // get delivery information for this delivery
+      ACLDeliveryInformation deliveryInformation = component.getDeliveryInformation(delivery.getName(),
+            importer.getName());
+
+      // if there's not already a delivery information for this delivery...
+      if (null == deliveryInformation)
+      {
+         // ... create a new instance of the correspondent delivery
+         // information class for the given importer
+         deliveryInformation = SCLPluginLoader.getInstance().getDeliveryInformation(
+               importer.getDeliveryInformationName());
+
+         // ... and add it to the component's list
+         component.setDeliveryInformation(delivery.getName(), importer.getName(), deliveryInformation);
+      }
+
+      deliveryInformation.setNew(isNew);
+      if (null != contentFragment && hasContent)
+      {
+         deliveryInformation.setInformationFragment(contentFragment);
+      }
+      else
+      {
+         deliveryInformation.setInformation(content);
+      }
+   }
+
+   /**
+    * Returns the position of the content of the delivery information the
+    * reader is positioned at.
+    *
+    * @return position or null if the content is read immediately
+    */
+   private CCLXMLFragment getContentFragment()
+   {
+      if (null == mContents || mDeliveryInformationCount > mContents.size())
+      {
+         return null;
+      }
+      return mContents.get(mDeliveryInformationCount - 1);
+   }
+
+   /**
+    * Moves the reader to the next child of the current element.
+    *
+    * @return true if the reader is positioned at the start of a child, false
+    * if it is positioned at the end of the current element
+    */
+   private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException
+   {
+      while (true)
+      {
+         int event = reader.next();
+         if (XMLStreamConstants.START_ELEMENT == event)
+         {
+            return true;
+         }
+         else if (XMLStreamConstants.END_ELEMENT == event)
+         {
+            return false;
+         }
+      }
+   }
+
+   /**
+    * Moves the reader from the start to the end of the current element
+    * without reading its content.
+    */
+   private static void skipElement(XMLStreamReader reader) throws XMLStreamException
+   {
+      int depth = 1;
+      while (0 < depth)
+      {
+         int event = reader.next();
+         if (XMLStreamConstants.START_ELEMENT == event)
+         {
+            depth++;
+         }
+         else if (XMLStreamConstants.END_ELEMENT == event)
+         {
+            depth--;
+         }
+      }
+   }
+}
@@ -31,7 +31,10 @@ public enum ECLProgramKey
    SOURCE("source"),
    TO("to"),
    USER("user"),
-   GENERALSETTINGS("generalsettings");
+   GENERALSETTINGS("generalsettings"),
+   PARALLELISM("parallelism"),
+   STREAM("-stream"),
+   CUSTOMERRESULTFILE("customerresultfile");
 
 
    /**
@@ -38,12 +38,15 @@ import static de.comlet.releasefab.ECLProgramKey.ADDDELIVERY;
 import static de.comlet.releasefab.ECLProgramKey.CLI;
 import static de.comlet.releasefab.ECLProgramKey.CONFIG;
 import static de.comlet.releasefab.ECLProgramKey.CUSTOMERDOCBOOK;
+import static de.comlet.releasefab.ECLProgramKey.CUSTOMERRESULTFILE;
 import static de.comlet.releasefab.ECLProgramKey.DOCBOOK;
 import static de.comlet.releasefab.ECLProgramKey.FROM;
 import static de.comlet.releasefab.ECLProgramKey.GENERALSETTINGS;
+import static de.comlet.releasefab.ECLProgramKey.PARALLELISM;
 import static de.comlet.releasefab.ECLProgramKey.PW;
 import static de.comlet.releasefab.ECLProgramKey.RESULTFILE;
 import static de.comlet.releasefab.ECLProgramKey.SOURCE;
+import static de.comlet.releasefab.ECLProgramKey.STREAM;
 import static de.comlet.releasefab.ECLProgramKey.TO;
 import static de.comlet.releasefab.ECLProgramKey.USER;
 
@@ -113,6 +116,11 @@ public final class Main
       settings.put(CCLXMLConstants.XML_ALM_PASSWORD_KEY, String.valueOf(arguments.getUserPassword()));
       SCLSettings.loadSettingsFromCLI(settings);
 
+      if (null != arguments.getParallelism())
+      {
+         SCLSettings.addUserSetting(CCLXMLConstants.XML_PARALLELISM, arguments.getParallelism());
+      }
+
       // load source file
       File srcFile = new File(arguments.getSource());
       if (!srcFile.exists())
@@ -210,7 +218,18 @@ public final class Main
          else
          {
             Set<CCLDelivery> deliveries = createDeliveries(arguments, count);
-            SCLProject.exportDocbook(arguments.getOutputFile(), deliveries, arguments.isCustomerDocBook());
+            if (null != arguments.getCustomerOutputFile())
+            {
+               SCLProject.exportDocbooks(arguments.getCustomerOutputFile(), arguments.getOutputFile(), deliveries);
+            }
+            else if (arguments.isStreamingDocBook())
+            {
+               SCLProject.streamDocbook(arguments.getOutputFile(), deliveries, arguments.isCustomerDocBook());
+            }
+            else
+            {
+               SCLProject.exportDocbook(arguments.getOutputFile(), deliveries, arguments.isCustomerDocBook());
+            }
 
             LOGGER.info("Docbook export finished successfully!");
          }
@@ -371,6 +390,9 @@ public final class Main
       sb.append("   [" + RESULTFILE + "=filename]"          + "\t\tsets the file to output to (also with path before file)\n");
       sb.append("   [" + FROM + "=from_delivery]"           + "\t\t\tsets the delivery to export from\n");
       sb.append("   [" + TO + "=to_delivery]"               + "\t\t\tsets the delivery to export up to\n");
+      sb.append("   [" + PARALLELISM + "=number]"           + "\t\t\tnumber of assignments executed in parallel\n");
+      sb.append("   [" + STREAM + "]"                       + "\t\t\t\twrites the docbook file while it is created\n");
+      sb.append("   [" + CUSTOMERRESULTFILE + "=filename]"  + "\tadditionally exports the docbook for customer to this file\n");
       sb.append("\n");
       sb.append("Example 1: releasefab.bat -cli source=c:\\git\\reference pw=XYZ delivery_name=d1\n");
       sb.append("           Creates new delivery with name d1\n");
@@ -384,6 +406,9 @@ public final class Main
       sb.append("\n");
       sb.append("Example 4: releasefab.bat -cli source=. pw=XYZ -docbook resultfile=export_docbook.xml from=d1\n");
       sb.append("           Exports release information of delivery d1 into export_docbook.xml.\n");
+      sb.append("\n");
+      sb.append("Example 5: releasefab.bat -cli source=. pw=XYZ -docbook resultfile=internal.xml customerresultfile=customer.xml\n");
+      sb.append("           Exports release information for internal use and for customer in one pass.\n");
 
       return sb.toString();
    }
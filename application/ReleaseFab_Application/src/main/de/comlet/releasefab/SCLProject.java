@@ -22,43 +22,61 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.joran.JoranConfigurator;
 import ch.qos.logback.core.joran.spi.JoranException;
 import ch.qos.logback.core.util.StatusPrinter;
+import de.comlet.releasefab.CCLDeliveryCreationEngine.CCLDeliveryResult;
 import de.comlet.releasefab.api.plugin.ACLAssignmentStrategy;
 import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
 import de.comlet.releasefab.api.plugin.ACLImportStrategy;
 import de.comlet.releasefab.api.plugin.ACLTreeVisitor;
 import de.comlet.releasefab.library.exception.CCLInternalException;
+import de.comlet.releasefab.library.model.CCLCollectionChangeEvent;
 import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLComponentIndex;
+import de.comlet.releasefab.library.model.CCLComponentSnapshot;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.model.CCLObservableCollection;
 import de.comlet.releasefab.library.model.CCLParameter;
 import de.comlet.releasefab.library.model.CCLTuple;
+import de.comlet.releasefab.library.model.ICLImmediatePropertyChangeListener;
+import de.comlet.releasefab.library.model.SCLChangeBatch;
 import de.comlet.releasefab.library.model.SCLProjectHelper;
+import de.comlet.releasefab.library.model.SCLRunContext;
 import de.comlet.releasefab.library.settings.SCLSettings;
 import de.comlet.releasefab.library.settings.SCLSettings.ECLSettingsType;
 import de.comlet.releasefab.library.xml.CCLXMLConstants;
+import de.comlet.releasefab.library.xml.CCLXMLFileWriter;
+import de.comlet.releasefab.library.xml.CCLXMLFragment;
 import de.comlet.releasefab.library.xml.SCLXMLUtil;
+import java.beans.PropertyChangeEvent;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jdom2.Attribute;
-import org.jdom2.DocType;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
-import org.jdom2.filter.ElementFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -140,13 +158,44 @@ public final class SCLProject
     * for all components taking part in a delivery. More delivery information
     * is stored in the components and is accessible by their name.
     */
-   private CCLObservableCollection<CCLDelivery> mDeliveries = new CCLObservableCollection<>(new TreeSet<CCLDelivery>());
+   private final CCLObservableCollection<CCLDelivery> mDeliveries;
+
+   /**
+    * Set of the deliveries wrapped by {@link #mDeliveries}, sorted by date of
+    * creation (descending).
+    */
+   private final NavigableSet<CCLDelivery> mDeliverySet = new TreeSet<>();
+
+   /**
+    * Deliveries by name. The map is updated whenever {@link #mDeliveries}
+    * changes and can be read without locking.
+    */
+   private final Map<String, CCLDelivery> mDeliveriesByName = new ConcurrentHashMap<>();
+
+   /** Index of the component tree below {@link #sComponentRoot}. */
+   private static CCLComponentIndex sComponentIndex;
+
+   /** Flattened component tree below {@link #sComponentRoot}. */
+   private static CCLComponentSnapshot sComponentSnapshot;
+
+   /**
+    * Modification count of {@link #sComponentIndex} at the time
+    * {@link #sComponentSnapshot} has been created.
+    */
+   private static long sComponentSnapshotModificationCount;
 
    /**
     * Contains all the plugins that are referenced in the open file with 
     * version information but are not part of the Modulepath.
     */
    private static Set<String> sMissingPlugins = new HashSet<String>();
+
+   /**
+    * Importers of the open file which could not be loaded into the model, by
+    * component name and importer name. They are written back unchanged when
+    * saving, otherwise their data would be lost.
+    */
+   private static Map<String, Map<String, Element>> sUnloadedImporters = new HashMap<>();
    
    /**
     * Private default constructor is called once at startup time and creates the
@@ -154,6 +203,15 @@ public final class SCLProject
     */
    private SCLProject()
    {
+      mDeliveries = new CCLObservableCollection<>(mDeliverySet, new ICLImmediatePropertyChangeListener()
+      {
+         @Override
+         public void propertyChange(PropertyChangeEvent evt)
+         {
+            indexDeliveries(evt);
+         }
+      });
+
       try
       {
          // Load general settings
@@ -379,7 +437,8 @@ public final class SCLProject
    }
 
    /**
-    * Saves all data into a XML-file
+    * Saves all data into a XML-file. The file is written as a stream and
+    * replaces the existing file only after it has been written completely.
     *
     * @param filePath file path
     * @param deliveries deliveries that need to be saved
@@ -387,99 +446,147 @@ public final class SCLProject
     */
    public static void save(String filePath, Collection<CCLDelivery> deliveries) throws IOException
    {
-      Document doc = new Document();
-      Element project = SCLXMLUtil.createElement(SCLSettings.get(CCLXMLConstants.XML_ROOT_FORMAT), new Attribute("version", CCLAssemblyInfo.getVersion()));
-      doc.addContent(project);
+      write(filePath, deliveries, true);
 
-      // add deliveries to document
-      Element deliveriesXML = new Element("deliveries");
-      for (CCLDelivery delivery : deliveries)
+      sOpenFileName = filePath;
+      sNeedsSaving = false;
+   }
+
+   /**
+    * Writes the given deliveries and the component tree into a XML-file.
+    * Content of delivery information which has not been read yet is copied
+    * unparsed into a project file and refers to its copy afterwards. Any
+    * other file gets the parsed content, so the project does not depend on
+    * that file.
+    *
+    * @param filePath file path
+    * @param deliveries deliveries that need to be saved
+    * @param isProjectFile whether the file becomes the open project file
+    * @throws IOException
+    */
+   private static void write(String filePath, Collection<CCLDelivery> deliveries, boolean isProjectFile)
+         throws IOException
+   {
+      try (CCLXMLFileWriter writer = new CCLXMLFileWriter(new File(filePath)))
       {
-         String strCreated = SCLProjectHelper.getDateFormatter().format(delivery.getCreated());
+         writer.startElement(SCLSettings.get(CCLXMLConstants.XML_ROOT_FORMAT), new Attribute("version", CCLAssemblyInfo.getVersion()));
 
-         deliveriesXML.addContent(SCLXMLUtil.createElement("delivery", new Attribute(PARAMETER_NAME, delivery.getName()), new Attribute("integrator", delivery.getIntegrator()), new Attribute("created", strCreated)));
-      }
-      
-      project.addContent(deliveriesXML);
+         // add deliveries to document
+         writer.startElement("deliveries");
+         for (CCLDelivery delivery : deliveries)
+         {
+            String strCreated = SCLProjectHelper.getDateFormatter().format(delivery.getCreated());
 
-      // add components to document
-      Element components = new Element("components");
-      saveComponentTree(getComponentRoot(), components, deliveries);
-      project.addContent(components);
+            writer.startElement("delivery", new Attribute(PARAMETER_NAME, delivery.getName()), new Attribute("integrator", delivery.getIntegrator()), new Attribute("created", strCreated));
+            writer.endElement();
+         }
+         writer.endElement();
 
-      // save document
-      SCLXMLUtil.saveDocument(filePath, doc);
+         // add components to document
+         writer.startElement("components");
+         saveComponentTree(getComponentRoot(), writer, deliveries, isProjectFile);
+         writer.endElement();
 
-      sOpenFileName = filePath;
-      sNeedsSaving = false;
+         // replace the file
+         writer.commit();
+      }
    }
 
    /**
-    * Traverse the component tree recursively and save its information as an XMl-Element.
+    * Traverse the component tree and write its information as XML-Elements.
+    * The tree is traversed in pre-order through its snapshot, the elements
+    * of the components are closed when their subtrees end.
     *
-    * @param rootComponent component to traverse over in the current recursion
-    * @param xmlTarget XML-Element to append information to
+    * @param rootComponent component whose subcomponents are written
+    * @param writer writer to append the XML-Elements to
     * @param deliveries deliveries that need to be saved
+    * @param isProjectFile whether unread content is copied unparsed
+    * @throws IOException
     */
-   private static void saveComponentTree(CCLComponent rootComponent, Element xmlTarget,
-         Collection<CCLDelivery> deliveries)
+   private static void saveComponentTree(CCLComponent rootComponent, CCLXMLFileWriter writer,
+         Collection<CCLDelivery> deliveries, boolean isProjectFile) throws IOException
    {
-      for (CCLComponent component : rootComponent.getSubComponents())
+      CCLComponentSnapshot snapshot = rootComponent == getComponentRoot() ? getComponentSnapshot() :
+            CCLComponentSnapshot.of(rootComponent);
+
+      // ends of the subtrees of the components whose elements are open
+      Deque<Integer> openSubtreeEnds = new ArrayDeque<>();
+
+      for (int i = 0; i < snapshot.size(); i++)
       {
-         Element componentXML = SCLXMLUtil.createElement(CCLXMLConstants.XML_COMPONENT,
+         while (!openSubtreeEnds.isEmpty() && openSubtreeEnds.peek() == i)
+         {
+            openSubtreeEnds.pop();
+            writer.endElement();
+         }
+
+         CCLComponent component = snapshot.getComponent(i);
+
+         writer.startElement(CCLXMLConstants.XML_COMPONENT,
                new Attribute(PARAMETER_NAME, component.getName()),
                new Attribute("relevant", Boolean.toString(component.getIsCustomerRelevant())));
 
-         Element importersXML = new Element("importers");
+         writer.startElement("importers");
 
          for (ACLImportStrategy importer : SCLProject.getInstance().getImportStrategiesInViewOrder())
          {
             ACLAssignmentStrategy assignmentStrategy = component.getAssignmentStrategy(importer.getName());
             
             Element impXML = getAssignmentStrategyXML(component, importer, assignmentStrategy);
+            writer.startElement(impXML);
+            for (Element child : impXML.getChildren())
+            {
+               writer.writeElement(child);
+            }
             
             for (CCLDelivery delivery : deliveries)
             {
-               ACLDeliveryInformation deliveryInformation = component.getDeliveryInformation(delivery.getName() + importer.getName());
+               ACLDeliveryInformation deliveryInformation = component.getDeliveryInformation(delivery.getName(), importer.getName());
 
                if (null != deliveryInformation)
                {
                   boolean isNew = deliveryInformation.isNew();
 
-                  Element deliveryInformationXML = SCLXMLUtil.createElement("deliveryInformation",
+                  writer.startElement("deliveryInformation",
                         new Attribute(PARAMETER_NAME, delivery.getName()),
                         new Attribute("isNew", Boolean.toString(isNew)));
 
-                  Element information = deliveryInformation.getInformation();
-                  if (null != information)
+                  // content which has not been read yet is copied unparsed
+                  // into the project file, other files get the parsed content
+                  CCLXMLFragment fragment = isProjectFile ? deliveryInformation.getInformationFragment() : null;
+                  if (null != fragment)
                   {
-                     information.detach();
+                     writer.writeFragment(fragment);
                   }
-                  deliveryInformationXML.addContent(deliveryInformation.getInformation());
-                  impXML.addContent(deliveryInformationXML);
+                  else if (null != deliveryInformation.getInformation())
+                  {
+                     writer.writeElement(deliveryInformation.getInformation());
+                  }
+                  writer.endElement();
                }
             }
 
-            importersXML.addContent(impXML);
+            writer.endElement();
          }
          
          for (String nameOfMissingPlugin : sMissingPlugins)
          {
-            Element missingImporter = getImporterXMLFromOpenFile(component.getName(), nameOfMissingPlugin);
+            Element missingImporter = getUnloadedImporterXML(component.getName(), nameOfMissingPlugin);
             if (null != missingImporter)
             {
-               importersXML.addContent(missingImporter);
+               writer.writeElement(missingImporter);
             }
          }
          
-         componentXML.addContent(importersXML);
+         writer.endElement();
 
-         if (component.hasSubComponents())
-         {
-            saveComponentTree(component, componentXML, deliveries);
-         }
+         openSubtreeEnds.push(snapshot.getSubtreeEnd(i));
+      }
 
-         xmlTarget.addContent(componentXML);
+      while (!openSubtreeEnds.isEmpty())
+      {
+         openSubtreeEnds.pop();
+         writer.endElement();
       }
    }
 
@@ -521,15 +628,21 @@ public final class SCLProject
       }
       else
       {
-         Element existingImporterXML = getImporterXMLFromOpenFile(component.getName(), importer.getName());
-         
-         Element assignXML = existingImporterXML.getChild(CCLXMLConstants.XML_ASSIGNER);
-         paramXML = existingImporterXML.getChild("parameters");
-         
-         assignXML.detach();
-         paramXML.detach();
-         
-         impXML.addContent(assignXML);
+         Element existingImporterXML = getUnloadedImporterXML(component.getName(), importer.getName());
+         if (null != existingImporterXML)
+         {
+            Element assignXML = existingImporterXML.getChild(CCLXMLConstants.XML_ASSIGNER);
+            paramXML = existingImporterXML.getChild("parameters");
+
+            if (null != assignXML)
+            {
+               impXML.addContent(assignXML.clone());
+            }
+            if (null != paramXML)
+            {
+               paramXML = paramXML.clone();
+            }
+         }
       }
 
       if (null != paramXML)
@@ -541,124 +654,61 @@ public final class SCLProject
    }
    
    /**
-    * Takes the existing XML-Element from the open file which matches the given name.
-    * This element is used in the event of a missing plugin while saving information.
-    * Otherwise data that could not be loaded at startup would be overwritten while saving. 
-    * 
-    * @param componentName
-    * @param importerName
-    * @return
-    */
-   private static Element getImporterXMLFromOpenFile(String componentName, String importerName)
-   {
-      Document existingDoc = null;
-      
-      try
-      {
-         existingDoc = SCLXMLUtil.loadDocument(sOpenFileName);
-      }
-      catch (JDOMException | IOException e)
-      {
-         LOGGER.debug("File \"" + sOpenFileName + "\" could not be loaded while saving" , e);
-      }
-      
-      Element existingXMLData = existingDoc.getRootElement();
-      Element allComponents = existingXMLData.getChild("components");
-      
-      return getImporterXML(componentName, importerName, allComponents);
-   }
-
-   /**
-    * Gets the XML-Element matching the passed componentName and importerName from a XML-Element 
-    * containing multiple components.
+    * Returns the XML-Element of an importer of the open file which could not
+    * be loaded into the model. The importers are collected while loading the
+    * file, so the file does not need to be read again while saving.
     * 
     * @param componentName name of the component to look for
     * @param importerName name of the importer to look for
-    * @param allComponents XML-Element containing a component tree
-    * @return
+    * @return XML-Element of the importer or null if the importer has been
+    * loaded
     */
-   private static Element getImporterXML(String componentName, String importerName, Element allComponents)
+   private static Element getUnloadedImporterXML(String componentName, String importerName)
    {
-      Element missingXML = null;
-      for (Element component : allComponents.getDescendants(new ElementFilter(CCLXMLConstants.XML_COMPONENT)))
-      {
-         if (component.getAttributeValue("name").equals(componentName))
-         {
-            // get all importers
-            Element importersXML = component.getChild("importers");
-            for (Element impData : importersXML.getDescendants(new ElementFilter(CCLXMLConstants.XML_IMPORTER)))
-            {
-               if (impData.getAttributeValue("name").equals(importerName))
-               {
-                  missingXML = impData.clone();
-                  missingXML.detach();
-                  break;
-               }
-            }
-         }
-         
-         if (null == missingXML)
-         {
-            missingXML = getImporterXML(componentName, importerName, component);
-         }
-      }
-      return missingXML;
+      return sUnloadedImporters.getOrDefault(componentName, Collections.emptyMap()).get(importerName);
    }
 
    /**
-    * Load component tree from xml file
+    * Load component tree from xml file. The file is read as a stream, only the
+    * content of each delivery information is kept as XML-Element.
     *
     * @param source source file
     * @return Set of names of missing plugins
     * @throws CCLInternalException
     * @throws IOException
     * @throws JDOMException
-    * @throws InstantiationException
-    * @throws IllegalAccessException
     * @throws ParseException
     */
    public static Set<String> load(File source) throws CCLInternalException, JDOMException, IOException, ParseException
    {
-      Document doc = SCLXMLUtil.loadDocument(source);
-      Element xmlData = doc.getRootElement();
-
-      checkXMLFormat(source, xmlData);
-
       // In case the loading process fails, the existing deliveries have to be restored.
       TreeSet<CCLDelivery> oldDeliveries = new TreeSet<>(SCLProject.getInstance().getDeliveries());
 
+      // the listeners are notified once after the whole file has been read
+      SCLChangeBatch.begin();
       try
       {
-         // load all deliveries from the document
-         Element delXML = xmlData.getChild("deliveries");
-         for (Element delivery : delXML.getChildren("delivery"))
-         {
-            CCLDelivery d = new CCLDelivery();
+         // load all deliveries and components from the file
+         CCLProjectFileReader reader = new CCLProjectFileReader(source,
+               Boolean.parseBoolean(SCLSettings.get(CCLXMLConstants.XML_LAZY_LOADING)));
+         Set<String> missingPlugins = reader.read(getComponentRoot());
 
-            d.setName(delivery.getAttributeValue(PARAMETER_NAME));
-            d.setIntegrator(delivery.getAttributeValue("integrator"));
-            d.setCreated(SCLProjectHelper.getDateFormatter().parse(delivery.getAttributeValue("created")));
+         sOpenFileName = source.getAbsolutePath();
+         sNeedsSaving = false;
 
-            if (!SCLProject.getInstance().getDeliveries().contains(d))
-            {
-               SCLProject.getInstance().getDeliveries().add(d);
-            }
-            else
+         for (Map.Entry<String, Map<String, Element>> entry : reader.getUnloadedImporters().entrySet())
+         {
+            Map<String, Element> importers = sUnloadedImporters.computeIfAbsent(entry.getKey(), name -> new HashMap<>());
+            for (Map.Entry<String, Element> importer : entry.getValue().entrySet())
             {
-               throw new CCLInternalException("There's already a delivery named \"" + d.getName() + 
-                     "\". Therefore the import was canceled to prevent a loss of information.");
+               importers.putIfAbsent(importer.getKey(), importer.getValue());
             }
          }
 
-         // load all components from the document
-         Element compRoot = xmlData.getChild("components");
-
-         sOpenFileName = source.getAbsolutePath();
-         sNeedsSaving = false;
-         
-         return loadComponentTree(getComponentRoot(), compRoot);
+         sMissingPlugins.addAll(missingPlugins);
+         return sMissingPlugins;
       }
-      catch (CCLInternalException | ParseException | RuntimeException e)
+      catch (CCLInternalException | ParseException | JDOMException | IOException | RuntimeException e)
       {
          // Remove all deliveries that were added before the import failed.
          // To avoid java.util.ConcurrentModificationException an iterator is
@@ -680,103 +730,28 @@ public final class SCLProject
          // re-throw exception
          throw e;
       }
+      finally
+      {
+         SCLChangeBatch.end();
+      }
    }
 
    /**
     * Checks if the file that has to be opened matches the format of this application.
     * 
     * @param source file to be checked
-    * @param xmlData XML-Element containing the format information
+    * @param rootName name of the root XML-Element containing the format information
     * @throws CCLInternalException
     */
-   private static void checkXMLFormat(File source, Element xmlData) throws CCLInternalException
+   static void checkXMLFormat(File source, String rootName) throws CCLInternalException
    {
-      boolean xmlFormatOrLegacy = xmlData.getName().equals(SCLSettings.get(CCLXMLConstants.XML_ROOT_FORMAT)) || SCLSettings.get("LEGACY").equalsIgnoreCase("true");
+      boolean xmlFormatOrLegacy = rootName.equals(SCLSettings.get(CCLXMLConstants.XML_ROOT_FORMAT)) || SCLSettings.get("LEGACY").equalsIgnoreCase("true");
       if (!xmlFormatOrLegacy)
       {
          throw new CCLInternalException("Wrong XML format in " + source.getAbsolutePath() + " !");
       }
    }
 
-   /**
-    * Recursively loads all components from a XML-Element and stores it in a component tree.
-    *
-    * @param parentComponent component to append information to
-    * @param element XML-Element containing the component information
-    * @throws CCLInternalException
-    * @throws IllegalAccessException
-    * @throws InstantiationException
-    */
-   private static Set<String> loadComponentTree(CCLComponent parentComponent, Element element)
-         throws CCLInternalException
-   {
-      for (Element childElement : element.getChildren(CCLXMLConstants.XML_COMPONENT))
-      {
-         boolean isNewComponent = false;
-
-         String componentName = childElement.getAttributeValue(PARAMETER_NAME);
-
-         CCLComponent component = SCLProjectHelper.getComponentByName(parentComponent, componentName);
-         if (null == component)
-         {
-            isNewComponent = true;
-
-            component = SCLProject.getInstance().getInitialComponent();
-            component.setName(componentName);
-            component.setParent(parentComponent);
-            component.setIsCustomerRelevant(Boolean.parseBoolean(childElement.getAttributeValue("relevant")));
-         }
-
-         // get all importers
-         Element importersXML = childElement.getChild("importers");
-         for (Element impData : importersXML.getDescendants(new ElementFilter(CCLXMLConstants.XML_IMPORTER)))
-         {
-            // get importer name & version
-            String impName = impData.getAttributeValue(PARAMETER_NAME);
-            String impVersion = impData.getAttributeValue("version");
-
-            // get importer by it's name
-            ACLImportStrategy importer = SCLPluginLoader.getInstance().getImportStrategiesMap().get(impName);
-            
-            try 
-            {
-               checkImporter(impName, impVersion, importer);
-            }
-            catch (CCLInternalException e)
-            {
-               LOGGER.info(e.getMessage(), e);
-               sMissingPlugins.add(impName);
-               continue;
-            }
-
-            // get assignment strategy and add it to the component's assignment
-            // strategies
-            String assigner = impData.getChild(CCLXMLConstants.XML_ASSIGNER).getAttributeValue(PARAMETER_NAME);
-            ACLAssignmentStrategy assignmentStrategy = importer.getAssignmentStrategy(assigner);
-            component.setAssignmentStrategy(importer.getName(), assignmentStrategy);
-            
-            // get all parameters for the selected strategy
-            getParametersOfImportStrategy(component, impData, importer);
-
-            // get information about all deliveries
-            getDeliveryInformation(component, impData, importer);
-         }
-
-         if (null != component && null != parentComponent)
-         {
-            if (isNewComponent)
-            {
-               component.setParent(parentComponent);
-               parentComponent.getSubComponents().add(component);
-            }
-
-            // recursion! repeat for all components
-            sMissingPlugins.addAll(loadComponentTree(component, childElement));
-         }
-      }
-      return sMissingPlugins;
-   }
-
    /**
     * Checks if an importer exists and throws an CCLExternalException if it does
     * not exist or if {@link #checkVersions(String, String)} does return false.
@@ -786,7 +761,7 @@ public final class SCLProject
     * @param importer Importer to be checked
     * @throws CCLInternalException
     */
-   private static void checkImporter(String impName, String impVersion, ACLImportStrategy importer)
+   static void checkImporter(String impName, String impVersion, ACLImportStrategy importer)
          throws CCLInternalException
    {
       if (null == importer)
@@ -804,134 +779,159 @@ public final class SCLProject
    }
 
    /**
-    * Gets all parameters that are set in the passed XML-Element impData.
-    * 
-    * @param component The component containing the parameters
-    * @param impData The XML-Element containing the parameters
-    * @param importer The importer of which the parameters are needed
+    * Returns a delivery of a given name.
+    *
+    * @param name name of the delivery
+    * @return delivery or null if it does not exist
     */
-   private static void getParametersOfImportStrategy(CCLComponent component, Element impData,
-         ACLImportStrategy importer)
+   public CCLDelivery getDeliveryByName(String name)
    {
-      int i = 0;
-      Element parametersXML = impData.getChild("parameters");
-      for (Element paramXML : parametersXML.getDescendants(new ElementFilter("parameter")))
-      {
-         List<CCLParameter> parameters = component.getParameters(importer.getName());
+      return mDeliveriesByName.get(name);
+   }
 
-         parameters.get(i).setValue(paramXML.getText());
-         i++;
-      }
+   /**
+    * Returns a component of a given ID
+    *
+    * @param component parent component to start search with
+    * @param id id of the component
+    * @return component or null if it does not exist
+    */
+   public CCLComponent getComponentById(CCLComponent component, UUID id)
+   {
+      return getComponentIndex().getComponentById(component, id);
    }
 
    /**
-    * Gets all the information of a delivery for a specific ImportStrategy and
-    * adds it to the component.
-    * 
-    * @param component The component to add the information to
-    * @param impData The XML-Element containing the delivery information
-    * @param importer The importer used for importing the delivery information
-    * @throws CCLInternalException
+    * Returns a component of a given name. Equivalent to
+    * {@link SCLProjectHelper#getComponentByName(CCLComponent, String)}, but
+    * uses the index of the component tree.
+    *
+    * @param component parent component to start search with
+    * @param name name of the component
+    * @return component or null if it does not exist
     */
-   private static void getDeliveryInformation(CCLComponent component, Element impData, ACLImportStrategy importer)
-         throws CCLInternalException
+   public CCLComponent getComponentByName(CCLComponent component, String name)
    {
-      for (Element d : impData.getDescendants(new ElementFilter("deliveryInformation")))
-      {
-         // get delivery name
-         String deliveryName = d.getAttributeValue(PARAMETER_NAME);
+      return getComponentIndex().getComponentByName(component, name);
+   }
 
-         // get delivery by its name
-         CCLDelivery delivery = SCLProject.getInstance().getDeliveryByName(deliveryName);
-         if (null == delivery)
+   /**
+    * Checks if a delivery with the given name already exists.
+    *
+    * @param deliveryName
+    * @return true if a delivery with this name already exists
+    */
+   public boolean checkDeliveryExists(String deliveryName)
+   {
+      return mDeliveriesByName.containsKey(deliveryName);
+   }
+
+   /**
+    * Updates {@link #mDeliveriesByName} after {@link #mDeliveries} has
+    * changed. Only the added and removed deliveries are applied, unless they
+    * are not known. If deliveries share a name, the first one of
+    * {@link #mDeliverySet} is found.
+    */
+   private void indexDeliveries(PropertyChangeEvent evt)
+   {
+      if (!(evt instanceof CCLCollectionChangeEvent) || !((CCLCollectionChangeEvent) evt).isElementsKnown())
+      {
+         mDeliveriesByName.clear();
+         for (CCLDelivery delivery : mDeliverySet)
          {
-            continue;
+            mDeliveriesByName.putIfAbsent(delivery.getName(), delivery);
          }
+         return;
+      }
 
-         // get delivery information for this delivery
-         ACLDeliveryInformation deliveryInformation = component.getDeliveryInformation(delivery.getName() + importer.getName());
-         
-         // if there's not already a delivery information for this
-         // delivery...
-         if (null == deliveryInformation)
+      CCLCollectionChangeEvent event = (CCLCollectionChangeEvent) evt;
+      for (Object element : event.getRemovedElements())
+      {
+         CCLDelivery delivery = (CCLDelivery) element;
+         if (mDeliveriesByName.remove(delivery.getName(), delivery))
          {
-            // ... create a new instance of the correspondent delivery
-            // information class for the given importer
-            deliveryInformation = SCLPluginLoader.getInstance().getDeliveryInformation(importer.getDeliveryInformationName());
-            
-            // ... and add it to the component's list
-            component.setDeliveryInformation(delivery.getName() + importer.getName(), deliveryInformation);
+            // another delivery of the same name may take its place
+            for (CCLDelivery other : mDeliverySet)
+            {
+               if (other.getName().equals(delivery.getName()))
+               {
+                  mDeliveriesByName.put(other.getName(), other);
+                  break;
+               }
+            }
          }
-
-         deliveryInformation.setNew(Boolean.parseBoolean(d.getAttributeValue("isNew")));
-         deliveryInformation.setInformation(d.getChild("content"));
       }
-   }
 
-   /**
-    * Returns a delivery of a given name.
-    *
-    * @param name name of the delivery
-    * @return delivery or null if it does not exist
-    */
-   public CCLDelivery getDeliveryByName(String name)
-   {
-      for (CCLDelivery delivery : mDeliveries)
+      for (Object element : event.getAddedElements())
       {
-         if (delivery.getName().equals(name))
+         CCLDelivery delivery = (CCLDelivery) element;
+         CCLDelivery current = mDeliveriesByName.get(delivery.getName());
+         if (null == current || 0 > delivery.compareTo(current))
          {
-            return delivery;
+            mDeliveriesByName.put(delivery.getName(), delivery);
          }
       }
-
-      return null;
    }
 
    /**
-    * Returns a component of a given ID
+    * Returns the index of the current component tree. A new index is created
+    * if the component root has been replaced.
     *
-    * @param component parent component to start search with
-    * @param id id of the component
-    * @return component or null if it does not exist
+    * @return index of the component tree
     */
-   public CCLComponent getComponentById(CCLComponent component, UUID id)
+   private static CCLComponentIndex getComponentIndex()
    {
-      // visitor definition
-      class VisitorGetComponent extends ACLTreeVisitor<CCLComponent, UUID>
+      CCLComponent root = getComponentRoot();
+
+      synchronized (sLockObject)
       {
-         @Override
-         public CCLComponent doIt(CCLComponent component, UUID id)
+         if (null == sComponentIndex || sComponentIndex.getRoot() != root)
          {
-            if (component.getId().equals(id))
+            if (null != sComponentIndex)
             {
-               return component;
+               sComponentIndex.dispose();
             }
-
-            return null;
+            sComponentIndex = new CCLComponentIndex(root);
          }
+         return sComponentIndex;
       }
-      // end of visitor definition
+   }
 
-      return component.accept(new VisitorGetComponent(), id, true);
+   /**
+    * Runs bulk changes of the model in a batch. The listeners of the model are
+    * notified once per changed property after all changes have been made
+    * instead of after every single change.
+    *
+    * @param changes changes of the model
+    */
+   public static void runBatch(Runnable changes)
+   {
+      SCLChangeBatch.run(changes);
    }
 
    /**
-    * Checks if a delivery with the given name already exists.
+    * Returns the flattened component tree. The snapshot is created on demand
+    * and reused until the structure of the tree changes, so the tree can be
+    * traversed several times, e.g. once per importer and delivery during an
+    * export, without recursion.
     *
-    * @param deliveryName
-    * @return true if a delivery with this name already exists
+    * @return snapshot of the current component tree
     */
-   public boolean checkDeliveryExists(String deliveryName)
+   public static CCLComponentSnapshot getComponentSnapshot()
    {
-      for (CCLDelivery del : mDeliveries)
+      CCLComponentIndex index = getComponentIndex();
+
+      synchronized (sLockObject)
       {
-         if (deliveryName.equals(del.getName()))
+         long modificationCount = index.getModificationCount();
+         if (null == sComponentSnapshot || sComponentSnapshot.getRoot() != index.getRoot() ||
+               sComponentSnapshotModificationCount != modificationCount)
          {
-            return true;
+            sComponentSnapshot = CCLComponentSnapshot.of(index.getRoot());
+            sComponentSnapshotModificationCount = modificationCount;
          }
+         return sComponentSnapshot;
       }
-
-      return false;
    }
 
    /**
@@ -1004,7 +1004,7 @@ public final class SCLProject
             
             List<CCLParameter> parameters = component.getParameters(importer.getName());
 
-            deliveryInformation.setInformation(strat.getData(parameters, component, delivery,
+            deliveryInformation.setInformation(strat.getCachedData(parameters, component, delivery,
                   getFormerDelivery(delivery), importer, getProjectRoot()));
 
             if (!SCLProject.getInstance().getDeliveries().isEmpty() && !deliveryInformation.isNew())
@@ -1027,6 +1027,7 @@ public final class SCLProject
    /**
     * Docbook export! Most information is received from the components. They
     * know exactly which kind of information they have and how to export it.
+    * The export is executed by a {@link CCLDocbookExportEngine}.
     *
     * @param filePath file path
     * @param deliveries deliveries to export
@@ -1037,217 +1038,91 @@ public final class SCLProject
    public static void exportDocbook(String filePath, Collection<CCLDelivery> deliveries, final Boolean forCustomer)
          throws IOException
    {
-      Document doc = new Document();
-      doc.setDocType(new DocType("article", "-//OASIS//DTD DocBook XML V4.5//EN",
-            "http://www.oasis-open.org/docbook/xml/4.5/docbookx.dtd"));
-
-      Element article = new Element("article");
-      doc.addContent(article);
-
-      int numDeliveries = deliveries.size();
-
-      CCLDelivery[] deliveriesArray = new CCLDelivery[numDeliveries];
-      deliveriesArray = deliveries.toArray(deliveriesArray);
-
-      final CCLDelivery newestDelivery = deliveriesArray[0];
-      final CCLDelivery oldestDelivery;
-      if (1 < numDeliveries)
-      {
-         oldestDelivery = deliveriesArray[numDeliveries - 1];
-      }
-      else
-      {
-         oldestDelivery = null;
-      }
+      CCLDocbookExportEngine engine = new CCLDocbookExportEngine(
+            CCLDeliveryCreationEngine.getConfiguredParallelism());
+      List<Document> documents = engine.createDocuments(deliveries, Collections.singletonList(forCustomer));
 
-      String strCreated = SCLProjectHelper.getDateFormatter().format(newestDelivery.getCreated());
-
-      article.addContent(SCLXMLUtil.createElement("title", newestDelivery.getName()));
-      article.addContent(SCLXMLUtil.createElement("subtitle",
-            "Build date: " + strCreated + ", Integrator: " + newestDelivery.getIntegrator()));
-
-      // every section in document represents information provided by an
-      // importer
-      Map<String, Boolean> enabledMap = SCLProject.getInstance().getEnabledStatesInOrderList("EXPORT_ORDER");
-      for (final ACLImportStrategy importer : SCLProject.getInstance().getImportStrategiesInExportOrder())
-      {
-         // check if the data of this importer should be exported
-         Boolean enabled = enabledMap.get(importer.getName().replace(' ', '_').toUpperCase());
-         if (enabled != null && !enabled.booleanValue())
-         {
-            continue;
-         }
-
-         final Element section = importer.getDocbookSectionTemplate(oldestDelivery, newestDelivery);
-
-         createDocbookSection(deliveries, forCustomer, deliveriesArray, newestDelivery,
-               oldestDelivery, importer, section);
-
-         // add to article
-         article.addContent(section);
-      }
-      
       // save docbook
-      SCLXMLUtil.saveDocument(filePath, doc);
+      SCLXMLUtil.saveDocument(filePath, documents.get(0));
    }
 
    /**
-    * Creates the Docbook section for the passed delivery and importer.
-    * The information is stored in the section parameter.
-    * 
-    * @param deliveries All deliveries to export
-    * @param forCustomer Whether or not the export is for a customer
-    * @param deliveriesArray All deliveries in an array
-    * @param newestDelivery
-    * @param oldestDelivery
-    * @param importer
-    * @param section XML-Element to store the delivery information in
+    * Docbook export which writes the document to the file while it is created
+    * instead of building it in memory. See
+    * {@link CCLDocbookExportEngine#writeDocuments} for the differences to
+    * {@link #exportDocbook}. The file is replaced only after the document
+    * has been written completely.
+    *
+    * @param filePath file path
+    * @param deliveries deliveries to export
+    * @param forCustomer only export information that is relevant for a
+    * customer or also internal information
+    * @throws IOException
     */
-   private static void createDocbookSection(Collection<CCLDelivery> deliveries, final Boolean forCustomer,
-         CCLDelivery[] deliveriesArray, final CCLDelivery newestDelivery, final CCLDelivery oldestDelivery,
-         final ACLImportStrategy importer, final Element section)
+   public static void streamDocbook(String filePath, Collection<CCLDelivery> deliveries, final Boolean forCustomer)
+         throws IOException
    {
-      boolean isSectionEmpty = true;
-      // do we need the information from all selected deliveries?
-      if (importer.needsAllSelectedDeliveriesForDocbookExport())
+      File file = new File(filePath).getAbsoluteFile();
+      Files.createDirectories(file.getParentFile().toPath());
+
+      // write to a temporary file, so a failed export does not leave a
+      // truncated document or destroy the previous one
+      File tempFile = File.createTempFile(file.getName(), null, file.getParentFile());
+      boolean isMoved = false;
+      try
       {
-         // exclude oldest delivery
-         if (null != oldestDelivery)
+         CCLDocbookExportEngine engine = new CCLDocbookExportEngine(
+               CCLDeliveryCreationEngine.getConfiguredParallelism());
+         try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile)))
          {
-            deliveries.remove(oldestDelivery);
+            engine.writeDocuments(deliveries, Collections.singletonList(forCustomer),
+                  Collections.singletonList(outputStream));
          }
 
-         // check if there is any information to be put in the current
-         // section
-         for (int i = 0; i < deliveries.size() && isSectionEmpty; i++)
+         try
          {
-            isSectionEmpty = emptySection(forCustomer, importer, deliveriesArray[i]);
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                  StandardCopyOption.ATOMIC_MOVE);
          }
-
-         if (!isSectionEmpty)
+         catch (AtomicMoveNotSupportedException e)
          {
-            for (CCLDelivery delivery : deliveries)
-            {
-               fillSection(forCustomer, section, importer, oldestDelivery, delivery);
-            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
          }
+         isMoved = true;
       }
-      else
+      finally
       {
-         isSectionEmpty = emptySection(forCustomer, importer, newestDelivery);
-
-         if (!isSectionEmpty)
+         if (!isMoved && !tempFile.delete())
          {
-            // we only need the information from the newest (and maybe the
-            // oldest) delivery
-            fillSection(forCustomer, section, importer, oldestDelivery, newestDelivery);
+            LOGGER.warn("Could not delete temporary file {}", tempFile);
          }
       }
-
-      if (isSectionEmpty)
-      {
-         section.addContent(importer.getDocbookSectionEmptyMessage());
-      }
    }
-   
-   /**
-    * Fills the Docbook section of a provided importer with delivery information.
-    * 
-    * @param forCustomer Is the export for a customer
-    * @param section The XML-Element to be filled
-    * @param importer importer containing the delivery information
-    * @param oldestDelivery oldest delivery for comparison purposes
-    * @param deliveryToDocument delivery to be documented
-    */
-   private static void fillSection(Boolean forCustomer, Element section, ACLImportStrategy importer, CCLDelivery oldestDelivery, CCLDelivery deliveryToDocument)
-   {
-      // visitor definition
-      class VisitorFillSection extends ACLTreeVisitor<Boolean, CCLDelivery>
-      {
-         @Override
-         public Boolean doIt(CCLComponent component, CCLDelivery delivery)
-         {
-            if (!component.getDeliveryInformation().isEmpty())
-            {
-               // don't export any information which customer shouldn't
-               // see
-               if (null != forCustomer && forCustomer.booleanValue() && !component.getIsCustomerRelevant())
-               {
-                  return false;
-               }
 
-               ACLDeliveryInformation info = component.getDeliveryInformation(delivery.getName() + importer.getName());
-
-               // we pass an additional delivery (para oldestDelivery)
-               // in case we have to compare e.g. Version info
-               info.addDocbookSection(section, component, oldestDelivery, forCustomer);
-            }
-
-            return true;
-         }
-      }
-      // end of visitor definition
-      
-      getComponentRoot().accept(new VisitorFillSection(), deliveryToDocument);
-   }
-   
    /**
-    * Fills empty Docbook section if the importer does not provide any information.
-    * 
-    * @param forCustomer
-    * @param importer
-    * @param deliveryToDocument
-    * @return Whether or not the section needs to be empty
+    * Docbook export of the same deliveries for a customer and for internal
+    * use. Both documents are created together, which is faster than two
+    * separate exports.
+    *
+    * @param customerFilePath file path of the document for the customer
+    * @param internalFilePath file path of the document for internal use
+    * @param deliveries deliveries to export
+    * @throws IOException
     */
-   private static Boolean emptySection(Boolean forCustomer, ACLImportStrategy importer, CCLDelivery deliveryToDocument)
+   public static void exportDocbooks(String customerFilePath, String internalFilePath,
+         Collection<CCLDelivery> deliveries) throws IOException
    {
-      // visitor definition
-      class VisitorEmptySection extends ACLTreeVisitor<Boolean, CCLDelivery>
-      {
-         @Override
-         public Boolean doIt(CCLComponent component, CCLDelivery delivery)
-         {
-            // ignore non customer relevant information in check
-            // true means it is empty
-            if (null != forCustomer && forCustomer.booleanValue() && !component.getIsCustomerRelevant())
-            {
-               return true;
-            }
-
-            // check if this components delivery information is empty
-            ACLDeliveryInformation info = component.getDeliveryInformation(delivery.getName() + importer.getName());
-            return info.isInfoNullOrEmpty();
-         }
-
-         @Override
-         public Boolean visit(CCLComponent component, CCLDelivery target, boolean quickReturn)
-         {
-            boolean res = true;
-
-            List<CCLComponent> subComponentList = component.getSubComponents();
-
-            for (int i = 0; i < component.getSubComponents().size() && res; i++)
-            {
-               CCLComponent subComponent = subComponentList.get(i);
-
-               res = doIt(subComponent, target);
+      CCLDocbookExportEngine engine = new CCLDocbookExportEngine(
+            CCLDeliveryCreationEngine.getConfiguredParallelism());
+      List<Document> documents = engine.createDocuments(deliveries, Arrays.asList(Boolean.TRUE, Boolean.FALSE));
 
-               // cancel search on first hit
-               if (res && subComponent.hasSubComponents())
-               {
-                  res = subComponent.accept(this, target, true);
-               }
-            }
-            return res;
-         }
-      }
-      // end of visitor definition
-      
-      return getComponentRoot().accept(new VisitorEmptySection(), deliveryToDocument, true);
+      // save docbooks
+      SCLXMLUtil.saveDocument(customerFilePath, documents.get(0));
+      SCLXMLUtil.saveDocument(internalFilePath, documents.get(1));
    }
 
    /**
-    * Export a delivery as an XML-file.
+    * Export a delivery as an XML-file, see {@link #exportDeliveries}.
     *
     * @param target file path
     * @param delivery delivery to export
@@ -1257,11 +1132,26 @@ public final class SCLProject
    {
       Set<CCLDelivery> deliveries = new TreeSet<>();
       deliveries.add(delivery);
-      save(target, deliveries);
+      exportDeliveries(target, deliveries);
+   }
+
+   /**
+    * Export deliveries as an XML-file. The open project file is not changed
+    * and the project does not refer to the exported file.
+    *
+    * @param target file path
+    * @param deliveries deliveries to export
+    * @throws IOException
+    */
+   public static void exportDeliveries(String target, Collection<CCLDelivery> deliveries) throws IOException
+   {
+      write(target, deliveries, false);
    }
 
    /**
-    * Add a new delivery entry to every component of the tree.
+    * Add a new delivery entry to every component of the tree. The assignment
+    * strategies are executed by a {@link CCLDeliveryCreationEngine}, the
+    * results are merged into the model in the order of the component tree.
     *
     * @param component parent component
     * @param delivery new delivery
@@ -1271,58 +1161,96 @@ public final class SCLProject
    {
       SCLProject.getInstance().setCreationReport(new Element("report"));
 
-      // visitor definition
-      class VisitorAddDelivery extends ACLTreeVisitor<Boolean, CCLDelivery>
+      CCLDeliveryCreationEngine engine = new CCLDeliveryCreationEngine(
+            CCLDeliveryCreationEngine.getConfiguredParallelism());
+      Boolean res = component.hasSubComponents() ? Boolean.TRUE : null;
+
+      if (!sTestMode && component.hasSubComponents())
       {
-         @Override
-         public Boolean doIt(CCLComponent component, CCLDelivery delivery)
+         List<CCLDeliveryResult> results;
+
+         // plugins may share resources like opened repositories until the
+         // run ends
+         SCLRunContext.begin();
+         try
          {
-            for (ACLImportStrategy importer : SCLPluginLoader.getInstance().getImportStrategiesMap().values())
+            results = engine.createDeliveryInformation(component, delivery,
+                  SCLPluginLoader.getInstance().getImportStrategiesMap().values());
+         }
+         finally
+         {
+            SCLRunContext.end();
+         }
+
+         // the listeners are notified once after all results are merged
+         SCLChangeBatch.begin();
+         try
+         {
+            for (CCLDeliveryResult result : results)
             {
-               try
+               if (!mergeDeliveryInformation(result, delivery))
                {
-                  if (!sTestMode)
-                  {
-                     ACLDeliveryInformation info = getDeliveryInformation(component, delivery, importer);
-
-                     if (!component.getDeliveryInformation().containsKey(delivery.getName() + importer.getName()) && null != info)
-                     {
-                        for (Element element : info.getInformation().getDescendants(new ElementFilter("error")))
-                        {
-                           element.setAttribute("delivery", delivery.getName());
-                           element.setAttribute(CCLXMLConstants.XML_COMPONENT, component.getName());
-                           element.setAttribute(CCLXMLConstants.XML_IMPORTER, importer.getName());
-                           element.setAttribute(CCLXMLConstants.XML_ASSIGNER,
-                                 component.getAssignmentStrategy(importer.getName()).getName());
-                           element.detach();
-                           SCLProject.getInstance().mCreationReport.addContent(element);
-                        }
-
-                        component.setDeliveryInformation(delivery.getName() + importer.getName(), info);
-                     }
-                  }
+                  res = false;
+                  break;
                }
-               catch (RuntimeException e)
-               {
-                  // CleanUp
-                  LOGGER.error(importer.getName() + ":" + e.getMessage(), e);
+            }
+         }
+         finally
+         {
+            SCLChangeBatch.end();
+         }
+      }
 
-                  SCLProject.getInstance().mDeliveries.remove(delivery);
-                  removeDelivery(getComponentRoot(), delivery);
+      sNeedsSaving = true;
+      return res;
+   }
 
-                  return false;
-               }
+   /**
+    * Adds the delivery information of the given result to its component and
+    * moves its errors to the creation report. If the creation of the
+    * information failed, the delivery is removed again.
+    *
+    * @param result result created by the {@link CCLDeliveryCreationEngine}
+    * @param delivery new delivery
+    * @return success
+    */
+   private static boolean mergeDeliveryInformation(CCLDeliveryResult result, CCLDelivery delivery)
+   {
+      CCLComponent component = result.getComponent();
+      ACLImportStrategy importer = result.getImporter();
+
+      try
+      {
+         ACLDeliveryInformation info = result.getInformation();
+
+         if (!component.containsDeliveryInformation(delivery.getName(), importer.getName()) && null != info)
+         {
+            for (Element element : info.getInformation().getDescendants(new ElementFilter("error")))
+            {
+               element.setAttribute("delivery", delivery.getName());
+               element.setAttribute(CCLXMLConstants.XML_COMPONENT, component.getName());
+               element.setAttribute(CCLXMLConstants.XML_IMPORTER, importer.getName());
+               element.setAttribute(CCLXMLConstants.XML_ASSIGNER,
+                     component.getAssignmentStrategy(importer.getName()).getName());
+               element.detach();
+               SCLProject.getInstance().mCreationReport.addContent(element);
             }
 
-            return true;
+            component.setDeliveryInformation(delivery.getName(), importer.getName(), info);
          }
       }
-      // end of visitor definition
+      catch (RuntimeException e)
+      {
+         // CleanUp
+         LOGGER.error(importer.getName() + ":" + e.getMessage(), e);
 
-      Boolean res = component.accept(new VisitorAddDelivery(), delivery);
+         SCLProject.getInstance().mDeliveries.remove(delivery);
+         removeDelivery(getComponentRoot(), delivery);
 
-      sNeedsSaving = true;
-      return res;
+         return false;
+      }
+
+      return true;
    }
 
    /**
@@ -1343,11 +1271,18 @@ public final class SCLProject
          {
             for (ACLImportStrategy importer : SCLPluginLoader.getInstance().getImportStrategiesMap().values())
             {
-               component.getDeliveryInformation().remove(delivery.getName() + importer.getName());
+               component.removeDeliveryInformation(delivery.getName(), importer.getName());
             }
 
             return true;
          }
+
+         @Override
+         public boolean isThreadSafe()
+         {
+            // every component only changes its own delivery information
+            return true;
+         }
       }
       // end of visitor definition
 
@@ -1375,6 +1310,7 @@ public final class SCLProject
    {
       mDeliveries.clear();
       mCreationReport = null;
+      sUnloadedImporters.clear();
 
       getComponentRootData().clear();
       
@@ -1472,10 +1408,10 @@ public final class SCLProject
          // set delivery information for this importer for every delivery
          for (CCLDelivery delivery : SCLProject.getInstance().getDeliveries())
          {
-            if (!initialComponent.getDeliveryInformation().containsKey(delivery.getName() + importer.getName()))
+            if (!initialComponent.containsDeliveryInformation(delivery.getName(), importer.getName()))
             {
                ACLDeliveryInformation info = SCLProject.getDeliveryInformation(initialComponent, delivery, importer);
-               initialComponent.getDeliveryInformation().put(delivery.getName() + importer.getName(), info);
+               initialComponent.setDeliveryInformation(delivery.getName(), importer.getName(), info);
             }
          }
       }
@@ -1589,9 +1525,16 @@ public final class SCLProject
       return mDeliveries;
    }
 
+   /**
+    * Replaces all deliveries by the given ones. The collection returned by
+    * {@link #getDeliveries()} is kept.
+    *
+    * @param deliveries new deliveries
+    */
    public void setDeliveries(CCLObservableCollection<CCLDelivery> deliveries)
    {
-      mDeliveries = deliveries;
+      mDeliveries.clear();
+      mDeliveries.addAll(deliveries);
    }
 
    public List<ACLImportStrategy> getImportStrategiesInViewOrder()
@@ -1696,34 +1639,22 @@ public final class SCLProject
     */
    public static CCLDelivery getFormerDelivery(CCLDelivery currentDelivery)
    {
-      CCLDelivery target = null;
-
-      Iterator<CCLDelivery> it = SCLProject.getInstance().getDeliveries().iterator();
-      if (it != null)
+      // the deliveries are sorted by date of creation (descending) and no two
+      // of them share a date, so the result is the newest delivery unless
+      // that is the current delivery
+      NavigableSet<CCLDelivery> deliveries = SCLProject.getInstance().mDeliverySet;
+      if (deliveries.isEmpty())
       {
-         while (it.hasNext())
-         {
-            CCLDelivery temp = it.next();
+         return null;
+      }
 
-            // find the first delivery, that is not the current delivery
-            if (target == null)
-            {
-               if (temp.getCreated().compareTo(currentDelivery.getCreated()) != 0)
-               {
-                  target = temp;
-               }
-            }
-            else
-            {
-               // look for the youngest delivery
-               if (0 < temp.getCreated().compareTo(target.getCreated()))
-               {
-                  target = temp;
-               }
-            }
-         }
+      CCLDelivery newest = deliveries.first();
+      if (0 != newest.getCreated().compareTo(currentDelivery.getCreated()))
+      {
+         return newest;
       }
-      return target;
+
+      return deliveries.higher(newest);
    }
 
    public static String getProjectSettingsPath()
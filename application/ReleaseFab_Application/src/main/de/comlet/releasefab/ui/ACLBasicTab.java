@@ -28,7 +28,9 @@ import de.comlet.releasefab.ui.commands.CCLCommandRemoveComponent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.TreeEditor;
 import org.eclipse.swt.events.MouseAdapter;
@@ -59,6 +61,10 @@ import org.eclipse.swt.widgets.TreeItem;
 public abstract class ACLBasicTab implements PropertyChangeListener
 {
    protected static final int COMPONENT_COLUMN = 0;
+
+   private static final String PROPERTY_PARENT = "mParent";
+
+   private static final String PROPERTY_SUB_COMPONENTS = "mSubComponents";
    
    private static final int COLUMN_WIDTH_COMPONENT = 200;
    
@@ -79,6 +85,15 @@ public abstract class ACLBasicTab implements PropertyChangeListener
     */
    private List<CCLComponent> mExpandedComponents = new ArrayList<>();
 
+   /**
+    * Tree items by their components. Contains the items which have been filled
+    * since the tree has been created, used to refresh single items.
+    */
+   private Map<CCLComponent, TreeItem> mTreeItems = new HashMap<>();
+
+   /** Fonts by style, so the same font is shared by all items. */
+   private Map<Integer, Font> mFonts = new HashMap<>();
+
    /**
     * Indicates whether or not its allowed to rename components by
     * double-clicking them.
@@ -108,8 +123,11 @@ public abstract class ACLBasicTab implements PropertyChangeListener
          mTabItem.getControl().dispose();
       }
 
-      // create tree
-      mTree = new Tree(mTabItem.getParent(), SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL | SWT.FULL_SELECTION);
+      mTreeItems.clear();
+
+      // create tree, its items are filled when they become visible
+      mTree = new Tree(mTabItem.getParent(),
+            SWT.VIRTUAL | SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL | SWT.FULL_SELECTION);
       mTree.setHeaderVisible(true);
       mTree.setLinesVisible(true);
 
@@ -120,6 +138,8 @@ public abstract class ACLBasicTab implements PropertyChangeListener
       mTree.addListener(SWT.Expand, new CCLComponentExpandListener());
       mTree.addListener(SWT.Collapse, new CCLComponentCollapseListener());
 
+      mTree.addListener(SWT.SetData, new CCLSetDataListener());
+
       // add the tree to the tab folder
       mTabItem.setControl(mTree);
 
@@ -135,14 +155,7 @@ public abstract class ACLBasicTab implements PropertyChangeListener
       createCustomColumns();
 
       // list all components
-      for (CCLComponent component : SCLProject.getComponentRootData())
-      {
-         createComponents(mTree, component);
-      }
-
-      // expand all components that have been expanded before the last update of
-      // this tree
-      expandPreviouslyExpandedComponents(mTree);
+      mTree.setItemCount(SCLProject.getComponentRoot().getSubComponents().size());
 
       // register events for double clicks on tree items
       registerDoubleClickEvents();
@@ -173,21 +186,38 @@ public abstract class ACLBasicTab implements PropertyChangeListener
     */
    protected void createTreeColumn(Tree tree, String title, int width)
    {
-      TreeColumn treeColumn = new TreeColumn(tree, SWT.CENTER);
+      createTreeColumn(tree, title, width, tree.getColumnCount());
+   }
+
+   /**
+    * Inserts a column with the given width at the given position of the tree
+    * that is labeled with the given title.
+    * 
+    * @param tree parent tree
+    * @param title
+    * @param width
+    * @param index position of the column
+    */
+   protected void createTreeColumn(Tree tree, String title, int width, int index)
+   {
+      TreeColumn treeColumn = new TreeColumn(tree, SWT.CENTER, index);
       treeColumn.setText(title);
       treeColumn.setWidth(width);
    }
 
    /**
-    * Recursively adds tree items for each component.
+    * Fills a tree item with the data of the given component. Called whenever
+    * an item of the virtual tree becomes visible. Subclasses fill their custom
+    * columns here.
     * 
-    * @param parentTree parent tree or tree item
-    * @param component component that should be added to the tree
+    * @param treeItem item to fill
+    * @param component component of the item
     */
-   protected void createComponents(Object parentTree, CCLComponent component)
+   protected void fillTreeItem(TreeItem treeItem, CCLComponent component)
    {
-      // create a tree item for this component
-      TreeItem treeItem = createTreeItem(parentTree, component);
+      // component name
+      treeItem.setText(COMPONENT_COLUMN, component.getName());
+      treeItem.setData(component);
 
       // set font color of component name indicating whether or not
       // this component's information is customer relevant
@@ -201,78 +231,6 @@ public abstract class ACLBasicTab implements PropertyChangeListener
          treeItem.setForeground(COMPONENT_COLUMN, mTree.getDisplay().getSystemColor(SWT.COLOR_BLACK));
          changeFontStyle(treeItem, COMPONENT_COLUMN, SWT.NORMAL);
       }
-
-      // repeat with all subcomponents of this component
-      for (CCLComponent subComponent : component.getSubComponents())
-      {
-         createComponents(treeItem, subComponent);
-      }
-   }
-
-   /**
-    * Creates a tree item for the given component as a child of the given
-    * parent.
-    * 
-    * @param parentTree parent tree or tree item
-    * @param component
-    * @return newly created tree item for the given component
-    */
-   protected TreeItem createTreeItem(Object parentTree, CCLComponent component)
-   {
-      // add new TreeItem to parent Tree/TreeItem
-      TreeItem treeItem = null;
-
-      if (parentTree instanceof TreeItem)
-      {
-         treeItem = new TreeItem((TreeItem) parentTree, SWT.NONE);
-      }
-      else if (parentTree instanceof Tree)
-      {
-         treeItem = new TreeItem((Tree) parentTree, SWT.NONE);
-      }
-
-      if (null != treeItem)
-      {
-         // component name
-         treeItem.setText(COMPONENT_COLUMN, component.getName());
-   
-         treeItem.setData(component);
-      }
-
-      return treeItem;
-   }
-
-   /**
-    * Expands all tree items that have been expanded before the last update of
-    * this tree.
-    * 
-    * @param parentTree parent tree or tree item
-    */
-   protected void expandPreviouslyExpandedComponents(Object parentTree)
-   {
-      TreeItem[] treeItems = null;
-
-      // check if parentTree is a Tree or a TreeItem and get all children
-      if (parentTree instanceof Tree)
-      {
-         treeItems = ((Tree) parentTree).getItems();
-      }
-      else if (parentTree instanceof TreeItem)
-      {
-         treeItems = ((TreeItem) parentTree).getItems();
-      }
-
-      // expand all tree items that are contained in mExpandedComponents
-      for (TreeItem treeItem : treeItems)
-      {
-         if (mExpandedComponents.contains(treeItem.getData()))
-         {
-            treeItem.setExpanded(true);
-         }
-
-         // repeat with all children of this tree item
-         expandPreviouslyExpandedComponents(treeItem);
-      }
    }
 
    /**
@@ -417,7 +375,7 @@ public abstract class ACLBasicTab implements PropertyChangeListener
     * @param treeItem clicked TreeItem
     * @return number of the clicked column or -1 if column was not found
     */
-   private int findClickedColumn(Point point, TreeItem treeItem)
+   protected int findClickedColumn(Point point, TreeItem treeItem)
    {
       if (null != point && null != treeItem)
       {
@@ -478,14 +436,135 @@ public abstract class ACLBasicTab implements PropertyChangeListener
    }
 
    /**
-    * Re-creates content on update.
+    * Updates the content. Changes of the model only refresh the affected tree
+    * items, the content is re-created if no event is given.
     */
    @Override
    public void propertyChange(PropertyChangeEvent pce)
    {
-      // Old observers need to be unregistered first.
-      unregisterObservers();
-      createContent();
+      if (null == pce || null == mTree || mTree.isDisposed())
+      {
+         // Old observers need to be unregistered first.
+         unregisterObservers();
+         createContent();
+      }
+      else
+      {
+         refresh(pce);
+      }
+   }
+
+   /**
+    * Refreshes the tree items affected by a change of the model. As the tree
+    * is virtual, the items are only cleared and filled again as soon as they
+    * are visible. Subclasses may handle additional sources of events.
+    * 
+    * @param pce change of the model
+    */
+   protected void refresh(PropertyChangeEvent pce)
+   {
+      Object source = pce.getSource();
+      CCLComponent root = SCLProject.getComponentRoot();
+
+      if (source == root)
+      {
+         // summarized changes of a batch or a new list of components
+         refreshSubComponents(root);
+      }
+      else if (source instanceof CCLComponent)
+      {
+         CCLComponent component = (CCLComponent) source;
+
+         if (PROPERTY_PARENT.equals(pce.getPropertyName()))
+         {
+            // the component has been added to its parent
+            if (null != component.getParent())
+            {
+               refreshSubComponents(component.getParent());
+            }
+         }
+         else if (PROPERTY_SUB_COMPONENTS.equals(pce.getPropertyName()))
+         {
+            refreshSubComponents(component);
+         }
+         else
+         {
+            refreshComponent(component);
+         }
+      }
+
+      // changes of lists of subcomponents are followed by one of the events
+      // above
+   }
+
+   /**
+    * Refreshes the tree item of the given component, but not its children.
+    * 
+    * @param component changed component
+    */
+   protected void refreshComponent(CCLComponent component)
+   {
+      TreeItem treeItem = getTreeItem(component);
+      if (null == treeItem)
+      {
+         return;
+      }
+
+      TreeItem parentItem = treeItem.getParentItem();
+      if (null == parentItem)
+      {
+         mTree.clear(mTree.indexOf(treeItem), false);
+      }
+      else
+      {
+         parentItem.clear(parentItem.indexOf(treeItem), false);
+      }
+   }
+
+   /**
+    * Refreshes all tree items below the given component after subcomponents
+    * have been added or removed.
+    * 
+    * @param component parent component
+    */
+   protected void refreshSubComponents(CCLComponent component)
+   {
+      int itemCount = component.getSubComponents().size();
+
+      if (component == SCLProject.getComponentRoot())
+      {
+         mTree.setItemCount(itemCount);
+         mTree.clearAll(true);
+      }
+      else
+      {
+         TreeItem treeItem = getTreeItem(component);
+         if (null != treeItem)
+         {
+            treeItem.setItemCount(itemCount);
+            treeItem.clearAll(true);
+         }
+      }
+   }
+
+   /**
+    * Returns the tree item of the given component.
+    * 
+    * @param component
+    * @return tree item or null if the item has not been filled yet
+    */
+   private TreeItem getTreeItem(CCLComponent component)
+   {
+      TreeItem treeItem = mTreeItems.get(component);
+
+      if (null != treeItem && (treeItem.isDisposed() || treeItem.getData() != component))
+      {
+         // the item has been cleared or shows another component meanwhile
+         mTreeItems.remove(component);
+         treeItem = null;
+      }
+
+      return treeItem;
    }
 
    /**
@@ -618,19 +697,60 @@ public abstract class ACLBasicTab implements PropertyChangeListener
     */
    protected void changeFontStyle(TreeItem item, int column, int style)
    {
-      Font font = item.getFont();
+      Font styledFont = mFonts.get(style);
 
-      if (null != font)
+      if (null == styledFont || styledFont.isDisposed())
       {
-         Device device = font.getDevice();
-         FontData[] fontData = font.getFontData();
+         Font font = item.getFont();
 
-         if (null != device && null != fontData && 0 < fontData.length)
+         if (null != font)
          {
-            String name = fontData[0].getName();
-            int height = fontData[0].getHeight();
+            Device device = font.getDevice();
+            FontData[] fontData = font.getFontData();
+
+            if (null != device && null != fontData && 0 < fontData.length)
+            {
+               String name = fontData[0].getName();
+               int height = fontData[0].getHeight();
+
+               styledFont = new Font(device, name, height, style);
+               mFonts.put(style, styledFont);
+            }
+         }
+      }
+
+      if (null != styledFont)
+      {
+         item.setFont(column, styledFont);
+      }
+   }
+
+   /**
+    * Listener for a virtual tree that is called whenever a tree item becomes
+    * visible for the first time. Fills the item with the data of its
+    * component and creates placeholders for the subcomponents, which are
+    * filled once they become visible as well.
+    */
+   public class CCLSetDataListener implements Listener
+   {
+      @Override
+      public void handleEvent(Event e)
+      {
+         TreeItem treeItem = (TreeItem) e.item;
+         TreeItem parentItem = treeItem.getParentItem();
 
-            item.setFont(column, new Font(device, name, height, style));
+         CCLComponent parent = null == parentItem ? SCLProject.getComponentRoot() :
+               (CCLComponent) parentItem.getData();
+         CCLComponent component = parent.getSubComponents().get(e.index);
+
+         fillTreeItem(treeItem, component);
+         treeItem.setItemCount(component.getSubComponents().size());
+         mTreeItems.put(component, treeItem);
+
+         // restore the state before the last update of this tree
+         if (mExpandedComponents.contains(component))
+         {
+            treeItem.setExpanded(true);
          }
       }
    }
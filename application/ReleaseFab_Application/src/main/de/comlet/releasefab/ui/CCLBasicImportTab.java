@@ -33,11 +33,9 @@ import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.custom.TreeEditor;
 import org.eclipse.swt.events.FocusAdapter;
 import org.eclipse.swt.events.FocusEvent;
-import org.eclipse.swt.events.MouseAdapter;
-import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
-import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
@@ -86,6 +84,9 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
    /** Maximum number of required parameters */
    private int mMaxParameters;
 
+   /** Editor of the clicked cell */
+   private TreeEditor mCellEditor;
+
    /**
     * Creates an initial import tab that is updated whenever something in the
     * component tree changes, e.g. when a new component is added.
@@ -147,43 +148,112 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
    }
 
    /**
-    * Creates a tree item for the given component as a child of the given
-    * parent.
+    * Creates the tree and registers a listener which opens an editor for the
+    * clicked cell.
+    */
+   @Override
+   protected void createContent()
+   {
+      super.createContent();
+
+      mCellEditor = new TreeEditor(mTree);
+      mCellEditor.horizontalAlignment = SWT.LEFT;
+      mCellEditor.verticalAlignment = SWT.TOP;
+      mCellEditor.grabHorizontal = true;
+
+      mTree.addListener(SWT.MouseDown, new Listener()
+      {
+         @Override
+         public void handleEvent(Event e)
+         {
+            Point pt = new Point(e.x, e.y);
+            TreeItem treeItem = mTree.getItem(pt);
+            editCell(treeItem, findClickedColumn(pt, treeItem));
+         }
+      });
+   }
+
+   /**
+    * Fills a tree item with the assignment strategy and the parameters of the
+    * given component. The controls to change them are only created for the
+    * cell which is clicked, see {@link #editCell(TreeItem, int)}.
     *
-    * @param parentTree parent tree or tree item
-    * @param component
-    * @return
+    * @param treeItem tree item to fill
+    * @param component component of the tree item
     */
    @Override
-   protected TreeItem createTreeItem(Object parentTree, CCLComponent component)
+   protected void fillTreeItem(TreeItem treeItem, CCLComponent component)
    {
-      // add new TreeItem to parent tree or tree item
-      TreeItem treeItem = super.createTreeItem(parentTree, component);
+      super.fillTreeItem(treeItem, component);
 
       // assignment strategy
       if (null != component.getAssignmentStrategy(mImportStrategy.getName()))
       {
          treeItem.setText(ASSIGNMENT_COLUMN, component.getAssignmentStrategy(mImportStrategy.getName()).getName());
-         CCombo assignmentStrategy = createComboBox(treeItem);
-         assignmentStrategy.addFocusListener(new CCLBasicImportFocusAdapter(treeItem, ASSIGNMENT_COLUMN));
-         addControl(treeItem, ASSIGNMENT_COLUMN, assignmentStrategy);
       }
-      
+
       // test button
-      Button btnTest = new Button(mTree, SWT.PUSH);
-      btnTest.setText("T");
-      btnTest.addMouseListener(new CCLBasicImportMouseAdapter(component));
-      addControl(treeItem, TESTBUTTON_COLUMN, btnTest);
+      treeItem.setText(TESTBUTTON_COLUMN, "T");
 
       // parameters
       for (int i = 0; i < mMaxParameters; i++)
       {
-         treeItem.setText(PARAM1_COLUMN + i, component.getParameters(mImportStrategy.getName()).get(i).getValue());
-         String paramStr = treeItem.getText(PARAM1_COLUMN + i);
+         String paramStr = component.getParameters(mImportStrategy.getName()).get(i).getValue();
+         treeItem.setText(PARAM1_COLUMN + i, paramStr);
+         highlightCell(treeItem, PARAM1_COLUMN + i);
+      }
+   }
+
+   /**
+    * Opens an editor for the given cell and closes the editor of the
+    * previously edited cell. A click on the test column starts a test of the
+    * assignment strategy instead.
+    *
+    * @param treeItem clicked tree item
+    * @param column clicked column
+    */
+   private void editCell(TreeItem treeItem, int column)
+   {
+      Control oldEditor = mCellEditor.getEditor();
+      if (null != oldEditor && !oldEditor.isDisposed())
+      {
+         // the changes are saved when the editor loses focus
+         if (oldEditor.isFocusControl())
+         {
+            mTree.setFocus();
+         }
+         oldEditor.dispose();
+      }
+
+      if (null == treeItem || column <= COMPONENT_COLUMN)
+      {
+         return;
+      }
+
+      CCLComponent component = (CCLComponent) treeItem.getData();
+      Control control = null;
+
+      if (ASSIGNMENT_COLUMN == column)
+      {
+         // assignment strategy
+         if (null != component.getAssignmentStrategy(mImportStrategy.getName()))
+         {
+            CCombo assignmentStrategy = createComboBox(treeItem);
+            assignmentStrategy.addFocusListener(new CCLBasicImportFocusAdapter(treeItem, ASSIGNMENT_COLUMN));
+            control = assignmentStrategy;
+         }
+      }
+      else if (TESTBUTTON_COLUMN == column)
+      {
+         runTest(component);
+      }
+      else if (column < PARAM1_COLUMN + mMaxParameters)
+      {
+         // parameter
          Text parameter = new Text(mTree, SWT.MULTI | SWT.WRAP);
-         parameter.setText(paramStr);
+         parameter.setText(treeItem.getText(column));
          highlightTextfield(parameter);
-         parameter.addFocusListener(new CCLBasicImportFocusAdapter(treeItem, PARAM1_COLUMN + i));
+         parameter.addFocusListener(new CCLBasicImportFocusAdapter(treeItem, column));
 
          // add listeners to expand the text field when it's text is too long
          // for only one line and collapse it when it loses focus
@@ -193,10 +263,14 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
          parameter.addListener(SWT.FocusIn, textfieldListener);
          parameter.addListener(SWT.FocusOut, textfieldListener);
 
-         addControl(treeItem, PARAM1_COLUMN + i, parameter);
+         control = parameter;
       }
 
-      return treeItem;
+      if (null != control)
+      {
+         addControl(treeItem, column, control);
+         control.setFocus();
+      }
    }
 
    /**
@@ -250,7 +324,7 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
    }
 
    /**
-    * Adds a control to the tree item in the given column
+    * Shows a control in the given column of the tree item
     *
     * @param treeItem
     * @param control
@@ -258,19 +332,16 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
     */
    private void addControl(TreeItem treeItem, int column, Control control)
    {
-      TreeEditor editor = new TreeEditor(mTree);
-      editor.horizontalAlignment = SWT.LEFT;
-      editor.verticalAlignment = SWT.TOP;
-      editor.grabHorizontal = true;
+      mCellEditor.minimumHeight = 0;
 
-      if (mTree.getColumn(column).getWidth() < editor.minimumWidth)
+      if (mTree.getColumn(column).getWidth() < mCellEditor.minimumWidth)
       {
-         mTree.getColumn(column).setWidth(editor.minimumWidth);
+         mTree.getColumn(column).setWidth(mCellEditor.minimumWidth);
       }
 
-      control.setData("treeeditor", editor);
+      control.setData("treeeditor", mCellEditor);
 
-      editor.setEditor(control, treeItem, column);
+      mCellEditor.setEditor(control, treeItem, column);
    }
 
    /**
@@ -335,6 +406,24 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
       }
    }
 
+   /**
+    * Highlight cell of a parameter if there's some user input.
+    *
+    * @param treeItem
+    * @param column
+    */
+   private static void highlightCell(TreeItem treeItem, int column)
+   {
+      if (0 < treeItem.getText(column).trim().length())
+      {
+         treeItem.setBackground(column, treeItem.getDisplay().getSystemColor(SWT.COLOR_GRAY));
+      }
+      else
+      {
+         treeItem.setBackground(column, null);
+      }
+   }
+
    /**
     * FocusAdapter that saves any changes when the control loses focus.
     */
@@ -381,6 +470,11 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
             // save changes to the table cell
             mTreeItem.setText(mColumn, text);
             SCLProject.setNeedsSaving(true);
+
+            if (e.widget instanceof Text)
+            {
+               highlightCell(mTreeItem, mColumn);
+            }
          }
       }
    }
@@ -452,48 +546,39 @@ public class CCLBasicImportTab extends ACLBasicTab implements PropertyChangeList
    }
 
    /**
-    * MouseAdapter for the test button starting a test and presenting a preview
-    * of the output from the selected AssignmentStrategy.
+    * Starts a test and presents a preview of the output from the selected
+    * AssignmentStrategy of the given component.
+    *
+    * @param component component to test
     */
-   private class CCLBasicImportMouseAdapter extends MouseAdapter
+   private void runTest(final CCLComponent component)
    {
-      private CCLComponent mComponent;
+      SCLProject.setTestMode(true);
 
-      public CCLBasicImportMouseAdapter(CCLComponent component)
-      {
-         mComponent = component;
-      }
+      final ACLAssignmentStrategy strategy = component.getAssignmentStrategy(mImportStrategy.getName());
 
-      @Override
-      public void mouseDown(MouseEvent event)
-      {
-         SCLProject.setTestMode(true);
+      final Shell shell = mTree.getShell();
+      final CCLProgressDialog progress = new CCLProgressDialog(shell);
 
-         final ACLAssignmentStrategy strategy = mComponent.getAssignmentStrategy(mImportStrategy.getName());
-
-         final Shell shell = mTree.getShell();
-         final CCLProgressDialog progress = new CCLProgressDialog(shell);
-
-         // define background worker
-         ACLBackgroundWorker worker = new ACLBackgroundWorker(progress)
+      // define background worker
+      ACLBackgroundWorker worker = new ACLBackgroundWorker(progress)
+      {
+         @Override
+         public void doWork()
          {
-            @Override
-            public void doWork()
-            {
-               CCLDelivery emptyDelivery = new CCLDelivery();
-               Element report = strategy.getData(mComponent.getParameters(mImportStrategy.getName()), mComponent,
-                     emptyDelivery, SCLProject.getFormerDelivery(emptyDelivery), mImportStrategy, SCLProject.getProjectRoot(), SCLProject.getInstance().getInitialComponent());
-               setResult(report);
-            }
-         };
+            CCLDelivery emptyDelivery = new CCLDelivery();
+            Element report = strategy.getData(component.getParameters(mImportStrategy.getName()), component,
+                  emptyDelivery, SCLProject.getFormerDelivery(emptyDelivery), mImportStrategy, SCLProject.getProjectRoot(), SCLProject.getInstance().getInitialComponent());
+            setResult(report);
+         }
+      };
 
-         // start background worker thread and open progress dialog
-         progress.open(worker);
+      // start background worker thread and open progress dialog
+      progress.open(worker);
 
-         CCLPreviewDialog previewDialog = new CCLPreviewDialog(shell);
-         previewDialog.open((Element) worker.getResult());
+      CCLPreviewDialog previewDialog = new CCLPreviewDialog(shell);
+      previewDialog.open((Element) worker.getResult());
 
-         SCLProject.setTestMode(false);
-      }
+      SCLProject.setTestMode(false);
    }
 }
\ No newline at end of file
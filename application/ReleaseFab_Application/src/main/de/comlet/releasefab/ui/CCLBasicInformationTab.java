@@ -26,12 +26,15 @@ import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.ui.commands.ACLCommand;
 import de.comlet.releasefab.ui.dialogs.CCLDeliveryInfoDialog;
+import java.beans.PropertyChangeEvent;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Image;
@@ -51,9 +54,10 @@ public class CCLBasicInformationTab extends ACLBasicTab
    private static final int NON_TRANSPARENT_ALPHA_VALUE = 255;
    
    /**
-    * Map of all images that have already been combined.
+    * Map of all images that have already been combined. The key consists of
+    * the names of the combined importers and the number of icons.
     */
-   private Map<Integer, Image> mCombinedIcons = new HashMap<Integer, Image>();
+   private Map<String, Image> mCombinedIcons = new HashMap<String, Image>();
 
    /**
     * Creates an initial information tab that is updated whenever a new delivery
@@ -107,6 +111,61 @@ public class CCLBasicInformationTab extends ACLBasicTab
       }
    }
 
+   /**
+    * Adds or removes the columns of added or removed deliveries. Other
+    * changes are handled by {@link ACLBasicTab#refresh(PropertyChangeEvent)}.
+    * 
+    * @param pce change of the model
+    */
+   @Override
+   protected void refresh(PropertyChangeEvent pce)
+   {
+      if (pce.getSource() == SCLProject.getInstance().getDeliveries())
+      {
+         refreshDeliveryColumns();
+      }
+      else
+      {
+         super.refresh(pce);
+      }
+   }
+
+   /**
+    * Synchronizes the columns with the deliveries. Only the columns of added
+    * or removed deliveries are created or disposed, the visible items are
+    * filled again afterwards.
+    */
+   private void refreshDeliveryColumns()
+   {
+      Set<String> deliveryNames = new HashSet<>();
+      for (CCLDelivery delivery : SCLProject.getInstance().getDeliveries())
+      {
+         deliveryNames.add(delivery.getName());
+      }
+
+      // dispose columns of removed deliveries
+      for (int i = mTree.getColumnCount() - 1; i > COMPONENT_COLUMN; i--)
+      {
+         if (!deliveryNames.contains(mTree.getColumn(i).getText()))
+         {
+            mTree.getColumn(i).dispose();
+         }
+      }
+
+      // create columns of added deliveries at their position
+      int column = COMPONENT_COLUMN + 1;
+      for (CCLDelivery delivery : SCLProject.getInstance().getDeliveries())
+      {
+         if (column >= mTree.getColumnCount() || !delivery.getName().equals(mTree.getColumn(column).getText()))
+         {
+            createTreeColumn(mTree, delivery.getName(), COLUMN_WIDTH_DELIVERY, column);
+         }
+         column++;
+      }
+
+      mTree.clearAll(true);
+   }
+
    /**
     * Opens an information dialog with detailed information about the selected component
     * in the selected delivery.
@@ -151,19 +210,18 @@ public class CCLBasicInformationTab extends ACLBasicTab
    }
 
    /**
-    * Creates a tree item for the given component as a child of the given
-    * parent.<br>
-    * It then adds version information for each delivery to the created tree
-    * item and marks new information.
+    * Fills a tree item with the data of the given component.<br>
+    * It then adds version information for each delivery to the tree item and
+    * marks new information. As the tree is virtual, this is only done for
+    * visible components.
     * 
-    * @param parentTree the parent TreeItem
-    * @param component the component to be included in the TreeItem
+    * @param treeItem the TreeItem to be filled
+    * @param component the component of the TreeItem
     */
    @Override
-   protected TreeItem createTreeItem(Object parentTree, CCLComponent component)
+   protected void fillTreeItem(TreeItem treeItem, CCLComponent component)
    {
-      // add new TreeItem to parent tree or tree item
-      TreeItem treeItem = super.createTreeItem(parentTree, component);
+      super.fillTreeItem(treeItem, component);
 
       // add version information for each delivery to the created tree item
       int i = 1;
@@ -179,7 +237,7 @@ public class CCLBasicInformationTab extends ACLBasicTab
                continue;
             }
 
-            ACLDeliveryInformation deliveryInfo = component.getDeliveryInformation(delivery.getName() + importer.getName());
+            ACLDeliveryInformation deliveryInfo = component.getDeliveryInformation(delivery.getName(), importer.getName());
             
             if (null != deliveryInfo)
             {
@@ -211,8 +269,6 @@ public class CCLBasicInformationTab extends ACLBasicTab
 
          i++;
       }
-
-      return treeItem;
    }
 
    /**
@@ -280,9 +336,16 @@ public class CCLBasicInformationTab extends ACLBasicTab
          return null;
       }
 
+      StringBuilder key = new StringBuilder();
+      for (ACLImportStrategy importer : importers)
+      {
+         key.append(importer.getName()).append('/');
+      }
+      key.append(possibleIconsCount);
+
       // Is the current combination a cached one?
-      Image combinedIcon = mCombinedIcons.get(importers.hashCode());
-      if (null == combinedIcon)
+      Image combinedIcon = mCombinedIcons.get(key.toString());
+      if (null == combinedIcon || combinedIcon.isDisposed())
       {
          List<Image> icons = new ArrayList<Image>();
 
@@ -319,9 +382,16 @@ public class CCLBasicInformationTab extends ACLBasicTab
          // combine all icons into one big icon
          combinedIcon = combineIcons(icons);
 
+         // the combined icon is a copy, so the single icons are not needed
+         // any more
+         for (Image icon : new HashSet<>(icons))
+         {
+            icon.dispose();
+         }
+
          // put the resulting image into the map, so we don't need to do
          // this a second time for the exact same combination of icons
-         mCombinedIcons.put(importers.hashCode(), combinedIcon);
+         mCombinedIcons.put(key.toString(), combinedIcon);
       }
 
       return combinedIcon;
@@ -67,7 +67,7 @@ public class CCLCommandExportDelivery extends ACLCommand
             if (null != fileName && !fileName.isEmpty())
             {
                // export deliveries
-               SCLProject.save(fileName, deliveries);
+               SCLProject.exportDeliveries(fileName, deliveries);
 
                MessageBox savedMessageBox = new MessageBox(shell, SWT.ICON_INFORMATION | SWT.OK);
                savedMessageBox.setMessage("Delivery export finsished successfully!");
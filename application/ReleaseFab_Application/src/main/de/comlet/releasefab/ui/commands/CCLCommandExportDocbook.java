@@ -55,16 +55,26 @@ public class CCLCommandExportDocbook extends ACLCommand
       CCLDeliveryListDialog dialog = new CCLDeliveryListDialog(shell, SCLProject.getInstance().getDeliveries());
       final Set<CCLDelivery> deliveries = dialog.open();
       final boolean isForCustomer = dialog.isForCustomer();
+      final boolean isForCustomerAndInternal = dialog.isForCustomerAndInternal();
 
       if (null != deliveries && !deliveries.isEmpty())
       {
-         final String fileName = getFilenameForDocbookExport(shell);
+         final String fileName = getFilenameForDocbookExport(shell, "Save As...", "export_docbook.xml");
 
-         if (null != fileName && !fileName.isEmpty())
+         // both documents are created in one pass
+         String customerFileName = null;
+         if (isForCustomerAndInternal && null != fileName && !fileName.isEmpty())
+         {
+            customerFileName = getFilenameForDocbookExport(shell, "Save Customer Docbook As...",
+                  "export_docbook_customer.xml");
+         }
+
+         if (null != fileName && !fileName.isEmpty() &&
+               (!isForCustomerAndInternal || (null != customerFileName && !customerFileName.isEmpty())))
          {
             try
             {
-               doDocbookExport(shell, deliveries, isForCustomer, fileName);
+               doDocbookExport(shell, deliveries, isForCustomer, fileName, customerFileName);
             }
             catch (CCLInternalException ex)
             {
@@ -82,17 +92,19 @@ public class CCLCommandExportDocbook extends ACLCommand
     * Opens a Dialog to enter a filename and location to save the exported Docbook-File.
     * 
     * @param shell The shell to open the FileDialog with
+    * @param text The title of the FileDialog
+    * @param defaultFileName The file name proposed to the user
     * @return An absolute path to export the Docbook-File to
     */
-   private String getFilenameForDocbookExport(Shell shell)
+   private String getFilenameForDocbookExport(Shell shell, String text, String defaultFileName)
    {
       // ask user to chose location for export file
       FileDialog saveFileDialog = new FileDialog(shell, SWT.SAVE);
-      saveFileDialog.setText("Save As...");
+      saveFileDialog.setText(text);
       // hack: not working without adding a static string to the
       // ProjectRoot string (SWT)
       saveFileDialog.setFilterPath(SCLProject.getProjectRoot() + " ");
-      saveFileDialog.setFileName("export_docbook.xml");
+      saveFileDialog.setFileName(defaultFileName);
       String[] filterExt = { "*.xml", "*.*" };
       saveFileDialog.setFilterExtensions(filterExt);
 
@@ -107,10 +119,13 @@ public class CCLCommandExportDocbook extends ACLCommand
     * @param deliveries The selected deliveries to be exported
     * @param isForCustomer User selection if the export is for a customer or not
     * @param fileName The absolute path where the Docbook-File shall be exported to
+    * @param customerFileName The absolute path where the Docbook-File for the
+    * customer shall be exported to in the same pass, or null if only one
+    * Docbook-File is exported
     * @throws CCLInternalException
     */
    private void doDocbookExport(Shell shell, final Set<CCLDelivery> deliveries, final boolean isForCustomer,
-         final String fileName) throws CCLInternalException
+         final String fileName, final String customerFileName) throws CCLInternalException
    {
       final CCLProgressDialog progress = new CCLProgressDialog(shell);
 
@@ -123,7 +138,14 @@ public class CCLCommandExportDocbook extends ACLCommand
             try
             {
                // export docbook
-               SCLProject.exportDocbook(fileName, deliveries, isForCustomer);
+               if (null != customerFileName)
+               {
+                  SCLProject.exportDocbooks(customerFileName, fileName, deliveries);
+               }
+               else
+               {
+                  SCLProject.exportDocbook(fileName, deliveries, isForCustomer);
+               }
                setSucceeded(true);
             }
             catch (IOException | RuntimeException e)
@@ -56,6 +56,7 @@ public class CCLDeliveryListDialog extends Dialog
    private Shell mShell;
    private Table mDeliveryTableWidget;
    private Button mIsForCustomerCheckBox;
+   private Button mIsForCustomerAndInternalCheckBox;
 
    /** Deliveries to choose from */
    private Collection<CCLDelivery> mDeliveries;
@@ -66,6 +67,9 @@ public class CCLDeliveryListDialog extends Dialog
    /** Value of the checkbox {@link #mIsForCustomerCheckBox} */
    private boolean mIsForCustomer;
 
+   /** Value of the checkbox {@link #mIsForCustomerAndInternalCheckBox} */
+   private boolean mIsForCustomerAndInternal;
+
    /**
     * Ask the user to choose deliveries from a list.
     * 
@@ -156,6 +160,9 @@ public class CCLDeliveryListDialog extends Dialog
 
       mIsForCustomerCheckBox = new Button(shell, SWT.CHECK);
       mIsForCustomerCheckBox.setText("Export for customer");
+
+      mIsForCustomerAndInternalCheckBox = new Button(shell, SWT.CHECK);
+      mIsForCustomerAndInternalCheckBox.setText("Export for customer and for internal use");
       
       // button group
       GridData gridDataButtonComposite = new GridData(GridData.HORIZONTAL_ALIGN_FILL);
@@ -184,6 +191,16 @@ public class CCLDeliveryListDialog extends Dialog
       return mIsForCustomer;
    }
 
+   /**
+    * Did the user check the checkbox for both exports?
+    * 
+    * @return
+    */
+   public boolean isForCustomerAndInternal()
+   {
+      return mIsForCustomerAndInternal;
+   }
+
    /**
     * MouseAdapter for the OK button. Closes the dialog window.
     */
@@ -209,6 +226,7 @@ public class CCLDeliveryListDialog extends Dialog
          }
 
          mIsForCustomer = mIsForCustomerCheckBox.getSelection();
+         mIsForCustomerAndInternal = mIsForCustomerAndInternalCheckBox.getSelection();
 
          mShell.close();
       }
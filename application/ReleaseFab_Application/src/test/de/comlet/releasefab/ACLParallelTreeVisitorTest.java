@@ -0,0 +1,242 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file ACLParallelTreeVisitorTest.java
+ *
+ * @brief Unit-tests of {@link #ACLParallelTreeVisitor}.
+ */
+
+package de.comlet.releasefab;
+
+import de.comlet.releasefab.api.plugin.ACLParallelTreeVisitor;
+import de.comlet.releasefab.api.plugin.ACLTreeVisitor;
+import de.comlet.releasefab.library.model.CCLComponent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ACLParallelTreeVisitorTest
+{
+   /** Number of subcomponents of every component which is not a leaf. */
+   private static final int WIDTH = 4;
+
+   /** Number of levels below the root. */
+   private static final int DEPTH = 4;
+
+   private static final int PARALLELISM = 4;
+
+   private CCLComponent mRoot;
+   private ForkJoinPool mPool;
+
+   @BeforeEach
+   void setUp()
+   {
+      mRoot = new CCLComponent();
+      addSubComponents(mRoot, "", DEPTH);
+      mPool = new ForkJoinPool(PARALLELISM);
+   }
+
+   @AfterEach
+   void tearDown()
+   {
+      mPool.shutdown();
+   }
+
+   /**
+    * Test that the first hit in the order of the tree is returned with
+    * quickReturn, like the sequential visitor does.
+    */
+   @Test
+   void testQuickReturnFindsFirstHit()
+   {
+      ACLTreeVisitor<String, String> sequential = new CCLFindVisitor(null);
+      ACLParallelTreeVisitor<String, String> parallel = new CCLParallelFindVisitor(mPool, null);
+
+      // the prefixes match a component and its subtree, several subtrees, a
+      // leaf and no component at all
+      for (String prefix : new String[] { "1", "12", "2", "0323", "3210", "9" })
+      {
+         assertEquals(sequential.visit(mRoot, prefix, true), parallel.visit(mRoot, prefix, true), prefix);
+      }
+      assertAll(() -> assertEquals("1", parallel.visit(mRoot, "1", true)),
+            () -> assertEquals("0323", parallel.visit(mRoot, "0323", true)),
+            () -> assertNull(parallel.visit(mRoot, "9", true)));
+   }
+
+   /**
+    * Test that the result of the last subtree is returned without
+    * quickReturn, like the sequential visitor does.
+    */
+   @Test
+   void testWithoutQuickReturnReturnsLastResult()
+   {
+      ACLTreeVisitor<String, String> sequential = new CCLFindVisitor(null);
+      ACLParallelTreeVisitor<String, String> parallel = new CCLParallelFindVisitor(mPool, null);
+
+      for (String prefix : new String[] { "", "1", "12", "3", "33", "3333", "9" })
+      {
+         assertEquals(sequential.visit(mRoot, prefix, false), parallel.visit(mRoot, prefix, false), prefix);
+      }
+   }
+
+   /**
+    * Test that the results of the subtrees are combined in the order of the
+    * tree.
+    */
+   @Test
+   void testCombineInTreeOrder()
+   {
+      ACLParallelTreeVisitor<List<String>, String> parallel = new ACLParallelTreeVisitor<List<String>, String>(mPool)
+      {
+         @Override
+         public List<String> doIt(CCLComponent component, String target)
+         {
+            return Collections.singletonList(component.getName());
+         }
+
+         @Override
+         protected List<String> combine(List<String> previous, List<String> next)
+         {
+            List<String> res = new ArrayList<>(previous);
+            res.addAll(next);
+            return res;
+         }
+      };
+
+      // the result of a component with subcomponents is the one of its subtree
+      List<String> leaves = new ArrayList<>();
+      collectLeaves(mRoot, leaves);
+
+      assertEquals(leaves, parallel.visit(mRoot, null, false));
+   }
+
+   /**
+    * Test that components which follow a hit in the order of the tree are
+    * not visited with quickReturn. A single worker visits the components in
+    * the order of the tree, so the same components as by the sequential
+    * visitor are visited.
+    */
+   @Test
+   void testQuickReturnSkipsComponentsAfterHit()
+   {
+      List<String> sequentialVisited = Collections.synchronizedList(new ArrayList<>());
+      List<String> parallelVisited = Collections.synchronizedList(new ArrayList<>());
+      ForkJoinPool singleWorker = new ForkJoinPool(1);
+
+      try
+      {
+         new CCLFindVisitor(sequentialVisited).visit(mRoot, "0123", true);
+         new CCLParallelFindVisitor(singleWorker, parallelVisited).visit(mRoot, "0123", true);
+      }
+      finally
+      {
+         singleWorker.shutdown();
+      }
+
+      assertEquals(new HashSet<>(sequentialVisited), new HashSet<>(parallelVisited));
+      assertFalse(parallelVisited.contains("0130"));
+      assertFalse(parallelVisited.contains("1"));
+   }
+
+   /**
+    * Adds subcomponents down to the given depth. The name of a component
+    * consists of its indices and the ones of its ancestors.
+    */
+   private static void addSubComponents(CCLComponent parent, String name, int depth)
+   {
+      for (int i = 0; i < WIDTH; i++)
+      {
+         CCLComponent component = new CCLComponent();
+         component.setName(name + i);
+         component.setParent(parent);
+         parent.getSubComponents().add(component);
+
+         if (1 < depth)
+         {
+            addSubComponents(component, component.getName(), depth - 1);
+         }
+      }
+   }
+
+   private static void collectLeaves(CCLComponent component, List<String> leaves)
+   {
+      for (CCLComponent subComponent : component.getSubComponents())
+      {
+         if (subComponent.hasSubComponents())
+         {
+            collectLeaves(subComponent, leaves);
+         }
+         else
+         {
+            leaves.add(subComponent.getName());
+         }
+      }
+   }
+
+   /**
+    * Returns the name of a component if it starts with the target.
+    */
+   private static String find(CCLComponent component, String prefix, List<String> visited)
+   {
+      if (null != visited)
+      {
+         visited.add(component.getName());
+      }
+      return component.getName().startsWith(prefix) ? component.getName() : null;
+   }
+
+   /**
+    * Sequential visitor, which is not thread-safe, so it is not run by a
+    * parallel visitor.
+    */
+   private static final class CCLFindVisitor extends ACLTreeVisitor<String, String>
+   {
+      private final List<String> mVisited;
+
+      CCLFindVisitor(List<String> visited)
+      {
+         mVisited = visited;
+      }
+
+      @Override
+      public String doIt(CCLComponent component, String target)
+      {
+         return find(component, target, mVisited);
+      }
+   }
+
+   private static final class CCLParallelFindVisitor extends ACLParallelTreeVisitor<String, String>
+   {
+      private final List<String> mVisited;
+
+      CCLParallelFindVisitor(ForkJoinPool pool, List<String> visited)
+      {
+         super(pool);
+         mVisited = visited;
+      }
+
+      @Override
+      public String doIt(CCLComponent component, String target)
+      {
+         return find(component, target, mVisited);
+      }
+   }
+}
@@ -0,0 +1,121 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLComponentIndexTest.java
+ *
+ * @brief Unit-tests of {@link #CCLComponentIndex}.
+ */
+
+package de.comlet.releasefab;
+
+import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLComponentIndex;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CCLComponentIndexTest
+{
+   /**
+    * Test that a component which is removed from its parent is not found any
+    * more and is found again after it has been added to the same parent
+    * again.
+    */
+   @Test
+   void testRemoveAndAddComponentAgain()
+   {
+      CCLComponent root = new CCLComponent();
+      CCLComponent parent = createComponent(root, "parent");
+      CCLComponent component = createComponent(parent, "component");
+      CCLComponentIndex index = new CCLComponentIndex(root);
+
+      parent.getSubComponents().remove(component);
+
+      assertAll(() -> assertNull(index.getComponentById(root, component.getId())),
+            () -> assertNull(index.getComponentByName(root, "component")),
+            () -> assertNull(index.getComponentByName(parent, "component")));
+
+      parent.getSubComponents().add(component);
+
+      assertAll(() -> assertSame(component, index.getComponentById(root, component.getId())),
+            () -> assertSame(component, index.getComponentByName(root, "component")),
+            () -> assertSame(component, index.getComponentByName(parent, "component")));
+   }
+
+   /**
+    * Test that the subcomponents of a removed component are removed as well
+    * and are found again after the component has been added again at a
+    * position.
+    */
+   @Test
+   void testRemoveAndAddSubtreeAgain()
+   {
+      CCLComponent root = new CCLComponent();
+      CCLComponent first = createComponent(root, "first");
+      CCLComponent parent = createComponent(root, "parent");
+      CCLComponent component = createComponent(parent, "component");
+      CCLComponentIndex index = new CCLComponentIndex(root);
+
+      root.getSubComponents().remove(1);
+
+      assertAll(() -> assertNull(index.getComponentById(root, parent.getId())),
+            () -> assertNull(index.getComponentById(root, component.getId())),
+            () -> assertSame(first, index.getComponentById(root, first.getId())));
+
+      root.getSubComponents().add(0, parent);
+
+      assertAll(() -> assertSame(parent, index.getComponentById(root, parent.getId())),
+            () -> assertSame(component, index.getComponentById(parent, component.getId())),
+            () -> assertNull(index.getComponentById(first, component.getId())));
+   }
+
+   /**
+    * Test that replacing and clearing subcomponents updates the index, and
+    * that a component contained twice is dropped when it has been removed
+    * twice.
+    */
+   @Test
+   void testReplaceAndClearSubComponents()
+   {
+      CCLComponent root = new CCLComponent();
+      CCLComponent parent = createComponent(root, "parent");
+      CCLComponent replaced = createComponent(parent, "replaced");
+      CCLComponent duplicate = createComponent(parent, "duplicate");
+      CCLComponentIndex index = new CCLComponentIndex(root);
+
+      CCLComponent component = new CCLComponent();
+      component.setName("component");
+      parent.getSubComponents().set(0, component);
+      parent.getSubComponents().add(duplicate);
+      parent.getSubComponents().remove(duplicate);
+
+      assertAll(() -> assertNull(index.getComponentById(root, replaced.getId())),
+            () -> assertSame(component, index.getComponentByName(parent, "component")),
+            () -> assertSame(duplicate, index.getComponentById(parent, duplicate.getId())));
+
+      parent.getSubComponents().clear();
+
+      assertAll(() -> assertNull(index.getComponentById(root, component.getId())),
+            () -> assertNull(index.getComponentById(root, duplicate.getId())),
+            () -> assertSame(parent, index.getComponentByName(root, "parent")));
+   }
+
+   private static CCLComponent createComponent(CCLComponent parent, String name)
+   {
+      CCLComponent component = new CCLComponent();
+      component.setName(name);
+      component.setParent(parent);
+      parent.getSubComponents().add(component);
+      return component;
+   }
+}
@@ -0,0 +1,129 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLDeliveryCreationEngineTest.java
+ *
+ * @brief Unit-tests of {@link #CCLDeliveryCreationEngine}.
+ */
+
+package de.comlet.releasefab;
+
+import de.comlet.releasefab.CCLDeliveryCreationEngine.CCLDeliveryResult;
+import de.comlet.releasefab.api.plugin.ACLAssignmentStrategy;
+import de.comlet.releasefab.api.plugin.ACLImportStrategy;
+import de.comlet.releasefab.library.model.CCLAssignmentConstText;
+import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLDelivery;
+import de.comlet.releasefab.library.model.CCLParameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jdom2.Element;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CCLDeliveryCreationEngineTest
+{
+   /** Name of the importer whose assignment strategies are executed. */
+   private static final String IMPORTER_NAME = "Version";
+
+   /**
+    * Test that components which are added to the tree by an assignment
+    * strategy get delivery information as well, that their results are
+    * returned at their position in the tree and that the strategy which
+    * changes the tree is executed on the calling thread.
+    */
+   @Test
+   void testCreateDeliveryInformationOfAddedComponents()
+   {
+      ACLImportStrategy importer = SCLPluginLoader.getInstance().getImportStrategiesMap().get(IMPORTER_NAME);
+      CCLAssignmentAddComponent addComponent = new CCLAssignmentAddComponent();
+
+      CCLComponent root = new CCLComponent();
+      CCLComponent first = createComponent(root, new CCLAssignmentConstText());
+      CCLComponent parent = createComponent(root, addComponent);
+      CCLComponent last = createComponent(root, new CCLAssignmentConstText());
+
+      List<CCLDeliveryResult> results = new CCLDeliveryCreationEngine(4).createDeliveryInformation(root,
+            new CCLDelivery("1.0.0.0", "Test-Integrator"), Collections.singletonList(importer));
+
+      assertEquals(1, parent.getSubComponents().size());
+      CCLComponent added = parent.getSubComponents().get(0);
+
+      List<CCLComponent> components = new ArrayList<>();
+      for (CCLDeliveryResult result : results)
+      {
+         components.add(result.getComponent());
+         assertNotNull(result.getInformation());
+      }
+
+      assertEquals(Arrays.asList(first, parent, added, last), components);
+      assertSame(Thread.currentThread(), addComponent.mThread);
+   }
+
+   private static CCLComponent createComponent(CCLComponent parent, ACLAssignmentStrategy strategy)
+   {
+      CCLComponent component = new CCLComponent();
+      component.setAssignmentStrategy(IMPORTER_NAME, strategy);
+      component.setParameters(IMPORTER_NAME, new ArrayList<>(Arrays.asList(new CCLParameter("text", "info"))));
+      component.setParent(parent);
+      parent.getSubComponents().add(component);
+      return component;
+   }
+
+   /**
+    * Adds a component below the component it is executed for, like
+    * {@link de.comlet.releasefab.library.model.CCLAssignmentSubtree} does.
+    */
+   private static final class CCLAssignmentAddComponent extends ACLAssignmentStrategy
+   {
+      /** Thread which executed the strategy. */
+      private Thread mThread;
+
+      @Override
+      public String getName()
+      {
+         return "Add Component";
+      }
+
+      @Override
+      public int getNrOfParameters()
+      {
+         return 1;
+      }
+
+      @Override
+      public String getUsageInfo()
+      {
+         return getName();
+      }
+
+      @Override
+      public Element getData(List<CCLParameter> parameters, CCLComponent component, CCLDelivery delivery,
+            CCLDelivery formerDelivery, ACLImportStrategy importer, String projectRoot, CCLComponent initialComponent)
+      {
+         mThread = Thread.currentThread();
+         createComponent(component, new CCLAssignmentConstText());
+         return new Element("content");
+      }
+
+      @Override
+      public Element getData(List<CCLParameter> parameters, CCLComponent component, CCLDelivery delivery,
+            CCLDelivery formerDelivery, ACLImportStrategy importer, String projectRoot)
+      {
+         return getData(parameters, component, delivery, formerDelivery, importer, projectRoot, null);
+      }
+   }
+}
@@ -19,6 +19,7 @@ package de.comlet.releasefab;
 
 import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
 import de.comlet.releasefab.api.plugin.ACLImportStrategy;
+import de.comlet.releasefab.library.exception.CCLInternalException;
 import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.model.CCLObservableCollection;
@@ -31,6 +32,9 @@ import de.comlet.releasefab.test.util.CCLDirectoryHelper;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.EnumSet;
@@ -112,6 +116,13 @@ class SCLProjectTest
     */
    private static final String FILENAME_VERSIONS = "versions_unit_test.xml";
 
+   /**
+    * Name of the copy of {@link #FILENAME_VERSIONS} under
+    * {@link #DIRECTORY_OUT} which is loaded lazily by
+    * {@link #testSaveAfterDeletedExport}.
+    */
+   private static final String FILENAME_LAZY_PROJECT = "versions_lazy_test.xml";
+
    /**
     * Time the first delivery under test was created
     */
@@ -425,6 +436,85 @@ class SCLProjectTest
             () -> assertEquals("", SCLProject.getOpenFileName()));
    }
 
+   /**
+    * Loads the control XML-Document {@link #FILENAME_VERSIONS} into the empty
+    * project and checks that all deliveries, components and delivery
+    * information have been read.
+    * 
+    * @throws CCLInternalException
+    * @throws IOException
+    * @throws JDOMException
+    * @throws ParseException
+    */
+   @Order(8) @Test
+   void testLoad() throws CCLInternalException, JDOMException, IOException, ParseException
+   {
+      SCLProject.getInstance().reset();
+      SCLProject.load(new File(sDirectories.getIn() + FILENAME_VERSIONS));
+
+      CCLComponent component = SCLProject.getComponentRoot().getSubComponents().get(0);
+      List<ACLImportStrategy> plugins = SCLProject.getInstance().getImportStrategiesInViewOrder();
+      ACLDeliveryInformation information = component.getDeliveryInformation(DELIVERY_UNDER_TEST +
+            plugins.get(0).getName());
+
+      assertAll(() -> assertEquals(DELIVERIES_UNDER_TEST.size(), SCLProject.getInstance().getDeliveries().size()),
+            () -> assertEquals(1, SCLProject.getComponentRoot().getSubComponents().size()),
+            () -> assertEquals("Test-Component", component.getName()),
+            () -> assertEquals("W.X.Y.Z", information.getInformation().getChildText("string")),
+            () -> assertFalse(SCLProject.getNeedsSaving()));
+
+      SCLProject.getInstance().reset();
+   }
+
+   /**
+    * Loads a copy of the control XML-Document {@link #FILENAME_VERSIONS}
+    * lazily, exports the delivery {@link #DELIVERY_UNDER_TEST}, deletes the
+    * export and saves the project. The project must neither refer to the
+    * deleted export nor be switched to it.
+    * 
+    * @throws CCLInternalException
+    * @throws IOException
+    * @throws JDOMException
+    * @throws ParseException
+    */
+   @Order(9) @Test
+   void testSaveAfterDeletedExport() throws CCLInternalException, JDOMException, IOException, ParseException
+   {
+      File projectFile = new File(sDirectories.getOut() + FILENAME_LAZY_PROJECT);
+      File exportFile = new File(sDirectories.getOut() + FILENAME_DELIVERY);
+      Files.createDirectories(projectFile.getParentFile().toPath());
+      Files.copy(new File(sDirectories.getIn() + FILENAME_VERSIONS).toPath(), projectFile.toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+
+      SCLSettings.add(CCLXMLConstants.XML_LAZY_LOADING, Boolean.TRUE.toString(), EnumSet.of(ECLSettingsType.PROJECT));
+      try
+      {
+         SCLProject.getInstance().reset();
+         SCLProject.load(projectFile);
+
+         SCLProject.getInstance().exportDelivery(exportFile.getPath(),
+               SCLProject.getInstance().getDeliveryByName(DELIVERY_UNDER_TEST));
+         Files.delete(exportFile.toPath());
+         SCLProject.save(SCLProject.getOpenFileName(), SCLProject.getInstance().getDeliveries());
+
+         CCLComponent component = SCLProject.getComponentRoot().getSubComponents().get(0);
+         String importerName = SCLProject.getInstance().getImportStrategiesInViewOrder().get(0).getName();
+         ACLDeliveryInformation exported = component.getDeliveryInformation(DELIVERY_UNDER_TEST + importerName);
+         ACLDeliveryInformation unread = component.getDeliveryInformation(DELIVERIES_UNDER_TEST.get(0) +
+               importerName);
+
+         assertAll(() -> assertEquals(projectFile.getAbsolutePath(), SCLProject.getOpenFileName()),
+               () -> assertEquals("W.X.Y.Z", exported.getInformation().getChildText("string")),
+               () -> assertEquals("W.X.Y.Z", unread.getInformation().getChildText("string")));
+      }
+      finally
+      {
+         SCLSettings.add(CCLXMLConstants.XML_LAZY_LOADING, Boolean.FALSE.toString(),
+               EnumSet.of(ECLSettingsType.PROJECT));
+         SCLProject.getInstance().reset();
+      }
+   }
+
    private static List<ACLDeliveryInformation> getDeliveryInformationInViewOrder() throws JDOMException, IOException
    {
       SAXBuilder builder = new SAXBuilder();
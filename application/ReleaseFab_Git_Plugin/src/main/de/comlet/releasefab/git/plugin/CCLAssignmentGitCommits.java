@@ -27,10 +27,13 @@ import de.comlet.releasefab.library.exception.CCLVersionControlException;
 import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.model.CCLParameter;
+import de.comlet.releasefab.library.model.SCLAssignmentResultCache;
 import de.comlet.releasefab.library.xml.CCLXMLConstants;
 import de.comlet.releasefab.library.xml.CCLXMLSinkBase;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.Callable;
 import org.jdom2.Element;
 
 /**
@@ -39,10 +42,12 @@ import org.jdom2.Element;
 public class CCLAssignmentGitCommits extends ACLAssignmentStrategyExt
 {
    private static final String NAME = "Git Commits";
-   private static final int NUMBER_OF_PARAMETERS = 1;
+   private static final int NUMBER_OF_PARAMETERS = 2;
    private static final String USAGE_MESSAGE = "Assignment Local Git Tasks:\n" + 
          "Job: Assign tasks extracted out of git repository\n" + 
-         "Parameter 1: - optional - Git repository (e.g. E:\\augusta-git2\\augusta_sw_src\n";
+         "Parameter 1: - optional - Git repository (e.g. E:\\augusta-git2\\augusta_sw_src\n" +
+         "Parameter 2: - optional - Subdirectory of the repository. Only commits touching it are assigned " +
+         "(e.g. modules/network)\n";
 
    /**
     * Initialize information.
@@ -52,6 +57,19 @@ public class CCLAssignmentGitCommits extends ACLAssignmentStrategyExt
       super(NAME, NUMBER_OF_PARAMETERS, USAGE_MESSAGE);
    }
 
+   /**
+    * During a run all calls for the same repository share one handle from
+    * the repository cache of the Git service. Only read access is done on
+    * it, JGit repositories support this concurrently, and every call creates
+    * its own walks over the commits. The tree is only read to find the tag
+    * of the former delivery.
+    */
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
    /**
     * Provide commit information from a local Git repository. This method only
     * does error handling.
@@ -90,14 +108,16 @@ public class CCLAssignmentGitCommits extends ACLAssignmentStrategyExt
     * @return XML-Element.
     */
    protected Element getFormerVCSTag(List<CCLParameter> parameters, CCLComponent component, CCLDelivery delivery,
-         CCLDelivery formerDelivery, String projectRoot) throws CCLInternalException
+         CCLDelivery formerDelivery, final String projectRoot) throws CCLInternalException
    {
-      String path = parameters.isEmpty() ? projectRoot : parameters.get(0).getValue();
+      final String path = parameters.isEmpty() ? projectRoot : parameters.get(0).getValue();
+      final String subdirectory = parameters.size() > 1 ? parameters.get(1).getValue() : null;
 
       // Starting point: former tag or git root node.
       ICLTagContainer formerTag = null;
 
-      ServiceLoader<ICLVersionControlUtility> versionControlLoader = ServiceLoader.load(ICLVersionControlUtility.class);
+      final ServiceLoader<ICLVersionControlUtility> versionControlLoader =
+            ServiceLoader.load(ICLVersionControlUtility.class);
 
       try (ICLVersionControlUtility gitutil = versionControlLoader.findFirst().get())
       {
@@ -109,7 +129,20 @@ public class CCLAssignmentGitCommits extends ACLAssignmentStrategyExt
       {
          LOGGER.warn("Git warning: No former tag available. Starting from root.");
       }
-      return getGitData(path, formerTag, versionControlLoader);
+
+      // components with the same repository, subdirectory and former tag
+      // share the commits within a run
+      final ICLTagContainer startTag = formerTag;
+      List<Object> key = Arrays.asList(getClass(), path, subdirectory, null == formerTag ? null : formerTag.getName(),
+            projectRoot);
+      return SCLAssignmentResultCache.getInstance().get(key, new Callable<Element>()
+      {
+         @Override
+         public Element call() throws CCLInternalException
+         {
+            return getGitData(path, subdirectory, startTag, versionControlLoader, projectRoot);
+         }
+      });
    }
 
    /**
@@ -122,10 +155,30 @@ public class CCLAssignmentGitCommits extends ACLAssignmentStrategyExt
     */
    protected Element getGitData(String path, ICLTagContainer formerTag,
          ServiceLoader<ICLVersionControlUtility> versionControlLoader) throws CCLInternalException
+   {
+      return getGitData(path, null, formerTag, versionControlLoader, null);
+   }
+
+   /**
+    * Query for commits. Starting from the latest TAG until head revision.
+    * 
+    * @param config configuration for Git handler class
+    * @param subdirectory subdirectory of the repository the commits have to
+    * touch or null for all commits
+    * @param formerTag TAG of the last delivery
+    * @param versionControlLoader provides access to a VCS service
+    * @param cacheDirectory directory to cache commit ranges in or null
+    * @return XML-Element
+    */
+   protected Element getGitData(String path, String subdirectory, ICLTagContainer formerTag,
+         ServiceLoader<ICLVersionControlUtility> versionControlLoader, String cacheDirectory)
+         throws CCLInternalException
    {
       try (ICLVersionControlUtility gitutil = versionControlLoader.findFirst().get())
       {
          gitutil.initializeHandler(path);
+         gitutil.setCacheDirectory(cacheDirectory);
+         gitutil.setPathFilter(subdirectory);
          ICLTagContainer latestTag = gitutil.isSyncedToTag();
          if (latestTag == null)
          {
@@ -140,7 +193,9 @@ public class CCLAssignmentGitCommits extends ACLAssignmentStrategyExt
    }
 
    /**
-    * Generate XML-Output.
+    * Generate XML-Output. The commits are stored sorted, the newest one first,
+    * so the export can merge the commits of several deliveries without
+    * sorting them again.
     * 
     * @param commits Commits to be stored
     * @param sink XML-Sink to store the commits in
@@ -148,7 +203,7 @@ public class CCLAssignmentGitCommits extends ACLAssignmentStrategyExt
     */
    protected CCLXMLSinkBase processInput(Iterable<ICLCommitContainer> commits, CCLXMLSinkBase sink)
    {
-      sink.addItems(new CCLXMLCommitTransformer(commits));
+      sink.addItems(new CCLXMLCommitTransformer(new CCLCommitSortTransformer(commits)));
       return sink;
    }
 
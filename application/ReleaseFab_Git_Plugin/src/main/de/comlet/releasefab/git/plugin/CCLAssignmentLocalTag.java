@@ -72,6 +72,17 @@ public class CCLAssignmentLocalTag extends ACLAssignmentStrategyExt
       return USAGE_MESSAGE;
    }
 
+   /**
+    * During a run all calls for the same repository share one handle from
+    * the repository cache of the Git service. The tags are only read, JGit
+    * repositories support this concurrently.
+    */
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
    /**
     * Finds local Git TAG if the HEAD is synched to it.<br>
     * parameters[0]: A project name is optional
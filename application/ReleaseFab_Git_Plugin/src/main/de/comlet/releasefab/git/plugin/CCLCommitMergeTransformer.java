@@ -0,0 +1,163 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCommitMergeTransformer.java
+ *
+ * @brief Merge sorted lists of Git commits.
+ */
+
+package de.comlet.releasefab.git.plugin;
+
+import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
+import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Merges lists of Git commits which are sorted like by
+ * {@link CCLCommitSortTransformer}, i.e. the newest commit first, into one
+ * sorted list. Only the first commit of every list is held in a heap, so k
+ * lists with n commits in total are merged in O(n log k). Commits with the
+ * same time keep the order of the lists. A commit contained in more than one
+ * list is returned only once.
+ */
+public class CCLCommitMergeTransformer implements Iterable<ICLCommitContainer>
+{
+   private final List<? extends Iterable<ICLCommitContainer>> mSources;
+
+   /**
+    * Remember the sorted lists.
+    */
+   CCLCommitMergeTransformer(List<? extends Iterable<ICLCommitContainer>> sources)
+   {
+      mSources = sources;
+   }
+
+   /**
+    * Next commit of one of the lists.
+    */
+   private static final class CCLHead
+   {
+      private final CCLGitCommitContainer mCommit;
+      private final Iterator<ICLCommitContainer> mSource;
+
+      /** Position of the list, decides on commits with the same time. */
+      private final int mSourceIndex;
+
+      CCLHead(ICLCommitContainer commit, Iterator<ICLCommitContainer> source, int sourceIndex)
+      {
+         // Downcasts are guaranteed to be save in this module
+         mCommit = (CCLGitCommitContainer) commit;
+         mSource = source;
+         mSourceIndex = sourceIndex;
+      }
+   }
+
+   /**
+    * Newest commit first, on the same time the commit of the first list.
+    */
+   private static final class CCLHeadComparator implements Comparator<CCLHead>
+   {
+      @Override
+      public int compare(CCLHead h1, CCLHead h2)
+      {
+         int result = Integer.compare(h2.mCommit.getCommitTime(), h1.mCommit.getCommitTime());
+         if (0 == result)
+         {
+            result = Integer.compare(h1.mSourceIndex, h2.mSourceIndex);
+         }
+         return result;
+      }
+   }
+
+   /**
+    * Takes the newest commit of all lists and replaces it in the heap by the
+    * next commit of its list.
+    */
+   private final class CCLMergeIterator implements Iterator<ICLCommitContainer>
+   {
+      private final PriorityQueue<CCLHead> mHeads;
+
+      /** Hashes of the commits which have been returned. */
+      private final Set<String> mHashes = new HashSet<>();
+
+      private ICLCommitContainer mNextItem;
+
+      CCLMergeIterator()
+      {
+         mHeads = new PriorityQueue<>(Math.max(1, mSources.size()), new CCLHeadComparator());
+         for (int i = 0; i < mSources.size(); i++)
+         {
+            offerNext(mSources.get(i).iterator(), i);
+         }
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+         findNext();
+         return null != mNextItem;
+      }
+
+      @Override
+      public ICLCommitContainer next()
+      {
+         if (!hasNext())
+         {
+            throw new NoSuchElementException();
+         }
+
+         ICLCommitContainer result = mNextItem;
+         mNextItem = null;
+         return result;
+      }
+
+      /**
+       * Find the next commit which has not been returned yet.
+       */
+      private void findNext()
+      {
+         while (null == mNextItem && !mHeads.isEmpty())
+         {
+            CCLHead head = mHeads.poll();
+            offerNext(head.mSource, head.mSourceIndex);
+
+            if (mHashes.add(head.mCommit.getHash()))
+            {
+               mNextItem = head.mCommit;
+            }
+         }
+      }
+
+      private void offerNext(Iterator<ICLCommitContainer> source, int sourceIndex)
+      {
+         if (source.hasNext())
+         {
+            mHeads.add(new CCLHead(source.next(), source, sourceIndex));
+         }
+      }
+   }
+
+   /**
+    * Provide an iterator over the merged lists.
+    */
+   @Override
+   public Iterator<ICLCommitContainer> iterator()
+   {
+      return new CCLMergeIterator();
+   }
+}
@@ -19,6 +19,8 @@ package de.comlet.releasefab.git.plugin;
 
 import de.comlet.releasefab.api.almservice.ICLALMUtility;
 import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
+import de.comlet.releasefab.api.plugin.CCLExportContext;
+import de.comlet.releasefab.api.plugin.ICLDocbookFragment;
 import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
 import de.comlet.releasefab.api.vcsservice.ICLVersionControlUtility;
 import de.comlet.releasefab.git.classes.CCLXMLGitConstants;
@@ -28,9 +30,8 @@ import de.comlet.releasefab.library.exception.CCLVersionControlRuntimeException;
 import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.xml.CCLXMLDocBookSink;
-import java.util.Iterator;
-import java.util.Optional;
-import java.util.ServiceLoader;
+import java.util.ArrayList;
+import java.util.List;
 import org.jdom2.Element;
 
 /**
@@ -57,10 +58,28 @@ public class CCLDeliveryGitCommits extends ACLDeliveryInformation
    @Override
    public boolean addInformation(Element other)
    {
-      mInformation.addContent(other.getChild(CCLXMLGitConstants.XML_GIT_COMMIT));
+      getInformation().addContent(other.getChild(CCLXMLGitConstants.XML_GIT_COMMIT));
       return true;
    }
 
+   /**
+    * Provide docbook output in the passed XML-Element 'element'. The services
+    * are loaded for this call only.
+    * 
+    * @param element XML-Element to store information in
+    * @param component Component to be documented
+    * @param other Delivery which is not used to document Git commits
+    * @param forCustomer Defines whether the export is for a customer
+    */
+   @Override
+   public boolean addDocbookSection(Element element, CCLComponent component, CCLDelivery other, boolean forCustomer)
+   {
+      try (CCLExportContext context = new CCLExportContext())
+      {
+         return addDocbookSection(element, component, other, forCustomer, context);
+      }
+   }
+
    /**
     * Provide docbook output in the passed XML-Element 'element'. Only error
     * handling in this method.
@@ -69,75 +88,222 @@ public class CCLDeliveryGitCommits extends ACLDeliveryInformation
     * @param component Component to be documented
     * @param other Delivery which is not used to document Git commits
     * @param forCustomer Defines whether the export is for a customer
+    * @param context services of the export
     */
    @Override
-   public boolean addDocbookSection(Element element, CCLComponent component, CCLDelivery other, boolean forCustomer)
+   public boolean addDocbookSection(Element element, CCLComponent component, CCLDelivery other, boolean forCustomer,
+         CCLExportContext context)
    {
-      boolean isInfoAvailable = false;
       try
       {
-         isInfoAvailable = addDocbookSectionIntern(element, component);
+         return addDocbookSectionIntern(element, component, context);
       }
       catch (CCLALMException e)
       {
-         String errorHeader = component + ":" + ":" + getName() + ":";
-         LOGGER.error("{} {}", errorHeader, e.getMessage(), e);
-
-         // Not possible to show a message box here, because this method is not
-         // called in the display thread. But a runtime exception is shown in a
-         // message box
-         throw new CCLVersionControlRuntimeException(e.getMessage());
+         throw createRuntimeException(component, e);
       }
-      return isInfoAvailable;
    }
 
    /**
-    * Provide Docbook-Output in 'element'.
+    * Filters and sorts the commits of a component for the export. The rows are
+    * added to the XML-Element of the section by the returned fragment.
+    * 
+    * @param component Component to be documented
+    * @param other Delivery which is not used to document Git commits
+    * @param forCustomer Defines whether the export is for a customer
+    * @param context services of the export
     */
-   public boolean addDocbookSectionIntern(Element element, CCLComponent component) throws CCLALMException
+   @Override
+   public ICLDocbookFragment createDocbookFragment(final CCLComponent component, CCLDelivery other,
+         boolean forCustomer, final CCLExportContext context)
    {
-      // check if there is any information
-      boolean isInfoAvailable = !isInfoNullOrEmpty();
-      if (isInfoAvailable)
-      {
-         // setup ALM Service
-         Iterator<ICLALMUtility> almLoader = ServiceLoader.load(ICLALMUtility.class).iterator();
-         Iterator<ICLVersionControlUtility> gitLoader = ServiceLoader.load(ICLVersionControlUtility.class).iterator();
-
-         Optional<ICLALMUtility> almOptional = (almLoader.hasNext()) ? Optional.of(almLoader.next()) : Optional.empty();
-         Optional<ICLVersionControlUtility> gitOptional = (gitLoader.hasNext()) ? Optional.of(gitLoader.next()) : 
-               Optional.empty();
-         try (ICLALMUtility almUtil = (!almOptional.isEmpty()) ? almOptional.get() : null;
-               ICLVersionControlUtility gitutil = (!gitOptional.isEmpty()) ? gitOptional.get() : null)
+      final List<Element> rows;
+      try
+      {
+         rows = createDocbookRows(context);
+      }
+      catch (CCLALMException e)
+      {
+         throw createRuntimeException(component, e);
+      }
+
+      return new ICLDocbookFragment()
+      {
+         @Override
+         public boolean addTo(Element section)
          {
-            // setup source for Git commits: Section from XML-File
-            Iterable<ICLCommitContainer> source = new CCLXMLCommitSource(mInformation);
+            return addDocbookRows(section, component, rows, context);
+         }
+      };
+   }
 
-            // setup ALM filter
-            Iterable<ICLCommitContainer> filter;
-            try
-            {
-               filter = gitutil.getCommitFilter(source, almUtil);
-            }
-            catch (CCLInternalException e)
+   /**
+    * Merges the commits of the component in all deliveries to document. Every
+    * commit is documented once, all commits are sorted like the commits of a
+    * single delivery.
+    * 
+    * @param informations commits of the component by delivery, the newest
+    * delivery first
+    * @param component Component to be documented
+    * @param other Delivery which is not used to document Git commits
+    * @param forCustomer Defines whether the export is for a customer
+    * @param context services of the export
+    */
+   @Override
+   public ICLDocbookFragment createDocbookFragment(List<ACLDeliveryInformation> informations,
+         final CCLComponent component, CCLDelivery other, boolean forCustomer, final CCLExportContext context)
+   {
+      List<Iterable<ICLCommitContainer>> sources = new ArrayList<>(informations.size());
+      try
+      {
+         for (ACLDeliveryInformation information : informations)
+         {
+            // the information of all deliveries belongs to the same importer
+            Iterable<ICLCommitContainer> commits = ((CCLDeliveryGitCommits) information).createCommits(context);
+            if (null != commits)
             {
-               filter = source;
-               LOGGER.info("No ALM Plugin loaded, Commits will be unordered!");
-               LOGGER.debug("No ALM Plugin", e);
+               sources.add(commits);
             }
+         }
+      }
+      catch (CCLALMException e)
+      {
+         throw createRuntimeException(component, e);
+      }
 
-            // sort commits
-            CCLCommitSortTransformer sorter = new CCLCommitSortTransformer(filter);
-
-            // Transform Container to Docbook table row
-            CCLXMLDocBookCommitTransformer transformer = new CCLXMLDocBookCommitTransformer(sorter);
+      final List<Element> rows = sources.isEmpty() ? null : toDocbookRows(new CCLCommitMergeTransformer(sources));
 
-            // setup sink for the Docbook document
-            CCLXMLDocBookSink sink = new CCLXMLDocBookSink(element, component.getFullName(), "Id", "Synopsis");
-            sink.addItems(transformer);
+      return new ICLDocbookFragment()
+      {
+         @Override
+         public boolean addTo(Element section)
+         {
+            return addDocbookRows(section, component, rows, context);
          }
+      };
+   }
+
+   /**
+    * Logs an exception of the ALM service and wraps it.
+    */
+   private CCLVersionControlRuntimeException createRuntimeException(CCLComponent component, CCLALMException e)
+   {
+      String errorHeader = component + ":" + ":" + getName() + ":";
+      LOGGER.error("{} {}", errorHeader, e.getMessage(), e);
+
+      // Not possible to show a message box here, because this method is not
+      // called in the display thread. But a runtime exception is shown in a
+      // message box
+      return new CCLVersionControlRuntimeException(e.getMessage());
+   }
+
+   /**
+    * Provide Docbook-Output in 'element'. The services are loaded for this
+    * call only.
+    */
+   public boolean addDocbookSectionIntern(Element element, CCLComponent component) throws CCLALMException
+   {
+      try (CCLExportContext context = new CCLExportContext())
+      {
+         return addDocbookSectionIntern(element, component, context);
+      }
+   }
+
+   /**
+    * Provide Docbook-Output in 'element'. The services of the export context
+    * are used and stay open for the next components.
+    */
+   public boolean addDocbookSectionIntern(Element element, CCLComponent component, CCLExportContext context)
+         throws CCLALMException
+   {
+      return addDocbookRows(element, component, createDocbookRows(context), context);
+   }
+
+   /**
+    * Creates the Docbook table rows of the commits.
+    * 
+    * @return rows or null if there is no information
+    */
+   private List<Element> createDocbookRows(CCLExportContext context) throws CCLALMException
+   {
+      Iterable<ICLCommitContainer> commits = createCommits(context);
+      if (null == commits)
+      {
+         return null;
+      }
+
+      return toDocbookRows(commits);
+   }
+
+   /**
+    * Filters and sorts the commits of this delivery.
+    * 
+    * @return commits, the newest one first, or null if there is no information
+    */
+   private Iterable<ICLCommitContainer> createCommits(CCLExportContext context) throws CCLALMException
+   {
+      // check if there is any information
+      if (isInfoNullOrEmpty())
+      {
+         return null;
       }
 
-      return isInfoAvailable;
+      ICLALMUtility almUtil = context.getALMUtility();
+      ICLVersionControlUtility gitutil = context.getVersionControlUtility();
+
+      // setup source for Git commits: Section from XML-File
+      Iterable<ICLCommitContainer> source = new CCLXMLCommitSource(getInformation());
+
+      // setup ALM filter
+      Iterable<ICLCommitContainer> filter;
+      try
+      {
+         filter = gitutil.getCommitFilter(source, almUtil);
+      }
+      catch (CCLInternalException e)
+      {
+         filter = source;
+         LOGGER.info("No ALM Plugin loaded, Commits will be unordered!");
+         LOGGER.debug("No ALM Plugin", e);
+      }
+
+      // sort commits. Commits are stored sorted, so this only takes linear
+      // time unless the project file has been written by an older version
+      return new CCLCommitSortTransformer(filter);
+   }
+
+   /**
+    * Transform Container to Docbook table row.
+    */
+   private static List<Element> toDocbookRows(Iterable<ICLCommitContainer> commits)
+   {
+      List<Element> rows = new ArrayList<>();
+      for (Element row : new CCLXMLDocBookCommitTransformer(commits))
+      {
+         rows.add(row);
+      }
+
+      return rows;
+   }
+
+   /**
+    * Adds the rows to the section of the component in 'element'. The section
+    * is looked up in the registry of the export context.
+    * 
+    * @return false if there is no information
+    */
+   private static boolean addDocbookRows(Element element, CCLComponent component, List<Element> rows,
+         CCLExportContext context)
+   {
+      if (null == rows)
+      {
+         return false;
+      }
+
+      // setup sink for the Docbook document
+      CCLXMLDocBookSink sink = new CCLXMLDocBookSink(context.getSectionRegistry(element), component.getFullName(),
+            "Id", "Synopsis");
+      sink.addItems(rows);
+      return true;
    }
 }
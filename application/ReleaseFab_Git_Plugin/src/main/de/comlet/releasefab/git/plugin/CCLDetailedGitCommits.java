@@ -62,7 +62,7 @@ public class CCLDetailedGitCommits extends ACLDetailedInformation
    public void fillInfoBox(Object obj)
    {
       // get delivery information
-      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName() + mImporterName);
+      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName(), mImporterName);
       Element information = info.getInformation();
       
       List<Element> listOfCommits = information.getChildren(CCLXMLGitConstants.XML_GIT_COMMIT);
@@ -120,7 +120,7 @@ public class CCLDetailedGitCommits extends ACLDetailedInformation
       mUi.saveTextToTableCell();
 
       // get delivery information
-      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName() + mImporterName);
+      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName(), mImporterName);
       Element commitInfo = info.getInformation();
 
       CCLRowIterable rowIterator = new CCLRowIterable(commitInfo.getChildren(CCLXMLGitConstants.XML_GIT_COMMIT));
@@ -17,14 +17,22 @@
 
 package de.comlet.releasefab.git.plugin;
 
+import de.comlet.releasefab.api.almservice.ICLALMUtility;
+import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
 import de.comlet.releasefab.api.plugin.ACLDetailedInformation;
 import de.comlet.releasefab.api.plugin.ACLImportStrategy;
+import de.comlet.releasefab.api.plugin.CCLExportContext;
+import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
+import de.comlet.releasefab.api.vcsservice.ICLVersionControlUtility;
 import de.comlet.releasefab.library.model.CCLAssignmentConstText;
 import de.comlet.releasefab.library.model.CCLAssignmentSubtree;
 import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLComponentSnapshot;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.xml.SCLXMLUtil;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import org.jdom2.Element;
 
 /**
@@ -76,6 +84,50 @@ public class CCLImportGitCommits extends ACLImportStrategy
       return SCLXMLUtil.createElement("section", SCLXMLUtil.createElement("title", getName()), new Element("para"));
    }
 
+   /**
+    * Every component adds its own section.
+    */
+   @Override
+   public boolean isDocbookSectionStreamable()
+   {
+      return true;
+   }
+
+   /**
+    * Checks the ALM items of the commits of all components in one request, so
+    * the components do not ask the ALM service one after another.
+    */
+   @Override
+   public void prepareDocbookExport(CCLComponentSnapshot components, List<CCLDelivery> deliveries,
+         CCLExportContext context)
+   {
+      ICLALMUtility almUtil = context.getALMUtility();
+      ICLVersionControlUtility gitutil = context.getVersionControlUtility();
+      if (null == almUtil || null == gitutil)
+      {
+         return;
+      }
+
+      List<ICLCommitContainer> commits = new ArrayList<>();
+      for (int i = 0; i < components.size(); i++)
+      {
+         for (CCLDelivery delivery : deliveries)
+         {
+            ACLDeliveryInformation info = components.getComponent(i).getDeliveryInformation(delivery.getName(),
+                  getName());
+            if (null != info && !info.isInfoNullOrEmpty())
+            {
+               for (ICLCommitContainer commit : new CCLXMLCommitSource(info.getInformation()))
+               {
+                  commits.add(commit);
+               }
+            }
+         }
+      }
+
+      gitutil.prefetchCommitFilter(commits, almUtil);
+   }
+
    @Override
    public String getDeliveryInformationName()
    {
@@ -0,0 +1,89 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCommitMergeTransformerTest.java
+ *
+ * @brief Unit-test class for {@link #CCLCommitMergeTransformer}.
+ */
+
+package de.comlet.releasefab.git.plugin;
+
+import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
+import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CCLCommitMergeTransformerTest
+{
+   /**
+    * Test that the commits of all lists are returned newest first and that
+    * commits with the same time keep the order of the lists.
+    */
+   @Test
+   void testMergeKeepsSortOrder()
+   {
+      List<ICLCommitContainer> newest = Arrays.asList(createCommit("a", 50), createCommit("b", 30),
+            createCommit("c", 10));
+      List<ICLCommitContainer> oldest = Arrays.asList(createCommit("d", 40), createCommit("e", 30),
+            createCommit("f", 5));
+
+      assertEquals(Arrays.asList("a", "d", "b", "e", "c", "f"),
+            getHashes(new CCLCommitMergeTransformer(Arrays.asList(newest, oldest))));
+   }
+
+   /**
+    * Test that a commit contained in several lists is returned once.
+    */
+   @Test
+   void testMergeDropsDuplicates()
+   {
+      List<ICLCommitContainer> newest = Arrays.asList(createCommit("a", 50), createCommit("b", 30));
+      List<ICLCommitContainer> middle = Arrays.asList(createCommit("b", 30), createCommit("c", 20));
+      List<ICLCommitContainer> oldest = Arrays.asList(createCommit("a", 50), createCommit("c", 20),
+            createCommit("d", 10));
+
+      assertEquals(Arrays.asList("a", "b", "c", "d"),
+            getHashes(new CCLCommitMergeTransformer(Arrays.asList(newest, middle, oldest))));
+   }
+
+   /**
+    * Test that empty lists are skipped.
+    */
+   @Test
+   void testMergeEmptyLists()
+   {
+      List<ICLCommitContainer> empty = Collections.emptyList();
+
+      assertEquals(Collections.emptyList(), getHashes(new CCLCommitMergeTransformer(Collections.emptyList())));
+      assertEquals(Arrays.asList("a"), getHashes(new CCLCommitMergeTransformer(
+            Arrays.asList(empty, Arrays.asList(createCommit("a", 1)), empty))));
+   }
+
+   private static ICLCommitContainer createCommit(String hash, int time)
+   {
+      return new CCLGitCommitContainer(hash, "", time, "", "", "", "", false);
+   }
+
+   private static List<String> getHashes(Iterable<ICLCommitContainer> commits)
+   {
+      List<String> hashes = new ArrayList<>();
+      for (ICLCommitContainer commit : commits)
+      {
+         hashes.add(((CCLGitCommitContainer) commit).getHash());
+      }
+      return hashes;
+   }
+}
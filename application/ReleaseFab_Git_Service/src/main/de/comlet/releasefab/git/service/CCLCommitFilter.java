@@ -19,26 +19,43 @@ package de.comlet.releasefab.git.service;
 
 import de.comlet.releasefab.api.almservice.ICLALMUtility;
 import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
-import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
 import de.comlet.releasefab.library.model.CCLIteratorBase;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Filter commits. ALM item status must match one of the configured ALM status.
+ * The items of all commits are checked up front in one batch, results are
+ * shared through a {@link CCLTrackerItemStatusCache}.
  */
 public class CCLCommitFilter implements Iterable<ICLCommitContainer>
 {
    Iterable<ICLCommitContainer> mSource;
    ICLALMUtility mALMutil;
+   CCLTrackerItemStatusCache mCache;
 
    /**
     * Constructor. Remember source Iterable and ALM handler.
     */
    public CCLCommitFilter(Iterable<ICLCommitContainer> source, ICLALMUtility almUtil)
+   {
+      this(source, almUtil, CCLTrackerItemStatusCache.getInstance());
+   }
+
+   /**
+    * Constructor. Remember source Iterable, ALM handler and the cache for the
+    * results of the ALM handler.
+    */
+   CCLCommitFilter(Iterable<ICLCommitContainer> source, ICLALMUtility almUtil, CCLTrackerItemStatusCache cache)
    {
       this.mALMutil = almUtil;
       this.mSource = source;
+      this.mCache = cache;
    }
 
    /**
@@ -47,17 +64,15 @@ public class CCLCommitFilter implements Iterable<ICLCommitContainer>
     */
    private class CommitFilterIterator extends CCLIteratorBase<ICLCommitContainer>
    {
-      private HashSet<String> mAllowedIds;
-      private HashSet<String> mFilteredIds;
+      private Map<String, Boolean> mCheckedIds;
 
       /**
-       * Remember source iterator. Initialize HashSets.
+       * Remember source iterator and the results of the check of its items.
        */
-      protected CommitFilterIterator(Iterator<ICLCommitContainer> source)
+      protected CommitFilterIterator(Iterator<ICLCommitContainer> source, Map<String, Boolean> checkedIds)
       {
          super(source);
-         this.mAllowedIds = new HashSet<>();
-         this.mFilteredIds = new HashSet<>();
+         this.mCheckedIds = checkedIds;
       }
 
       /**
@@ -77,46 +92,56 @@ public class CCLCommitFilter implements Iterable<ICLCommitContainer>
       {
          while (mSource.hasNext() && (this.mNextItem == null))
          {
-            CCLGitCommitContainer cc = (CCLGitCommitContainer) mSource.next();
-            final String itemId = cc.getCommitId();
+            ICLCommitContainer cc = mSource.next();
 
-            if (mAllowedIds.contains(itemId))
+            if (Boolean.TRUE.equals(mCheckedIds.get(cc.getCommitId())))
             {
                this.mNextItem = cc; // accept
-               break;
-            }
-            else if (!mFilteredIds.contains(itemId))
-            {
-               // check item in ALM Service
-               if (CCLCommitFilter.this.checkTrackerItem(cc.getCommitId()))
-               {
-                  mAllowedIds.add(itemId); // accept
-                  this.mNextItem = cc;
-               }
-               else
-               {
-                  mFilteredIds.add(itemId); // decline; find next
-               }
             }
          }
       }
    }
 
+   /**
+    * Check ALM items: Do they exist and match one of the status in the filter
+    * list? This is the only check called by the filter, subclasses override it
+    * to change which commits are returned.
+    */
+   protected Map<String, Boolean> checkTrackerItems(Iterable<String> itemIds)
+   {
+      return mCache.checkTrackerItems(mALMutil, itemIds);
+   }
+
    /**
     * Check ALM item: Does it exist and match one of the status in the filter
-    * list?
+    * list? The filter itself does not call this method, so overriding it does
+    * not change which commits are returned.
+    *
+    * @deprecated the filter checks all items at once with
+    * {@link #checkTrackerItems(Iterable)}, subclasses which change the check
+    * have to override that method
     */
+   @Deprecated
    protected boolean checkTrackerItem(String itemId)
    {
-      return mALMutil.checkTrackerItem(itemId);
+      return Boolean.TRUE.equals(checkTrackerItems(Collections.singletonList(itemId)).get(itemId));
    }
 
    /**
-    * Provide iterator object.
+    * Provide iterator object. All commits are read first, so their items can
+    * be checked in one batch.
     */
    @Override
    public Iterator<ICLCommitContainer> iterator()
    {
-      return new CommitFilterIterator(mSource.iterator());
+      List<ICLCommitContainer> commits = new ArrayList<>();
+      Set<String> itemIds = new LinkedHashSet<>();
+      for (ICLCommitContainer commit : mSource)
+      {
+         commits.add(commit);
+         itemIds.add(commit.getCommitId());
+      }
+
+      return new CommitFilterIterator(commits.iterator(), checkTrackerItems(itemIds));
    }
 }
@@ -0,0 +1,321 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCommitRangeCache.java
+ *
+ * @brief On-disk cache for the parsed commits of a commit range.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
+import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
+import de.comlet.releasefab.library.xml.SCLXMLUtil;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the parsed commits of a commit range in a file below a cache
+ * directory. The file name is derived from the repository, the range, the
+ * path filter, the commit template and whether merge commits are included,
+ * so a changed setting never serves stale commits. Commits are stored as
+ * attributes to keep their whitespace. The cache keeps at most
+ * {@link #MAX_FILES} ranges, the least recently used ranges are deleted first.
+ */
+final class CCLCommitRangeCache
+{
+   private static final Logger LOGGER = LoggerFactory.getLogger(CCLCommitRangeCache.class);
+
+   /** Directory of the cache relative to the given root directory. */
+   private static final String CACHE_DIRECTORY = ".releasefab" + File.separator + "commitcache";
+
+   private static final String FILE_EXTENSION = ".xml";
+
+   /** Maximum number of cached commit ranges. */
+   static final int MAX_FILES = 500;
+   private static final String HASH_ALGORITHM = "SHA-1";
+   private static final int HEX_RADIX = 16;
+
+   private static final String XML_CACHE = "commitCache";
+   private static final String XML_ATTR_KEY = "key";
+   private static final String XML_COMMIT = "commit";
+   private static final String XML_ATTR_HASH = "hash";
+   private static final String XML_ATTR_ITEM_ID = "itemId";
+   private static final String XML_ATTR_TIME = "time";
+   private static final String XML_ATTR_SHORT_DESCRIPTION = "shortDescription";
+   private static final String XML_ATTR_INTERNAL_DOC = "internalDoc";
+   private static final String XML_ATTR_EXTERNAL_DOC = "externalDoc";
+   private static final String XML_ATTR_REVIEWER = "reviewer";
+   private static final String XML_ATTR_API_MODIFICATION = "apiModification";
+
+   private final File mDirectory;
+   private final int mMaxFiles;
+
+   /**
+    * Constructor.
+    *
+    * @param rootDirectory directory to create the cache in, e.g. the project
+    * root
+    */
+   CCLCommitRangeCache(String rootDirectory)
+   {
+      this(rootDirectory, MAX_FILES);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param rootDirectory directory to create the cache in, e.g. the project
+    * root
+    * @param maxFiles maximum number of cached commit ranges
+    */
+   CCLCommitRangeCache(String rootDirectory, int maxFiles)
+   {
+      mDirectory = new File(rootDirectory, CACHE_DIRECTORY);
+      mMaxFiles = maxFiles;
+   }
+
+   /**
+    * Creates the key of a commit range.
+    *
+    * @param repoDirectory directory of the repository
+    * @param idFrom newest commit of the range
+    * @param idTo oldest commit of the range
+    * @param pathFilter path the commits have to touch or null
+    * @param commitTemplate template used to parse the commit messages
+    * @param includeMergeCommits whether merge commits are part of the range
+    * @return key
+    * @throws IOException
+    */
+   static String createKey(File repoDirectory, String idFrom, String idTo, String pathFilter,
+         String commitTemplate, boolean includeMergeCommits) throws IOException
+   {
+      return repoDirectory.getCanonicalPath() + "|" + idFrom + "|" + idTo + "|" + pathFilter + "|" +
+            hash(String.valueOf(commitTemplate)) + "|" + includeMergeCommits;
+   }
+
+   /**
+    * Returns an Iterable which serves the commits of the given range from the
+    * cache. If the range is not cached yet, the commits are read from the
+    * given source once and stored in the cache.
+    *
+    * @param key key of the commit range
+    * @param source source of the commits
+    * @return Iterable of the commits
+    */
+   Iterable<ICLCommitContainer> getIterable(final String key, final Iterable<ICLCommitContainer> source)
+   {
+      return new Iterable<ICLCommitContainer>()
+      {
+         @Override
+         public Iterator<ICLCommitContainer> iterator()
+         {
+            List<ICLCommitContainer> commits = load(key);
+
+            if (null == commits)
+            {
+               commits = new ArrayList<>();
+               for (ICLCommitContainer commit : source)
+               {
+                  commits.add(commit);
+               }
+               store(key, commits);
+            }
+
+            return commits.iterator();
+         }
+      };
+   }
+
+   /**
+    * Loads the commits of the given range.
+    *
+    * @param key key of the commit range
+    * @return commits or null if the range is not cached
+    */
+   private List<ICLCommitContainer> load(String key)
+   {
+      File file = getFile(key);
+      if (!file.isFile())
+      {
+         return null;
+      }
+
+      try
+      {
+         Element root = SCLXMLUtil.loadDocument(file).getRootElement();
+         if (!key.equals(root.getAttributeValue(XML_ATTR_KEY)))
+         {
+            return null;
+         }
+
+         List<ICLCommitContainer> commits = new ArrayList<>();
+         for (Element commit : root.getChildren(XML_COMMIT))
+         {
+            commits.add(new CCLGitCommitContainer(commit.getAttributeValue(XML_ATTR_HASH),
+                  commit.getAttributeValue(XML_ATTR_ITEM_ID),
+                  Integer.parseInt(commit.getAttributeValue(XML_ATTR_TIME)),
+                  commit.getAttributeValue(XML_ATTR_SHORT_DESCRIPTION),
+                  commit.getAttributeValue(XML_ATTR_INTERNAL_DOC),
+                  commit.getAttributeValue(XML_ATTR_EXTERNAL_DOC),
+                  commit.getAttributeValue(XML_ATTR_REVIEWER),
+                  Boolean.parseBoolean(commit.getAttributeValue(XML_ATTR_API_MODIFICATION))));
+         }
+
+         // remember the use, so the range is deleted last
+         if (!file.setLastModified(System.currentTimeMillis()))
+         {
+            LOGGER.debug("Could not update modification time of commit cache file {}", file);
+         }
+         return commits;
+      }
+      catch (JDOMException | IOException | RuntimeException e)
+      {
+         LOGGER.warn("Ignoring invalid commit cache file {}: {}", file, e.getMessage());
+         return null;
+      }
+   }
+
+   /**
+    * Stores the commits of the given range. The file is written completely
+    * before it replaces an existing file, so concurrent readers never see a
+    * partially written file. Afterwards the cache is reduced to its maximum
+    * size.
+    *
+    * @param key key of the commit range
+    * @param commits commits to store
+    */
+   private void store(String key, List<ICLCommitContainer> commits)
+   {
+      Element root = new Element(XML_CACHE);
+      root.setAttribute(XML_ATTR_KEY, key);
+
+      for (ICLCommitContainer container : commits)
+      {
+         CCLGitCommitContainer commit = (CCLGitCommitContainer) container;
+         Element element = new Element(XML_COMMIT);
+         setAttribute(element, XML_ATTR_HASH, commit.getHash());
+         setAttribute(element, XML_ATTR_ITEM_ID, commit.getCommitId());
+         setAttribute(element, XML_ATTR_TIME, commit.timeAsString());
+         setAttribute(element, XML_ATTR_SHORT_DESCRIPTION, commit.getShortDescription());
+         setAttribute(element, XML_ATTR_INTERNAL_DOC, commit.getInternalDoc());
+         setAttribute(element, XML_ATTR_EXTERNAL_DOC, commit.getExternalDoc());
+         setAttribute(element, XML_ATTR_REVIEWER, commit.getReviewer());
+         setAttribute(element, XML_ATTR_API_MODIFICATION, String.valueOf(commit.getApiModification()));
+         root.addContent(element);
+      }
+
+      File file = getFile(key);
+      File tempFile = null;
+      try
+      {
+         Files.createDirectories(mDirectory.toPath());
+         tempFile = File.createTempFile(file.getName(), null, mDirectory);
+         SCLXMLUtil.saveDocument(tempFile, new Document(root));
+         try
+         {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                  StandardCopyOption.ATOMIC_MOVE);
+         }
+         catch (AtomicMoveNotSupportedException e)
+         {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+         }
+      }
+      catch (IOException e)
+      {
+         LOGGER.warn("Could not write commit cache file {}: {}", file, e.getMessage());
+
+         if (null != tempFile && !tempFile.delete())
+         {
+            tempFile.deleteOnExit();
+         }
+      }
+
+      prune();
+   }
+
+   /**
+    * Deletes the least recently used commit ranges until the cache does not
+    * exceed its maximum size.
+    */
+   private void prune()
+   {
+      File[] files = mDirectory.listFiles(new FilenameFilter()
+      {
+         @Override
+         public boolean accept(File dir, String name)
+         {
+            return name.endsWith(FILE_EXTENSION);
+         }
+      });
+
+      if (null == files || files.length <= mMaxFiles)
+      {
+         return;
+      }
+
+      Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+      for (int i = 0; i < files.length - mMaxFiles; i++)
+      {
+         if (!files[i].delete())
+         {
+            LOGGER.warn("Could not delete commit cache file {}", files[i]);
+         }
+      }
+   }
+
+   private static void setAttribute(Element element, String name, String value)
+   {
+      if (null != value)
+      {
+         element.setAttribute(name, value);
+      }
+   }
+
+   private File getFile(String key)
+   {
+      return new File(mDirectory, hash(key) + FILE_EXTENSION);
+   }
+
+   private static String hash(String value)
+   {
+      try
+      {
+         MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+         return new BigInteger(1, digest.digest(value.getBytes(StandardCharsets.UTF_8))).toString(HEX_RADIX);
+      }
+      catch (NoSuchAlgorithmException e)
+      {
+         // every Java platform has to support SHA-1
+         throw new IllegalStateException(e);
+      }
+   }
+}
@@ -0,0 +1,231 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCompiledCommitTemplate.java
+ *
+ * @brief Commit template which is prepared once and parses messages in a
+ * single pass.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
+import de.comlet.releasefab.library.exception.CCLVersionControlRuntimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Compiled form of a commit template. The template is split into its fields
+ * and delimiters once. Every commit message is then parsed in a single pass
+ * and the values are written to the fields of a {@link CCLGitCommitContainer}
+ * directly. The results are identical to those of
+ * {@link CCLDescriptionParser}.
+ */
+public final class CCLCompiledCommitTemplate
+{
+   private static final String FIELD_START = "{";
+   private static final String FIELD_END = "}";
+
+   /** Compiled templates by template. */
+   private static final Map<String, CCLCompiledCommitTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+   /** Fields of a commit message. */
+   private enum ECLField
+   {
+      SHORT_DESCRIPTION("short description"),
+      ITEM_ID("itemID"),
+      API_YES("yes"),
+      INTERNAL_DOC("internal doc"),
+      EXTERNAL_DOC("external doc"),
+      REVIEWER("reviewer"),
+      IGNORED(null);
+
+      private final String mKey;
+
+      ECLField(String key)
+      {
+         mKey = key;
+      }
+
+      static ECLField fromKey(String key)
+      {
+         for (ECLField field : values())
+         {
+            if (key.equals(field.mKey))
+            {
+               return field;
+            }
+         }
+         return IGNORED;
+      }
+   }
+
+   /**
+    * A field of the template and the delimiter which follows it.
+    */
+   private static final class CCLStep
+   {
+      private final ECLField mField;
+
+      /** Delimiter after the field or null if the field is the last one. */
+      private final String mDelimiter;
+
+      CCLStep(ECLField field, String delimiter)
+      {
+         mField = field;
+         mDelimiter = delimiter;
+      }
+   }
+
+   private final String mTemplate;
+
+   /** Text in front of the first field. */
+   private final String mPrefix;
+
+   /** Fields in the order of the template. */
+   private final List<CCLStep> mSteps = new ArrayList<>();
+
+   /** Whether the template can be used to parse messages. */
+   private final boolean mIsValid;
+
+   /**
+    * Splits the template into its fields the same way
+    * {@link CCLDescriptionParser} does.
+    */
+   private CCLCompiledCommitTemplate(String template)
+   {
+      mTemplate = template;
+      mPrefix = StringUtils.substringBefore(template, FIELD_START);
+
+      String remainder = FIELD_START + StringUtils.substringAfter(template, FIELD_START);
+      String delimiter = StringUtils.substringBetween(remainder, FIELD_END, FIELD_START);
+      boolean isValid = null != template && null != delimiter;
+
+      while (isValid && remainder.contains(FIELD_START) && !delimiter.isEmpty())
+      {
+         String key = StringUtils.substringBetween(remainder, FIELD_START, FIELD_END);
+         if (null == key)
+         {
+            isValid = false;
+            break;
+         }
+
+         delimiter = StringUtils.substringBetween(remainder, FIELD_END, FIELD_START);
+         mSteps.add(new CCLStep(ECLField.fromKey(key), delimiter));
+
+         // the last field has no delimiter and ends the template
+         remainder = StringUtils.substringAfter(remainder, delimiter);
+      }
+
+      mIsValid = isValid;
+   }
+
+   /**
+    * Returns the compiled form of the given template. Every template is only
+    * compiled once.
+    *
+    * @param template commit template
+    * @return compiled template
+    */
+   public static CCLCompiledCommitTemplate compile(String template)
+   {
+      if (null == template)
+      {
+         return new CCLCompiledCommitTemplate(null);
+      }
+
+      return TEMPLATES.computeIfAbsent(template, CCLCompiledCommitTemplate::new);
+   }
+
+   /**
+    * Parse Git commit description.
+    *
+    * @param input commit message
+    * @return container with the values of the message. All missing values are
+    * null.
+    */
+   public CCLGitCommitContainer parse(String input)
+   {
+      if (!mIsValid)
+      {
+         throw new CCLVersionControlRuntimeException("Invalid commit template: " + mTemplate);
+      }
+
+      String[] values = new String[ECLField.values().length];
+      boolean apiMod = false;
+      int length = input.length();
+      int position = skipPrefix(input);
+
+      for (CCLStep step : mSteps)
+      {
+         String value;
+         String delimiter = step.mDelimiter;
+
+         if (null == delimiter)
+         {
+            value = input.substring(position);
+            position = length;
+         }
+         else if (delimiter.isEmpty())
+         {
+            value = "";
+         }
+         else
+         {
+            int end = input.indexOf(delimiter, position);
+            if (end < 0)
+            {
+               value = input.substring(position);
+               position = length;
+            }
+            else
+            {
+               value = input.substring(position, end);
+               position = end + delimiter.length();
+            }
+         }
+
+         // If the YES field of the API modification is marked with an "X"
+         // set apiMod to true
+         if (ECLField.API_YES == step.mField && !value.isBlank())
+         {
+            apiMod = true;
+         }
+         else
+         {
+            values[step.mField.ordinal()] = value;
+         }
+      }
+
+      return new CCLGitCommitContainer("", values[ECLField.ITEM_ID.ordinal()], 0,
+            values[ECLField.SHORT_DESCRIPTION.ordinal()], values[ECLField.INTERNAL_DOC.ordinal()],
+            values[ECLField.EXTERNAL_DOC.ordinal()], values[ECLField.REVIEWER.ordinal()], apiMod);
+   }
+
+   /**
+    * Returns the position of the first character after the text in front of
+    * the first field.
+    */
+   private int skipPrefix(String input)
+   {
+      if (mPrefix.isEmpty())
+      {
+         return 0;
+      }
+
+      int start = input.indexOf(mPrefix);
+      return start < 0 ? input.length() : start + mPrefix.length();
+   }
+}
@@ -40,8 +40,6 @@ import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevTag;
-import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
 
 /**
@@ -57,6 +55,15 @@ public final class CCLGitHandler implements AutoCloseable
    protected String mPathToRepo;
    protected Git mGit;
 
+   /** Whether {@link #mGit} is shared by {@link SCLGitRepositoryCache}. */
+   private boolean mIsShared;
+
+   /** Cache for commit ranges or null if commit ranges are not cached. */
+   private CCLCommitRangeCache mRangeCache;
+
+   /** Path the commits have to touch or null for all commits. */
+   private String mPathFilter;
+
    /**
     * Iterate over Item IDs from Git commit messages. Transform RevCommit to
     * CCLCommitContainer.
@@ -75,6 +82,7 @@ public final class CCLGitHandler implements AutoCloseable
          private Iterator<RevCommit> mRevIterator;
          private CCLGitCommitContainer mNextItem;
          private boolean mFinished;
+         private CCLCompiledCommitTemplate mTemplate;
 
          /**
           * Constructor. Remember RevCommit iterator.
@@ -84,6 +92,7 @@ public final class CCLGitHandler implements AutoCloseable
             this.mRevIterator = it;
             this.mFinished = false;
             this.mNextItem = null;
+            this.mTemplate = CCLCompiledCommitTemplate.compile(COMMIT_TEMPLATE);
          }
 
          /**
@@ -95,8 +104,7 @@ public final class CCLGitHandler implements AutoCloseable
             while (mRevIterator.hasNext() && (mNextItem == null) && (!mFinished))
             {
                RevCommit commit = mRevIterator.next();
-               CCLDescriptionParser parser = new CCLDescriptionParser(COMMIT_TEMPLATE);
-               this.mNextItem = parser.parse(commit.getFullMessage());
+               this.mNextItem = mTemplate.parse(commit.getFullMessage());
                if (this.mNextItem != null)
                {
                   this.mNextItem.setCommitTime(commit.getCommitTime());
@@ -174,6 +182,13 @@ public final class CCLGitHandler implements AutoCloseable
     	   {
     	      log.setRevFilter(RevFilter.NO_MERGES);
     	   }    	 
+
+         // only walk commits touching the subdirectory; JGit skips the
+         // other commits by means of the path filter
+         if (mPathFilter != null)
+         {
+            log.addPath(mPathFilter);
+         }
     	 
          try
          {
@@ -230,14 +245,22 @@ public final class CCLGitHandler implements AutoCloseable
    }
 
    /**
-    * Open repository. Has to be called before querying any information.
+    * Open repository. Has to be called before querying any information. While
+    * a run is active, the repository is shared with all other handlers of the
+    * same repository.
     */
    protected void open() throws CCLVersionControlException
    {
       File file = new File(mPathToRepo);
       try
       {
-         this.mGit = Git.open(file);
+         this.mGit = SCLGitRepositoryCache.getInstance().get(file);
+         this.mIsShared = this.mGit != null;
+
+         if (!this.mIsShared)
+         {
+            this.mGit = Git.open(file);
+         }
       }
       catch (IOException e)
       {
@@ -246,18 +269,68 @@ public final class CCLGitHandler implements AutoCloseable
    }
 
    /**
-    * Free resources.
+    * Free resources. Shared repositories stay open until the run ends.
     */
    @Override
    public void close()
    {
       if (mGit != null)
       {
-         mGit.close();
+         if (!mIsShared)
+         {
+            mGit.close();
+         }
          mGit = null;
       }
    }
 
+   /**
+    * Caches the commits of commit ranges in the given directory.
+    *
+    * @param cacheDirectory directory of the cache, null or empty to disable
+    * caching
+    */
+   public void setCacheDirectory(String cacheDirectory)
+   {
+      if (null == cacheDirectory || cacheDirectory.isEmpty())
+      {
+         mRangeCache = null;
+      }
+      else
+      {
+         mRangeCache = new CCLCommitRangeCache(cacheDirectory);
+      }
+   }
+
+   /**
+    * Restricts the commits to those touching the given path.
+    *
+    * @param path path relative to the repository root, null or empty for all
+    * commits
+    */
+   public void setPathFilter(String path)
+   {
+      mPathFilter = null;
+
+      if (path != null)
+      {
+         String normalized = path.trim().replace('\\', '/');
+         while (normalized.startsWith("./") || normalized.startsWith("/"))
+         {
+            normalized = normalized.substring(normalized.indexOf('/') + 1);
+         }
+         while (normalized.endsWith("/"))
+         {
+            normalized = normalized.substring(0, normalized.length() - 1);
+         }
+
+         if (!normalized.isEmpty() && !".".equals(normalized))
+         {
+            mPathFilter = normalized;
+         }
+      }
+   }
+
    /**
     * Get current branch.
     *
@@ -286,24 +359,15 @@ public final class CCLGitHandler implements AutoCloseable
    {
       try
       {
-         String currentTag = null;
          Repository repo = mGit.getRepository();
          String currentBranch = repo.getBranch();
-         String tagCandidate = Git.wrap(repo).describe().setTarget(ObjectId.fromString(currentBranch)).call();
-         for (Ref ref : mGit.tagList().call())
-         {
-            if (ref.getName().contains(tagCandidate))
-            {
-               currentTag = tagCandidate;
-            }
-         }
-         return currentTag;
+         return CCLGitTagIndex.getIndex(repo).getNewestAnnotatedTagName(ObjectId.fromString(currentBranch));
       }
       catch (java.lang.IllegalArgumentException e)
       {
          throw new CCLVersionControlException("Repository is not on a tag. " + e);
       }
-      catch (IOException | GitAPIException | RuntimeException e)
+      catch (IOException | RuntimeException e)
       {
          throw new CCLVersionControlException(e);
       }
@@ -357,47 +421,16 @@ public final class CCLGitHandler implements AutoCloseable
     */
    public CCLGitTagContainer isHeadTag() throws CCLVersionControlException
    {
-      CCLGitTagContainer latestTagContainer = null;
-
       Repository repo = mGit.getRepository();
-      try (RevWalk walk = new RevWalk(repo))
+      try
       {
          ObjectId head = repo.resolve(GIT_HEAD);
-
-         List<Ref> tagList = getAllTags();
-         if (tagList != null)
-         {
-            for (Ref tag : tagList)
-            {
-               // Get commit of this tag
-               ObjectId targetObject = tag.getObjectId();
-
-               Ref peeledRef = repo.getRefDatabase().peel(tag);
-               if (peeledRef.getPeeledObjectId() != null)
-               {
-                  targetObject = peeledRef.getPeeledObjectId();
-               }
-
-               // Are HEAD and TAG identical?
-               if (!targetObject.equals(head) && latestTagContainer != null)
-               {
-                  break; // TAG found -> exit method
-               }
-               else if (targetObject.equals(head))
-               {
-                  RevTag revTag = walk.parseTag(tag.getObjectId());
-                  latestTagContainer = new CCLGitTagContainer(revTag.getTagName(), revTag.getTaggerIdent().getWhen(),
-                        revTag.getId().getName(), targetObject.getName());
-               }
-            }
-         }
+         return CCLGitTagIndex.getIndex(repo).getTag(head);
       }
       catch (IOException e)
       {
          throw new CCLVersionControlException("Error opening repository: " + this.mPathToRepo + " " + e);
       }
-
-      return latestTagContainer;
    }
 
    /**
@@ -437,10 +470,23 @@ public final class CCLGitHandler implements AutoCloseable
       ObjectId oidFrom = ObjectId.fromString(idFrom);
       ObjectId oidTo = ObjectId.fromString(idTo);
 
-      CCLCommitIterable iterable = null;
+      CCLCommitIterable iterable = new CCLCommitIterable(oidFrom, oidTo, true);
 
-      iterable = new CCLCommitIterable(oidFrom, oidTo, true);
+      if (mRangeCache == null)
+      {
+         return iterable;
+      }
 
-      return iterable;
+      try
+      {
+         boolean includeMergeCommits = Boolean.parseBoolean(SCLSettings.get(CCLXMLConstants.XML_INCLUDE_MERGE_COMMITS));
+         String key = CCLCommitRangeCache.createKey(mGit.getRepository().getDirectory(), oidFrom.getName(),
+               oidTo.getName(), mPathFilter, COMMIT_TEMPLATE, includeMergeCommits);
+         return mRangeCache.getIterable(key, iterable);
+      }
+      catch (IOException e)
+      {
+         throw new CCLVersionControlException("Error opening repository: " + this.mPathToRepo + " " + e);
+      }
    }
 }
@@ -0,0 +1,339 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLGitTagIndex.java
+ *
+ * @brief Index of all TAGs of a Git repository by the commit they point to.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.git.classes.CCLGitTagContainer;
+import de.comlet.releasefab.library.model.SCLRunContext;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Maps the peeled commit ids of a repository to the TAGs pointing to them.
+ * While a {@link SCLRunContext} run is active, the index is built once per
+ * repository and shared by all handlers of this repository. It is rebuilt as
+ * soon as the modification time of the packed-refs file or of one of the
+ * directories below refs/tags changes. The indexes are dropped when the run
+ * ends.
+ */
+final class CCLGitTagIndex
+{
+   private static final String PACKED_REFS = "packed-refs";
+
+   /** Indexes by canonical path of the repository directory. */
+   private static final Map<String, CCLGitTagIndex> INDEXES = new ConcurrentHashMap<>();
+
+   /** Lock object */
+   private static final Object LOCK = new Object();
+
+   /** Drops the indexes when the run ends. */
+   private static final AutoCloseable CLEANER = new AutoCloseable()
+   {
+      @Override
+      public void close()
+      {
+         synchronized (LOCK)
+         {
+            INDEXES.clear();
+            sRegistered = false;
+         }
+      }
+   };
+
+   /** Whether the indexes are registered to be dropped at the end of the run. */
+   private static boolean sRegistered;
+
+   /** TAGs by the commit they point to, in the order of the TAG list. */
+   private final Map<ObjectId, List<CCLTagEntry>> mTagsByCommit = new HashMap<>();
+
+   /** The packed-refs file of the repository. */
+   private final File mPackedRefs;
+
+   /** Modification time of the packed-refs file when the index was built. */
+   private final long mPackedRefsModified;
+
+   /**
+    * Modification times of refs/tags and its subdirectories when the index
+    * was built. Adding, deleting or updating a loose reference always
+    * modifies the directory containing it, adding a directory modifies its
+    * parent.
+    */
+   private final Map<File, Long> mTagDirectoriesModified = new HashMap<>();
+
+   /**
+    * A TAG together with the data of its annotated TAG object.
+    */
+   private static final class CCLTagEntry
+   {
+      /** Position of the TAG in the TAG list. */
+      private final int mPosition;
+
+      /** Short name of the TAG reference. */
+      private final String mRefName;
+
+      /** Id the TAG reference points to. */
+      private final ObjectId mTagId;
+
+      /** Commit the TAG finally points to. */
+      private final ObjectId mCommitId;
+
+      /** Name stored in the annotated TAG or null for lightweight TAGs. */
+      private final String mTagName;
+
+      /** Date of the annotated TAG or null for lightweight TAGs. */
+      private final Date mTaggerDate;
+
+      CCLTagEntry(int position, Ref ref, ObjectId commitId, RevTag revTag)
+      {
+         mPosition = position;
+         mRefName = Repository.shortenRefName(ref.getName());
+         mTagId = ref.getObjectId();
+         mCommitId = commitId;
+
+         if (null != revTag)
+         {
+            PersonIdent tagger = revTag.getTaggerIdent();
+            mTagName = revTag.getTagName();
+            mTaggerDate = null != tagger ? tagger.getWhen() : new Date(0);
+         }
+         else
+         {
+            mTagName = null;
+            mTaggerDate = null;
+         }
+      }
+
+      boolean isAnnotated()
+      {
+         return null != mTagName;
+      }
+   }
+
+   /**
+    * Builds the index. The modification times are read before the TAGs, so
+    * TAGs changed while the index is built cause it to be rebuilt later.
+    *
+    * @param repo repository
+    * @throws IOException
+    */
+   private CCLGitTagIndex(Repository repo) throws IOException
+   {
+      mPackedRefs = new File(repo.getDirectory(), PACKED_REFS);
+      mPackedRefsModified = mPackedRefs.lastModified();
+      addTagDirectories(new File(repo.getDirectory(), Constants.R_TAGS));
+
+      try (RevWalk walk = new RevWalk(repo))
+      {
+         // same order as the TAG list of the Git API
+         List<Ref> tags = new ArrayList<>(repo.getRefDatabase().getRefsByPrefix(Constants.R_TAGS));
+         tags.sort(Comparator.comparing(Ref::getName));
+
+         int position = 0;
+         for (Ref ref : tags)
+         {
+            ObjectId commitId = ref.getObjectId();
+            Ref peeledRef = repo.getRefDatabase().peel(ref);
+            if (peeledRef.getPeeledObjectId() != null)
+            {
+               commitId = peeledRef.getPeeledObjectId();
+            }
+
+            RevTag revTag = null;
+            RevObject object = walk.parseAny(ref.getObjectId());
+            if (object instanceof RevTag)
+            {
+               revTag = (RevTag) object;
+            }
+
+            mTagsByCommit.computeIfAbsent(commitId, id -> new ArrayList<>())
+                  .add(new CCLTagEntry(position++, ref, commitId, revTag));
+         }
+      }
+   }
+
+   /**
+    * Returns the index of the given repository. While a run is active, the
+    * index is built if it does not exist yet or if the TAGs of the repository
+    * have changed, otherwise a new index is built for every call. Only the
+    * repository whose index is built is locked.
+    *
+    * @param repo repository
+    * @return index
+    * @throws IOException
+    */
+   static CCLGitTagIndex getIndex(final Repository repo) throws IOException
+   {
+      String key = repo.getDirectory().getCanonicalPath();
+
+      CCLGitTagIndex index = INDEXES.get(key);
+      if (null != index && index.isUpToDate())
+      {
+         return index;
+      }
+
+      synchronized (LOCK)
+      {
+         if (!sRegistered)
+         {
+            sRegistered = SCLRunContext.register(CLEANER);
+         }
+
+         if (!sRegistered)
+         {
+            // no run is active, nothing is shared
+            return new CCLGitTagIndex(repo);
+         }
+      }
+
+      try
+      {
+         return INDEXES.compute(key, (path, current) -> null != current && current.isUpToDate() ? current :
+               createIndex(repo));
+      }
+      catch (UncheckedIOException e)
+      {
+         throw e.getCause();
+      }
+   }
+
+   private static CCLGitTagIndex createIndex(Repository repo)
+   {
+      try
+      {
+         return new CCLGitTagIndex(repo);
+      }
+      catch (IOException e)
+      {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+   /**
+    * Remembers the modification times of the given directory and all its
+    * subdirectories.
+    */
+   private void addTagDirectories(File directory)
+   {
+      mTagDirectoriesModified.put(directory, directory.lastModified());
+
+      File[] subDirectories = directory.listFiles(File::isDirectory);
+      if (null != subDirectories)
+      {
+         for (File subDirectory : subDirectories)
+         {
+            addTagDirectories(subDirectory);
+         }
+      }
+   }
+
+   /**
+    * Checks whether the TAGs of the repository are unchanged. Only the
+    * packed-refs file and the directories known when the index was built are
+    * checked, the directories are not listed again.
+    */
+   private boolean isUpToDate()
+   {
+      if (mPackedRefs.lastModified() != mPackedRefsModified)
+      {
+         return false;
+      }
+
+      for (Map.Entry<File, Long> entry : mTagDirectoriesModified.entrySet())
+      {
+         if (entry.getKey().lastModified() != entry.getValue())
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * Get the TAG the given commit is synched to. If multiple TAGs point to
+    * this commit, the last one of the first group of adjacent TAGs in the TAG
+    * list is selected.
+    *
+    * @param commitId commit, e.g. HEAD
+    * @return TAG or null if no TAG points to the commit
+    * @throws IOException if one of the TAGs is not an annotated TAG
+    */
+   CCLGitTagContainer getTag(ObjectId commitId) throws IOException
+   {
+      List<CCLTagEntry> entries = mTagsByCommit.get(commitId);
+      if (null == entries)
+      {
+         return null;
+      }
+
+      CCLTagEntry latest = null;
+      for (CCLTagEntry entry : entries)
+      {
+         if (null != latest && entry.mPosition != latest.mPosition + 1)
+         {
+            break;
+         }
+
+         if (!entry.isAnnotated())
+         {
+            throw new IOException("TAG " + entry.mRefName + " is not an annotated TAG.");
+         }
+         latest = entry;
+      }
+
+      return new CCLGitTagContainer(latest.mTagName, latest.mTaggerDate, latest.mTagId.getName(),
+            latest.mCommitId.getName());
+   }
+
+   /**
+    * Get the name of the newest annotated TAG pointing to the given commit.
+    *
+    * @param commitId commit
+    * @return name of the TAG reference or null if no annotated TAG points to
+    * the commit
+    */
+   String getNewestAnnotatedTagName(ObjectId commitId)
+   {
+      CCLTagEntry newest = null;
+
+      for (CCLTagEntry entry : mTagsByCommit.getOrDefault(commitId, new ArrayList<>()))
+      {
+         if (entry.isAnnotated() && (null == newest || entry.mTaggerDate.after(newest.mTaggerDate)))
+         {
+            newest = entry;
+         }
+      }
+
+      return null != newest ? newest.mRefName : null;
+   }
+}
@@ -31,7 +31,9 @@ import de.comlet.releasefab.library.model.CCLTuple;
 import de.comlet.releasefab.library.xml.CCLXMLSinkBase;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import org.jdom2.Element;
 
 /**
@@ -86,6 +88,12 @@ public class CCLGitUtility implements ICLVersionControlUtility
 {
    protected CCLGitHandler mGit;
 
+   /** Directory of the commit range cache or null if nothing is cached. */
+   private String mCacheDirectory;
+
+   /** Path the commits have to touch or null for all commits. */
+   private String mPathFilter;
+
    /**
     * Constructor. Create Git handler.
     * 
@@ -123,6 +131,36 @@ public class CCLGitUtility implements ICLVersionControlUtility
    {
       CCLGitConfig config = new CCLGitConfig(path);
       mGit = new CCLGitHandler(config);
+      mGit.setCacheDirectory(mCacheDirectory);
+      mGit.setPathFilter(mPathFilter);
+   }
+
+   /**
+    * Caches the commits of commit ranges in the given directory.
+    */
+   @Override
+   public void setCacheDirectory(String path)
+   {
+      mCacheDirectory = path;
+
+      if (mGit != null)
+      {
+         mGit.setCacheDirectory(path);
+      }
+   }
+
+   /**
+    * Provides only commits touching the given path.
+    */
+   @Override
+   public void setPathFilter(String path)
+   {
+      mPathFilter = path;
+
+      if (mGit != null)
+      {
+         mGit.setPathFilter(path);
+      }
    }
 
    /**
@@ -217,6 +255,30 @@ public class CCLGitUtility implements ICLVersionControlUtility
       return new CCLCommitFilter(source, almUtil);
    }
 
+   /**
+    * Check the ALM items of the given commits in one request. The results are
+    * kept in the cache which is shared by all commit filters.
+    */
+   @Override
+   public void prefetchCommitFilter(Iterable<ICLCommitContainer> source, ICLALMUtility almUtil)
+   {
+      if (null == almUtil)
+      {
+         return;
+      }
+
+      Set<String> itemIds = new LinkedHashSet<>();
+      for (ICLCommitContainer commit : source)
+      {
+         itemIds.add(commit.getCommitId());
+      }
+
+      if (!itemIds.isEmpty())
+      {
+         CCLTrackerItemStatusCache.getInstance().checkTrackerItems(almUtil, itemIds);
+      }
+   }
+
    /**
     * Get former documented TAG.
     * 
@@ -229,8 +291,8 @@ public class CCLGitUtility implements ICLVersionControlUtility
 
       if (formerDelivery != null)
       {
-         String key = formerDelivery.getName() + CCLXMLGitConstants.IMPORTER_NAME;
-         ACLDeliveryInformation deliveryInfo = component.getDeliveryInformation(key);
+         ACLDeliveryInformation deliveryInfo = component.getDeliveryInformation(formerDelivery.getName(),
+               CCLXMLGitConstants.IMPORTER_NAME);
 
          if (deliveryInfo != null)
          {
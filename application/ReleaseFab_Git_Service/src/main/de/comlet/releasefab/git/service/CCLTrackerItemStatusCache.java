@@ -0,0 +1,380 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLTrackerItemStatusCache.java
+ *
+ * @brief On-disk cache for the results of ALM item checks.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.api.almservice.ICLALMUtility;
+import de.comlet.releasefab.library.model.SCLRunContext;
+import de.comlet.releasefab.library.settings.SCLSettings;
+import de.comlet.releasefab.library.xml.CCLXMLConstants;
+import de.comlet.releasefab.library.xml.SCLXMLUtil;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers whether ALM items passed {@link ICLALMUtility#checkTrackerItem}.
+ * The results are shared by all components, deliveries and runs and are
+ * stored in a file, so the ALM service is only asked for items which have not
+ * been checked within the time to live (setting ALM_CACHE_TTL in minutes, 0
+ * disables the cache). Results are stored per ALM service implementation, ALM
+ * server and allowed status, so projects with different settings do not share
+ * them. Results of services which do not name their status settings are only
+ * shared while a {@link SCLRunContext} run is active and are not stored.
+ * <p>
+ * The ALM service is called and the file is written without holding a lock,
+ * so concurrent checks do not wait for each other. While a run is active the
+ * file is written once when the run ends, otherwise after every check which
+ * asked the ALM service.
+ */
+final class CCLTrackerItemStatusCache implements AutoCloseable
+{
+   private static final Logger LOGGER = LoggerFactory.getLogger(CCLTrackerItemStatusCache.class);
+
+   /** Directory of the cache relative to the home directory of the user. */
+   private static final String CACHE_DIRECTORY = ".releasefab" + File.separator + "almcache";
+
+   private static final String CACHE_FILE = "trackeritems.xml";
+
+   private static final int DEFAULT_TIME_TO_LIVE_MINUTES = 60;
+
+   private static final String XML_CACHE = "trackerItemCache";
+   private static final String XML_ITEM = "item";
+   private static final String XML_ATTR_KEY = "key";
+   private static final String XML_ATTR_ALLOWED = "allowed";
+   private static final String XML_ATTR_TIME = "time";
+
+   private static CCLTrackerItemStatusCache sInstance;
+
+   private final File mFile;
+   private final long mTimeToLive;
+
+   /** Lock for loading the file and for the state of the run. */
+   private final Object mLock = new Object();
+
+   /** Lock which makes sure the file is written by one thread at a time. */
+   private final Object mWriteLock = new Object();
+
+   /** Stored results by key: result and time of the check. */
+   private volatile Map<String, CCLEntry> mEntries;
+
+   /** Results of services without status settings by key, for this run. */
+   private final Map<String, CCLEntry> mRunEntries = new ConcurrentHashMap<>();
+
+   /** Whether stored results have been added since the file was written. */
+   private volatile boolean mIsModified;
+
+   /** Whether this cache is registered to be closed at the end of the run. */
+   private boolean mRegistered;
+
+   /**
+    * Result of the check of an item.
+    */
+   private static final class CCLEntry
+   {
+      private final boolean mIsAllowed;
+      private final long mTime;
+
+      CCLEntry(boolean isAllowed, long time)
+      {
+         mIsAllowed = isAllowed;
+         mTime = time;
+      }
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param directory directory to store the cache file in
+    * @param timeToLive time in milliseconds a result is valid, 0 to disable
+    * the cache
+    */
+   CCLTrackerItemStatusCache(File directory, long timeToLive)
+   {
+      mFile = new File(directory, CACHE_FILE);
+      mTimeToLive = timeToLive;
+   }
+
+   /**
+    * Returns the cache of the user. Its time to live is read from the settings
+    * when it is created.
+    */
+   static synchronized CCLTrackerItemStatusCache getInstance()
+   {
+      if (null == sInstance)
+      {
+         int minutes = SCLSettings.getInt(CCLXMLConstants.XML_ALM_CACHE_TTL, DEFAULT_TIME_TO_LIVE_MINUTES);
+         sInstance = new CCLTrackerItemStatusCache(new File(System.getProperty("user.home"), CACHE_DIRECTORY),
+               TimeUnit.MINUTES.toMillis(Math.max(0, minutes)));
+      }
+      return sInstance;
+   }
+
+   /**
+    * Checks the given items. Only items which are not cached or whose result
+    * has expired are passed to the ALM service, all of them in one call.
+    *
+    * @param almUtil ALM service
+    * @param itemIds IDs of the items to check
+    * @return result of the check by item ID
+    */
+   Map<String, Boolean> checkTrackerItems(ICLALMUtility almUtil, Iterable<String> itemIds)
+   {
+      Set<String> missingIds = new LinkedHashSet<>();
+      for (String itemId : itemIds)
+      {
+         missingIds.add(itemId);
+      }
+
+      Collection<String> statusSettingNames = almUtil.getStatusSettingNames();
+      boolean isStored = null != statusSettingNames;
+      if (0 >= mTimeToLive || (!isStored && !SCLRunContext.isActive()))
+      {
+         return almUtil.checkTrackerItems(missingIds);
+      }
+
+      Map<String, CCLEntry> entries;
+      String prefix;
+      if (isStored)
+      {
+         entries = getEntries();
+         prefix = getKeyPrefix(almUtil, statusSettingNames);
+      }
+      else
+      {
+         entries = mRunEntries;
+         prefix = almUtil.getClass().getName() + "|";
+      }
+
+      long now = System.currentTimeMillis();
+      Map<String, Boolean> result = new HashMap<>();
+
+      Iterator<String> iterator = missingIds.iterator();
+      while (iterator.hasNext())
+      {
+         String itemId = iterator.next();
+         CCLEntry entry = entries.get(prefix + itemId);
+         if (null != entry && now - entry.mTime < mTimeToLive)
+         {
+            result.put(itemId, entry.mIsAllowed);
+            iterator.remove();
+         }
+      }
+
+      if (missingIds.isEmpty())
+      {
+         return result;
+      }
+
+      Map<String, Boolean> checked = almUtil.checkTrackerItems(missingIds);
+      for (String itemId : missingIds)
+      {
+         boolean isAllowed = Boolean.TRUE.equals(checked.get(itemId));
+         result.put(itemId, isAllowed);
+         entries.put(prefix + itemId, new CCLEntry(isAllowed, now));
+      }
+
+      if (isStored)
+      {
+         mIsModified = true;
+      }
+
+      if (!registerForRun() && isStored)
+      {
+         flush();
+      }
+
+      return result;
+   }
+
+   /**
+    * Writes the file if results have been added and drops the results which
+    * are only valid for the run. Called when the run ends.
+    */
+   @Override
+   public void close()
+   {
+      synchronized (mLock)
+      {
+         mRegistered = false;
+      }
+
+      mRunEntries.clear();
+      flush();
+   }
+
+   /**
+    * Registers this cache to be closed at the end of the current run.
+    *
+    * @return true if a run is active, i.e. the file is written when it ends
+    */
+   private boolean registerForRun()
+   {
+      synchronized (mLock)
+      {
+         if (!mRegistered)
+         {
+            mRegistered = SCLRunContext.register(this);
+         }
+         return mRegistered;
+      }
+   }
+
+   /**
+    * Returns the part of the keys which identifies the ALM service. It
+    * contains a hash of the ALM server and of the allowed status.
+    */
+   private static String getKeyPrefix(ICLALMUtility almUtil, Collection<String> statusSettingNames)
+   {
+      StringBuilder settings = new StringBuilder(String.valueOf(SCLSettings.get(CCLXMLConstants.XML_ALM_SERVER)));
+      for (String name : new TreeSet<>(statusSettingNames))
+      {
+         settings.append('|').append(name).append('=').append(new TreeSet<>(ICLALMUtility.getSearchStatus(name)));
+      }
+
+      UUID hash = UUID.nameUUIDFromBytes(settings.toString().getBytes(StandardCharsets.UTF_8));
+      return almUtil.getClass().getName() + "|" + hash + "|";
+   }
+
+   /**
+    * Returns the stored results. The cache file is loaded once.
+    */
+   private Map<String, CCLEntry> getEntries()
+   {
+      Map<String, CCLEntry> entries = mEntries;
+      if (null != entries)
+      {
+         return entries;
+      }
+
+      synchronized (mLock)
+      {
+         if (null == mEntries)
+         {
+            mEntries = loadEntries();
+         }
+         return mEntries;
+      }
+   }
+
+   /**
+    * Loads the cache file.
+    */
+   private Map<String, CCLEntry> loadEntries()
+   {
+      Map<String, CCLEntry> entries = new ConcurrentHashMap<>();
+      if (!mFile.isFile())
+      {
+         return entries;
+      }
+
+      try
+      {
+         for (Element item : SCLXMLUtil.loadDocument(mFile).getRootElement().getChildren(XML_ITEM))
+         {
+            entries.put(item.getAttributeValue(XML_ATTR_KEY),
+                  new CCLEntry(Boolean.parseBoolean(item.getAttributeValue(XML_ATTR_ALLOWED)),
+                        Long.parseLong(item.getAttributeValue(XML_ATTR_TIME))));
+         }
+      }
+      catch (JDOMException | IOException | RuntimeException e)
+      {
+         LOGGER.warn("Ignoring invalid ALM cache file {}: {}", mFile, e.getMessage());
+         entries.clear();
+      }
+
+      return entries;
+   }
+
+   /**
+    * Stores all results which have not expired yet if results have been added
+    * since the file was written. The file is written completely before it
+    * replaces an existing file, so concurrent readers never see a partially
+    * written file.
+    */
+   private void flush()
+   {
+      synchronized (mWriteLock)
+      {
+         if (!mIsModified)
+         {
+            return;
+         }
+         mIsModified = false;
+
+         long now = System.currentTimeMillis();
+         Element root = new Element(XML_CACHE);
+
+         for (Map.Entry<String, CCLEntry> entry : getEntries().entrySet())
+         {
+            if (now - entry.getValue().mTime < mTimeToLive)
+            {
+               Element item = new Element(XML_ITEM);
+               item.setAttribute(XML_ATTR_KEY, entry.getKey());
+               item.setAttribute(XML_ATTR_ALLOWED, String.valueOf(entry.getValue().mIsAllowed));
+               item.setAttribute(XML_ATTR_TIME, String.valueOf(entry.getValue().mTime));
+               root.addContent(item);
+            }
+         }
+
+         File directory = mFile.getParentFile();
+         File tempFile = null;
+         try
+         {
+            Files.createDirectories(directory.toPath());
+            tempFile = File.createTempFile(CACHE_FILE, null, directory);
+            SCLXMLUtil.saveDocument(tempFile, new Document(root));
+            try
+            {
+               Files.move(tempFile.toPath(), mFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                     StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+               Files.move(tempFile.toPath(), mFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+         }
+         catch (IOException e)
+         {
+            LOGGER.warn("Could not write ALM cache file {}: {}", mFile, e.getMessage());
+
+            if (null != tempFile && !tempFile.delete())
+            {
+               tempFile.deleteOnExit();
+            }
+         }
+      }
+   }
+}
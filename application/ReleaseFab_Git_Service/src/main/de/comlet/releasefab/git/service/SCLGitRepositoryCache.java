@@ -0,0 +1,105 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file SCLGitRepositoryCache.java
+ *
+ * @brief Shares opened Git repositories during a run.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.library.model.SCLRunContext;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.jgit.api.Git;
+
+/**
+ * Keeps Git repositories open while a {@link SCLRunContext} run is active.
+ * Repositories are identified by their canonical path, so all components
+ * pointing to the same repository share one handle and its object database
+ * caches. All handles are closed when the run ends.
+ */
+final class SCLGitRepositoryCache implements AutoCloseable
+{
+   private static final SCLGitRepositoryCache INSTANCE = new SCLGitRepositoryCache();
+
+   /** Opened repositories by canonical path. */
+   private final Map<String, Git> mRepositories = new HashMap<>();
+
+   /** Whether this cache is registered to be closed at the end of the run. */
+   private boolean mRegistered;
+
+   private SCLGitRepositoryCache()
+   {
+   }
+
+   static SCLGitRepositoryCache getInstance()
+   {
+      return INSTANCE;
+   }
+
+   /**
+    * Returns the shared handle of the repository in the given directory and
+    * opens it if necessary.
+    *
+    * @param directory directory of the repository
+    * @return shared handle or null if no run is active. The handle must not be
+    * closed by the caller.
+    * @throws IOException if the repository could not be opened
+    */
+   synchronized Git get(File directory) throws IOException
+   {
+      if (!SCLRunContext.isActive())
+      {
+         return null;
+      }
+
+      String key = directory.getCanonicalPath();
+      Git git = mRepositories.get(key);
+
+      if (null == git)
+      {
+         if (!mRegistered)
+         {
+            mRegistered = SCLRunContext.register(this);
+
+            if (!mRegistered)
+            {
+               // the run ended in the meantime
+               return null;
+            }
+         }
+
+         git = Git.open(directory);
+         mRepositories.put(key, git);
+      }
+
+      return git;
+   }
+
+   /**
+    * Closes all shared handles.
+    */
+   @Override
+   public synchronized void close()
+   {
+      for (Git git : mRepositories.values())
+      {
+         git.close();
+      }
+
+      mRepositories.clear();
+      mRegistered = false;
+   }
+}
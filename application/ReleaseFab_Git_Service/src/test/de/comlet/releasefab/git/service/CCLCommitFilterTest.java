@@ -0,0 +1,251 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCommitFilterTest.java
+ *
+ * @brief Unit test class of {@link #CCLCommitFilter}.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.api.almservice.ICLALMItemContainer;
+import de.comlet.releasefab.api.almservice.ICLALMUtility;
+import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
+import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
+import de.comlet.releasefab.library.model.SCLRunContext;
+import de.comlet.releasefab.library.settings.SCLSettings;
+import de.comlet.releasefab.library.settings.SCLSettings.ECLSettingsType;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CCLCommitFilterTest
+{
+   private static final long TIME_TO_LIVE = TimeUnit.HOURS.toMillis(1);
+
+   /** Setting containing the status the fake ALM service accepts. */
+   private static final String STATUS_SETTING = "TEST_ALM_STATUS";
+
+   private static final List<ICLCommitContainer> COMMITS = Arrays.asList(createCommit("1", "A"),
+         createCommit("2", "B"), createCommit("3", "A"), createCommit("4", "C"));
+
+   @TempDir
+   File mCacheDirectory;
+
+   /**
+    * Test that only commits of allowed items are returned and that all items
+    * are checked in one call.
+    */
+   @Test
+   void testFilterChecksItemsInOneBatch()
+   {
+      CCLFakeALMUtility almUtil = new CCLFakeALMUtility("A", "C");
+      CCLTrackerItemStatusCache cache = new CCLTrackerItemStatusCache(mCacheDirectory, TIME_TO_LIVE);
+
+      assertEquals(Arrays.asList("1", "3", "4"), getHashes(new CCLCommitFilter(COMMITS, almUtil, cache)));
+      assertEquals(Arrays.asList(Arrays.asList("A", "B", "C")), almUtil.mRequests);
+   }
+
+   /**
+    * Test that cached results are used by further filters and by a new cache
+    * reading the same directory.
+    */
+   @Test
+   void testCachedItemsAreNotCheckedAgain()
+   {
+      CCLFakeALMUtility almUtil = new CCLFakeALMUtility("A");
+      CCLTrackerItemStatusCache cache = new CCLTrackerItemStatusCache(mCacheDirectory, TIME_TO_LIVE);
+      getHashes(new CCLCommitFilter(COMMITS.subList(0, 2), almUtil, cache));
+
+      assertEquals(Arrays.asList("1", "3"), getHashes(new CCLCommitFilter(COMMITS, almUtil, cache)));
+
+      CCLTrackerItemStatusCache reloadedCache = new CCLTrackerItemStatusCache(mCacheDirectory, TIME_TO_LIVE);
+      assertEquals(Arrays.asList("1", "3"), getHashes(new CCLCommitFilter(COMMITS, almUtil, reloadedCache)));
+
+      assertEquals(Arrays.asList(Arrays.asList("A", "B"), Arrays.asList("C")), almUtil.mRequests);
+   }
+
+   /**
+    * Test that cached results are not used after the allowed status have been
+    * changed, e.g. by opening another project.
+    */
+   @Test
+   void testCachedItemsDependOnStatus()
+   {
+      CCLFakeALMUtility almUtil = new CCLFakeALMUtility("A");
+      CCLTrackerItemStatusCache cache = new CCLTrackerItemStatusCache(mCacheDirectory, TIME_TO_LIVE);
+
+      SCLSettings.addList(STATUS_SETTING, Arrays.asList("Open"), EnumSet.of(ECLSettingsType.PROJECT));
+      getHashes(new CCLCommitFilter(COMMITS, almUtil, cache));
+
+      SCLSettings.addList(STATUS_SETTING, Arrays.asList("Closed"), EnumSet.of(ECLSettingsType.PROJECT));
+      getHashes(new CCLCommitFilter(COMMITS, almUtil, cache));
+
+      assertEquals(Arrays.asList(Arrays.asList("A", "B", "C"), Arrays.asList("A", "B", "C")), almUtil.mRequests);
+   }
+
+   /**
+    * Test that every filter checks its items if the cache is disabled.
+    */
+   @Test
+   void testDisabledCache()
+   {
+      CCLFakeALMUtility almUtil = new CCLFakeALMUtility("B");
+      CCLTrackerItemStatusCache cache = new CCLTrackerItemStatusCache(mCacheDirectory, 0);
+
+      assertEquals(Arrays.asList("2"), getHashes(new CCLCommitFilter(COMMITS, almUtil, cache)));
+      assertEquals(Arrays.asList("2"), getHashes(new CCLCommitFilter(COMMITS, almUtil, cache)));
+      assertEquals(2, almUtil.mRequests.size());
+   }
+
+   /**
+    * Test that the cache file is written once when the run ends and that the
+    * results are found by a new cache afterwards.
+    */
+   @Test
+   void testResultsAreStoredWhenRunEnds()
+   {
+      CCLFakeALMUtility almUtil = new CCLFakeALMUtility("A");
+      CCLTrackerItemStatusCache cache = new CCLTrackerItemStatusCache(mCacheDirectory, TIME_TO_LIVE);
+      File file = new File(mCacheDirectory, "trackeritems.xml");
+
+      SCLRunContext.begin();
+      try
+      {
+         getHashes(new CCLCommitFilter(COMMITS.subList(0, 2), almUtil, cache));
+         getHashes(new CCLCommitFilter(COMMITS, almUtil, cache));
+         assertFalse(file.exists());
+      }
+      finally
+      {
+         SCLRunContext.end();
+      }
+
+      assertTrue(file.isFile());
+
+      CCLTrackerItemStatusCache reloadedCache = new CCLTrackerItemStatusCache(mCacheDirectory, TIME_TO_LIVE);
+      assertEquals(Arrays.asList("1", "3"), getHashes(new CCLCommitFilter(COMMITS, almUtil, reloadedCache)));
+      assertEquals(Arrays.asList(Arrays.asList("A", "B"), Arrays.asList("C")), almUtil.mRequests);
+   }
+
+   /**
+    * Test that results of a service which does not name its status settings
+    * are shared while a run is active, but are not stored.
+    */
+   @Test
+   void testResultsWithoutStatusSettingsAreSharedWithinRun()
+   {
+      CCLFakeALMUtility almUtil = new CCLFakeALMUtility("A");
+      almUtil.mStatusSettingNames = null;
+      CCLTrackerItemStatusCache cache = new CCLTrackerItemStatusCache(mCacheDirectory, TIME_TO_LIVE);
+
+      SCLRunContext.begin();
+      try
+      {
+         getHashes(new CCLCommitFilter(COMMITS, almUtil, cache));
+         assertEquals(Arrays.asList("1", "3"), getHashes(new CCLCommitFilter(COMMITS, almUtil, cache)));
+      }
+      finally
+      {
+         SCLRunContext.end();
+      }
+
+      assertEquals(Arrays.asList("1", "3"), getHashes(new CCLCommitFilter(COMMITS, almUtil, cache)));
+      assertEquals(Arrays.asList(Arrays.asList("A", "B", "C"), Arrays.asList("A", "B", "C")), almUtil.mRequests);
+      assertFalse(new File(mCacheDirectory, "trackeritems.xml").exists());
+   }
+
+   private static ICLCommitContainer createCommit(String hash, String itemId)
+   {
+      return new CCLGitCommitContainer(hash, itemId, 0, "", "", "", "", false);
+   }
+
+   private static List<String> getHashes(Iterable<ICLCommitContainer> commits)
+   {
+      List<String> hashes = new ArrayList<>();
+      for (ICLCommitContainer commit : commits)
+      {
+         hashes.add(((CCLGitCommitContainer) commit).getHash());
+      }
+      return hashes;
+   }
+
+   /**
+    * ALM service which allows a fixed set of items and records its requests.
+    */
+   private static final class CCLFakeALMUtility implements ICLALMUtility
+   {
+      private final List<String> mAllowedIds;
+      private final List<List<String>> mRequests = new ArrayList<>();
+      private Collection<String> mStatusSettingNames = Arrays.asList(STATUS_SETTING);
+
+      CCLFakeALMUtility(String... allowedIds)
+      {
+         mAllowedIds = Arrays.asList(allowedIds);
+      }
+
+      @Override
+      public Map<String, Boolean> checkTrackerItems(Collection<String> itemIds)
+      {
+         mRequests.add(new ArrayList<>(itemIds));
+
+         Map<String, Boolean> result = new HashMap<>();
+         for (String itemId : itemIds)
+         {
+            result.put(itemId, checkTrackerItem(itemId));
+         }
+         return result;
+      }
+
+      @Override
+      public boolean checkTrackerItem(String itemId)
+      {
+         return mAllowedIds.contains(itemId);
+      }
+
+      @Override
+      public Collection<String> getStatusSettingNames()
+      {
+         return mStatusSettingNames;
+      }
+
+      @Override
+      public Iterable<ICLALMItemContainer> filterAndSortTrackerItems(Iterable<ICLALMItemContainer> source)
+      {
+         return source;
+      }
+
+      @Override
+      public Iterable<ICLALMItemContainer> getTrackerItemIterable(Iterable<String> source, Set<String> filterList)
+      {
+         return new ArrayList<>();
+      }
+
+      @Override
+      public void close()
+      {
+         // nothing to close
+      }
+   }
+}
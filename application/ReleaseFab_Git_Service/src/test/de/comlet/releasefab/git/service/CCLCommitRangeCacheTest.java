@@ -0,0 +1,137 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCommitRangeCacheTest.java
+ *
+ * @brief Unit test class of {@link #CCLCommitRangeCache}.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.api.vcsservice.ICLCommitContainer;
+import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CCLCommitRangeCacheTest
+{
+   private static final List<ICLCommitContainer> COMMITS = Arrays.asList(
+         new CCLGitCommitContainer("a1", "ITEM-1", 1650000000, "Short", "  internal\n  doc ", "external & <doc>",
+               "Reviewer", true),
+         new CCLGitCommitContainer("b2", "ITEM-2", 1650000100, "Other", null, "", null, false));
+
+   @TempDir
+   File mRootDirectory;
+
+   /**
+    * Test that every setting which changes the parsed commits is part of the
+    * key.
+    */
+   @Test
+   void testKeyContainsAllSettings() throws IOException
+   {
+      String key = CCLCommitRangeCache.createKey(mRootDirectory, "from", "to", "path", "template", false);
+
+      assertAll(
+            () -> assertEquals(key,
+                  CCLCommitRangeCache.createKey(mRootDirectory, "from", "to", "path", "template", false)),
+            () -> assertNotEquals(key,
+                  CCLCommitRangeCache.createKey(new File(mRootDirectory, "other"), "from", "to", "path",
+                        "template", false)),
+            () -> assertNotEquals(key,
+                  CCLCommitRangeCache.createKey(mRootDirectory, "other", "to", "path", "template", false)),
+            () -> assertNotEquals(key,
+                  CCLCommitRangeCache.createKey(mRootDirectory, "from", "other", "path", "template", false)),
+            () -> assertNotEquals(key,
+                  CCLCommitRangeCache.createKey(mRootDirectory, "from", "to", null, "template", false)),
+            () -> assertNotEquals(key,
+                  CCLCommitRangeCache.createKey(mRootDirectory, "from", "to", "path", "other", false)),
+            () -> assertNotEquals(key,
+                  CCLCommitRangeCache.createKey(mRootDirectory, "from", "to", "path", "template", true)));
+   }
+
+   /**
+    * Test that a cache reading the same directory returns the stored commits
+    * without reading the source, including their whitespace.
+    */
+   @Test
+   void testStoredCommitsAreLoaded()
+   {
+      List<ICLCommitContainer> stored = getCommits(
+            new CCLCommitRangeCache(mRootDirectory.getPath()).getIterable("key", COMMITS));
+      List<ICLCommitContainer> loaded = getCommits(
+            new CCLCommitRangeCache(mRootDirectory.getPath()).getIterable("key", new ArrayList<>()));
+
+      assertEquals(COMMITS, stored);
+      assertEquals(COMMITS.size(), loaded.size());
+      for (int i = 0; i < COMMITS.size(); i++)
+      {
+         assertCommitEquals((CCLGitCommitContainer) COMMITS.get(i), (CCLGitCommitContainer) loaded.get(i));
+      }
+   }
+
+   /**
+    * Test that the least recently used ranges are deleted when the cache
+    * exceeds its maximum size.
+    */
+   @Test
+   void testLeastRecentlyUsedRangesAreDeleted()
+   {
+      CCLCommitRangeCache cache = new CCLCommitRangeCache(mRootDirectory.getPath(), 2);
+      getCommits(cache.getIterable("first", COMMITS));
+      getCommits(cache.getIterable("second", COMMITS));
+      File[] files = new File(mRootDirectory, ".releasefab" + File.separator + "commitcache").listFiles();
+      for (File file : files)
+      {
+         assertTrue(file.setLastModified(file.lastModified() - 10000));
+      }
+
+      // use the first range again, so the second one is the oldest
+      getCommits(cache.getIterable("first", new ArrayList<>()));
+      getCommits(cache.getIterable("third", COMMITS));
+
+      assertEquals(COMMITS, getCommits(cache.getIterable("first", new ArrayList<>())));
+      assertEquals(COMMITS, getCommits(cache.getIterable("third", new ArrayList<>())));
+      assertTrue(getCommits(cache.getIterable("second", new ArrayList<>())).isEmpty());
+   }
+
+   private static void assertCommitEquals(CCLGitCommitContainer expected, CCLGitCommitContainer actual)
+   {
+      assertAll(() -> assertEquals(expected.getHash(), actual.getHash()),
+            () -> assertEquals(expected.getCommitId(), actual.getCommitId()),
+            () -> assertEquals(expected.getCommitTime(), actual.getCommitTime()),
+            () -> assertEquals(expected.getShortDescription(), actual.getShortDescription()),
+            () -> assertEquals(expected.getInternalDoc(), actual.getInternalDoc()),
+            () -> assertEquals(expected.getExternalDoc(), actual.getExternalDoc()),
+            () -> assertEquals(expected.getReviewer(), actual.getReviewer()),
+            () -> assertEquals(expected.getApiModification(), actual.getApiModification()));
+   }
+
+   private static List<ICLCommitContainer> getCommits(Iterable<ICLCommitContainer> commits)
+   {
+      List<ICLCommitContainer> result = new ArrayList<>();
+      for (ICLCommitContainer commit : commits)
+      {
+         result.add(commit);
+      }
+      return result;
+   }
+}
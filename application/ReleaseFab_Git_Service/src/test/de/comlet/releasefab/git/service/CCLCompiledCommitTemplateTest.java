@@ -0,0 +1,273 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCompiledCommitTemplateTest.java
+ *
+ * @brief Unit test class of {@link #CCLCompiledCommitTemplate}.
+ */
+
+package de.comlet.releasefab.git.service;
+
+import de.comlet.releasefab.git.classes.CCLGitCommitContainer;
+import de.comlet.releasefab.library.exception.CCLVersionControlRuntimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CCLCompiledCommitTemplateTest
+{
+   private static final String DELIMITER = "**********";
+
+   private static final String COMMIT_TEMPLATE_STANDARD = "{short description}" + DELIMITER + "Item-ID: #{itemID}" +
+         DELIMITER + "API-modification Y[{yes}]/N[{no}]" + DELIMITER + "internal documentation:{internal doc}" +
+         DELIMITER + "external documentation:{external doc}" + DELIMITER + "reviewed by:{reviewer}";
+
+   private static final String COMMIT_TEMPLATE_PREFIX = "Item-ID: #{itemID}" +
+         "API-modification Y[{yes}]/N[{no}]internal documentation:{internal doc}" +
+         "external documentation:{external doc}reviewed by:{reviewer},{short description}";
+
+   private static final String COMMIT_TEMPLATE_MINIMAL = "{short description},{itemID},{yes},{no},{internal doc}," +
+         "{external doc},{reviewer}";
+
+   private static final String COMMIT_TEMPLATE_ADJACENT = "{short description},{itemID}{reviewer}";
+
+   private static final Logger LOGGER = LoggerFactory.getLogger(CCLCompiledCommitTemplateTest.class);
+
+   private static final int NUMBER_OF_GENERATED_MESSAGES = 1000;
+   private static final int NUMBER_OF_BENCHMARK_MESSAGES = 100_000;
+   private static final int WARMUP_ROUNDS = 5;
+   private static final int MEASURED_ROUNDS = 10;
+   private static final int MAX_WORDS = 40;
+   private static final int ITEM_ID_BOUND = 100_000;
+   private static final int TEMPLATELESS_RATIO = 10;
+   private static final long SEED = 42L;
+
+   private static final String[] WORDS = {"fix", "add", "remove", "refactor", "parser", "delivery", "component",
+      "export", "docbook", "null", "pointer", "in", "the", "for", "when", "git", "tag", "commit", "settings"};
+
+   /**
+    * Test that the compiled template parses all messages provided by
+    * {@link #provideParameters()} exactly like {@link CCLDescriptionParser}.
+    */
+   @ParameterizedTest
+   @MethodSource("provideParameters")
+   void testParseLikeDescriptionParser(String message, String template)
+   {
+      assertParseLikeDescriptionParser(message, template);
+   }
+
+   /**
+    * Test that the compiled template parses generated messages exactly like
+    * {@link CCLDescriptionParser}. Every tenth message ignores the template
+    * like merge commits usually do.
+    */
+   @Test
+   void testParseGeneratedMessagesLikeDescriptionParser()
+   {
+      for (String message : createMessages(NUMBER_OF_GENERATED_MESSAGES))
+      {
+         assertParseLikeDescriptionParser(message, COMMIT_TEMPLATE_STANDARD);
+      }
+   }
+
+   /**
+    * Benchmark which parses 100,000 generated messages with
+    * {@link CCLDescriptionParser} and with the compiled template and logs the
+    * average time of both. It only runs if the environment variable
+    * ENABLE_BENCHMARKS is set to true, e.g.
+    * <code>ENABLE_BENCHMARKS=true gradle :ReleaseFab_Git_Service:test
+    * --tests '*CCLCompiledCommitTemplateTest'</code>. Timings are not
+    * asserted, because they depend on the machine. Both parsers have to
+    * return the same short descriptions.
+    */
+   @Test
+   @EnabledIfEnvironmentVariable(named = "ENABLE_BENCHMARKS", matches = "true")
+   void benchmarkParse()
+   {
+      List<String> messages = createMessages(NUMBER_OF_BENCHMARK_MESSAGES);
+      final CCLCompiledCommitTemplate compiled = CCLCompiledCommitTemplate.compile(COMMIT_TEMPLATE_STANDARD);
+
+      Function<String, CCLGitCommitContainer> former = new Function<String, CCLGitCommitContainer>()
+      {
+         @Override
+         public CCLGitCommitContainer apply(String message)
+         {
+            return new CCLDescriptionParser(COMMIT_TEMPLATE_STANDARD).parse(message);
+         }
+      };
+      Function<String, CCLGitCommitContainer> current = new Function<String, CCLGitCommitContainer>()
+      {
+         @Override
+         public CCLGitCommitContainer apply(String message)
+         {
+            return compiled.parse(message);
+         }
+      };
+
+      for (int i = 0; i < WARMUP_ROUNDS; i++)
+      {
+         assertEquals(parseAll(messages, former), parseAll(messages, current));
+      }
+
+      long formerNanos = 0;
+      long currentNanos = 0;
+      for (int i = 0; i < MEASURED_ROUNDS; i++)
+      {
+         long start = System.nanoTime();
+         long formerChecksum = parseAll(messages, former);
+         formerNanos += System.nanoTime() - start;
+
+         start = System.nanoTime();
+         long currentChecksum = parseAll(messages, current);
+         currentNanos += System.nanoTime() - start;
+
+         assertEquals(formerChecksum, currentChecksum);
+      }
+
+      LOGGER.info("CCLDescriptionParser:      {} ms per {} messages",
+            TimeUnit.NANOSECONDS.toMillis(formerNanos / MEASURED_ROUNDS), NUMBER_OF_BENCHMARK_MESSAGES);
+      LOGGER.info("CCLCompiledCommitTemplate: {} ms per {} messages",
+            TimeUnit.NANOSECONDS.toMillis(currentNanos / MEASURED_ROUNDS), NUMBER_OF_BENCHMARK_MESSAGES);
+   }
+
+   /**
+    * Parses all messages and returns the total length of the short
+    * descriptions, so the work cannot be optimized away.
+    */
+   private static long parseAll(List<String> messages, Function<String, CCLGitCommitContainer> parser)
+   {
+      long checksum = 0;
+      for (String message : messages)
+      {
+         String shortDescription = parser.apply(message).getShortDescription();
+         checksum += null == shortDescription ? 0 : shortDescription.length();
+      }
+      return checksum;
+   }
+
+   /**
+    * Creates messages following the standard template. Every tenth message
+    * ignores the template like merge commits usually do.
+    */
+   private static List<String> createMessages(int numberOfMessages)
+   {
+      Random random = new Random(SEED);
+      List<String> messages = new ArrayList<>(numberOfMessages);
+
+      for (int i = 0; i < numberOfMessages; i++)
+      {
+         if (0 == i % TEMPLATELESS_RATIO)
+         {
+            messages.add("Merge branch 'feature/" + words(random) + "' into develop");
+         }
+         else
+         {
+            messages.add(words(random) + DELIMITER + "Item-ID: #" + random.nextInt(ITEM_ID_BOUND) + DELIMITER +
+                  "API-modification Y[" + (random.nextBoolean() ? "X" : "") + "]/N[]" + DELIMITER +
+                  "internal documentation:" + words(random) + "\n" + words(random) + DELIMITER +
+                  "external documentation:" + words(random) + DELIMITER + "reviewed by:" +
+                  WORDS[random.nextInt(WORDS.length)]);
+         }
+      }
+
+      return messages;
+   }
+
+   private static void assertParseLikeDescriptionParser(String message, String template)
+   {
+      CCLGitCommitContainer expected = new CCLDescriptionParser(template).parse(message);
+      CCLGitCommitContainer result = CCLCompiledCommitTemplate.compile(template).parse(message);
+
+      assertAll(message, () -> assertEquals(expected.getShortDescription(), result.getShortDescription()),
+            () -> assertEquals(expected.getCommitId(), result.getCommitId()),
+            () -> assertEquals(expected.getApiModification(), result.getApiModification()),
+            () -> assertEquals(expected.getInternalDoc(), result.getInternalDoc()),
+            () -> assertEquals(expected.getExternalDoc(), result.getExternalDoc()),
+            () -> assertEquals(expected.getReviewer(), result.getReviewer()));
+   }
+
+   private static String words(Random random)
+   {
+      StringBuilder builder = new StringBuilder();
+      int count = 1 + random.nextInt(MAX_WORDS);
+
+      for (int i = 0; i < count; i++)
+      {
+         if (0 < i)
+         {
+            builder.append(' ');
+         }
+         builder.append(WORDS[random.nextInt(WORDS.length)]);
+      }
+
+      return builder.toString();
+   }
+
+   /**
+    * Provides the parameters for comparing both parsers.
+    *
+    * @return parameters as a Stream of Arguments.
+    */
+   private static Stream<Arguments> provideParameters()
+   {
+      return Stream.of(
+            Arguments.of("Short" + DELIMITER + "Item-ID: #00001" + DELIMITER + "API-modification Y[]/N[X]" + DELIMITER +
+                  "internal documentation: internal" + DELIMITER + "external documentation: external" + DELIMITER +
+                  "reviewed by: Reviewer", COMMIT_TEMPLATE_STANDARD),
+            Arguments.of("Short" + DELIMITER + "Item-ID: #00001" + DELIMITER + "API-modification Y[X]/N[]" + DELIMITER +
+                  "internal documentation:\nline 1\nline 2\n", COMMIT_TEMPLATE_STANDARD),
+            Arguments.of("Fix typo without template", COMMIT_TEMPLATE_STANDARD),
+            Arguments.of("", COMMIT_TEMPLATE_STANDARD),
+            Arguments.of("Item-ID: #00001API-modification Y[]/N[X]internal documentation: internal" +
+                  "external documentation: externalreviewed by: Reviewer,Short", COMMIT_TEMPLATE_PREFIX),
+            Arguments.of("Merge branch 'feature'", COMMIT_TEMPLATE_PREFIX),
+            Arguments.of("Short,00001, ,X, internal, external, Reviewer", COMMIT_TEMPLATE_MINIMAL),
+            Arguments.of("Short,00001,X", COMMIT_TEMPLATE_MINIMAL),
+            Arguments.of("Short,00001 Reviewer", COMMIT_TEMPLATE_ADJACENT));
+   }
+
+   /**
+    * Test that every template is only compiled once.
+    */
+   @Test
+   void testCompileOnce()
+   {
+      assertSame(CCLCompiledCommitTemplate.compile(COMMIT_TEMPLATE_STANDARD),
+            CCLCompiledCommitTemplate.compile(COMMIT_TEMPLATE_STANDARD));
+   }
+
+   /**
+    * Test that templates which cannot be parsed are rejected.
+    */
+   @Test
+   void testInvalidTemplate()
+   {
+      assertAll(() -> assertThrows(CCLVersionControlRuntimeException.class,
+            () -> CCLCompiledCommitTemplate.compile(null).parse("message")),
+            () -> assertThrows(CCLVersionControlRuntimeException.class,
+                  () -> CCLCompiledCommitTemplate.compile("{short description}").parse("message")));
+   }
+}
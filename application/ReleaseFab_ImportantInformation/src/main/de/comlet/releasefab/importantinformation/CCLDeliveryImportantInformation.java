@@ -18,6 +18,8 @@
 package de.comlet.releasefab.importantinformation;
 
 import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
+import de.comlet.releasefab.api.plugin.CCLExportContext;
+import de.comlet.releasefab.api.plugin.ICLDocbookFragment;
 import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.xml.SCLXMLUtil;
@@ -58,9 +60,9 @@ public class CCLDeliveryImportantInformation extends ACLDeliveryInformation
    @Override
    public boolean addInformation(Element other)
    {
-      String target = mInformation.getChildText(XML_STRING) + "\n" + other.getChildText(XML_STRING);
+      String target = getInformation().getChildText(XML_STRING) + "\n" + other.getChildText(XML_STRING);
 
-      mInformation.getChild(XML_STRING).setContent(new Text(target));
+      getInformation().getChild(XML_STRING).setContent(new Text(target));
 
       return true;
    }
@@ -76,45 +78,85 @@ public class CCLDeliveryImportantInformation extends ACLDeliveryInformation
    @Override
    public boolean addDocbookSection(Element element, CCLComponent component, CCLDelivery other, boolean forCustomer)
    {
-      String str = mInformation.getChildText(XML_STRING);
-      if (null != str && !str.isEmpty() && !str.equals("-"))
-      {
-         Element section = SCLXMLUtil.createElement(XML_SECTION, SCLXMLUtil.createElement(XML_TITLE, component.getFullName()));
+      return createDocbookFragment(component, other, forCustomer, null).addTo(element);
+   }
+
+   /**
+    * Creates the section of the component. It is added to the given
+    * XML-Element by the returned fragment.
+    * 
+    * @param component Component to be documented
+    * @param other Delivery which is not used to document Important Information
+    * @param forCustomer Defines whether the export is for a customer
+    * @param context services of the export, not used
+    */
+   @Override
+   public ICLDocbookFragment createDocbookFragment(CCLComponent component, CCLDelivery other, boolean forCustomer,
+         CCLExportContext context)
+   {
+      final Element section = createDocbookSection(component);
 
-         // if the string is in XML format...
-         if (str.matches("(?s)(.*?)<(\\S+?)(.*?)>(.*?)</\\2>(.*?)"))
+      return new ICLDocbookFragment()
+      {
+         @Override
+         public boolean addTo(Element element)
          {
-            try
+            // append the new section to the given element
+            if (null != section)
             {
-               // ... parse the XML string ...
-               SAXBuilder builder = new SAXBuilder();
-               Reader in = new StringReader("<content>" + str + "</content>");
-               Document doc = builder.build(in);
-
-               List<Content> elements = new ArrayList<>(doc.getRootElement().getContent());
-               for (Content content : elements)
-               {
-                  // ... and append the elements contained in that string
-                  section.addContent(content.detach());
-               }
+               element.addContent(section);
             }
-            catch (JDOMException | IOException e)
+
+            return true;
+         }
+      };
+   }
+
+   /**
+    * Creates the section with the important information of the component.
+    * 
+    * @return section or null if there is no information
+    */
+   private Element createDocbookSection(CCLComponent component)
+   {
+      String str = getInformation().getChildText(XML_STRING);
+      if (null == str || str.isEmpty() || str.equals("-"))
+      {
+         return null;
+      }
+
+      Element section = SCLXMLUtil.createElement(XML_SECTION, SCLXMLUtil.createElement(XML_TITLE, component.getFullName()));
+
+      // if the string is in XML format...
+      if (str.matches("(?s)(.*?)<(\\S+?)(.*?)>(.*?)</\\2>(.*?)"))
+      {
+         try
+         {
+            // ... parse the XML string ...
+            SAXBuilder builder = new SAXBuilder();
+            Reader in = new StringReader("<content>" + str + "</content>");
+            Document doc = builder.build(in);
+
+            List<Content> elements = new ArrayList<>(doc.getRootElement().getContent());
+            for (Content content : elements)
             {
-               LOGGER.info("{} {}", getName(), e.getMessage(), e);
-               section.addContent(SCLXMLUtil.createElement(XML_LITERALLAYOUT, str));
+               // ... and append the elements contained in that string
+               section.addContent(content.detach());
             }
          }
-         else
+         catch (JDOMException | IOException e)
          {
-            // if the string is not in XML format, wrap the whole string in a
-            // new paragraph and append that
+            LOGGER.info("{} {}", getName(), e.getMessage(), e);
             section.addContent(SCLXMLUtil.createElement(XML_LITERALLAYOUT, str));
          }
-
-         // append the new section to the given element
-         element.addContent(section);
+      }
+      else
+      {
+         // if the string is not in XML format, wrap the whole string in a
+         // new paragraph and append that
+         section.addContent(SCLXMLUtil.createElement(XML_LITERALLAYOUT, str));
       }
 
-      return true;
+      return section;
    }
 }
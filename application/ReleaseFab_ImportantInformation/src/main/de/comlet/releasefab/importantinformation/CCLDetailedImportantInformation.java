@@ -60,7 +60,7 @@ public class CCLDetailedImportantInformation extends ACLDetailedInformation
       Composite composite = (Composite) obj;
       composite.setLayout(new FillLayout());
 
-      ACLDeliveryInformation deliveryInfo = mComponent.getDeliveryInformation(mDelivery.getName() + mImporterName);
+      ACLDeliveryInformation deliveryInfo = mComponent.getDeliveryInformation(mDelivery.getName(), mImporterName);
       String value = deliveryInfo.getInformation().getChildText(CHILD_STRING);
       value = (null != value) ? value : "";
 
@@ -76,7 +76,7 @@ public class CCLDetailedImportantInformation extends ACLDetailedInformation
    {
       String text = mTextbox.getText();
 
-      ACLDeliveryInformation deliveryInfo = mComponent.getDeliveryInformation(mDelivery.getName() + mImporterName);
+      ACLDeliveryInformation deliveryInfo = mComponent.getDeliveryInformation(mDelivery.getName(), mImporterName);
       String oldText = deliveryInfo.getInformation().getChildText(CHILD_STRING);
 
       // save only if there are changes, because we don't want to inform the
@@ -87,7 +87,7 @@ public class CCLDetailedImportantInformation extends ACLDetailedInformation
 
          SCLProjectHelper.markDeliveryInformationIfNew(deliveries, mComponent, mDelivery, mImporterName, deliveryInfo);
 
-         mComponent.setDeliveryInformation(mDelivery.getName() + mImporterName, deliveryInfo);
+         mComponent.setDeliveryInformation(mDelivery.getName(), mImporterName, deliveryInfo);
       }
    }
 }
\ No newline at end of file
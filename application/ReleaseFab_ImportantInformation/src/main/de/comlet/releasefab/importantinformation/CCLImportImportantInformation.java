@@ -79,6 +79,15 @@ public class CCLImportImportantInformation extends ACLImportStrategy
       return SCLXMLUtil.createElement("section", SCLXMLUtil.createElement("title", getName()), new Element("para"));
    }
 
+   /**
+    * Every component adds its own section.
+    */
+   @Override
+   public boolean isDocbookSectionStreamable()
+   {
+      return true;
+   }
+
    @Override
    public String getDeliveryInformationName()
    {
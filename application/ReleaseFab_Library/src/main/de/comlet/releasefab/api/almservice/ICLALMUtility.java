@@ -19,9 +19,12 @@ package de.comlet.releasefab.api.almservice;
 
 import de.comlet.releasefab.library.exception.CCLInternalException;
 import de.comlet.releasefab.library.settings.SCLSettings;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -67,6 +70,39 @@ public interface ICLALMUtility extends AutoCloseable
     */
    boolean checkTrackerItem(String itemId);
 
+   /**
+    * Check several ALM items at once, see {@link #checkTrackerItem(String)}.
+    * By default every item is checked on its own. Implementations should
+    * override this method to check all items in one request.
+    * 
+    * @param itemIds IDs of the items to check
+    * @return result of the check by item ID
+    */
+   default Map<String, Boolean> checkTrackerItems(Collection<String> itemIds)
+   {
+      Map<String, Boolean> result = new HashMap<>();
+      for (String itemId : itemIds)
+      {
+         result.put(itemId, checkTrackerItem(itemId));
+      }
+      return result;
+   }
+
+   /**
+    * Names of the settings which contain the status an item must have to pass
+    * {@link #checkTrackerItem(String)}, e.g. the settings passed to
+    * {@link #getImportSearchStatus(String)}. Results of checks are only reused
+    * as long as these status and the ALM server are the same. By default null
+    * is returned, i.e. the results depend on unknown settings and must not be
+    * reused.
+    *
+    * @return names of the status settings or null
+    */
+   default Collection<String> getStatusSettingNames()
+   {
+      return null;
+   }
+
    /**
     * Retrieves the allowed import search status strings configured in an
     * external file.
@@ -17,10 +17,16 @@
 
 package de.comlet.releasefab.api.plugin;
 
+import de.comlet.releasefab.library.exception.CCLInternalException;
+import de.comlet.releasefab.library.exception.CCLInternalRuntimeException;
 import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.model.CCLParameter;
+import de.comlet.releasefab.library.model.SCLAssignmentResultCache;
+import de.comlet.releasefab.library.model.SCLRunContext;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import org.jdom2.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +74,89 @@ public abstract class ACLAssignmentStrategy
    public abstract Element getData(List<CCLParameter> parameters, CCLComponent component, CCLDelivery delivery,
          CCLDelivery formerDelivery, ACLImportStrategy importer, String projectRoot, CCLComponent initialComponent);
 
+   /**
+    * Checks if the result of
+    * {@link #getData(List, CCLComponent, CCLDelivery, CCLDelivery, ACLImportStrategy, String)}
+    * only depends on the values of the parameters, the deliveries and the
+    * project root, but not on the component or the importer. Results of such
+    * strategies are shared by all components with the same parameters while a
+    * {@link SCLRunContext} run is active, see {@link #getCachedData}. By
+    * default false is returned.
+    *
+    * @return true if results may be shared
+    */
+   public boolean isCacheable()
+   {
+      return false;
+   }
+
+   /**
+    * Checks if
+    * {@link #getData(List, CCLComponent, CCLDelivery, CCLDelivery, ACLImportStrategy, String)}
+    * may be called concurrently for different components. Such strategies
+    * must not change the component tree or fire events, they may only read
+    * it. Strategies which are not thread safe, e.g. because they add or rename
+    * components, are executed one after another on the thread which creates
+    * the delivery. By default false is returned.
+    *
+    * @return true if the strategy may be executed by worker threads
+    */
+   public boolean isThreadSafe()
+   {
+      return false;
+   }
+
+   /**
+    * Calls
+    * {@link #getData(List, CCLComponent, CCLDelivery, CCLDelivery, ACLImportStrategy, String)}
+    * once per run for identical parameters if the strategy is
+    * {@link #isCacheable() cacheable}. Otherwise it is called every time.
+    *
+    * @param parameters
+    * @param component
+    * @param delivery
+    * @param formerDelivery
+    * @param importer
+    * @param projectRoot
+    * @return copy of the result
+    */
+   public final Element getCachedData(final List<CCLParameter> parameters, final CCLComponent component,
+         final CCLDelivery delivery, final CCLDelivery formerDelivery, final ACLImportStrategy importer,
+         final String projectRoot)
+   {
+      if (!isCacheable())
+      {
+         return getData(parameters, component, delivery, formerDelivery, importer, projectRoot);
+      }
+
+      List<Object> key = new ArrayList<>();
+      key.add(getClass());
+      key.add(null == delivery ? null : delivery.getName());
+      key.add(null == formerDelivery ? null : formerDelivery.getName());
+      key.add(projectRoot);
+      for (CCLParameter parameter : parameters)
+      {
+         key.add(parameter.getValue());
+      }
+
+      try
+      {
+         return SCLAssignmentResultCache.getInstance().get(key, new Callable<Element>()
+         {
+            @Override
+            public Element call()
+            {
+               return getData(parameters, component, delivery, formerDelivery, importer, projectRoot);
+            }
+         });
+      }
+      catch (CCLInternalException e)
+      {
+         // getData does not throw checked exceptions
+         throw new CCLInternalRuntimeException(e);
+      }
+   }
+
    /**
     * Check if the number of parameters is correct for the assignment strategy
     */
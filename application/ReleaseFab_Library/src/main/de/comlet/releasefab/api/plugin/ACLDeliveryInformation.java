@@ -19,8 +19,10 @@ package de.comlet.releasefab.api.plugin;
 
 import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
+import de.comlet.releasefab.library.xml.CCLXMLFragment;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.List;
 import org.jdom2.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +42,13 @@ public abstract class ACLDeliveryInformation
    /** Content of the information. */
    protected Element mInformation;
 
+   /**
+    * Position of the content in the project file as long as it has not been
+    * read. Subclasses access the content via {@link #getInformation()}, which
+    * reads it on first use.
+    */
+   private CCLXMLFragment mInformationFragment;
+
    /** Indicates if this information is new. */
    protected boolean mIsNew;
 
@@ -95,6 +104,78 @@ public abstract class ACLDeliveryInformation
    public abstract boolean addDocbookSection(Element element, CCLComponent component, CCLDelivery other,
          boolean forCustomer);
 
+   /**
+    * Add Information for the export in Docbook-Format. Services are taken from
+    * the given context, which is shared by all components of the export and
+    * closes the services when the export ends. The default implementation
+    * does not need any services and ignores the context.
+    * 
+    * @param element
+    * @param component
+    * @param other
+    * @param forCustomer
+    * @param context services of the export
+    * @return true if information has been added successfully
+    */
+   public boolean addDocbookSection(Element element, CCLComponent component, CCLDelivery other,
+         boolean forCustomer, CCLExportContext context)
+   {
+      return addDocbookSection(element, component, other, forCustomer);
+   }
+
+   /**
+    * Prepare Information for the export in Docbook-Format. The export calls
+    * this method concurrently for different components and adds the returned
+    * fragments to the section in the order of the component tree afterwards,
+    * so the section must not be accessed here. Expensive work like requests
+    * to services should be done here. By default all work is done by
+    * {@link #addDocbookSection(Element, CCLComponent, CCLDelivery, boolean, CCLExportContext)}
+    * when the fragment is added.
+    *
+    * @param component
+    * @param other
+    * @param forCustomer
+    * @param context services of the export
+    * @return fragment to add to the section
+    */
+   public ICLDocbookFragment createDocbookFragment(final CCLComponent component, final CCLDelivery other,
+         final boolean forCustomer, final CCLExportContext context)
+   {
+      return new ICLDocbookFragment()
+      {
+         @Override
+         public boolean addTo(Element section)
+         {
+            return addDocbookSection(section, component, other, forCustomer, context);
+         }
+      };
+   }
+
+   /**
+    * Prepare Information of several deliveries of a component for the export
+    * in Docbook-Format at once. The export calls this method on the
+    * information of the newest delivery if the importer needs all selected
+    * deliveries. The returned fragment replaces the fragments of the single
+    * deliveries, so it can e.g. merge lists of all deliveries and drop
+    * duplicates. By default null is returned and the fragments of the single
+    * deliveries are created by
+    * {@link #createDocbookFragment(CCLComponent, CCLDelivery, boolean, CCLExportContext)}.
+    *
+    * @param informations information of the component in every delivery to
+    * document, the newest delivery first. Contains this information.
+    * @param component
+    * @param other
+    * @param forCustomer
+    * @param context services of the export
+    * @return fragment to add to the section or null to add the fragments of
+    * the single deliveries
+    */
+   public ICLDocbookFragment createDocbookFragment(List<ACLDeliveryInformation> informations,
+         CCLComponent component, CCLDelivery other, boolean forCustomer, CCLExportContext context)
+   {
+      return null;
+   }
+
    /**
     * Checks if this instance of a specific delivery information contains
     * information in {@link #mInformation}.
@@ -108,9 +189,10 @@ public abstract class ACLDeliveryInformation
    {
       boolean isNullOrEmpty = true;
       // is there information that we can compare?
-      if (null != mInformation)
+      Element information = getInformation();
+      if (null != information)
       {
-         String str = mInformation.getValue();
+         String str = information.getValue();
          isNullOrEmpty = !(null != str && !str.isEmpty() && !str.equals("-"));
       }
 
@@ -145,16 +227,64 @@ public abstract class ACLDeliveryInformation
 
    public Element getInformation()
    {
+      loadInformation();
       return mInformation;
    }
 
    public void setInformation(Element information)
    {
-      Element oldValue = mInformation;
-      mInformation = information;
+      Element oldValue;
+      synchronized (this)
+      {
+         oldValue = mInformation;
+         mInformationFragment = null;
+         mInformation = information;
+      }
       mObservable.firePropertyChange("mInformation", oldValue, mInformation);
    }
 
+   /**
+    * Sets the content to an element which is read from the project file when
+    * it is used for the first time.
+    *
+    * @param fragment position of the content in the project file
+    */
+   public void setInformationFragment(CCLXMLFragment fragment)
+   {
+      Element oldValue;
+      synchronized (this)
+      {
+         oldValue = mInformation;
+         mInformationFragment = fragment;
+         mInformation = null;
+      }
+      mObservable.firePropertyChange("mInformation", oldValue, null);
+   }
+
+   /**
+    * Returns the position of the content in the project file.
+    *
+    * @return position or null if the content has already been read
+    */
+   public synchronized CCLXMLFragment getInformationFragment()
+   {
+      return mInformationFragment;
+   }
+
+   /**
+    * Reads the content from the project file if this has not happened yet.
+    * Subclasses which access {@link #mInformation} directly have to call this
+    * method first.
+    */
+   protected synchronized void loadInformation()
+   {
+      if (null != mInformationFragment)
+      {
+         mInformation = mInformationFragment.getElement();
+         mInformationFragment = null;
+      }
+   }
+
    public boolean isNew()
    {
       return mIsNew;
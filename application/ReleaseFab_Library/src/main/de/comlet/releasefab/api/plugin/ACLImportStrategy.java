@@ -19,6 +19,7 @@ package de.comlet.releasefab.api.plugin;
 
 import de.comlet.releasefab.library.model.CCLAssignmentIgnore;
 import de.comlet.releasefab.library.model.CCLComponent;
+import de.comlet.releasefab.library.model.CCLComponentSnapshot;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.xml.SCLXMLUtil;
 import java.io.InputStream;
@@ -263,6 +264,34 @@ public abstract class ACLImportStrategy implements ICLPlugin
       return mNeedsAllSelectedDeliveries;
    }
 
+   /**
+    * Indicates whether the Docbook section of this importer can be written
+    * component by component. This requires that the fragments of the
+    * delivery information only append content of their own component to the
+    * section, e.g. with a sink, and add nothing if there is no information.
+    * Otherwise the section is built in memory before it is written.
+    *
+    * @return true if the section can be written component by component
+    */
+   public boolean isDocbookSectionStreamable()
+   {
+      return false;
+   }
+
+   /**
+    * Called once per Docbook export before the fragments of the components
+    * are created, e.g. to fetch information which is needed by all
+    * components in one request. Nothing is done by default.
+    *
+    * @param components components of the export
+    * @param deliveries deliveries whose information is documented
+    * @param context services of the export
+    */
+   public void prepareDocbookExport(CCLComponentSnapshot components, List<CCLDelivery> deliveries,
+         CCLExportContext context)
+   {
+   }
+
    public PresentationType getPreferredPresentationType()
    {
       return mPreferredPresentationType;
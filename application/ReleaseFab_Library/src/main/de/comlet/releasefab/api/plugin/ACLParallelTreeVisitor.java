@@ -0,0 +1,250 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file ACLParallelTreeVisitor.java
+ *
+ * @brief Abstract class for Visitor Pattern visiting subtrees concurrently.
+ */
+
+package de.comlet.releasefab.api.plugin;
+
+import de.comlet.releasefab.library.model.CCLComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Visitor Pattern! Variant of {@link ACLTreeVisitor} which visits the
+ * subcomponents of a component concurrently in a {@link ForkJoinPool}.
+ * Therefore {@link #doIt(CCLComponent, Object)} has to be thread-safe. The
+ * results are the same as the ones of the sequential traversal:
+ * <ul>
+ * <li>Without quickReturn the results of the subcomponents are combined in
+ * the order of the tree by {@link #combine(Object, Object)}. By default the
+ * result of the last component is returned, like {@link ACLTreeVisitor} does.
+ * </li>
+ * <li>With quickReturn the first hit in the order of the tree is returned.
+ * Components which follow a hit in the order of the tree are not visited any
+ * more.</li>
+ * </ul>
+ * A sequential visitor is run by this class if it declares itself
+ * thread-safe, see {@link CCLComponent#accept}.
+ */
+public abstract class ACLParallelTreeVisitor<RETURN, P2> extends ACLTreeVisitor<RETURN, P2>
+{
+   private final ForkJoinPool mPool;
+
+   /**
+    * Constructor. Uses the common pool.
+    */
+   protected ACLParallelTreeVisitor()
+   {
+      this(ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param pool pool to visit the components in
+    */
+   protected ACLParallelTreeVisitor(ForkJoinPool pool)
+   {
+      mPool = pool;
+   }
+
+   /**
+    * Creates a parallel visitor which performs the action of the given
+    * visitor.
+    *
+    * @param visitor thread-safe visitor
+    * @return parallel visitor
+    */
+   public static <RETURN, P2> ACLParallelTreeVisitor<RETURN, P2> of(final ACLTreeVisitor<RETURN, P2> visitor)
+   {
+      return new ACLParallelTreeVisitor<RETURN, P2>()
+      {
+         @Override
+         public RETURN doIt(CCLComponent component, P2 target)
+         {
+            return visitor.doIt(component, target);
+         }
+      };
+   }
+
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
+   /**
+    * Combines the results of two consecutive subtrees if quickReturn is not
+    * set. Can be overridden by subclasses, e.g. to collect all results.
+    *
+    * @param previous result of the preceding subtrees
+    * @param next result of the following subtree
+    * @return combined result
+    */
+   protected RETURN combine(RETURN previous, RETURN next)
+   {
+      return next;
+   }
+
+   @Override
+   public RETURN visit(CCLComponent component, P2 target, boolean quickReturn)
+   {
+      return mPool.invoke(new CCLVisitTask(new CCLVisit(target, quickReturn), component, new int[0], false));
+   }
+
+   /**
+    * State of one traversal.
+    */
+   private final class CCLVisit
+   {
+      private final P2 mTarget;
+      private final boolean mIsQuickReturn;
+
+      /** Position of the first hit in the tree. */
+      private final AtomicReference<int[]> mFirstHit = new AtomicReference<>();
+
+      CCLVisit(P2 target, boolean isQuickReturn)
+      {
+         mTarget = target;
+         mIsQuickReturn = isQuickReturn;
+      }
+
+      /**
+       * Checks if the component at the given position follows a hit and
+       * therefore does not need to be visited.
+       */
+      boolean isCancelled(int[] position)
+      {
+         int[] firstHit = mFirstHit.get();
+         return null != firstHit && 0 > compare(firstHit, position);
+      }
+
+      void addHit(int[] position)
+      {
+         int[] firstHit = mFirstHit.get();
+         while ((null == firstHit || 0 > compare(position, firstHit)) &&
+               !mFirstHit.compareAndSet(firstHit, position))
+         {
+            firstHit = mFirstHit.get();
+         }
+      }
+   }
+
+   /**
+    * Compares the positions of two components in the order of the tree. A
+    * position consists of the indices of the component and its ancestors in
+    * their lists of subcomponents, so an ancestor precedes its descendants.
+    */
+   private static int compare(int[] first, int[] second)
+   {
+      for (int i = 0; i < first.length && i < second.length; i++)
+      {
+         if (first[i] != second[i])
+         {
+            return Integer.compare(first[i], second[i]);
+         }
+      }
+      return Integer.compare(first.length, second.length);
+   }
+
+   /**
+    * Visits a component and its subtree.
+    */
+   private final class CCLVisitTask extends RecursiveTask<RETURN>
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final transient CCLVisit mVisit;
+      private final transient CCLComponent mComponent;
+      private final int[] mPosition;
+      private final boolean mIsVisited;
+
+      /**
+       * Constructor.
+       *
+       * @param visit state of the traversal
+       * @param component component to visit
+       * @param position position of the component in the tree
+       * @param isVisited false to visit the subtree of the component only
+       */
+      CCLVisitTask(CCLVisit visit, CCLComponent component, int[] position, boolean isVisited)
+      {
+         mVisit = visit;
+         mComponent = component;
+         mPosition = position;
+         mIsVisited = isVisited;
+      }
+
+      @Override
+      protected RETURN compute()
+      {
+         if (mIsVisited)
+         {
+            if (mVisit.mIsQuickReturn && mVisit.isCancelled(mPosition))
+            {
+               return null;
+            }
+
+            RETURN res = doIt(mComponent, mVisit.mTarget);
+            if (mVisit.mIsQuickReturn && null != res)
+            {
+               mVisit.addHit(mPosition);
+               return res;
+            }
+
+            if (!mComponent.hasSubComponents())
+            {
+               return res;
+            }
+         }
+
+         List<CCLComponent> subComponents = new ArrayList<>(mComponent.getSubComponents());
+         List<CCLVisitTask> tasks = new ArrayList<>(subComponents.size());
+         for (int i = 0; i < subComponents.size(); i++)
+         {
+            int[] position = new int[mPosition.length + 1];
+            System.arraycopy(mPosition, 0, position, 0, mPosition.length);
+            position[mPosition.length] = i;
+
+            tasks.add(new CCLVisitTask(mVisit, subComponents.get(i), position, true));
+         }
+
+         invokeAll(tasks);
+
+         RETURN res = null;
+         for (int i = 0; i < tasks.size(); i++)
+         {
+            RETURN next = tasks.get(i).join();
+
+            if (mVisit.mIsQuickReturn)
+            {
+               if (null != next)
+               {
+                  return next;
+               }
+            }
+            else
+            {
+               res = 0 == i ? next : combine(res, next);
+            }
+         }
+
+         return res;
+      }
+   }
+}
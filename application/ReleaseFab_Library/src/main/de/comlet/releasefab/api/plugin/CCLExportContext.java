@@ -0,0 +1,147 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLExportContext.java
+ *
+ * @brief Services shared by all components of an export.
+ */
+
+package de.comlet.releasefab.api.plugin;
+
+import de.comlet.releasefab.api.almservice.ICLALMUtility;
+import de.comlet.releasefab.api.vcsservice.ICLVersionControlUtility;
+import de.comlet.releasefab.library.xml.CCLDocBookSectionRegistry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import org.jdom2.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the ALM and version control services of one export. Loading a service
+ * creates a new provider, which e.g. has to log in to the ALM system again.
+ * The context loads every service once when it is used for the first time and
+ * passes the same instance to all components of the export. The services are
+ * closed together with the context, so users of the context must not close
+ * them. Besides, the context holds the registries of the sections of the
+ * export, which allow sinks to find the sections of components quickly.
+ */
+public final class CCLExportContext implements AutoCloseable
+{
+   private static final Logger LOGGER = LoggerFactory.getLogger(CCLExportContext.class);
+
+   /** Loaded services by type. Contains null if there is no provider. */
+   private final Map<Class<?>, AutoCloseable> mServices = new HashMap<>();
+
+   /** Loaded services in the order in which they have been loaded. */
+   private final Deque<AutoCloseable> mLoadedServices = new ArrayDeque<>();
+
+   /** Registries of the sections of the export by section. */
+   private final Map<Element, CCLDocBookSectionRegistry> mSectionRegistries = new IdentityHashMap<>();
+
+   private boolean mIsClosed;
+
+   /**
+    * Returns the ALM service of the export.
+    *
+    * @return ALM service or null if no ALM plugin is loaded
+    */
+   public ICLALMUtility getALMUtility()
+   {
+      return getService(ICLALMUtility.class);
+   }
+
+   /**
+    * Returns the version control service of the export.
+    *
+    * @return version control service or null if no version control plugin is
+    * loaded
+    */
+   public ICLVersionControlUtility getVersionControlUtility()
+   {
+      return getService(ICLVersionControlUtility.class);
+   }
+
+   /**
+    * Returns the registry of the sections of components within the given
+    * XML-Element. All sinks writing to the element during the export get the
+    * same registry.
+    *
+    * @param element XML-Element, e.g. the section of an importer
+    * @return registry
+    */
+   public synchronized CCLDocBookSectionRegistry getSectionRegistry(Element element)
+   {
+      return mSectionRegistries.computeIfAbsent(element, CCLDocBookSectionRegistry::new);
+   }
+
+   /**
+    * Drops the registry of the given XML-Element, e.g. after the element has
+    * been written.
+    *
+    * @param element XML-Element
+    */
+   public synchronized void releaseSectionRegistry(Element element)
+   {
+      mSectionRegistries.remove(element);
+   }
+
+   private synchronized <S extends AutoCloseable> S getService(Class<S> type)
+   {
+      if (mIsClosed)
+      {
+         throw new IllegalStateException("Export context has already been closed");
+      }
+
+      if (!mServices.containsKey(type))
+      {
+         S service = ServiceLoader.load(type).findFirst().orElse(null);
+         mServices.put(type, service);
+         if (null != service)
+         {
+            mLoadedServices.push(service);
+         }
+      }
+
+      return type.cast(mServices.get(type));
+   }
+
+   /**
+    * Closes all services which have been loaded, in reverse order of loading.
+    */
+   @Override
+   public synchronized void close()
+   {
+      mIsClosed = true;
+
+      while (!mLoadedServices.isEmpty())
+      {
+         AutoCloseable service = mLoadedServices.pop();
+         try
+         {
+            service.close();
+         }
+         catch (Exception e)
+         {
+            LOGGER.warn("Could not close service {}: {}", service.getClass().getName(), e.getMessage());
+            LOGGER.debug("Close service", e);
+         }
+      }
+
+      mServices.clear();
+      mSectionRegistries.clear();
+   }
+}
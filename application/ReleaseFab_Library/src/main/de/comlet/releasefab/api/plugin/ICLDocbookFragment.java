@@ -0,0 +1,37 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file ICLDocbookFragment.java
+ *
+ * @brief Interface for prepared Docbook content of a component.
+ */
+
+package de.comlet.releasefab.api.plugin;
+
+import org.jdom2.Element;
+
+/**
+ * Docbook content of one delivery information which has been prepared for
+ * the export but not been added to the document yet. See
+ * {@link ACLDeliveryInformation#createDocbookFragment}.
+ */
+public interface ICLDocbookFragment
+{
+   /**
+    * Adds the prepared content to the section of the importer. Is called
+    * once, on the thread assembling the document.
+    *
+    * @param section XML-Element of the section
+    * @return true if information has been added successfully
+    */
+   boolean addTo(Element section);
+}
@@ -38,6 +38,27 @@ public interface ICLVersionControlUtility extends AutoCloseable
     */
    void initializeHandler(String path) throws CCLInternalException;
 
+   /**
+    * Sets a directory in which the service may cache information between
+    * runs, e.g. the project root. By default nothing is cached.
+    * 
+    * @param path Path to the cache directory
+    */
+   default void setCacheDirectory(String path)
+   {
+   }
+
+   /**
+    * Restricts the commits provided by {@link #getIterator(ICLTagContainer)}
+    * to those touching the given path. By default all commits are provided.
+    * 
+    * @param path Path relative to the root of the repository or null for all
+    * commits
+    */
+   default void setPathFilter(String path)
+   {
+   }
+
    /**
     * Get iterator for commits that complies with the required rules.
     * 
@@ -69,6 +90,19 @@ public interface ICLVersionControlUtility extends AutoCloseable
    Iterable<ICLCommitContainer> getCommitFilter(Iterable<ICLCommitContainer> source, ICLALMUtility cbutil)
          throws CCLInternalException;
 
+   /**
+    * Checks the status of the items of the given commits in advance, e.g. for
+    * all components of an export in one request. Filters returned by
+    * {@link #getCommitFilter(Iterable, ICLALMUtility)} for these commits may
+    * reuse the results. By default nothing is checked in advance.
+    * 
+    * @param source commits whose items are filtered later
+    * @param almUtil ALM service
+    */
+   default void prefetchCommitFilter(Iterable<ICLCommitContainer> source, ICLALMUtility almUtil)
+   {
+   }
+
    /**
     * Get former documented tag.
     * 
@@ -19,6 +19,8 @@ package de.comlet.releasefab.library.model;
 
 import de.comlet.releasefab.api.plugin.ACLAssignmentStrategy;
 import de.comlet.releasefab.api.plugin.ACLImportStrategy;
+import de.comlet.releasefab.library.settings.SCLSettings;
+import de.comlet.releasefab.library.xml.CCLXMLConstants;
 import de.comlet.releasefab.library.xml.SCLXMLUtil;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -52,7 +54,7 @@ public class CCLAssignmentCommandExecuter extends ACLAssignmentStrategy
    private static final String ELEMENT_ERROR = "error";
 
    /**
-    * Timeout in milliseconds [ms] for executor
+    * Default timeout in milliseconds [ms] for executor
     */
    private static final int EXECUTOR_TIMEOUT = 10000;
 
@@ -74,6 +76,25 @@ public class CCLAssignmentCommandExecuter extends ACLAssignmentStrategy
       return USAGE_MESSAGE;
    }
 
+   /**
+    * The output of the program only depends on the parameters, so it is
+    * executed once per run for all components with the same parameters.
+    */
+   @Override
+   public boolean isCacheable()
+   {
+      return true;
+   }
+
+   /**
+    * Every call starts its own process and does not touch the component tree.
+    */
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
    /**
     * Assigns a value delivered by an external program. parameters[0] Name of
     * the program. parameters[1] Parameters for the program. parameters[2] Regular
@@ -103,7 +124,7 @@ public class CCLAssignmentCommandExecuter extends ACLAssignmentStrategy
       {
          String commandForExecutor = "\"" + command + "\" " + arguments;
          CCLCommandExecuter executer = new CCLCommandExecuter(commandForExecutor);
-         int returnValue = executer.execute(EXECUTOR_TIMEOUT);
+         int returnValue = executer.execute(getTimeout());
 
          String res = executer.getOutputString();
 
@@ -142,6 +163,26 @@ public class CCLAssignmentCommandExecuter extends ACLAssignmentStrategy
       }
    }
 
+   /**
+    * Reads the timeout of the program from the setting COMMAND_TIMEOUT. Falls
+    * back to {@link #EXECUTOR_TIMEOUT} if the setting is missing or invalid.
+    *
+    * @return timeout in milliseconds [ms]
+    */
+   protected int getTimeout()
+   {
+      int timeout = SCLSettings.getInt(CCLXMLConstants.XML_COMMAND_TIMEOUT, EXECUTOR_TIMEOUT);
+
+      if (timeout < 1)
+      {
+         LOGGER.warn("Invalid setting {}={}, using {} instead.", CCLXMLConstants.XML_COMMAND_TIMEOUT, timeout,
+               EXECUTOR_TIMEOUT);
+         timeout = EXECUTOR_TIMEOUT;
+      }
+
+      return timeout;
+   }
+
    public String filterWithRegex(String text, String regex, String format)
    {
       String result = format;
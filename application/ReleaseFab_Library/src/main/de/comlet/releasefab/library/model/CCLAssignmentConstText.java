@@ -51,6 +51,15 @@ public class CCLAssignmentConstText extends ACLAssignmentStrategy
       return USAGE_MESSAGE;
    }
 
+   /**
+    * The text only depends on the parameters.
+    */
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
    /**
     * Assigns a given text. Parameter 1: Text to assign.
     */
@@ -64,6 +64,25 @@ public class CCLAssignmentFileParser extends ACLAssignmentStrategy
       return USAGE_MESSAGE;
    }
 
+   /**
+    * The file is resolved against the project root and parsed once per run
+    * for all components with the same parameters.
+    */
+   @Override
+   public boolean isCacheable()
+   {
+      return true;
+   }
+
+   /**
+    * The file is only read, the component tree is not touched.
+    */
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
 
    /**
     * Checks validity of given filepath parameter. <br>
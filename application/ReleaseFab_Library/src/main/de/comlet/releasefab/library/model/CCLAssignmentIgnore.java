@@ -51,6 +51,15 @@ public class CCLAssignmentIgnore extends ACLAssignmentStrategy
       return USAGE_MESSAGE;
    }
 
+   /**
+    * Nothing is read or changed.
+    */
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
    /** Returns the String "-". No parameters needed. */
    @Override
    public Element getData(List<CCLParameter> aParameters, CCLComponent aComponent, CCLDelivery aDelivery,
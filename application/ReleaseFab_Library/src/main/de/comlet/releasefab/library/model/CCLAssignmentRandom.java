@@ -57,6 +57,15 @@ public class CCLAssignmentRandom extends ACLAssignmentStrategy
       return USAGE_MESSAGE;
    }
 
+   /**
+    * The number only depends on the parameters.
+    */
+   @Override
+   public boolean isThreadSafe()
+   {
+      return true;
+   }
+
    /**
     * Return a random number in a specific range.<br>
     * parameters[0]: min value<br>
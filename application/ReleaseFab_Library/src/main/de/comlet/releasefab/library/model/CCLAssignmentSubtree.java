@@ -336,7 +336,7 @@ public class CCLAssignmentSubtree extends ACLAssignmentStrategy
             deliveryInformation.setInformation(deliverInfo.getChild(XML_CONTENT));
             
             // Add that delivery information to the component's list
-            component.setDeliveryInformation(delivery.getName() + importer.getName(), deliveryInformation);
+            component.setDeliveryInformation(delivery.getName(), importer.getName(), deliveryInformation);
          }
       }
    }
@@ -0,0 +1,80 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLBatchPropertyChangeSupport.java
+ *
+ * @brief Property change support which takes part in batches of changes.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeListenerProxy;
+import java.beans.PropertyChangeSupport;
+
+/**
+ * {@link PropertyChangeSupport} which defers events while a
+ * {@link SCLChangeBatch} is active. Listeners implementing
+ * {@link ICLImmediatePropertyChangeListener} are notified immediately.
+ */
+class CCLBatchPropertyChangeSupport extends PropertyChangeSupport
+{
+   private static final long serialVersionUID = 1L;
+
+   /** Object the listeners are registered at. */
+   private final transient Object mSource;
+
+   CCLBatchPropertyChangeSupport(Object source)
+   {
+      super(source);
+      mSource = source;
+   }
+
+   @Override
+   public void firePropertyChange(PropertyChangeEvent event)
+   {
+      if (!SCLChangeBatch.isActive())
+      {
+         super.firePropertyChange(event);
+         return;
+      }
+
+      Object oldValue = event.getOldValue();
+      Object newValue = event.getNewValue();
+      if (null != oldValue && null != newValue && oldValue.equals(newValue))
+      {
+         return;
+      }
+
+      String propertyName = event.getPropertyName();
+      for (PropertyChangeListener listener : getPropertyChangeListeners())
+      {
+         PropertyChangeListener target = listener;
+         if (listener instanceof PropertyChangeListenerProxy)
+         {
+            PropertyChangeListenerProxy proxy = (PropertyChangeListenerProxy) listener;
+            if (!proxy.getPropertyName().equals(propertyName))
+            {
+               continue;
+            }
+            target = proxy.getListener();
+         }
+
+         if (target instanceof ICLImmediatePropertyChangeListener ||
+               !SCLChangeBatch.defer(target, mSource, propertyName))
+         {
+            target.propertyChange(event);
+         }
+      }
+   }
+}
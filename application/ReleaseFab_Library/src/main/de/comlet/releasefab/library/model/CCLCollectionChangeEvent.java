@@ -0,0 +1,91 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLCollectionChangeEvent.java
+ *
+ * @brief Event of an observable collection.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import java.beans.PropertyChangeEvent;
+import java.util.Collection;
+
+/**
+ * Event fired by a {@link CCLObservableCollection} when it changes. Like
+ * every event of the collection, its old value is null and its new value is
+ * the changed collection. In addition it names the elements which have been
+ * added and removed, so listeners are able to update data derived from the
+ * collection without comparing the whole collection. If the changed elements
+ * are not known, e.g. after {@link Collection#retainAll(Collection)}, both
+ * are null.
+ */
+public class CCLCollectionChangeEvent extends PropertyChangeEvent
+{
+   private static final long serialVersionUID = 1L;
+
+   /** Added elements or null if they are not known. */
+   private final transient Collection<?> mAddedElements;
+
+   /** Removed elements or null if they are not known. */
+   private final transient Collection<?> mRemovedElements;
+
+   /**
+    * Constructor.
+    *
+    * @param source collection which has changed
+    * @param propertyName name of the collection
+    * @param collection inner collection
+    * @param addedElements added elements or null if they are not known
+    * @param removedElements removed elements or null if they are not known
+    */
+   public CCLCollectionChangeEvent(Object source, String propertyName, Object collection,
+         Collection<?> addedElements, Collection<?> removedElements)
+   {
+      super(source, propertyName, null, collection);
+      mAddedElements = addedElements;
+      mRemovedElements = removedElements;
+   }
+
+   /**
+    * Checks whether the changed elements are known.
+    *
+    * @return true if {@link #getAddedElements()} and
+    * {@link #getRemovedElements()} describe the change completely
+    */
+   public boolean isElementsKnown()
+   {
+      return null != mAddedElements && null != mRemovedElements;
+   }
+
+   /**
+    * Returns the elements which have been added.
+    *
+    * @return added elements or null if they are not known
+    */
+   public Collection<?> getAddedElements()
+   {
+      return mAddedElements;
+   }
+
+   /**
+    * Returns the elements which have been removed. Removed elements are equal
+    * to the elements passed to the collection, e.g. to
+    * {@link Collection#remove(Object)}.
+    *
+    * @return removed elements or null if they are not known
+    */
+   public Collection<?> getRemovedElements()
+   {
+      return mRemovedElements;
+   }
+}
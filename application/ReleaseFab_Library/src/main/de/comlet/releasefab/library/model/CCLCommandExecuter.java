@@ -18,27 +18,72 @@
 package de.comlet.releasefab.library.model;
 
 import de.comlet.releasefab.library.exception.CCLInternalRuntimeException;
+import de.comlet.releasefab.library.settings.SCLSettings;
+import de.comlet.releasefab.library.xml.CCLXMLConstants;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Utility class that allows the execution of commands with a timeout.
+ * Utility class that allows the execution of commands with a timeout. The end
+ * of a command is awaited via {@link Process#onExit()}, its output and error
+ * streams are drained by a pool of reader threads which is shared by all
+ * commands. Only the first {@link #MAX_OUTPUT_SIZE} bytes of each stream are
+ * kept. The number of commands executed at the same time is limited by the
+ * setting COMMAND_CONCURRENCY, further commands wait until one of them has
+ * ended.
  */
 public class CCLCommandExecuter
 {
    /**
-    * Waiting time in milliseconds [ms] for gobbler full buffer.
+    * Waiting time in milliseconds [ms] for the readers to drain the streams
+    * after the command has ended.
     */
    private static final int GOBBLERWAITINGTIME = 1000;
 
+   /** Maximum number of bytes kept of the output and of the error output. */
+   private static final int MAX_OUTPUT_SIZE = 1024 * 1024;
+
+   /** Number of bytes read from a stream at once. */
+   private static final int READ_BUFFER_SIZE = 8192;
+
+   /** Default for the maximum number of commands executed at the same time. */
+   private static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+
+   /** Prefix of the names of the reader threads. */
+   private static final String THREAD_NAME_PREFIX = "releasefab-command-";
+
+   /** Line separators recognized in the output, see {@link java.util.Scanner#nextLine()}. */
+   private static final Pattern LINE_SEPARATOR = Pattern.compile("\\r\\n|[\\n\\r\\u2028\\u2029\\u0085]");
+
    /** Initialize logger for this class. */
    private static final Logger LOGGER = LoggerFactory.getLogger(CCLCommandExecuter.class);
 
+   /** Limits the number of commands executed at the same time. */
+   private static Semaphore sPermits;
+
+   /**
+    * Threads reading the streams of the commands. Idle threads are reused by
+    * the next commands.
+    */
+   private static ExecutorService sReaderPool;
+
    /** Command to execute. */
    private String mCommand;
 
@@ -46,13 +91,13 @@ public class CCLCommandExecuter
     * Consumer for output streams. This is necessary to avoid deadlocks due to a
     * full buffer.
     */
-   private CCLStreamGobbler mOutputGobbler;
+   private CCLStreamReader mOutputReader;
 
    /**
     * Consumer for error streams. This is necessary to avoid deadlocks due to a
     * full buffer.
     */
-   private CCLStreamGobbler mErrorGobbler;
+   private CCLStreamReader mErrorReader;
 
    /**
     * Constructor.
@@ -65,29 +110,61 @@ public class CCLCommandExecuter
    }
 
    /**
-    * Execute the given command. Execution is aborted if timeout expires.
+    * Reads the maximum number of commands executed at the same time from the
+    * settings when the first command is executed and creates the reader pool.
+    */
+   private static synchronized void initialize()
+   {
+      if (null == sPermits)
+      {
+         int concurrency = SCLSettings.getInt(CCLXMLConstants.XML_COMMAND_CONCURRENCY, DEFAULT_CONCURRENCY);
+         if (concurrency < 1)
+         {
+            LOGGER.warn("Invalid setting {}={}, using {} instead.", CCLXMLConstants.XML_COMMAND_CONCURRENCY,
+                  concurrency, DEFAULT_CONCURRENCY);
+            concurrency = DEFAULT_CONCURRENCY;
+         }
+
+         sPermits = new Semaphore(concurrency, true);
+         sReaderPool = Executors.newCachedThreadPool(new CCLReaderThreadFactory());
+      }
+   }
+
+   /**
+    * Execute the given command. Execution is aborted and the process is
+    * destroyed if timeout expires. The timeout starts when the command is
+    * started, i.e. after waiting for other commands if too many are executed
+    * at the same time.
     * 
-    * @param timeout
-    * @return
+    * @param timeout timeout in milliseconds [ms]
+    * @return exit value of the command
     */
    public int execute(long timeout)
    {
+      initialize();
+
+      try
+      {
+         sPermits.acquire();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new CCLInternalRuntimeException(mCommand + " did not complete due to an unexpected interruption.", e);
+      }
+
       try
       {
          ProcessBuilder builder = new ProcessBuilder(createCommandList());
          Process process = builder.start();
 
-         // start background worker
-         CCLBackgroundWorker worker = new CCLBackgroundWorker(process);
-         worker.start();
-
          // consume error and output streams
-         mOutputGobbler = new CCLStreamGobbler(process.getInputStream());
-         mErrorGobbler = new CCLStreamGobbler(process.getErrorStream());
-         mOutputGobbler.start();
-         mErrorGobbler.start();
+         mOutputReader = new CCLStreamReader(mCommand, process.getInputStream());
+         mErrorReader = new CCLStreamReader(mCommand, process.getErrorStream());
+         Future<?> outputFuture = sReaderPool.submit(mOutputReader);
+         Future<?> errorFuture = sReaderPool.submit(mErrorReader);
 
-         return waitForWorker(timeout, worker);
+         return waitForProcess(timeout, process, outputFuture, errorFuture);
       }
       catch (InterruptedException e)
       {
@@ -97,40 +174,63 @@ public class CCLCommandExecuter
       {
          throw new CCLInternalRuntimeException(mCommand + " did not complete due to an unexpected IOException.", e);
       }
+      finally
+      {
+         sPermits.release();
+      }
    }
 
-   private int waitForWorker(long aTimeout, CCLBackgroundWorker worker) throws InterruptedException
+   private int waitForProcess(long aTimeout, Process process, Future<?> outputFuture, Future<?> errorFuture)
+         throws InterruptedException
    {
       try
       {
-         // wait for the background worker to complete its task
-         worker.join(aTimeout);
+         // wait for the command to complete
+         process.onExit().get(aTimeout, TimeUnit.MILLISECONDS);
 
          // wait for the output and error stream consumers to finish reading
          // their streams
-         mOutputGobbler.join(GOBBLERWAITINGTIME);
-         mErrorGobbler.join(GOBBLERWAITINGTIME);
-
-         // get exit value
-         Integer exitValue = worker.getExitValue();
-         if (exitValue != null)
-         {
-            // the worker thread completed within the timeout period
-            return exitValue;
-         }
+         waitForReader(outputFuture);
+         waitForReader(errorFuture);
 
-         // background worker timed out
+         return process.exitValue();
+      }
+      catch (TimeoutException e)
+      {
+         process.destroyForcibly();
          throw new CCLInternalRuntimeException(
                mCommand + " timed out. This might be because the specified program did not terminate.");
       }
+      catch (ExecutionException e)
+      {
+         process.destroyForcibly();
+         throw new CCLInternalRuntimeException(mCommand + " did not complete.", e);
+      }
       catch (InterruptedException e)
       {
-         worker.interrupt();
+         process.destroyForcibly();
          Thread.currentThread().interrupt();
          throw e;
       }
    }
 
+   /**
+    * Waits a limited time for a reader. If the stream is still open, e.g.
+    * because the command started a program which is still running, the
+    * output read so far is used.
+    */
+   private static void waitForReader(Future<?> future) throws InterruptedException, ExecutionException
+   {
+      try
+      {
+         future.get(GOBBLERWAITINGTIME, TimeUnit.MILLISECONDS);
+      }
+      catch (TimeoutException e)
+      {
+         LOGGER.debug("Stream of command is still open, using the output read so far.");
+      }
+   }
+
    /**
     * Get the output of the executed command.
     * 
@@ -138,7 +238,7 @@ public class CCLCommandExecuter
     */
    public String getOutputString()
    {
-      return mOutputGobbler.getOutput();
+      return mOutputReader.getOutput();
    }
 
    /**
@@ -148,7 +248,7 @@ public class CCLCommandExecuter
     */
    public String getErrorString()
    {
-      return mErrorGobbler.getOutput();
+      return mErrorReader.getOutput();
    }
 
    /**
@@ -207,71 +307,112 @@ public class CCLCommandExecuter
    }
 
    /**
-    * Background worker that executes the command in a thread. This allows the
-    * abortion of the execution if necessary.
+    * Formats output like it is read line by line: every line ends with
+    * "\r\n", lines at the end which contain only whitespace are dropped.
     */
-   private static class CCLBackgroundWorker extends Thread
+   private static String toLines(String text)
    {
-      private final Process mProcess;
-      private Integer mExitValue;
+      int end = text.length();
+      while (0 < end && Character.isWhitespace(text.charAt(end - 1)))
+      {
+         end--;
+      }
 
-      public CCLBackgroundWorker(final Process aProcess)
+      if (0 == end)
       {
-         mProcess = aProcess;
+         return "";
       }
 
-      public Integer getExitValue()
+      // the last line is kept completely
+      Matcher matcher = LINE_SEPARATOR.matcher(text);
+      if (matcher.find(end))
       {
-         return mExitValue;
+         end = matcher.start();
+      }
+      else
+      {
+         end = text.length();
       }
 
-      @Override
-      public void run()
+      StringBuilder stringBuilder = new StringBuilder();
+      for (String line : LINE_SEPARATOR.split(text.substring(0, end), -1))
       {
-         try
-         {
-            mExitValue = mProcess.waitFor();
-         }
-         catch (InterruptedException e)
-         {
-            LOGGER.error(e.getMessage(), e);
-         }
+         stringBuilder.append(line);
+         stringBuilder.append("\r\n");
       }
+
+      return stringBuilder.toString();
    }
 
    /**
-    * StreamGobbler to consume the output and error streams.
+    * Reader to consume the output and error streams. Bytes exceeding
+    * {@link #MAX_OUTPUT_SIZE} are read and dropped.
     */
-   private static class CCLStreamGobbler extends Thread
+   private static class CCLStreamReader implements Runnable
    {
-      private InputStream mInputStream;
-      private String mOutput;
+      private final String mCommand;
+      private final InputStream mInputStream;
+      private final ByteArrayOutputStream mBuffer = new ByteArrayOutputStream();
+      private boolean mIsTruncated;
 
-      public CCLStreamGobbler(final InputStream aInputStream)
+      public CCLStreamReader(final String command, final InputStream aInputStream)
       {
+         mCommand = command;
          mInputStream = aInputStream;
       }
 
       @Override
       public void run()
       {
-         try (Scanner scanner = new Scanner(mInputStream, "ISO-8859-1"))
-         {
-            StringBuilder stringBuilder = new StringBuilder();
+         byte[] chunk = new byte[READ_BUFFER_SIZE];
 
-            while (scanner.hasNext())
+         try (InputStream inputStream = mInputStream)
+         {
+            int length = inputStream.read(chunk);
+            while (0 <= length)
             {
-               stringBuilder.append(scanner.nextLine());
-               stringBuilder.append("\r\n");
+               append(chunk, length);
+               length = inputStream.read(chunk);
             }
+         }
+         catch (IOException e)
+         {
+            // the stream is closed when the process is destroyed
+            LOGGER.debug("Reading output of {} failed: {}", mCommand, e.getMessage());
+         }
+      }
 
-            mOutput = stringBuilder.toString();
+      private synchronized void append(byte[] chunk, int length)
+      {
+         int kept = Math.min(length, MAX_OUTPUT_SIZE - mBuffer.size());
+         mBuffer.write(chunk, 0, kept);
+
+         if (kept < length && !mIsTruncated)
+         {
+            mIsTruncated = true;
+            LOGGER.warn("Output of {} exceeds {} bytes, the rest is dropped.", mCommand, MAX_OUTPUT_SIZE);
          }
       }
 
-      public String getOutput()
+      public synchronized String getOutput()
+      {
+         return toLines(new String(mBuffer.toByteArray(), StandardCharsets.ISO_8859_1));
+      }
+   }
+
+   /**
+    * Creates daemon reader threads with descriptive names.
+    */
+   private static final class CCLReaderThreadFactory implements ThreadFactory
+   {
+      private final AtomicInteger mThreadCount = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable)
       {
-         return mOutput;
+         Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + mThreadCount.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
       }
    }
 }
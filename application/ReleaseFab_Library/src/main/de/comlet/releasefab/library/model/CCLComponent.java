@@ -19,12 +19,19 @@ package de.comlet.releasefab.library.model;
 
 import de.comlet.releasefab.api.plugin.ACLAssignmentStrategy;
 import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
+import de.comlet.releasefab.api.plugin.ACLParallelTreeVisitor;
+import de.comlet.releasefab.api.plugin.ACLTreeVisitor;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -41,9 +48,11 @@ import java.util.UUID;
  * we just have to bind it to the UI widgets. SCLProject contains the root
  * component. This class implements the interface
  * {@link PropertyChangeListener}. This interface is used to implement the
- * Observer pattern between the model and the GUI.
+ * Observer pattern between the model and the GUI. Changes are passed to the
+ * parent immediately, even during a {@link SCLChangeBatch}, so they reach the
+ * root in any case.
  */
-public class CCLComponent implements PropertyChangeListener
+public class CCLComponent implements ICLImmediatePropertyChangeListener
 {
    /** Number of instances. */
    private static int sCounter;
@@ -68,7 +77,13 @@ public class CCLComponent implements PropertyChangeListener
     * have to use a collection to store them. In this case a Map is used to
     * access the information by its name and the name of a delivery.
     */
-   private Map<String, ACLDeliveryInformation> mDeliveryInformation = new HashMap<>();
+   private Map<CCLDeliveryInformationKey, ACLDeliveryInformation> mDeliveryInformation = new HashMap<>();
+
+   /**
+    * View of {@link #mDeliveryInformation} with the concatenated names of
+    * delivery and importer as keys.
+    */
+   private final Map<String, ACLDeliveryInformation> mDeliveryInformationByName = new CCLDeliveryInformationView();
 
    /**
     * An information for a new delivery can be assigned by a special strategy.
@@ -94,7 +109,7 @@ public class CCLComponent implements PropertyChangeListener
       mName = "NewComponent" + sCounter++;
       mId = UUID.randomUUID();
       mIsCustomerRelevant = true;
-      mObservable = new PropertyChangeSupport(this);
+      mObservable = new CCLBatchPropertyChangeSupport(this);
    }
 
    /**
@@ -142,6 +157,12 @@ public class CCLComponent implements PropertyChangeListener
     */
    public <RETURN, P2> RETURN accept(ICLVisitor<RETURN, P2> visitor, P2 target, boolean quickReturn)
    {
+      // thread-safe visitors visit the subtrees concurrently
+      if (visitor.isThreadSafe() && visitor instanceof ACLTreeVisitor && !(visitor instanceof ACLParallelTreeVisitor))
+      {
+         return ACLParallelTreeVisitor.of((ACLTreeVisitor<RETURN, P2>) visitor).visit(this, target, quickReturn);
+      }
+
       return visitor.visit(this, target, quickReturn);
    }
 
@@ -207,27 +228,96 @@ public class CCLComponent implements PropertyChangeListener
       mParameters.put(name, parameters);
    }
 
+   /**
+    * Returns the information of a delivery provided by an importer.
+    *
+    * @param deliveryName name of the delivery
+    * @param importerName name of the importer
+    * @return delivery information or null if there is none
+    */
+   public ACLDeliveryInformation getDeliveryInformation(String deliveryName, String importerName)
+   {
+      return mDeliveryInformation.get(CCLDeliveryInformationKey.of(deliveryName, importerName));
+   }
+
+   /**
+    * Sets the information of a delivery provided by an importer.
+    *
+    * @param deliveryName name of the delivery
+    * @param importerName name of the importer
+    * @param deliveryInformation delivery information
+    */
+   public void setDeliveryInformation(String deliveryName, String importerName,
+         ACLDeliveryInformation deliveryInformation)
+   {
+      mDeliveryInformation.put(CCLDeliveryInformationKey.of(deliveryName, importerName), deliveryInformation);
+
+      mObservable.firePropertyChange("mDeliveryInformation", null, mDeliveryInformationByName);
+   }
+
+   /**
+    * Checks if there is information of a delivery provided by an importer.
+    *
+    * @param deliveryName name of the delivery
+    * @param importerName name of the importer
+    * @return true if there is delivery information, even if it is empty
+    */
+   public boolean containsDeliveryInformation(String deliveryName, String importerName)
+   {
+      return mDeliveryInformation.containsKey(CCLDeliveryInformationKey.of(deliveryName, importerName));
+   }
+
+   /**
+    * Removes the information of a delivery provided by an importer.
+    *
+    * @param deliveryName name of the delivery
+    * @param importerName name of the importer
+    * @return removed delivery information or null if there was none
+    */
+   public ACLDeliveryInformation removeDeliveryInformation(String deliveryName, String importerName)
+   {
+      return mDeliveryInformation.remove(CCLDeliveryInformationKey.of(deliveryName, importerName));
+   }
+
+   /**
+    * Returns the information of a delivery provided by an importer.
+    *
+    * @param name name of the delivery followed by the name of the importer
+    * @return delivery information or null if there is none
+    */
    public ACLDeliveryInformation getDeliveryInformation(String name)
    {
-      return mDeliveryInformation.get(name);
+      return mDeliveryInformationByName.get(name);
    }
 
+   /**
+    * Sets the information of a delivery provided by an importer.
+    *
+    * @param name name of the delivery followed by the name of the importer
+    * @param deliveryInformation delivery information
+    */
    public void setDeliveryInformation(String name, ACLDeliveryInformation deliveryInformation)
    {
-      Map<String, ACLDeliveryInformation> oldValue = mDeliveryInformation;
-      mDeliveryInformation.put(name, deliveryInformation);
+      mDeliveryInformationByName.put(name, deliveryInformation);
 
-      mObservable.firePropertyChange("mDeliveryInformation", oldValue, mDeliveryInformation);
+      mObservable.firePropertyChange("mDeliveryInformation", null, mDeliveryInformationByName);
    }
 
+   /**
+    * Returns all delivery information with the concatenated names of delivery
+    * and importer as keys. The map is a view, changes are written through.
+    *
+    * @return delivery information by name
+    */
    public Map<String, ACLDeliveryInformation> getDeliveryInformation()
    {
-      return mDeliveryInformation;
+      return mDeliveryInformationByName;
    }
 
    public void setDeliveryInformation(Map<String, ACLDeliveryInformation> deliveryInformation)
    {
-      mDeliveryInformation = deliveryInformation;
+      mDeliveryInformation = new HashMap<>();
+      mDeliveryInformationByName.putAll(deliveryInformation);
    }
 
    public UUID getId()
@@ -335,4 +425,108 @@ public class CCLComponent implements PropertyChangeListener
          mObservable.firePropertyChange(evt);
       }
    }
-}
\ No newline at end of file
+
+   /**
+    * Map of the delivery information by the concatenated names of delivery and
+    * importer. All operations are passed to {@link #mDeliveryInformation}.
+    */
+   private final class CCLDeliveryInformationView extends AbstractMap<String, ACLDeliveryInformation>
+   {
+      @Override
+      public int size()
+      {
+         return mDeliveryInformation.size();
+      }
+
+      @Override
+      public boolean containsKey(Object key)
+      {
+         return key instanceof String && mDeliveryInformation.containsKey(CCLDeliveryInformationKey.of((String) key));
+      }
+
+      @Override
+      public ACLDeliveryInformation get(Object key)
+      {
+         return key instanceof String ? mDeliveryInformation.get(CCLDeliveryInformationKey.of((String) key)) : null;
+      }
+
+      @Override
+      public ACLDeliveryInformation put(String key, ACLDeliveryInformation value)
+      {
+         return mDeliveryInformation.put(CCLDeliveryInformationKey.of(key), value);
+      }
+
+      @Override
+      public ACLDeliveryInformation remove(Object key)
+      {
+         return key instanceof String ? mDeliveryInformation.remove(CCLDeliveryInformationKey.of((String) key)) :
+               null;
+      }
+
+      @Override
+      public void clear()
+      {
+         mDeliveryInformation.clear();
+      }
+
+      @Override
+      public Collection<ACLDeliveryInformation> values()
+      {
+         return mDeliveryInformation.values();
+      }
+
+      @Override
+      public Set<Map.Entry<String, ACLDeliveryInformation>> entrySet()
+      {
+         return new AbstractSet<Map.Entry<String, ACLDeliveryInformation>>()
+         {
+            @Override
+            public int size()
+            {
+               return mDeliveryInformation.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, ACLDeliveryInformation>> iterator()
+            {
+               final Iterator<Map.Entry<CCLDeliveryInformationKey, ACLDeliveryInformation>> iterator =
+                     mDeliveryInformation.entrySet().iterator();
+
+               return new Iterator<Map.Entry<String, ACLDeliveryInformation>>()
+               {
+                  @Override
+                  public boolean hasNext()
+                  {
+                     return iterator.hasNext();
+                  }
+
+                  @Override
+                  public Map.Entry<String, ACLDeliveryInformation> next()
+                  {
+                     final Map.Entry<CCLDeliveryInformationKey, ACLDeliveryInformation> entry = iterator.next();
+
+                     return new AbstractMap.SimpleEntry<String, ACLDeliveryInformation>(entry.getKey().toString(),
+                           entry.getValue())
+                     {
+                        private static final long serialVersionUID = 1L;
+
+                        @Override
+                        public ACLDeliveryInformation setValue(ACLDeliveryInformation value)
+                        {
+                           super.setValue(value);
+                           return entry.setValue(value);
+                        }
+                     };
+                  }
+
+                  @Override
+                  public void remove()
+                  {
+                     iterator.remove();
+                  }
+               };
+            }
+         };
+      }
+   }
+}
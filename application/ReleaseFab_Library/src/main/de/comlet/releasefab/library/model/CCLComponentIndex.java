@@ -0,0 +1,474 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLComponentIndex.java
+ *
+ * @brief Index of the components of a component tree.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds the components of a component tree by their ID or name without
+ * traversing the tree. The index listens to the root of the tree, which is
+ * notified of every change below it. The index keeps its own copy of the
+ * parent and the subcomponents of every component of the tree. Changes of an
+ * observable list of subcomponents are applied to the copy element by
+ * element, using the added and removed components named by its
+ * {@link CCLCollectionChangeEvent}. Only if these are not known, or if a list
+ * which is not observable has been passed to
+ * {@link CCLComponent#setSubComponents(List)}, the whole list is compared
+ * with the copy, the latter whenever one of its components gets a new
+ * parent. Components which are removed from the tree are dropped together
+ * with their subcomponents and are added again as soon as they are added to
+ * the tree again. Changes of the lists of subcomponents which bypass their
+ * events, e.g. via an iterator, are not noticed.
+ */
+public final class CCLComponentIndex implements ICLImmediatePropertyChangeListener
+{
+   private static final String PROPERTY_NAME = "mName";
+   private static final String PROPERTY_PARENT = "mParent";
+   private static final String PROPERTY_SUB_COMPONENTS = "mSubComponents";
+   private static final String PROPERTY_COLLECTION = "mCollection";
+
+   private final CCLComponent mRoot;
+
+   /** Position of every component of the tree, including the root. */
+   private final Map<CCLComponent, CCLNode> mNodes = new IdentityHashMap<>();
+
+   /** Components of the tree by their list of subcomponents. */
+   private final Map<List<CCLComponent>, CCLComponent> mComponentsBySubComponents = new IdentityHashMap<>();
+
+   private final Map<UUID, CCLComponent> mComponentsById = new HashMap<>();
+
+   /** Components by name. A name can be used by more than one component. */
+   private final Map<String, List<CCLComponent>> mComponentsByName = new HashMap<>();
+
+   /** Number of changes of the structure of the tree. */
+   private volatile long mModificationCount;
+
+   /**
+    * Position of a component in the tree.
+    */
+   private static final class CCLNode
+   {
+      /** Parent in the tree, null for the root. */
+      private CCLComponent mParent;
+
+      /** List of subcomponents of the component the node was updated from. */
+      private List<CCLComponent> mSubComponentList;
+
+      /** Subcomponents known to the index. */
+      private Set<CCLComponent> mSubComponents;
+
+      CCLNode(CCLComponent parent, List<CCLComponent> subComponentList)
+      {
+         mParent = parent;
+         mSubComponentList = subComponentList;
+         mSubComponents = newIdentitySet(subComponentList);
+      }
+   }
+
+   /**
+    * Constructor. Indexes all components below the given root and keeps the
+    * index up to date until {@link #dispose()} is called.
+    *
+    * @param root root of the component tree
+    */
+   public CCLComponentIndex(CCLComponent root)
+   {
+      mRoot = root;
+      rebuild();
+      mRoot.addPropertyChangeListener(this);
+   }
+
+   /**
+    * Stops listening to the component tree.
+    */
+   public void dispose()
+   {
+      mRoot.removePropertyChangeListener(this);
+   }
+
+   public CCLComponent getRoot()
+   {
+      return mRoot;
+   }
+
+   /**
+    * Returns a component of a given ID.
+    *
+    * @param component parent component to start search with
+    * @param id id of the component
+    * @return component or null if it does not exist below the given component
+    */
+   public synchronized CCLComponent getComponentById(CCLComponent component, UUID id)
+   {
+      CCLComponent candidate = mComponentsById.get(id);
+      if (null == candidate)
+      {
+         return null;
+      }
+
+      return id.equals(candidate.getId()) && isAttached(candidate, component) ? candidate : null;
+   }
+
+   /**
+    * Returns a component of a given name. If more than one component below the
+    * given component has this name, the first one in the tree is returned.
+    *
+    * @param component parent component to start search with
+    * @param name name of the component
+    * @return component or null if it does not exist below the given component
+    */
+   public synchronized CCLComponent getComponentByName(CCLComponent component, String name)
+   {
+      List<CCLComponent> candidates = mComponentsByName.get(name);
+      if (null == candidates)
+      {
+         return null;
+      }
+
+      CCLComponent result = null;
+      int numberOfResults = 0;
+
+      for (CCLComponent candidate : candidates)
+      {
+         if (name.equals(candidate.getName()) && isAttached(candidate, component))
+         {
+            result = candidate;
+            numberOfResults++;
+         }
+      }
+
+      // the order of the tree decides between components of the same name
+      if (1 < numberOfResults)
+      {
+         return SCLProjectHelper.getComponentByName(component, name);
+      }
+
+      return result;
+   }
+
+   /**
+    * Returns the number of changes of the structure of the tree, i.e. added,
+    * moved or removed components. Allows to detect if data derived from the
+    * structure is outdated.
+    *
+    * @return number of changes since the index has been created
+    */
+   public long getModificationCount()
+   {
+      return mModificationCount;
+   }
+
+   /**
+    * Rebuilds the index from the component tree.
+    */
+   public synchronized void rebuild()
+   {
+      mNodes.clear();
+      mComponentsBySubComponents.clear();
+      mComponentsById.clear();
+      mComponentsByName.clear();
+
+      CCLNode node = new CCLNode(null, mRoot.getSubComponents());
+      mNodes.put(mRoot, node);
+      mComponentsBySubComponents.put(node.mSubComponentList, mRoot);
+      for (CCLComponent subComponent : node.mSubComponents)
+      {
+         add(subComponent, mRoot);
+      }
+   }
+
+   @Override
+   public synchronized void propertyChange(PropertyChangeEvent evt)
+   {
+      String property = evt.getPropertyName();
+      Object source = evt.getSource();
+
+      if (PROPERTY_SUB_COMPONENTS.equals(property) || PROPERTY_PARENT.equals(property) ||
+            PROPERTY_COLLECTION.equals(property))
+      {
+         mModificationCount++;
+      }
+
+      if (PROPERTY_COLLECTION.equals(property))
+      {
+         // a list of subcomponents has been changed; other collections are
+         // not known to the index
+         CCLComponent component = mComponentsBySubComponents.get(source);
+         if (null != component && evt instanceof CCLCollectionChangeEvent &&
+               ((CCLCollectionChangeEvent) evt).isElementsKnown())
+         {
+            CCLCollectionChangeEvent event = (CCLCollectionChangeEvent) evt;
+            update(component, event.getAddedElements(), event.getRemovedElements());
+         }
+         else if (null != component)
+         {
+            update(component);
+         }
+      }
+      else if (PROPERTY_SUB_COMPONENTS.equals(property) && source instanceof CCLComponent)
+      {
+         // a list of subcomponents has been replaced, e.g. after a component
+         // has been removed or the project has been reset
+         update((CCLComponent) source);
+      }
+      else if (PROPERTY_SUB_COMPONENTS.equals(property))
+      {
+         rebuild();
+      }
+      else if (PROPERTY_PARENT.equals(property))
+      {
+         // the component is added to or removed from the lists of
+         // subcomponents before or after its parent is set. Observable lists
+         // report this themselves.
+         if (evt.getOldValue() instanceof CCLComponent)
+         {
+            updateUnobserved((CCLComponent) evt.getOldValue());
+         }
+         if (evt.getNewValue() instanceof CCLComponent)
+         {
+            updateUnobserved((CCLComponent) evt.getNewValue());
+         }
+      }
+      else if (PROPERTY_NAME.equals(property) && source != mRoot && mNodes.containsKey(source))
+      {
+         CCLComponent component = (CCLComponent) source;
+         removeName(component, (String) evt.getOldValue());
+         addName(component);
+      }
+   }
+
+   /**
+    * Applies a change of the list of subcomponents of a component of the
+    * tree. Removed components which are not part of the list any more are
+    * dropped, added components are added together with their subcomponents.
+    */
+   private void update(CCLComponent component, Collection<?> addedElements, Collection<?> removedElements)
+   {
+      CCLNode node = mNodes.get(component);
+      if (null == node)
+      {
+         // not part of the tree
+         return;
+      }
+
+      for (Object element : removedElements)
+      {
+         if (!(element instanceof CCLComponent))
+         {
+            continue;
+         }
+
+         // a component may be contained more than once
+         CCLComponent subComponent = (CCLComponent) element;
+         if (!containsComponent(node.mSubComponentList, subComponent) && node.mSubComponents.remove(subComponent))
+         {
+            remove(subComponent, component);
+         }
+      }
+
+      for (Object element : addedElements)
+      {
+         if (element instanceof CCLComponent && node.mSubComponents.add((CCLComponent) element))
+         {
+            add((CCLComponent) element, component);
+         }
+      }
+   }
+
+   /**
+    * Compares the subcomponents of a component of the tree with the copy of
+    * the index if its list of subcomponents does not report its changes.
+    */
+   private void updateUnobserved(CCLComponent component)
+   {
+      if (!(component.getSubComponents() instanceof CCLObservableCollection))
+      {
+         update(component);
+      }
+   }
+
+   /**
+    * Compares the subcomponents of a component of the tree with the copy of
+    * the index. Removed subcomponents are dropped, added subcomponents are
+    * added together with their subcomponents.
+    */
+   private void update(CCLComponent component)
+   {
+      CCLNode node = mNodes.get(component);
+      if (null == node)
+      {
+         // not part of the tree
+         return;
+      }
+
+      List<CCLComponent> subComponentList = component.getSubComponents();
+      if (subComponentList != node.mSubComponentList)
+      {
+         mComponentsBySubComponents.remove(node.mSubComponentList);
+         mComponentsBySubComponents.put(subComponentList, component);
+         node.mSubComponentList = subComponentList;
+      }
+
+      Set<CCLComponent> formerSubComponents = node.mSubComponents;
+      node.mSubComponents = newIdentitySet(subComponentList);
+
+      for (CCLComponent subComponent : formerSubComponents)
+      {
+         if (!node.mSubComponents.contains(subComponent))
+         {
+            remove(subComponent, component);
+         }
+      }
+
+      for (CCLComponent subComponent : node.mSubComponents)
+      {
+         if (!formerSubComponents.contains(subComponent))
+         {
+            add(subComponent, component);
+         }
+      }
+   }
+
+   /**
+    * Adds a component and all of its subcomponents. A component which is
+    * already part of the tree is moved to the given parent.
+    */
+   private void add(CCLComponent component, CCLComponent parent)
+   {
+      CCLNode node = mNodes.get(component);
+      if (null != node)
+      {
+         node.mParent = parent;
+         return;
+      }
+
+      node = new CCLNode(parent, component.getSubComponents());
+      mNodes.put(component, node);
+      mComponentsBySubComponents.put(node.mSubComponentList, component);
+      mComponentsById.put(component.getId(), component);
+      addName(component);
+
+      for (CCLComponent subComponent : node.mSubComponents)
+      {
+         add(subComponent, component);
+      }
+   }
+
+   /**
+    * Drops a component and all of its subcomponents, unless the component
+    * has been moved to another parent in the meantime.
+    */
+   private void remove(CCLComponent component, CCLComponent parent)
+   {
+      CCLNode node = mNodes.get(component);
+      if (null == node || node.mParent != parent)
+      {
+         return;
+      }
+
+      mNodes.remove(component);
+      mComponentsBySubComponents.remove(node.mSubComponentList);
+      mComponentsById.remove(component.getId(), component);
+      removeName(component, component.getName());
+
+      for (CCLComponent subComponent : node.mSubComponents)
+      {
+         remove(subComponent, component);
+      }
+   }
+
+   private void addName(CCLComponent component)
+   {
+      List<CCLComponent> components = mComponentsByName.computeIfAbsent(component.getName(),
+            name -> new ArrayList<>(1));
+      if (!containsComponent(components, component))
+      {
+         components.add(component);
+      }
+   }
+
+   private void removeName(CCLComponent component, String name)
+   {
+      List<CCLComponent> components = mComponentsByName.get(name);
+      if (null != components)
+      {
+         components.removeIf(element -> element == component);
+         if (components.isEmpty())
+         {
+            mComponentsByName.remove(name);
+         }
+      }
+   }
+
+   /**
+    * Checks whether a component is a descendant of the given ancestor. Only
+    * the parents known to the index are visited.
+    */
+   private boolean isAttached(CCLComponent component, CCLComponent ancestor)
+   {
+      if (component == ancestor || component == mRoot)
+      {
+         return false;
+      }
+
+      CCLNode node = mNodes.get(component);
+      if (ancestor == mRoot)
+      {
+         return null != node;
+      }
+
+      while (null != node && null != node.mParent)
+      {
+         if (node.mParent == ancestor)
+         {
+            return true;
+         }
+         node = mNodes.get(node.mParent);
+      }
+
+      return false;
+   }
+
+   private static Set<CCLComponent> newIdentitySet(Collection<CCLComponent> components)
+   {
+      Set<CCLComponent> set = Collections.newSetFromMap(new IdentityHashMap<>());
+      set.addAll(components);
+      return set;
+   }
+
+   private static boolean containsComponent(List<CCLComponent> components, CCLComponent component)
+   {
+      for (CCLComponent element : components)
+      {
+         if (element == component)
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+}
@@ -0,0 +1,205 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLComponentSnapshot.java
+ *
+ * @brief Flattened copy of a component tree.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable copy of the structure of a component tree. The components below
+ * the root are stored in pre-order, i.e. in the order in which
+ * {@link de.comlet.releasefab.api.plugin.ACLTreeVisitor} visits them, so the
+ * tree can be traversed with a simple loop. For every component the index of
+ * its parent and the end of its subtree are stored as well:
+ *
+ * <pre>
+ * for (int i = 0; i &lt; snapshot.size(); i++)
+ * {
+ *    if (!snapshot.getComponent(i).getIsCustomerRelevant())
+ *    {
+ *       // skip the whole subtree
+ *       i = snapshot.getSubtreeEnd(i) - 1;
+ *    }
+ * }
+ * </pre>
+ *
+ * Only the structure is copied, changes of the components themselves are
+ * visible in the snapshot.
+ */
+public final class CCLComponentSnapshot
+{
+   /** Index of the parent of a component whose parent is the root. */
+   public static final int ROOT = -1;
+
+   private static final int INITIAL_CAPACITY = 64;
+
+   private final CCLComponent mRoot;
+   private final CCLComponent[] mComponents;
+   private final int[] mParents;
+   private final int[] mSubtreeEnds;
+   private final int[] mDepths;
+
+   private CCLComponentSnapshot(CCLComponent root, CCLComponent[] components, int[] parents, int[] subtreeEnds,
+         int[] depths)
+   {
+      mRoot = root;
+      mComponents = components;
+      mParents = parents;
+      mSubtreeEnds = subtreeEnds;
+      mDepths = depths;
+   }
+
+   /**
+    * Creates a snapshot of the tree below the given root.
+    *
+    * @param root root of the tree, it is not part of the snapshot
+    * @return snapshot
+    */
+   public static CCLComponentSnapshot of(CCLComponent root)
+   {
+      List<CCLComponent> components = new ArrayList<>();
+      int[] parents = new int[INITIAL_CAPACITY];
+      int[] subtreeEnds = new int[INITIAL_CAPACITY];
+      int[] depths = new int[INITIAL_CAPACITY];
+
+      // pending components: component, index of parent, depth
+      Deque<Object[]> stack = new ArrayDeque<>();
+      pushSubComponents(stack, root, ROOT, 0);
+
+      // components whose subtree has not ended yet
+      Deque<Integer> open = new ArrayDeque<>();
+
+      while (!stack.isEmpty())
+      {
+         Object[] entry = stack.pop();
+         CCLComponent component = (CCLComponent) entry[0];
+         int parent = (Integer) entry[1];
+         int depth = (Integer) entry[2];
+         int index = components.size();
+
+         while (!open.isEmpty() && open.peek() != parent)
+         {
+            subtreeEnds[open.pop()] = index;
+         }
+
+         if (index == parents.length)
+         {
+            parents = Arrays.copyOf(parents, index * 2);
+            subtreeEnds = Arrays.copyOf(subtreeEnds, index * 2);
+            depths = Arrays.copyOf(depths, index * 2);
+         }
+
+         components.add(component);
+         parents[index] = parent;
+         depths[index] = depth;
+         open.push(index);
+
+         pushSubComponents(stack, component, index, depth + 1);
+      }
+
+      int size = components.size();
+      while (!open.isEmpty())
+      {
+         subtreeEnds[open.pop()] = size;
+      }
+
+      return new CCLComponentSnapshot(root, components.toArray(new CCLComponent[size]),
+            Arrays.copyOf(parents, size), Arrays.copyOf(subtreeEnds, size), Arrays.copyOf(depths, size));
+   }
+
+   /**
+    * Pushes the subcomponents of a component in reverse order, so they are
+    * popped in their original order.
+    */
+   private static void pushSubComponents(Deque<Object[]> stack, CCLComponent component, int index, int depth)
+   {
+      List<CCLComponent> subComponents = component.getSubComponents();
+      for (int i = subComponents.size() - 1; i >= 0; i--)
+      {
+         stack.push(new Object[] {subComponents.get(i), index, depth});
+      }
+   }
+
+   public CCLComponent getRoot()
+   {
+      return mRoot;
+   }
+
+   /**
+    * Returns the number of components below the root.
+    */
+   public int size()
+   {
+      return mComponents.length;
+   }
+
+   /**
+    * Returns the component at the given position in pre-order.
+    */
+   public CCLComponent getComponent(int index)
+   {
+      return mComponents[index];
+   }
+
+   /**
+    * Returns the position of the parent of a component.
+    *
+    * @param index position of the component
+    * @return position of the parent or {@link #ROOT}
+    */
+   public int getParent(int index)
+   {
+      return mParents[index];
+   }
+
+   /**
+    * Returns the position after the last descendant of a component. The
+    * subtree of the component consists of the components from its own
+    * position up to this position (exclusive).
+    *
+    * @param index position of the component
+    * @return end of the subtree
+    */
+   public int getSubtreeEnd(int index)
+   {
+      return mSubtreeEnds[index];
+   }
+
+   /**
+    * Returns the depth of a component. Subcomponents of the root have the
+    * depth 0.
+    */
+   public int getDepth(int index)
+   {
+      return mDepths[index];
+   }
+
+   /**
+    * Returns all components in pre-order.
+    *
+    * @return unmodifiable list of the components
+    */
+   public List<CCLComponent> getComponents()
+   {
+      return Collections.unmodifiableList(Arrays.asList(mComponents));
+   }
+}
@@ -0,0 +1,153 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLDeliveryInformationKey.java
+ *
+ * @brief Key of the delivery information of a component.
+ */
+
+package de.comlet.releasefab.library.model;
+
+/**
+ * Identifies the delivery information of a component by the name of the
+ * delivery and the name of the importer. Formerly both names were
+ * concatenated to a String. A key behaves exactly like that String, i.e. two
+ * keys are equal if their concatenated names are equal, and has the same hash
+ * code, but the concatenation is never created. This allows keys which were
+ * created from a concatenated String by {@link #of(String)} to be mixed with
+ * keys created by {@link #of(String, String)}.
+ */
+public final class CCLDeliveryInformationKey
+{
+   private static final int HASH_MULTIPLIER = 31;
+
+   private final String mDeliveryName;
+   private final String mImporterName;
+
+   /** Hash code of the concatenated names, 0 if not computed yet. */
+   private int mHash;
+
+   private CCLDeliveryInformationKey(String deliveryName, String importerName)
+   {
+      mDeliveryName = deliveryName;
+      mImporterName = importerName;
+   }
+
+   /**
+    * Creates the key of the delivery information of a delivery and an
+    * importer.
+    *
+    * @param deliveryName name of the delivery
+    * @param importerName name of the importer
+    * @return key
+    */
+   public static CCLDeliveryInformationKey of(String deliveryName, String importerName)
+   {
+      return new CCLDeliveryInformationKey(deliveryName, importerName);
+   }
+
+   /**
+    * Creates a key from the concatenated names of the delivery and the
+    * importer.
+    *
+    * @param name name of the delivery followed by the name of the importer
+    * @return key
+    */
+   public static CCLDeliveryInformationKey of(String name)
+   {
+      return new CCLDeliveryInformationKey(name, "");
+   }
+
+   public String getDeliveryName()
+   {
+      return mDeliveryName;
+   }
+
+   public String getImporterName()
+   {
+      return mImporterName;
+   }
+
+   @Override
+   public int hashCode()
+   {
+      int hash = mHash;
+      if (0 == hash)
+      {
+         // same as (mDeliveryName + mImporterName).hashCode()
+         hash = mDeliveryName.hashCode();
+         for (int i = 0; i < mImporterName.length(); i++)
+         {
+            hash *= HASH_MULTIPLIER;
+         }
+         hash += mImporterName.hashCode();
+         mHash = hash;
+      }
+      return hash;
+   }
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      if (this == obj)
+      {
+         return true;
+      }
+
+      if (!(obj instanceof CCLDeliveryInformationKey))
+      {
+         return false;
+      }
+
+      CCLDeliveryInformationKey other = (CCLDeliveryInformationKey) obj;
+      if (mDeliveryName.length() == other.mDeliveryName.length())
+      {
+         return mDeliveryName.equals(other.mDeliveryName) && mImporterName.equals(other.mImporterName);
+      }
+
+      // one of the keys has been created from concatenated names
+      if (length() != other.length() || hashCode() != other.hashCode())
+      {
+         return false;
+      }
+
+      for (int i = 0; i < length(); i++)
+      {
+         if (charAt(i) != other.charAt(i))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Returns the concatenated names.
+    */
+   @Override
+   public String toString()
+   {
+      return mDeliveryName + mImporterName;
+   }
+
+   private int length()
+   {
+      return mDeliveryName.length() + mImporterName.length();
+   }
+
+   private char charAt(int index)
+   {
+      int deliveryNameLength = mDeliveryName.length();
+      return index < deliveryNameLength ? mDeliveryName.charAt(index) :
+            mImporterName.charAt(index - deliveryNameLength);
+   }
+}
@@ -21,11 +21,14 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Decorator for collections. Notifies all observers whenever the collection
- * changes.
+ * changes. During a {@link SCLChangeBatch} the observers are notified once
+ * when the batch ends.
  * 
  * @param <E>
  */
@@ -59,7 +62,7 @@ public class CCLObservableCollection<E> implements Collection<E>
    public CCLObservableCollection(Collection<E> collection, PropertyChangeListener pcl)
    {
       mCollection = collection;
-      mObservable = new PropertyChangeSupport(this);
+      mObservable = new CCLBatchPropertyChangeSupport(this);
 
       if (null != pcl)
       {
@@ -118,7 +121,7 @@ public class CCLObservableCollection<E> implements Collection<E>
 
       if (res)
       {
-         mObservable.firePropertyChange(NAME_OF_COLLECTION, new ArrayList<>(), mCollection);
+         fireCollectionChange(Collections.singletonList(e), Collections.emptyList());
       }
 
       return res;
@@ -141,7 +144,7 @@ public class CCLObservableCollection<E> implements Collection<E>
 
       if (res)
       {
-         mObservable.firePropertyChange(NAME_OF_COLLECTION, new ArrayList<>(), mCollection);
+         fireCollectionChange(new ArrayList<>(c), Collections.emptyList());
       }
 
       return res;
@@ -156,9 +159,10 @@ public class CCLObservableCollection<E> implements Collection<E>
    @Override
    public void clear()
    {
+      List<E> removedElements = new ArrayList<>(mCollection);
       mCollection.clear();
 
-      mObservable.firePropertyChange(NAME_OF_COLLECTION, new ArrayList<>(), mCollection);
+      fireCollectionChange(Collections.emptyList(), removedElements);
    }
 
    @Override
@@ -202,7 +206,7 @@ public class CCLObservableCollection<E> implements Collection<E>
 
       if (res)
       {
-         mObservable.firePropertyChange(NAME_OF_COLLECTION, new ArrayList<>(), mCollection);
+         fireCollectionChange(Collections.emptyList(), Collections.singletonList(o));
       }
 
       return res;
@@ -223,7 +227,7 @@ public class CCLObservableCollection<E> implements Collection<E>
 
       if (res)
       {
-         mObservable.firePropertyChange(NAME_OF_COLLECTION, new ArrayList<>(), mCollection);
+         fireCollectionChange(null, null);
       }
 
       return res;
@@ -245,12 +249,25 @@ public class CCLObservableCollection<E> implements Collection<E>
 
       if (res)
       {
-         mObservable.firePropertyChange(NAME_OF_COLLECTION, new ArrayList<>(), mCollection);
+         fireCollectionChange(null, null);
       }
 
       return res;
    }
 
+   /**
+    * Notifies all observers that the collection has changed. The event is a
+    * {@link CCLCollectionChangeEvent} naming the changed elements.
+    * 
+    * @param addedElements added elements or null if they are not known
+    * @param removedElements removed elements or null if they are not known
+    */
+   protected void fireCollectionChange(Collection<?> addedElements, Collection<?> removedElements)
+   {
+      mObservable.firePropertyChange(new CCLCollectionChangeEvent(this, NAME_OF_COLLECTION, mCollection,
+            addedElements, removedElements));
+   }
+
    @Override
    public int size()
    {
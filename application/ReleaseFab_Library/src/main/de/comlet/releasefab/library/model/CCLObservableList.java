@@ -20,6 +20,7 @@ package de.comlet.releasefab.library.model;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 
@@ -30,8 +31,6 @@ import java.util.ListIterator;
  */
 public class CCLObservableList<E> extends CCLObservableCollection<E> implements List<E>
 {
-   private static final String NAME_OF_COLLECTION = "mCollection";
-
    /**
     * Constructor. Creates an ArrayList<E> as the inner collection.
     */
@@ -99,12 +98,11 @@ public class CCLObservableList<E> extends CCLObservableCollection<E> implements
    @Override
    public boolean addAll(int index, Collection<? extends E> c)
    {
-      List<E> oldValue = getList();
       boolean res = getList().addAll(index, c);
 
       if (res)
       {
-         this.mObservable.firePropertyChange(NAME_OF_COLLECTION, oldValue, getList());
+         fireCollectionChange(new ArrayList<>(c), Collections.emptyList());
       }
 
       return res;
@@ -126,12 +124,11 @@ public class CCLObservableList<E> extends CCLObservableCollection<E> implements
    @Override
    public E set(int index, E element)
    {
-      List<E> oldValue = getList();
       E res = getList().set(index, element);
 
       if (!element.equals(res))
       {
-         this.mObservable.firePropertyChange(NAME_OF_COLLECTION, oldValue, getList());
+         fireCollectionChange(Collections.singletonList(element), Collections.singletonList(res));
       }
 
       return res;
@@ -147,10 +144,9 @@ public class CCLObservableList<E> extends CCLObservableCollection<E> implements
    @Override
    public void add(int index, E element)
    {
-      List<E> oldValue = getList();
       getList().add(index, element);
 
-      this.mObservable.firePropertyChange(NAME_OF_COLLECTION, oldValue, getList());
+      fireCollectionChange(Collections.singletonList(element), Collections.emptyList());
    }
 
    /**
@@ -163,10 +159,9 @@ public class CCLObservableList<E> extends CCLObservableCollection<E> implements
    @Override
    public E remove(int index)
    {
-      List<E> oldValue = getList();
       E res = getList().remove(index);
 
-      this.mObservable.firePropertyChange(NAME_OF_COLLECTION, oldValue, getList());
+      fireCollectionChange(Collections.emptyList(), Collections.singletonList(res));
 
       return res;
    }
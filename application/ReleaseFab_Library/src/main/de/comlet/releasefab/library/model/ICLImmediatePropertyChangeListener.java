@@ -0,0 +1,31 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file ICLImmediatePropertyChangeListener.java
+ *
+ * @brief Listener which is not affected by batches of changes.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import java.beans.PropertyChangeListener;
+
+/**
+ * Listener which is notified of every single change, even while a batch of
+ * changes is active (see {@link SCLChangeBatch}). Meant for listeners keeping
+ * data derived from the model consistent, e.g. indexes, which are queried
+ * during the batch. All other listeners receive one summarized event per
+ * property when the batch ends.
+ */
+public interface ICLImmediatePropertyChangeListener extends PropertyChangeListener
+{
+}
@@ -26,4 +26,16 @@ package de.comlet.releasefab.library.model;
 public interface ICLVisitor<RETURN, P2>
 {
    RETURN visit(CCLComponent component, P2 target, boolean quickReturn);
+
+   /**
+    * Declares whether the action of the visitor can be performed on several
+    * components at the same time. Thread-safe visitors are allowed to visit
+    * independent subtrees concurrently.
+    *
+    * @return true if the visitor is thread-safe, false by default
+    */
+   default boolean isThreadSafe()
+   {
+      return false;
+   }
 }
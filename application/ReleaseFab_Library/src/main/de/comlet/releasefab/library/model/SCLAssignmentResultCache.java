@@ -0,0 +1,156 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file SCLAssignmentResultCache.java
+ *
+ * @brief Results of assignment strategies within a run.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import de.comlet.releasefab.library.exception.CCLInternalException;
+import de.comlet.releasefab.library.exception.CCLInternalRuntimeException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import org.jdom2.Element;
+
+/**
+ * Keeps the results of assignment strategies while a {@link SCLRunContext}
+ * run is active. Many components are often configured with the same external
+ * program, the same file or the same repository. Results are identified by a
+ * key which contains everything the result depends on, so identical requests
+ * are executed once per run, even if they are made concurrently. Every caller
+ * gets its own copy of the result. The results are dropped when the run ends.
+ */
+public final class SCLAssignmentResultCache implements AutoCloseable
+{
+   private static final SCLAssignmentResultCache INSTANCE = new SCLAssignmentResultCache();
+
+   /** Results by key. A result is computed by the first caller. */
+   private final Map<List<Object>, FutureTask<Element>> mResults = new HashMap<>();
+
+   /** Whether this cache is registered to be closed at the end of the run. */
+   private boolean mRegistered;
+
+   private SCLAssignmentResultCache()
+   {
+   }
+
+   public static SCLAssignmentResultCache getInstance()
+   {
+      return INSTANCE;
+   }
+
+   /**
+    * Returns a copy of the result for the given key. The result is computed
+    * by the loader if it is not known yet. Outside of a run the loader is
+    * called every time.
+    *
+    * @param key everything the result depends on, e.g. the class of the
+    * strategy and the values of its parameters
+    * @param loader computes the result
+    * @return copy of the result, null if the loader returned null
+    * @throws CCLInternalException if the loader threw it. Callers with the
+    * same key get the same exception.
+    */
+   public Element get(List<Object> key, Callable<Element> loader) throws CCLInternalException
+   {
+      FutureTask<Element> task = null;
+      boolean isNew = false;
+
+      synchronized (this)
+      {
+         if (SCLRunContext.isActive())
+         {
+            if (!mRegistered)
+            {
+               mRegistered = SCLRunContext.register(this);
+            }
+
+            if (mRegistered)
+            {
+               task = mResults.get(key);
+               if (null == task)
+               {
+                  task = new FutureTask<>(loader);
+                  mResults.put(key, task);
+                  isNew = true;
+               }
+            }
+         }
+      }
+
+      if (null == task)
+      {
+         // no run is active, nothing is shared
+         task = new FutureTask<>(loader);
+         isNew = true;
+      }
+
+      if (isNew)
+      {
+         task.run();
+      }
+
+      Element result = getResult(task);
+      return null == result ? null : result.clone();
+   }
+
+   /**
+    * Waits for a result which is computed by another caller. Exceptions of
+    * the loader are rethrown.
+    */
+   private static Element getResult(FutureTask<Element> task) throws CCLInternalException
+   {
+      try
+      {
+         return task.get();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new CCLInternalRuntimeException("Waiting for the result of an assignment was interrupted.", e);
+      }
+      catch (ExecutionException e)
+      {
+         Throwable cause = e.getCause();
+         if (cause instanceof CCLInternalException)
+         {
+            throw (CCLInternalException) cause;
+         }
+         if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
+         }
+         if (cause instanceof Error)
+         {
+            throw (Error) cause;
+         }
+         // loaders only throw exceptions besides errors
+         throw new CCLInternalRuntimeException((Exception) cause);
+      }
+   }
+
+   /**
+    * Drops all results.
+    */
+   @Override
+   public synchronized void close()
+   {
+      mResults.clear();
+      mRegistered = false;
+   }
+}
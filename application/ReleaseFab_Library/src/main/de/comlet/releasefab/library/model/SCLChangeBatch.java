@@ -0,0 +1,145 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file SCLChangeBatch.java
+ *
+ * @brief Batch of changes of the model.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coalesces the property change events of bulk changes of the model, e.g.
+ * while a project is loaded or a delivery is created. While a batch is active,
+ * the events of {@link CCLComponent} and {@link CCLObservableCollection} are
+ * not passed to their listeners. Instead every listener receives one event per
+ * changed property when the batch ends. Such an event has neither an old nor
+ * a new value, its source is the object the listener is registered at.
+ * Listeners implementing {@link ICLImmediatePropertyChangeListener} are still
+ * notified of every change.<br>
+ * <br>
+ * Batches may be nested, the events are fired when the outermost batch ends.
+ * The batch applies to all threads.
+ */
+public final class SCLChangeBatch
+{
+   /** Lock object */
+   private static final Object LOCK = new Object();
+
+   /** Changed properties per listener: property name and source. */
+   private static Map<PropertyChangeListener, Map<String, Object>> sPendingChanges = new LinkedHashMap<>();
+
+   /** Number of nested batches which have been started but not ended yet. */
+   private static int sDepth;
+
+   private SCLChangeBatch()
+   {
+   }
+
+   /**
+    * Starts a batch. Every call has to be followed by a call of {@link #end()}.
+    */
+   public static void begin()
+   {
+      synchronized (LOCK)
+      {
+         sDepth++;
+      }
+   }
+
+   /**
+    * Ends a batch. If this is the outermost batch, the listeners are notified
+    * of the changes made during the batch.
+    */
+   public static void end()
+   {
+      Map<PropertyChangeListener, Map<String, Object>> pendingChanges;
+
+      synchronized (LOCK)
+      {
+         if (0 == sDepth || 0 < --sDepth)
+         {
+            return;
+         }
+
+         pendingChanges = sPendingChanges;
+         sPendingChanges = new LinkedHashMap<>();
+      }
+
+      for (Map.Entry<PropertyChangeListener, Map<String, Object>> entry : pendingChanges.entrySet())
+      {
+         for (Map.Entry<String, Object> change : entry.getValue().entrySet())
+         {
+            entry.getKey().propertyChange(new PropertyChangeEvent(change.getValue(), change.getKey(), null, null));
+         }
+      }
+   }
+
+   /**
+    * Runs the given changes in a batch.
+    *
+    * @param changes changes of the model
+    */
+   public static void run(Runnable changes)
+   {
+      begin();
+      try
+      {
+         changes.run();
+      }
+      finally
+      {
+         end();
+      }
+   }
+
+   /**
+    * Is a batch currently active?
+    *
+    * @return true if a batch has been started and not ended yet
+    */
+   public static boolean isActive()
+   {
+      synchronized (LOCK)
+      {
+         return 0 < sDepth;
+      }
+   }
+
+   /**
+    * Remembers a change for a listener until the batch ends.
+    *
+    * @param listener listener to notify
+    * @param source object the listener is registered at
+    * @param propertyName name of the changed property
+    * @return true if the change has been remembered, false if no batch is
+    * active and the caller has to notify the listener itself
+    */
+   static boolean defer(PropertyChangeListener listener, Object source, String propertyName)
+   {
+      synchronized (LOCK)
+      {
+         if (0 == sDepth)
+         {
+            return false;
+         }
+
+         sPendingChanges.computeIfAbsent(listener, key -> new LinkedHashMap<>()).putIfAbsent(propertyName, source);
+         return true;
+      }
+   }
+}
@@ -122,7 +122,7 @@ public final class SCLProjectHelper
          // get delivery information of the latest delivery
          if (null != latestDelivery)
          {
-            info = component.getDeliveryInformation(latestDelivery.getName() + importerName);
+            info = component.getDeliveryInformation(latestDelivery.getName(), importerName);
          }
 
          // compare this delivery information to the one from the latest delivery
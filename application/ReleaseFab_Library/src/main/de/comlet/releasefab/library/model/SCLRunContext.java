@@ -0,0 +1,125 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file SCLRunContext.java
+ *
+ * @brief Scope of a run over the component tree.
+ */
+
+package de.comlet.releasefab.library.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Marks the scope of a run over the component tree, e.g. the creation of a
+ * delivery. Plugins are able to keep expensive resources open while a run is
+ * active. Such resources are registered here and closed when the run ends.
+ * Runs may be nested, the resources are closed when the outermost run ends.
+ */
+public final class SCLRunContext
+{
+   /** Initialize logger for this class */
+   private static final Logger LOGGER = LoggerFactory.getLogger(SCLRunContext.class);
+
+   /** Lock object */
+   private static final Object LOCK = new Object();
+
+   /** Resources to close when the run ends. */
+   private static List<AutoCloseable> sResources = new ArrayList<>();
+
+   /** Number of nested runs which have been started but not ended yet. */
+   private static int sDepth;
+
+   private SCLRunContext()
+   {
+   }
+
+   /**
+    * Starts a run. Every call has to be followed by a call of {@link #end()}.
+    */
+   public static void begin()
+   {
+      synchronized (LOCK)
+      {
+         sDepth++;
+      }
+   }
+
+   /**
+    * Ends a run. If this is the outermost run, all registered resources are
+    * closed in the reverse order of their registration.
+    */
+   public static void end()
+   {
+      List<AutoCloseable> resources;
+
+      synchronized (LOCK)
+      {
+         if (0 == sDepth || 0 < --sDepth)
+         {
+            return;
+         }
+
+         resources = sResources;
+         sResources = new ArrayList<>();
+      }
+
+      for (int i = resources.size() - 1; i >= 0; i--)
+      {
+         try
+         {
+            resources.get(i).close();
+         }
+         catch (Exception e)
+         {
+            LOGGER.warn("Could not close resource of run: {}", e.getMessage(), e);
+         }
+      }
+   }
+
+   /**
+    * Is a run currently active?
+    *
+    * @return true if a run has been started and not ended yet
+    */
+   public static boolean isActive()
+   {
+      synchronized (LOCK)
+      {
+         return 0 < sDepth;
+      }
+   }
+
+   /**
+    * Registers a resource which is closed when the current run ends.
+    *
+    * @param resource resource to close
+    * @return true if the resource has been registered, false if no run is
+    * active and the caller has to close the resource itself
+    */
+   public static boolean register(AutoCloseable resource)
+   {
+      synchronized (LOCK)
+      {
+         if (0 == sDepth)
+         {
+            return false;
+         }
+
+         sResources.add(resource);
+         return true;
+      }
+   }
+}
@@ -376,6 +376,41 @@ public final class SCLSettings
       return i;
    }
 
+   /**
+    * Get setting value with the given name.<br>
+    * If a setting with the given name exists in more than one list, user
+    * settings will override plugin settings, plugin settings will override
+    * project settings and project settings will override general settings.
+    *
+    * @param settingName
+    * @param defaultValue value to return if the setting does not exist or is
+    * not a valid integer
+    * @return setting value as integer
+    */
+   public static int getInt(String settingName, int defaultValue)
+   {
+      Integer i = getT(settingName, Integer.class);
+
+      if (i == null)
+      {
+         String value = getT(settingName, String.class);
+
+         if (null != value)
+         {
+            try
+            {
+               i = Integer.parseInt(value.trim());
+            }
+            catch (NumberFormatException e)
+            {
+               i = null;
+            }
+         }
+      }
+
+      return null == i ? defaultValue : i;
+   }
+
    /**
     * Get setting value with the given name.<br>
     * If a setting with the given name exists in more than one list, user
@@ -32,6 +32,7 @@ public abstract class ACLDocBookSinkBase
    private Element mTbody;
    private Element mElement;
    private String mComponentName;
+   private CCLDocBookSectionRegistry mRegistry;
 
    /**
     * Constructor.
@@ -42,6 +43,17 @@ public abstract class ACLDocBookSinkBase
       this.mComponentName = componentName;
    }
 
+   /**
+    * Constructor. The section of the component is looked up in the registry
+    * instead of scanning all sections of the element of the registry.
+    */
+   public ACLDocBookSinkBase(CCLDocBookSectionRegistry registry, String componentName)
+   {
+      this.mRegistry = registry;
+      this.mElement = registry.getElement();
+      this.mComponentName = componentName;
+   }
+
    /**
     * Set column specifications and initialize data.
     */
@@ -56,33 +68,14 @@ public abstract class ACLDocBookSinkBase
     */
    private void init(Element element, String componentName)
    {
-      Element section = null;
-      Element tbody = null;
-      Element table = null;
-
       // Check if there is already a section and tbody for tasks of this
       // component
-      List<Element> sections = element.getChildren(CCLXMLConstants.XML_SECTION);
-      for (Element s : sections)
-      {
-         if (!componentName.equals(s.getChildText(CCLXMLConstants.XML_TITLE)))
-         {
-            continue;
-         }
+      CCLDocBookSectionRegistry.CCLEntry entry = (null == mRegistry) ? findSection(element, componentName) :
+            mRegistry.get(componentName);
 
-         // Use the already existing section
-         section = s;
-         table = section.getChild(CCLXMLConstants.XML_TABLE);
-         if (null != table)
-         {
-            Element tgroup = table.getChild(CCLXMLConstants.XML_TGROUP);
-            if (null != tgroup)
-            {
-               tbody = tgroup.getChild(CCLXMLConstants.XML_TBODY);
-               break;
-            }
-         }
-      }
+      Element section = (null == entry) ? null : entry.getSection();
+      Element tbody = (null == entry) ? null : entry.getTbody();
+      Element table = (null == entry) ? null : entry.getTable();
 
       // Create title if no section exists
       if (null == section)
@@ -119,6 +112,39 @@ public abstract class ACLDocBookSinkBase
       {
          section.addContent(table);
       }
+
+      if (null != mRegistry)
+      {
+         mRegistry.put(componentName, new CCLDocBookSectionRegistry.CCLEntry(section, table, tbody));
+      }
+   }
+
+   /**
+    * Scans the sections of the element for the section of a component. If
+    * there is more than one section, the first one with a complete table is
+    * used, otherwise the last one.
+    */
+   private static CCLDocBookSectionRegistry.CCLEntry findSection(Element element, String componentName)
+   {
+      CCLDocBookSectionRegistry.CCLEntry entry = null;
+
+      List<Element> sections = element.getChildren(CCLXMLConstants.XML_SECTION);
+      for (Element s : sections)
+      {
+         if (!componentName.equals(s.getChildText(CCLXMLConstants.XML_TITLE)))
+         {
+            continue;
+         }
+
+         // Use the already existing section
+         entry = CCLDocBookSectionRegistry.createEntry(s);
+         if (entry.isComplete())
+         {
+            break;
+         }
+      }
+
+      return entry;
    }
 
    /**
@@ -0,0 +1,149 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLDocBookSectionRegistry.java
+ *
+ * @brief Index of the component sections of a Docbook section.
+ */
+
+package de.comlet.releasefab.library.xml;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.jdom2.Element;
+
+/**
+ * Finds the sections of components within an XML-Element, e.g. the section of
+ * an importer, without scanning all sections. All sinks writing to the
+ * element share the registry, see
+ * {@link ACLDocBookSinkBase#ACLDocBookSinkBase(CCLDocBookSectionRegistry, String)}.
+ * Sections of components which are added to the element by other means after
+ * the registry has been created are not found.
+ */
+public final class CCLDocBookSectionRegistry
+{
+   private final Element mElement;
+
+   /** Entries by component name, created on first use. */
+   private Map<String, CCLEntry> mEntries;
+
+   /**
+    * Section, table and tbody of a component. Table and tbody are null if
+    * the section does not contain them.
+    */
+   static final class CCLEntry
+   {
+      private final Element mSection;
+      private final Element mTable;
+      private final Element mTbody;
+
+      CCLEntry(Element section, Element table, Element tbody)
+      {
+         mSection = section;
+         mTable = table;
+         mTbody = tbody;
+      }
+
+      Element getSection()
+      {
+         return mSection;
+      }
+
+      Element getTable()
+      {
+         return mTable;
+      }
+
+      Element getTbody()
+      {
+         return mTbody;
+      }
+
+      /**
+       * Checks if the table of the section can be used, i.e. contains a
+       * tgroup.
+       */
+      boolean isComplete()
+      {
+         return null != mTable && null != mTable.getChild(CCLXMLConstants.XML_TGROUP);
+      }
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param element XML-Element containing the sections of the components
+    */
+   public CCLDocBookSectionRegistry(Element element)
+   {
+      mElement = element;
+   }
+
+   public Element getElement()
+   {
+      return mElement;
+   }
+
+   /**
+    * Returns the section of a component. If there is more than one section,
+    * the first one with a complete table is returned, otherwise the last one.
+    *
+    * @param componentName name of the component, i.e. title of the section
+    * @return section or null if the component has no section yet
+    */
+   synchronized CCLEntry get(String componentName)
+   {
+      if (null == mEntries)
+      {
+         mEntries = new HashMap<>();
+         for (Element section : mElement.getChildren(CCLXMLConstants.XML_SECTION))
+         {
+            CCLEntry entry = mEntries.get(section.getChildText(CCLXMLConstants.XML_TITLE));
+            if (null == entry || !entry.isComplete())
+            {
+               put(section.getChildText(CCLXMLConstants.XML_TITLE), createEntry(section));
+            }
+         }
+      }
+
+      return mEntries.get(componentName);
+   }
+
+   /**
+    * Registers the section of a component.
+    *
+    * @param componentName name of the component, i.e. title of the section
+    * @param entry section, table and tbody of the component
+    */
+   synchronized void put(String componentName, CCLEntry entry)
+   {
+      mEntries.put(componentName, entry);
+   }
+
+   /**
+    * Reads table and tbody of an existing section.
+    */
+   static CCLEntry createEntry(Element section)
+   {
+      Element table = section.getChild(CCLXMLConstants.XML_TABLE);
+      Element tbody = null;
+      if (null != table)
+      {
+         Element tgroup = table.getChild(CCLXMLConstants.XML_TGROUP);
+         if (null != tgroup)
+         {
+            tbody = tgroup.getChild(CCLXMLConstants.XML_TBODY);
+         }
+      }
+      return new CCLEntry(section, table, tbody);
+   }
+}
@@ -0,0 +1,307 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLDocBookStreamWriter.java
+ *
+ * @brief Writes a Docbook document to a stream piece by piece.
+ */
+
+package de.comlet.releasefab.library.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.DocType;
+import org.jdom2.Element;
+import org.jdom2.Text;
+
+/**
+ * Writes an XML document to a stream without keeping it in memory. Elements
+ * can be opened and closed one by one, complete elements are written with
+ * all their content and can be discarded afterwards. The output is indented
+ * like the one of {@link SCLXMLUtil#saveDocument(java.io.File, org.jdom2.Document)},
+ * i.e. text is trimmed and elements containing only text are written in one
+ * line. Elements containing text and elements are written without
+ * indentation, so their content is not changed.
+ */
+public final class CCLDocBookStreamWriter implements AutoCloseable
+{
+   private static final String INDENT = "  ";
+   private static final String LINE_SEPARATOR = "\n";
+
+   private static final XMLOutputFactory FACTORY = XMLOutputFactory.newInstance();
+
+   private final XMLStreamWriter mWriter;
+
+   /** Number of open elements. */
+   private int mDepth;
+
+   /**
+    * Constructor.
+    *
+    * @param outputStream stream to write the document to. It is not closed by
+    * this writer.
+    * @throws IOException if the writer cannot be created
+    */
+   public CCLDocBookStreamWriter(OutputStream outputStream) throws IOException
+   {
+      try
+      {
+         mWriter = FACTORY.createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+      }
+      catch (XMLStreamException e)
+      {
+         throw new IOException(e);
+      }
+   }
+
+   /**
+    * Writes the XML declaration and the document type.
+    *
+    * @param docType document type or null
+    * @throws IOException if writing fails
+    */
+   public void writeStartDocument(DocType docType) throws IOException
+   {
+      try
+      {
+         mWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+         if (null != docType)
+         {
+            mWriter.writeCharacters(LINE_SEPARATOR);
+            mWriter.writeDTD("<!DOCTYPE " + docType.getElementName() + " PUBLIC \"" + docType.getPublicID() +
+                  "\" \"" + docType.getSystemID() + "\">");
+         }
+      }
+      catch (XMLStreamException e)
+      {
+         throw new IOException(e);
+      }
+   }
+
+   /**
+    * Opens an element. Its name and attributes are written, its content is
+    * ignored.
+    *
+    * @param element element to open
+    * @throws IOException if writing fails
+    */
+   public void writeStartElement(Element element) throws IOException
+   {
+      try
+      {
+         writeIndent();
+         mWriter.writeStartElement(element.getName());
+         writeAttributes(element);
+         mDepth++;
+      }
+      catch (XMLStreamException e)
+      {
+         throw new IOException(e);
+      }
+   }
+
+   /**
+    * Closes the element which has been opened last.
+    *
+    * @throws IOException if writing fails
+    */
+   public void writeEndElement() throws IOException
+   {
+      try
+      {
+         mDepth--;
+         writeIndent();
+         mWriter.writeEndElement();
+      }
+      catch (XMLStreamException e)
+      {
+         throw new IOException(e);
+      }
+   }
+
+   /**
+    * Writes an element with all its content into the element which has been
+    * opened last.
+    *
+    * @param element element to write
+    * @throws IOException if writing fails
+    */
+   public void writeElement(Element element) throws IOException
+   {
+      try
+      {
+         writeIndent();
+         writeElementContent(element, false);
+      }
+      catch (XMLStreamException e)
+      {
+         throw new IOException(e);
+      }
+   }
+
+   /**
+    * Closes all open elements and ends the document. The stream is flushed,
+    * but not closed.
+    *
+    * @throws IOException if writing fails
+    */
+   @Override
+   public void close() throws IOException
+   {
+      while (0 < mDepth)
+      {
+         writeEndElement();
+      }
+
+      try
+      {
+         mWriter.writeCharacters(LINE_SEPARATOR);
+         mWriter.writeEndDocument();
+         mWriter.flush();
+         mWriter.close();
+      }
+      catch (XMLStreamException e)
+      {
+         throw new IOException(e);
+      }
+   }
+
+   private void writeElementContent(Element element, boolean isRaw) throws XMLStreamException
+   {
+      List<Content> contents = element.getContent();
+
+      String text = isRaw ? null : getTrimmedText(element);
+      if (contents.isEmpty() || "".equals(text))
+      {
+         mWriter.writeEmptyElement(element.getName());
+         writeAttributes(element);
+         return;
+      }
+
+      mWriter.writeStartElement(element.getName());
+      writeAttributes(element);
+
+      if (null != text)
+      {
+         // text only
+         mWriter.writeCharacters(text);
+      }
+      else if (isRaw || isMixed(element))
+      {
+         for (Content content : contents)
+         {
+            writeRawContent(content);
+         }
+      }
+      else
+      {
+         mDepth++;
+         for (Content content : contents)
+         {
+            if (content instanceof Element)
+            {
+               writeIndent();
+               writeElementContent((Element) content, false);
+            }
+            else if (content instanceof Comment)
+            {
+               writeIndent();
+               mWriter.writeComment(((Comment) content).getText());
+            }
+         }
+         mDepth--;
+         writeIndent();
+      }
+
+      mWriter.writeEndElement();
+   }
+
+   private void writeRawContent(Content content) throws XMLStreamException
+   {
+      if (content instanceof Element)
+      {
+         writeElementContent((Element) content, true);
+      }
+      else if (content instanceof CDATA)
+      {
+         mWriter.writeCData(((CDATA) content).getText());
+      }
+      else if (content instanceof Text)
+      {
+         mWriter.writeCharacters(((Text) content).getText());
+      }
+      else if (content instanceof Comment)
+      {
+         mWriter.writeComment(((Comment) content).getText());
+      }
+   }
+
+   private void writeAttributes(Element element) throws XMLStreamException
+   {
+      for (Attribute attribute : element.getAttributes())
+      {
+         mWriter.writeAttribute(attribute.getQualifiedName(), attribute.getValue());
+      }
+   }
+
+   private void writeIndent() throws XMLStreamException
+   {
+      StringBuilder indent = new StringBuilder(LINE_SEPARATOR);
+      for (int i = 0; i < mDepth; i++)
+      {
+         indent.append(INDENT);
+      }
+      mWriter.writeCharacters(indent.toString());
+   }
+
+   /**
+    * Returns the trimmed text of an element which contains only text.
+    *
+    * @return text or null if the element contains other content
+    */
+   private static String getTrimmedText(Element element)
+   {
+      for (Content content : element.getContent())
+      {
+         if (!(content instanceof Text))
+         {
+            return null;
+         }
+      }
+      return element.getText().trim();
+   }
+
+   /**
+    * Checks if an element contains elements and text which is not only
+    * whitespace.
+    */
+   private static boolean isMixed(Element element)
+   {
+      for (Content content : element.getContent())
+      {
+         if (content instanceof Text && !((Text) content).getText().trim().isEmpty())
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+}
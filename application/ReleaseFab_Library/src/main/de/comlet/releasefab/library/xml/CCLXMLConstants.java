@@ -85,6 +85,11 @@ public final class CCLXMLConstants
    public static final String XML_COMMIT_TEMPLATE = "COMMIT_TEMPLATE";
    public static final String XML_ROOT_FORMAT = "XML_ROOT_FORMAT";
    public static final String XML_INCLUDE_MERGE_COMMITS = "INCLUDE_MERGE_COMMITS";
+   public static final String XML_PARALLELISM = "PARALLELISM";
+   public static final String XML_LAZY_LOADING = "LAZY_LOADING";
+   public static final String XML_ALM_CACHE_TTL = "ALM_CACHE_TTL";
+   public static final String XML_COMMAND_CONCURRENCY = "COMMAND_CONCURRENCY";
+   public static final String XML_COMMAND_TIMEOUT = "COMMAND_TIMEOUT";
 
    private CCLXMLConstants()
    {
@@ -34,9 +34,25 @@ public class CCLXMLDocBookSink extends ACLDocBookSinkBase
    public CCLXMLDocBookSink(Element element, String componentName, String columnNameOne, String columnNameTwo)
    {
       super(element, componentName);
+      init(createColumnSpecs(columnNameOne, columnNameTwo));
+   }
+
+   /**
+    * Constructor. Setup column data. The section of the component is looked
+    * up in the registry.
+    */
+   public CCLXMLDocBookSink(CCLDocBookSectionRegistry registry, String componentName, String columnNameOne,
+         String columnNameTwo)
+   {
+      super(registry, componentName);
+      init(createColumnSpecs(columnNameOne, columnNameTwo));
+   }
+
+   private static CCLColumnSpec[] createColumnSpecs(String columnNameOne, String columnNameTwo)
+   {
       CCLColumnSpec[] temp = new CCLColumnSpec[NUMBER_OF_COLUMNS];
       temp[0] = new CCLColumnSpec(columnNameOne, COLUMN_WIDTH_ID);
       temp[1] = new CCLColumnSpec(columnNameTwo, COLUMN_WIDTH_DESCRIPTION);
-      init(temp);
+      return temp;
    }
 }
@@ -0,0 +1,504 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLXMLFileWriter.java
+ *
+ * @brief Streaming writer for XML files.
+ */
+
+package de.comlet.releasefab.library.xml;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.jdom2.Attribute;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.Text;
+
+/**
+ * Writes an XML file element by element without building a document first.
+ * The output is formatted like {@link SCLXMLUtil#saveDocument(File,
+ * org.jdom2.Document)} does, so both produce the same file. The file is
+ * written to a temporary file next to the target which replaces the target
+ * when {@link #commit()} is called. If the writer is closed without a commit,
+ * the target is left untouched.
+ *
+ * <pre>
+ * try (CCLXMLFileWriter writer = new CCLXMLFileWriter(file))
+ * {
+ *    writer.startElement("root");
+ *    writer.writeElement(element);
+ *    writer.endElement();
+ *    writer.commit();
+ * }
+ * </pre>
+ */
+public final class CCLXMLFileWriter implements Closeable
+{
+   private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+   private static final String LINE_SEPARATOR = "\n";
+   private static final String INDENT = "  ";
+   private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+   private final Path mTarget;
+   private final Path mTempFile;
+   private final CCLCountingOutputStream mOutput;
+   private final BufferedWriter mWriter;
+
+   /** Fragments written by {@link #writeFragment(CCLXMLFragment)}. */
+   private final List<CCLXMLFragment> mFragments = new ArrayList<>();
+
+   /** Positions of the written fragments in the file. */
+   private final List<Long> mFragmentOffsets = new ArrayList<>();
+
+   /** Names of the open elements. */
+   private final Deque<String> mOpenElements = new ArrayDeque<>();
+
+   /** Whether the start tag of the innermost open element is not closed yet. */
+   private boolean mIsStartTagOpen;
+
+   private boolean mIsCommitted;
+
+   /**
+    * Constructor. Creates the parent directories of the target if they do not
+    * exist and writes the XML declaration.
+    *
+    * @param target file to write
+    * @throws IOException
+    */
+   public CCLXMLFileWriter(File target) throws IOException
+   {
+      mTarget = target.getAbsoluteFile().toPath();
+      Files.createDirectories(mTarget.getParent());
+
+      mTempFile = mTarget.resolveSibling(mTarget.getFileName() + TEMP_FILE_EXTENSION);
+      mOutput = new CCLCountingOutputStream(new BufferedOutputStream(Files.newOutputStream(mTempFile)));
+      mWriter = new BufferedWriter(new OutputStreamWriter(mOutput, StandardCharsets.UTF_8));
+      mWriter.write(HEADER);
+   }
+
+   /**
+    * Opens a new element. Its content is written until the matching call of
+    * {@link #endElement()}.
+    *
+    * @param name name of the element
+    * @param attributes attributes of the element
+    * @throws IOException
+    */
+   public void startElement(String name, Attribute... attributes) throws IOException
+   {
+      startElement(name, List.of(attributes));
+   }
+
+   /**
+    * Opens a new element with the name and the attributes of the given
+    * element. The content of the given element is not written.
+    *
+    * @param element element to take name and attributes from
+    * @throws IOException
+    */
+   public void startElement(Element element) throws IOException
+   {
+      startElement(element.getQualifiedName(), element.getAttributes());
+   }
+
+   private void startElement(String name, List<Attribute> attributes) throws IOException
+   {
+      closeStartTag();
+      newLine(mOpenElements.size());
+
+      mWriter.write('<');
+      mWriter.write(name);
+      writeAttributes(attributes);
+
+      mOpenElements.push(name);
+      mIsStartTagOpen = true;
+   }
+
+   /**
+    * Closes the innermost open element.
+    *
+    * @throws IOException
+    */
+   public void endElement() throws IOException
+   {
+      String name = mOpenElements.pop();
+
+      if (mIsStartTagOpen)
+      {
+         mWriter.write(" />");
+         mIsStartTagOpen = false;
+      }
+      else
+      {
+         newLine(mOpenElements.size());
+         writeEndTag(name);
+      }
+   }
+
+   /**
+    * Writes the given element including its content into the innermost open
+    * element. The element is not modified.
+    *
+    * @param element element to write
+    * @throws IOException
+    */
+   public void writeElement(Element element) throws IOException
+   {
+      closeStartTag();
+      writeElement(element, mOpenElements.size(), true);
+   }
+
+   /**
+    * Copies the given fragment unchanged into the innermost open element. The
+    * fragment is read from its file, but not parsed. After {@link #commit()}
+    * the fragment refers to its copy in the target, so fragments should only
+    * be written to a file which takes the place of their source, e.g. when a
+    * project is saved.
+    *
+    * @param fragment fragment to write
+    * @throws IOException
+    */
+   public void writeFragment(CCLXMLFragment fragment) throws IOException
+   {
+      closeStartTag();
+      newLine(mOpenElements.size());
+
+      mWriter.flush();
+      mFragments.add(fragment);
+      mFragmentOffsets.add(mOutput.getCount());
+
+      mWriter.write(fragment.getXML());
+   }
+
+   /**
+    * Closes all open elements and replaces the target by the written file.
+    *
+    * @throws IOException
+    */
+   public void commit() throws IOException
+   {
+      while (!mOpenElements.isEmpty())
+      {
+         endElement();
+      }
+
+      mWriter.write(LINE_SEPARATOR);
+      mWriter.close();
+
+      try
+      {
+         Files.move(mTempFile, mTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (AtomicMoveNotSupportedException e)
+      {
+         Files.move(mTempFile, mTarget, StandardCopyOption.REPLACE_EXISTING);
+      }
+      mIsCommitted = true;
+
+      if (!mFragments.isEmpty())
+      {
+         CCLXMLFragment.CCLSourceFile target = new CCLXMLFragment.CCLSourceFile(mTarget);
+         for (int i = 0; i < mFragments.size(); i++)
+         {
+            mFragments.get(i).relocate(target, mFragmentOffsets.get(i));
+         }
+      }
+   }
+
+   /**
+    * Closes the writer. Deletes the written file if it has not been committed.
+    */
+   @Override
+   public void close() throws IOException
+   {
+      if (!mIsCommitted)
+      {
+         try
+         {
+            mWriter.close();
+         }
+         finally
+         {
+            Files.deleteIfExists(mTempFile);
+         }
+      }
+   }
+
+   private void writeElement(Element element, int depth, boolean isTopLevel) throws IOException
+   {
+      newLine(depth);
+
+      mWriter.write('<');
+      mWriter.write(element.getQualifiedName());
+      writeNamespaces(element, isTopLevel);
+      writeAttributes(element.getAttributes());
+
+      List<Content> content = element.getContent();
+      if (hasChildElements(content))
+      {
+         mWriter.write('>');
+
+         for (Content child : content)
+         {
+            if (child instanceof Element)
+            {
+               writeElement((Element) child, depth + 1, false);
+            }
+            else if (child instanceof Comment)
+            {
+               newLine(depth + 1);
+               mWriter.write("<!--");
+               mWriter.write(((Comment) child).getText());
+               mWriter.write("-->");
+            }
+            else if (child instanceof Text && !((Text) child).getText().trim().isEmpty())
+            {
+               newLine(depth + 1);
+               writeText(((Text) child).getText().trim());
+            }
+         }
+
+         newLine(depth);
+         writeEndTag(element.getQualifiedName());
+      }
+      else
+      {
+         String text = element.getText().trim();
+         if (text.isEmpty())
+         {
+            mWriter.write(" />");
+         }
+         else
+         {
+            mWriter.write('>');
+            writeText(text);
+            writeEndTag(element.getQualifiedName());
+         }
+      }
+   }
+
+   private static boolean hasChildElements(List<Content> content)
+   {
+      for (Content child : content)
+      {
+         if (child instanceof Element || child instanceof Comment)
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Writes the declarations of the namespaces which are introduced by the
+    * given element. The elements written by this class are not in a
+    * namespace, so a top level element does not need to declare that.
+    */
+   private void writeNamespaces(Element element, boolean isTopLevel) throws IOException
+   {
+      for (Namespace namespace : element.getNamespacesIntroduced())
+      {
+         if (Namespace.XML_NAMESPACE.equals(namespace) ||
+               (isTopLevel && Namespace.NO_NAMESPACE.equals(namespace)))
+         {
+            continue;
+         }
+
+         mWriter.write(" xmlns");
+         if (!namespace.getPrefix().isEmpty())
+         {
+            mWriter.write(':');
+            mWriter.write(namespace.getPrefix());
+         }
+         mWriter.write("=\"");
+         mWriter.write(escapeAttribute(namespace.getURI()));
+         mWriter.write('"');
+      }
+   }
+
+   private void writeAttributes(List<Attribute> attributes) throws IOException
+   {
+      for (Attribute attribute : attributes)
+      {
+         mWriter.write(' ');
+         mWriter.write(attribute.getQualifiedName());
+         mWriter.write("=\"");
+         mWriter.write(escapeAttribute(attribute.getValue()));
+         mWriter.write('"');
+      }
+   }
+
+   private void writeText(String text) throws IOException
+   {
+      mWriter.write(escapeText(text));
+   }
+
+   private void writeEndTag(String name) throws IOException
+   {
+      mWriter.write("</");
+      mWriter.write(name);
+      mWriter.write('>');
+   }
+
+   private void closeStartTag() throws IOException
+   {
+      if (mIsStartTagOpen)
+      {
+         mWriter.write('>');
+         mIsStartTagOpen = false;
+      }
+   }
+
+   private void newLine(int depth) throws IOException
+   {
+      mWriter.write(LINE_SEPARATOR);
+      for (int i = 0; i < depth; i++)
+      {
+         mWriter.write(INDENT);
+      }
+   }
+
+   /**
+    * Escapes text the same way the XMLOutputter does.
+    */
+   private static String escapeText(String text)
+   {
+      StringBuilder builder = new StringBuilder(text.length());
+
+      for (int i = 0; i < text.length(); i++)
+      {
+         char c = text.charAt(i);
+         switch (c)
+         {
+            case '&':
+               builder.append("&amp;");
+               break;
+            case '<':
+               builder.append("&lt;");
+               break;
+            case '>':
+               builder.append("&gt;");
+               break;
+            case '\r':
+               builder.append("&#xD;");
+               break;
+            default:
+               builder.append(c);
+               break;
+         }
+      }
+
+      return builder.toString();
+   }
+
+   /**
+    * Escapes attribute values the same way the XMLOutputter does. Line breaks
+    * and tabs are escaped, otherwise they would be normalized to spaces when
+    * the file is read.
+    */
+   private static String escapeAttribute(String value)
+   {
+      StringBuilder builder = new StringBuilder(value.length());
+
+      for (int i = 0; i < value.length(); i++)
+      {
+         char c = value.charAt(i);
+         switch (c)
+         {
+            case '&':
+               builder.append("&amp;");
+               break;
+            case '<':
+               builder.append("&lt;");
+               break;
+            case '>':
+               builder.append("&gt;");
+               break;
+            case '"':
+               builder.append("&quot;");
+               break;
+            case '\t':
+               builder.append("&#x9;");
+               break;
+            case '\n':
+               builder.append("&#xA;");
+               break;
+            case '\r':
+               builder.append("&#xD;");
+               break;
+            default:
+               builder.append(c);
+               break;
+         }
+      }
+
+      return builder.toString();
+   }
+
+   /**
+    * Counts the bytes written to the file, so the position of a fragment is
+    * known. Flushing is left to {@link #close()}, otherwise determining the
+    * position would write the buffer to the disk every time.
+    */
+   private static final class CCLCountingOutputStream extends FilterOutputStream
+   {
+      private long mCount;
+
+      CCLCountingOutputStream(OutputStream out)
+      {
+         super(out);
+      }
+
+      long getCount()
+      {
+         return mCount;
+      }
+
+      @Override
+      public void write(int b) throws IOException
+      {
+         out.write(b);
+         mCount++;
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException
+      {
+         out.write(b, off, len);
+         mCount += len;
+      }
+
+      @Override
+      public void flush()
+      {
+         // see class comment
+      }
+   }
+}
@@ -0,0 +1,478 @@
+/**
+ * ReleaseFab
+ *
+ * Copyright © 2022 comlet Verteilte Systeme GmbH
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+/**
+ * @file CCLXMLFragment.java
+ *
+ * @brief XML-Element which is read from its file on demand.
+ */
+
+package de.comlet.releasefab.library.xml;
+
+import de.comlet.releasefab.library.exception.CCLInternalRuntimeException;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.jdom2.Element;
+
+/**
+ * Position of an XML-Element within a UTF-8 encoded file. The element is only
+ * parsed when it is requested, so large files can be opened without keeping
+ * all their elements in memory. The file is opened for every read and is not
+ * locked in between.
+ */
+public final class CCLXMLFragment
+{
+   private static final int BUFFER_SIZE = 64 * 1024;
+
+   private static final XMLInputFactory FACTORY = createFactory();
+
+   private CCLSourceFile mFile;
+   private long mOffset;
+   private final int mLength;
+
+   /**
+    * A file containing fragments. It remembers size and modification time of
+    * the file, so fragments of a file which has been changed in the meantime
+    * are not read.
+    */
+   static final class CCLSourceFile
+   {
+      private final Path mPath;
+      private final long mSize;
+      private final long mLastModified;
+
+      CCLSourceFile(Path path) throws IOException
+      {
+         mPath = path;
+         mSize = Files.size(path);
+         mLastModified = Files.getLastModifiedTime(path).toMillis();
+      }
+
+      void check() throws IOException
+      {
+         if (Files.size(mPath) != mSize || Files.getLastModifiedTime(mPath).toMillis() != mLastModified)
+         {
+            throw new IOException("File " + mPath + " has been changed since it was read.");
+         }
+      }
+   }
+
+   private CCLXMLFragment(CCLSourceFile file, long offset, int length)
+   {
+      mFile = file;
+      mOffset = offset;
+      mLength = length;
+   }
+
+   private static XMLInputFactory createFactory()
+   {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+      return factory;
+   }
+
+   /**
+    * Parses the fragment.
+    *
+    * @return element without a parent
+    * @throws CCLInternalRuntimeException if the fragment cannot be read
+    */
+   public Element getElement()
+   {
+      byte[] bytes = read();
+
+      try
+      {
+         XMLStreamReader reader = FACTORY.createXMLStreamReader(new ByteArrayInputStream(bytes),
+               StandardCharsets.UTF_8.name());
+         try
+         {
+            while (XMLStreamConstants.START_ELEMENT != reader.next())
+            {
+               // skip leading whitespace
+            }
+            return SCLXMLUtil.readElement(reader);
+         }
+         finally
+         {
+            reader.close();
+         }
+      }
+      catch (XMLStreamException e)
+      {
+         throw new CCLInternalRuntimeException("Could not parse XML-Element at offset " + mOffset, e);
+      }
+   }
+
+   /**
+    * Returns the unparsed fragment.
+    *
+    * @return XML of the fragment as written in the file
+    * @throws CCLInternalRuntimeException if the fragment cannot be read
+    */
+   public String getXML()
+   {
+      return new String(read(), StandardCharsets.UTF_8);
+   }
+
+   /**
+    * Returns the length of the fragment in bytes.
+    */
+   public int getLength()
+   {
+      return mLength;
+   }
+
+   /**
+    * Points the fragment to a copy of it in another file, e.g. after the file
+    * has been saved.
+    *
+    * @param file file containing the copy
+    * @param offset position of the copy in the file
+    */
+   synchronized void relocate(CCLSourceFile file, long offset)
+   {
+      mFile = file;
+      mOffset = offset;
+   }
+
+   private synchronized byte[] read()
+   {
+      ByteBuffer buffer = ByteBuffer.allocate(mLength);
+
+      try (FileChannel channel = FileChannel.open(mFile.mPath, StandardOpenOption.READ))
+      {
+         mFile.check();
+
+         while (buffer.hasRemaining())
+         {
+            if (channel.read(buffer, mOffset + buffer.position()) < 0)
+            {
+               throw new EOFException("Unexpected end of file " + mFile.mPath);
+            }
+         }
+      }
+      catch (IOException e)
+      {
+         throw new CCLInternalRuntimeException("Could not read XML-Element from " + mFile.mPath, e);
+      }
+
+      return buffer.array();
+   }
+
+   /**
+    * Finds the first child element with the given name of every element with
+    * the given parent name. The file is scanned byte by byte without parsing
+    * it, so it has to be a well-formed UTF-8 encoded file.
+    *
+    * @param file file to scan
+    * @param parentName name of the parent elements
+    * @param childName name of the child elements
+    * @return one entry per parent element in document order. The entry is the
+    * child element or null if the parent element has no such child.
+    * @throws IOException
+    */
+   public static List<CCLXMLFragment> scan(File file, String parentName, String childName) throws IOException
+   {
+      CCLSourceFile sourceFile = new CCLSourceFile(file.toPath());
+
+      try (FileChannel channel = FileChannel.open(sourceFile.mPath, StandardOpenOption.READ))
+      {
+         return new CCLScanner(channel, sourceFile, parentName, childName).scan();
+      }
+   }
+
+   /**
+    * Minimal scanner for the tags of a well-formed XML file. All markup of
+    * XML is ASCII and UTF-8 never uses ASCII bytes within multi-byte
+    * characters, so the tags can be found without decoding the file.
+    */
+   private static final class CCLScanner
+   {
+      private final FileChannel mChannel;
+      private final CCLSourceFile mSourceFile;
+      private final String mParentName;
+      private final String mChildName;
+      private final ByteBuffer mBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+      /** Position of the next byte in the file. */
+      private long mPosition;
+
+      private int mDepth;
+
+      /** Open parent elements: index of the fragment, depth, child found. */
+      private final Deque<long[]> mParents = new ArrayDeque<>();
+
+      /** Open child elements: index of the fragment, depth, start. */
+      private final Deque<long[]> mChildren = new ArrayDeque<>();
+
+      private final List<CCLXMLFragment> mFragments = new ArrayList<>();
+
+      CCLScanner(FileChannel channel, CCLSourceFile sourceFile, String parentName, String childName)
+      {
+         mChannel = channel;
+         mSourceFile = sourceFile;
+         mParentName = parentName;
+         mChildName = childName;
+         mBuffer.flip();
+      }
+
+      List<CCLXMLFragment> scan() throws IOException
+      {
+         int b = read();
+         while (b >= 0)
+         {
+            if ('<' == b)
+            {
+               scanMarkup(mPosition - 1);
+            }
+            b = read();
+         }
+         return mFragments;
+      }
+
+      private void scanMarkup(long start) throws IOException
+      {
+         int b = read();
+         if ('!' == b)
+         {
+            b = read();
+            if ('-' == b)
+            {
+               skipUntil("-->");
+            }
+            else if ('[' == b)
+            {
+               skipUntil("]]>");
+            }
+            else
+            {
+               skipDeclaration();
+            }
+         }
+         else if ('?' == b)
+         {
+            skipUntil("?>");
+         }
+         else if ('/' == b)
+         {
+            readName(read());
+            skipUntil(">");
+            endElement(mPosition);
+         }
+         else
+         {
+            String name = readName(b);
+            boolean isEmpty = skipAttributes();
+            startElement(name, start, isEmpty);
+         }
+      }
+
+      private void startElement(String name, long start, boolean isEmpty)
+      {
+         mDepth++;
+
+         long[] parent = mParents.peek();
+         if (mChildName.equals(name) && null != parent && parent[1] == mDepth - 1 && 0 == parent[2])
+         {
+            parent[2] = 1;
+            if (isEmpty)
+            {
+               addFragment((int) parent[0], start, mPosition);
+            }
+            else
+            {
+               mChildren.push(new long[] {parent[0], mDepth, start});
+            }
+         }
+
+         if (mParentName.equals(name))
+         {
+            mFragments.add(null);
+            if (!isEmpty)
+            {
+               mParents.push(new long[] {mFragments.size() - 1, mDepth, 0});
+            }
+         }
+
+         if (isEmpty)
+         {
+            mDepth--;
+         }
+      }
+
+      private void endElement(long end)
+      {
+         long[] child = mChildren.peek();
+         if (null != child && child[1] == mDepth)
+         {
+            mChildren.pop();
+            addFragment((int) child[0], child[2], end);
+         }
+
+         long[] parent = mParents.peek();
+         if (null != parent && parent[1] == mDepth)
+         {
+            mParents.pop();
+         }
+
+         mDepth--;
+      }
+
+      private void addFragment(int index, long start, long end)
+      {
+         long length = end - start;
+         if (length > Integer.MAX_VALUE)
+         {
+            throw new CCLInternalRuntimeException("XML-Element at offset " + start + " is too large.");
+         }
+         mFragments.set(index, new CCLXMLFragment(mSourceFile, start, (int) length));
+      }
+
+      /**
+       * Reads the name of a tag which starts with the given byte.
+       */
+      private String readName(int first) throws IOException
+      {
+         StringBuilder name = new StringBuilder();
+         int b = first;
+         while (b >= 0 && '>' != b && '/' != b && !Character.isWhitespace(b))
+         {
+            name.append((char) b);
+            b = read();
+         }
+         unread();
+         return name.toString();
+      }
+
+      /**
+       * Skips the attributes of a start tag including the closing bracket.
+       *
+       * @return true if the tag is an empty-element tag
+       */
+      private boolean skipAttributes() throws IOException
+      {
+         int quote = 0;
+         int previous = 0;
+         int b = read();
+         while (b >= 0)
+         {
+            if (0 != quote)
+            {
+               if (quote == b)
+               {
+                  quote = 0;
+               }
+            }
+            else if ('"' == b || '\'' == b)
+            {
+               quote = b;
+            }
+            else if ('>' == b)
+            {
+               return '/' == previous;
+            }
+            previous = b;
+            b = read();
+         }
+         throw new EOFException("Unexpected end of file " + mSourceFile.mPath);
+      }
+
+      /**
+       * Skips a document type declaration including its internal subset.
+       */
+      private void skipDeclaration() throws IOException
+      {
+         int brackets = 0;
+         int b = read();
+         while (b >= 0 && !('>' == b && 0 == brackets))
+         {
+            if ('[' == b)
+            {
+               brackets++;
+            }
+            else if (']' == b)
+            {
+               brackets--;
+            }
+            b = read();
+         }
+      }
+
+      private void skipUntil(String end) throws IOException
+      {
+         int matched = 0;
+         while (matched < end.length())
+         {
+            int b = read();
+            if (b < 0)
+            {
+               throw new EOFException("Unexpected end of file " + mSourceFile.mPath);
+            }
+
+            if (b == end.charAt(matched))
+            {
+               matched++;
+            }
+            else
+            {
+               matched = b == end.charAt(0) ? 1 : 0;
+            }
+         }
+      }
+
+      private int read() throws IOException
+      {
+         if (!mBuffer.hasRemaining())
+         {
+            mBuffer.clear();
+            int count = mChannel.read(mBuffer);
+            mBuffer.flip();
+            if (count <= 0)
+            {
+               return -1;
+            }
+         }
+
+         mPosition++;
+         return mBuffer.get() & 0xFF;
+      }
+
+      /**
+       * Steps back one byte. Only allowed directly after a successful read.
+       */
+      private void unread()
+      {
+         if (mBuffer.position() > 0)
+         {
+            mBuffer.position(mBuffer.position() - 1);
+            mPosition--;
+         }
+      }
+   }
+}
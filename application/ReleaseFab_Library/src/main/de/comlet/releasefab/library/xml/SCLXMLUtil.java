@@ -17,14 +17,20 @@
 
 package de.comlet.releasefab.library.xml;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.jdom2.Attribute;
 import org.jdom2.Content;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
 import org.jdom2.input.SAXBuilder;
 import org.jdom2.output.Format;
 import org.jdom2.output.LineSeparator;
@@ -71,6 +77,78 @@ public final class SCLXMLUtil
       return sax.build(file);
    }
 
+   /**
+    * Reads the element the given reader is positioned at, including all its
+    * children. Whitespace between elements is ignored like it is by
+    * {@link #loadDocument(File)}. Afterwards the reader is positioned at the
+    * end of the element.
+    *
+    * @param reader reader positioned at a START_ELEMENT event
+    * @return element without a parent
+    * @throws XMLStreamException
+    */
+   public static Element readElement(XMLStreamReader reader) throws XMLStreamException
+   {
+      Element root = createElement(reader);
+      Element current = root;
+
+      while (null != current)
+      {
+         switch (reader.next())
+         {
+            case XMLStreamConstants.START_ELEMENT:
+               Element child = createElement(reader);
+               current.addContent(child);
+               current = child;
+               break;
+            case XMLStreamConstants.END_ELEMENT:
+               current = current.getParentElement();
+               break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+               // remove indentation
+               if (!reader.isWhiteSpace())
+               {
+                  current.addContent(reader.getText());
+               }
+               break;
+            default:
+               // comments and processing instructions are not needed
+               break;
+         }
+      }
+
+      return root;
+   }
+
+   /**
+    * Creates an element with the name and attributes of the current
+    * START_ELEMENT event.
+    */
+   private static Element createElement(XMLStreamReader reader)
+   {
+      Element element = new Element(reader.getLocalName(), getNamespace(reader.getPrefix(), reader.getNamespaceURI()));
+
+      for (int i = 0; i < reader.getAttributeCount(); i++)
+      {
+         element.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i),
+               getNamespace(reader.getAttributePrefix(i), reader.getAttributeNamespace(i)));
+      }
+
+      return element;
+   }
+
+   private static Namespace getNamespace(String prefix, String uri)
+   {
+      if (null == uri || uri.isEmpty())
+      {
+         return Namespace.NO_NAMESPACE;
+      }
+
+      return Namespace.getNamespace(null == prefix ? "" : prefix, uri);
+   }
+
    /**
     * Saves the given XML document to the specified file. Creates the file and
     * its parent directories if they do not already exist.
@@ -111,9 +189,10 @@ public final class SCLXMLUtil
 
       // save the XML document
       XMLOutputter xout = new XMLOutputter(Format.getPrettyFormat().setLineSeparator(LineSeparator.NL));
-      FileOutputStream fileOutputStream = new FileOutputStream(file);
-      xout.output(doc, fileOutputStream);
-      fileOutputStream.close();
+      try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file)))
+      {
+         xout.output(doc, outputStream);
+      }
    }
 
    /**
@@ -90,7 +90,7 @@ public class CCLVisitorPatternTestHelper
          }
 
          // check if this components delivery information is empty
-         ACLDeliveryInformation info = component.getDeliveryInformation(delivery.getName() + mImporterName);
+         ACLDeliveryInformation info = component.getDeliveryInformation(delivery.getName(), mImporterName);
          return info.isInfoNullOrEmpty();
       }
 
@@ -132,7 +132,7 @@ public class CCLVisitorPatternTestHelper
                return false;
             }
 
-            ACLDeliveryInformation info = component.getDeliveryInformation(delivery.getName() + mImporterName);
+            ACLDeliveryInformation info = component.getDeliveryInformation(delivery.getName(), mImporterName);
 
             // we pass an additional delivery (para oldestDelivery)
             // in case we have to compare e.g. Version info
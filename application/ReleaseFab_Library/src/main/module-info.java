@@ -15,7 +15,9 @@
  * @brief Module descriptor of module releasefab.library.
  */
 
+import de.comlet.releasefab.api.almservice.ICLALMUtility;
 import de.comlet.releasefab.api.plugin.ACLAssignmentStrategyExt;
+import de.comlet.releasefab.api.vcsservice.ICLVersionControlUtility;
 
 module releasefab.library
 {
@@ -38,6 +40,8 @@ module releasefab.library
    requires transitive org.xmlunit;
    
    uses ACLAssignmentStrategyExt;
+   uses ICLALMUtility;
+   uses ICLVersionControlUtility;
    
    exports de.comlet.releasefab.api.plugin;
    exports de.comlet.releasefab.api.almservice;
@@ -18,6 +18,8 @@
 package de.comlet.releasefab.version;
 
 import de.comlet.releasefab.api.plugin.ACLDeliveryInformation;
+import de.comlet.releasefab.api.plugin.CCLExportContext;
+import de.comlet.releasefab.api.plugin.ICLDocbookFragment;
 import de.comlet.releasefab.library.model.CCLComponent;
 import de.comlet.releasefab.library.model.CCLDelivery;
 import de.comlet.releasefab.library.xml.SCLXMLUtil;
@@ -71,37 +73,77 @@ public class CCLDeliveryVersion extends ACLDeliveryInformation
    @Override
    public boolean addDocbookSection(Element element, CCLComponent component, CCLDelivery other, boolean forCustomer)
    {
-      if (null == element || null == mInformation)
+      if (null == element)
       {
          return false;
       }
 
+      return createDocbookFragment(component, other, forCustomer, null).addTo(element);
+   }
+
+   /**
+    * Creates the table row of the component. It is added to the table of the
+    * section by the returned fragment.
+    * 
+    * @param component Component to be documented
+    * @param other Delivery to compare the version with
+    * @param forCustomer Defines whether the export is for a customer
+    * @param context services of the export, not used
+    */
+   @Override
+   public ICLDocbookFragment createDocbookFragment(CCLComponent component, CCLDelivery other, boolean forCustomer,
+         CCLExportContext context)
+   {
+      final Element row = (null == getInformation()) ? null : createDocbookRow(component, other);
+
+      return new ICLDocbookFragment()
+      {
+         @Override
+         public boolean addTo(Element section)
+         {
+            if (null == row)
+            {
+               return false;
+            }
+
+            section.getChild(XML_TABLE).getChild(XML_TGROUP).getChild(XML_TBODY).addContent(row);
+            return true;
+         }
+      };
+   }
+
+   /**
+    * Creates the table row with the version of the component and the version
+    * of the other delivery, if there is one.
+    */
+   private Element createDocbookRow(CCLComponent component, CCLDelivery other)
+   {
       Element row = new Element(XML_ROW);
       row.addContent(SCLXMLUtil.createElement(XML_ENTRY, SCLXMLUtil.createElement(XML_PARA, component.getFullName())));
 
       Element toCompare = null;
 
-      if (null != other && component.getDeliveryInformation().containsKey(other.getName() + CCLImportVersion.NAME))
+      if (null != other && component.containsDeliveryInformation(other.getName(), CCLImportVersion.NAME))
       {
-         toCompare = component.getDeliveryInformation(other.getName() +  CCLImportVersion.NAME).getInformation();
+         toCompare = component.getDeliveryInformation(other.getName(), CCLImportVersion.NAME).getInformation();
       }
 
       // if there is another delivery
       if (null != toCompare)
       {
          // are there any changes?
-         if (!mInformation.getChildText(XML_STRING).equals(toCompare.getChildText(XML_STRING)))
+         if (!getInformation().getChildText(XML_STRING).equals(toCompare.getChildText(XML_STRING)))
          {
             // highlight changes
             row.addContent(SCLXMLUtil.createElement(XML_ENTRY,
                   SCLXMLUtil.createElement(XML_EMPHASIS, new Attribute(XML_ATTRIBUTE_ROLE, "bold"),
-                        SCLXMLUtil.createElement(XML_PARA, mInformation.getChildText(XML_STRING)))));
+                        SCLXMLUtil.createElement(XML_PARA, getInformation().getChildText(XML_STRING)))));
          }
          else
          {
             // no changes, don't highlight this row
             row.addContent(SCLXMLUtil.createElement(XML_ENTRY,
-                  SCLXMLUtil.createElement(XML_PARA, mInformation.getChildText(XML_STRING))));
+                  SCLXMLUtil.createElement(XML_PARA, getInformation().getChildText(XML_STRING))));
          }
 
          // ... and add a new column for that delivery
@@ -112,12 +154,10 @@ public class CCLDeliveryVersion extends ACLDeliveryInformation
       {
          // there's only one delivery to show
          row.addContent(SCLXMLUtil.createElement(XML_ENTRY,
-               SCLXMLUtil.createElement(XML_PARA, mInformation.getChildText(XML_STRING))));
+               SCLXMLUtil.createElement(XML_PARA, getInformation().getChildText(XML_STRING))));
       }
 
-      element.getChild(XML_TABLE).getChild(XML_TGROUP).getChild(XML_TBODY).addContent(row);
-
-      return true;
+      return row;
    }
 
    /**
@@ -135,7 +175,7 @@ public class CCLDeliveryVersion extends ACLDeliveryInformation
       // information doesn't even exist. So check that first.
       if (null != other && !other.isInfoNullOrEmpty())
       {
-         String str = mInformation.getValue();
+         String str = getInformation().getValue();
          String otherStr = other.getInformation().getValue();
 
          // is that information the same?
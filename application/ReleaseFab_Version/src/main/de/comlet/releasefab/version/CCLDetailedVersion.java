@@ -107,7 +107,7 @@ public class CCLDetailedVersion extends ACLDetailedInformation
       lblComponentVersion.setText("Component version:");
 
       mTxtComponentVersion = new Text(composite, SWT.BORDER);
-      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName() + mImporterName);
+      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName(), mImporterName);
       String componentVersion = info.getInformation().getChildText(STRING_CHILD);
       componentVersion = (null != componentVersion) ? componentVersion : "";
       mTxtComponentVersion.setText(componentVersion);
@@ -135,7 +135,7 @@ public class CCLDetailedVersion extends ACLDetailedInformation
       // component version
       String componentVersion = mTxtComponentVersion.getText().trim();
 
-      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName() + mImporterName);
+      ACLDeliveryInformation info = mComponent.getDeliveryInformation(mDelivery.getName(), mImporterName);
       String oldComponentVersion = info.getInformation().getChildText(STRING_CHILD);
 
       // save only if there are changes, because we don't want to inform the
@@ -146,7 +146,7 @@ public class CCLDetailedVersion extends ACLDetailedInformation
 
          SCLProjectHelper.markDeliveryInformationIfNew(deliveries, mComponent, mDelivery, mImporterName, info);
 
-         mComponent.setDeliveryInformation(mDelivery.getName() + mImporterName, info);
+         mComponent.setDeliveryInformation(mDelivery.getName(), mImporterName, info);
       }
    }
 }